@@ -0,0 +1,432 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.io;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import jdk.internal.org.objectweb.asm.ClassWriter;
+import jdk.internal.org.objectweb.asm.MethodVisitor;
+import jdk.internal.org.objectweb.asm.Type;
+import sun.misc.Unsafe;
+
+import static jdk.internal.org.objectweb.asm.Opcodes.*;
+
+/**
+ * Generates the field accessors of a serializable class: a class with
+ * static methods that marshal the serializable fields of an instance to
+ * and from the primitive data buffer and object value array used by
+ * {@link ObjectOutputStream} and {@link ObjectInputStream}, with the field
+ * reads and writes compiled to {@code getfield} and {@code putfield}
+ * instructions.  The data layout is that of {@code FieldReflector}, so
+ * the stream format is unchanged.
+ *
+ * <p> The accessor class is defined as a VM anonymous class hosted by the
+ * serializable class, which gives it access to the private fields.  Final
+ * fields cannot be assigned outside their constructors, so the setters
+ * skip them, and they are left to the caller.
+ *
+ * @since 1.8
+ */
+final class FieldAccessorGenerator {
+
+    private static final Unsafe UNSAFE = Unsafe.getUnsafe();
+
+    /** Methods larger than this are not generated */
+    private static final int MAX_FIELDS = 256;
+
+    private static final String OBJ = "java/lang/Object";
+
+    private static final MethodType PRIM_TYPE =
+        MethodType.methodType(void.class, Object.class, byte[].class);
+    private static final MethodType OBJ_TYPE =
+        MethodType.methodType(void.class, Object.class, Object[].class);
+
+    private static final String PRIM_DESC = "(Ljava/lang/Object;[B)V";
+    private static final String OBJ_DESC =
+        "(Ljava/lang/Object;[Ljava/lang/Object;)V";
+
+    /** Indexes of the accessors in the array returned by generate() */
+    static final int GET_PRIM = 0, SET_PRIM = 1, GET_OBJ = 2, SET_OBJ = 3;
+
+    private final Class<?> cl;
+    private final String owner;
+    private final ObjectStreamField[] fields;
+    private final int numPrimFields;
+    private final boolean readable;
+    private final boolean[] writable;
+
+    private FieldAccessorGenerator(Class<?> cl, ObjectStreamField[] fields,
+                                   int numPrimFields, boolean[] writable)
+    {
+        this.cl = cl;
+        this.owner = Type.getInternalName(cl);
+        this.fields = fields;
+        this.numPrimFields = numPrimFields;
+        this.writable = writable;
+        boolean readable = true;
+        for (ObjectStreamField f : fields) {
+            readable &= (f.getField() != null);
+        }
+        this.readable = readable;
+    }
+
+    /**
+     * Returns the accessors of the given fields of class cl, indexed by
+     * GET_PRIM, SET_PRIM, GET_OBJ and SET_OBJ, or null if they cannot be
+     * generated.  The getters, of type (Object, byte[])void and
+     * (Object, Object[])void, are null unless every field is bound to a
+     * local field; the setters, of the same types, set only the fields
+     * for which writable is true.  A setter that finds an object value of
+     * the wrong type throws a ClassCastException, after setting the
+     * fields that precede it.
+     */
+    static MethodHandle[] generate(Class<?> cl, ObjectStreamField[] fields,
+                                   int numPrimFields, boolean[] writable)
+    {
+        if (fields.length == 0 || fields.length > MAX_FIELDS ||
+            cl.isArray() || cl.isPrimitive() || cl.isInterface())
+            return null;
+        try {
+            return new FieldAccessorGenerator(cl, fields, numPrimFields,
+                                              writable).generate();
+        } catch (ReflectiveOperationException | RuntimeException |
+                 LinkageError e) {
+            return null;
+        }
+    }
+
+    private MethodHandle[] generate() throws ReflectiveOperationException {
+        String className = owner + "$$FieldAccessor";
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS);
+        cw.visit(V1_8, ACC_PUBLIC + ACC_SUPER + ACC_FINAL + ACC_SYNTHETIC,
+                 className, null, OBJ, null);
+        if (readable) {
+            genGetPrim(cw.visitMethod(ACC_PUBLIC + ACC_STATIC, "getPrim",
+                                      PRIM_DESC, null, null));
+            genGetObj(cw.visitMethod(ACC_PUBLIC + ACC_STATIC, "getObj",
+                                     OBJ_DESC, null, null));
+        }
+        genSetPrim(cw.visitMethod(ACC_PUBLIC + ACC_STATIC, "setPrim",
+                                  PRIM_DESC, null, null));
+        genSetObj(cw.visitMethod(ACC_PUBLIC + ACC_STATIC, "setObj",
+                                 OBJ_DESC, null, null));
+        cw.visitEnd();
+
+        Class<?> accessor =
+            UNSAFE.defineAnonymousClass(cl, cw.toByteArray(), null);
+        UNSAFE.ensureClassInitialized(accessor);    // verify it now
+        MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+        MethodHandle[] mhs = new MethodHandle[4];
+        if (readable) {
+            mhs[GET_PRIM] = lookup.findStatic(accessor, "getPrim", PRIM_TYPE);
+            mhs[GET_OBJ] = lookup.findStatic(accessor, "getObj", OBJ_TYPE);
+        }
+        mhs[SET_PRIM] = lookup.findStatic(accessor, "setPrim", PRIM_TYPE);
+        mhs[SET_OBJ] = lookup.findStatic(accessor, "setObj", OBJ_TYPE);
+        return mhs;
+    }
+
+    /*
+     * Each method casts its first argument, the instance, to the class
+     * and keeps it in local 2.  Primitive values in transit are kept in
+     * locals 3 and 4.
+     */
+    private void begin(MethodVisitor mv) {
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitTypeInsn(CHECKCAST, owner);
+        mv.visitVarInsn(ASTORE, 2);
+    }
+
+    private static void end(MethodVisitor mv) {
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    private void getField(MethodVisitor mv, Field rf) {
+        mv.visitVarInsn(ALOAD, 2);
+        mv.visitFieldInsn(GETFIELD, owner, rf.getName(),
+                          Type.getDescriptor(rf.getType()));
+    }
+
+    private void putField(MethodVisitor mv, Field rf) {
+        mv.visitFieldInsn(PUTFIELD, owner, rf.getName(),
+                          Type.getDescriptor(rf.getType()));
+    }
+
+    /*
+     * Writes the primitive fields to the buffer in big-endian order, as
+     * Bits.putXXX would.
+     */
+    private void genGetPrim(MethodVisitor mv) {
+        begin(mv);
+        for (int i = 0; i < numPrimFields; i++) {
+            ObjectStreamField f = fields[i];
+            int off = f.getOffset();
+            getField(mv, f.getField());
+            switch (f.getTypeCode()) {
+                case 'Z':
+                case 'B':
+                    mv.visitVarInsn(ISTORE, 3);
+                    storeInt(mv, off, 1);
+                    break;
+
+                case 'C':
+                case 'S':
+                    mv.visitVarInsn(ISTORE, 3);
+                    storeInt(mv, off, 2);
+                    break;
+
+                case 'I':
+                    mv.visitVarInsn(ISTORE, 3);
+                    storeInt(mv, off, 4);
+                    break;
+
+                case 'F':
+                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Float",
+                                       "floatToIntBits", "(F)I", false);
+                    mv.visitVarInsn(ISTORE, 3);
+                    storeInt(mv, off, 4);
+                    break;
+
+                case 'J':
+                    mv.visitVarInsn(LSTORE, 3);
+                    storeLong(mv, off);
+                    break;
+
+                case 'D':
+                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Double",
+                                       "doubleToLongBits", "(D)J", false);
+                    mv.visitVarInsn(LSTORE, 3);
+                    storeLong(mv, off);
+                    break;
+
+                default:
+                    throw new InternalError();
+            }
+        }
+        end(mv);
+    }
+
+    /*
+     * Stores the low n bytes of the int in local 3 at buf[off].
+     */
+    private static void storeInt(MethodVisitor mv, int off, int n) {
+        for (int k = 0; k < n; k++) {
+            mv.visitVarInsn(ALOAD, 1);
+            pushInt(mv, off + k);
+            mv.visitVarInsn(ILOAD, 3);
+            int shift = (n - 1 - k) * 8;
+            if (shift > 0) {
+                pushInt(mv, shift);
+                mv.visitInsn(IUSHR);
+            }
+            mv.visitInsn(BASTORE);
+        }
+    }
+
+    /*
+     * Stores the long in local 3 at buf[off].
+     */
+    private static void storeLong(MethodVisitor mv, int off) {
+        for (int k = 0; k < 8; k++) {
+            mv.visitVarInsn(ALOAD, 1);
+            pushInt(mv, off + k);
+            mv.visitVarInsn(LLOAD, 3);
+            int shift = (7 - k) * 8;
+            if (shift > 0) {
+                pushInt(mv, shift);
+                mv.visitInsn(LUSHR);
+            }
+            mv.visitInsn(L2I);
+            mv.visitInsn(BASTORE);
+        }
+    }
+
+    /*
+     * Reads the writable primitive fields from the buffer, as
+     * Bits.getXXX would.
+     */
+    private void genSetPrim(MethodVisitor mv) {
+        begin(mv);
+        for (int i = 0; i < numPrimFields; i++) {
+            if (!writable[i])
+                continue;
+            ObjectStreamField f = fields[i];
+            int off = f.getOffset();
+            mv.visitVarInsn(ALOAD, 2);
+            switch (f.getTypeCode()) {
+                case 'Z':
+                    // b != 0, without a branch: (b | -b) >>> 31
+                    loadByte(mv, off);
+                    mv.visitInsn(DUP);
+                    mv.visitInsn(INEG);
+                    mv.visitInsn(IOR);
+                    pushInt(mv, 31);
+                    mv.visitInsn(IUSHR);
+                    break;
+
+                case 'B':
+                    loadByte(mv, off);
+                    break;
+
+                case 'C':
+                    loadInt(mv, off, 2);
+                    mv.visitInsn(I2C);
+                    break;
+
+                case 'S':
+                    loadInt(mv, off, 2);
+                    mv.visitInsn(I2S);
+                    break;
+
+                case 'I':
+                    loadInt(mv, off, 4);
+                    break;
+
+                case 'F':
+                    loadInt(mv, off, 4);
+                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Float",
+                                       "intBitsToFloat", "(I)F", false);
+                    break;
+
+                case 'J':
+                    loadLong(mv, off);
+                    break;
+
+                case 'D':
+                    loadLong(mv, off);
+                    mv.visitMethodInsn(INVOKESTATIC, "java/lang/Double",
+                                       "longBitsToDouble", "(J)D", false);
+                    break;
+
+                default:
+                    throw new InternalError();
+            }
+            putField(mv, f.getField());
+        }
+        end(mv);
+    }
+
+    private static void loadByte(MethodVisitor mv, int off) {
+        mv.visitVarInsn(ALOAD, 1);
+        pushInt(mv, off);
+        mv.visitInsn(BALOAD);
+    }
+
+    /*
+     * Pushes the big-endian value of the n bytes at buf[off], of which
+     * only the first is sign-extended.
+     */
+    private static void loadInt(MethodVisitor mv, int off, int n) {
+        for (int k = 0; k < n; k++) {
+            loadByte(mv, off + k);
+            if (k > 0) {
+                pushInt(mv, 0xFF);
+                mv.visitInsn(IAND);
+            }
+            int shift = (n - 1 - k) * 8;
+            if (shift > 0) {
+                pushInt(mv, shift);
+                mv.visitInsn(ISHL);
+            }
+            if (k > 0)
+                mv.visitInsn(IOR);
+        }
+    }
+
+    private static void loadLong(MethodVisitor mv, int off) {
+        for (int k = 0; k < 8; k++) {
+            loadByte(mv, off + k);
+            mv.visitInsn(I2L);
+            if (k > 0) {
+                mv.visitLdcInsn(0xFFL);
+                mv.visitInsn(LAND);
+            }
+            int shift = (7 - k) * 8;
+            if (shift > 0) {
+                pushInt(mv, shift);
+                mv.visitInsn(LSHL);
+            }
+            if (k > 0)
+                mv.visitInsn(LOR);
+        }
+    }
+
+    private void genGetObj(MethodVisitor mv) {
+        begin(mv);
+        for (int i = numPrimFields; i < fields.length; i++) {
+            ObjectStreamField f = fields[i];
+            mv.visitVarInsn(ALOAD, 1);
+            pushInt(mv, f.getOffset());
+            getField(mv, f.getField());
+            mv.visitInsn(AASTORE);
+        }
+        end(mv);
+    }
+
+    private void genSetObj(MethodVisitor mv) {
+        begin(mv);
+        for (int i = numPrimFields; i < fields.length; i++) {
+            if (!writable[i])
+                continue;
+            ObjectStreamField f = fields[i];
+            Field rf = f.getField();
+            mv.visitVarInsn(ALOAD, 2);
+            mv.visitVarInsn(ALOAD, 1);
+            pushInt(mv, f.getOffset());
+            mv.visitInsn(AALOAD);
+            if (rf.getType() != Object.class)
+                mv.visitTypeInsn(CHECKCAST, Type.getInternalName(rf.getType()));
+            putField(mv, rf);
+        }
+        end(mv);
+    }
+
+    private static void pushInt(MethodVisitor mv, int v) {
+        if (v >= -1 && v <= 5) {
+            mv.visitInsn(ICONST_0 + v);
+        } else if (v >= Byte.MIN_VALUE && v <= Byte.MAX_VALUE) {
+            mv.visitIntInsn(BIPUSH, v);
+        } else if (v >= Short.MIN_VALUE && v <= Short.MAX_VALUE) {
+            mv.visitIntInsn(SIPUSH, v);
+        } else {
+            mv.visitLdcInsn(v);
+        }
+    }
+
+    /**
+     * Returns true if the value of the given field can be set by a
+     * generated setter.
+     */
+    static boolean isWritable(Field rf) {
+        return rf != null && !Modifier.isFinal(rf.getModifiers());
+    }
+}
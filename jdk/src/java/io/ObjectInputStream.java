@@ -36,6 +36,7 @@ import java.security.PrivilegedAction;
 import java.security.PrivilegedActionException;
 import java.security.PrivilegedExceptionAction;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.HashMap;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
@@ -955,6 +956,82 @@ public class ObjectInputStream
         bin.close();
     }
 
+    /**
+     * Rebinds this stream to the given input stream, to read a new
+     * serialization stream from it, as a new ObjectInputStream on the same
+     * stream would.  Any data left unread in the current input stream is
+     * discarded, and the stream is not closed.  The internal tables and
+     * buffers of this stream are kept, so that one stream can read many
+     * short serialization streams, such as messages, without allocating
+     * them again.  The object input filter and any enabled object
+     * resolution are kept.
+     *
+     * <p>Like the constructor, this method reads the serialization stream
+     * header from the new input stream, and may block until it is
+     * available.
+     *
+     * @param   in input stream to read from
+     * @throws  StreamCorruptedException if the stream header is incorrect
+     * @throws  IOException if invoked while deserializing an object, or if
+     *          an I/O error occurs while reading the stream header
+     * @throws  IllegalStateException if this stream was created by the
+     *          no-argument constructor
+     * @throws  NullPointerException if <code>in</code> is <code>null</code>
+     * @see     ObjectOutputStream#rebind(OutputStream)
+     * @since   1.8
+     */
+    public void rebind(InputStream in) throws IOException {
+        rebind(in, false);
+    }
+
+    /**
+     * Rebinds this stream to the given input stream, as
+     * {@link #rebind(InputStream)} does, optionally keeping the class
+     * descriptors already read.
+     *
+     * <p>If <code>keepClassDescriptors</code> is true, class descriptors
+     * read from the previous streams keep their handles, and may be
+     * referred to by the new stream.  This must match the rebinding of the
+     * ObjectOutputStream that wrote the streams, with
+     * {@link ObjectOutputStream#rebind(OutputStream, boolean)}.  Class
+     * descriptors read with {@link #readUnshared()} cannot be referred to.
+     *
+     * @param   in input stream to read from
+     * @param   keepClassDescriptors if true, class descriptors already read
+     *          may be referred to by the new stream
+     * @throws  StreamCorruptedException if the stream header is incorrect
+     * @throws  IOException if invoked while deserializing an object, or if
+     *          an I/O error occurs while reading the stream header
+     * @throws  IllegalStateException if this stream was created by the
+     *          no-argument constructor
+     * @throws  NullPointerException if <code>in</code> is <code>null</code>
+     * @since   1.8
+     */
+    public void rebind(InputStream in, boolean keepClassDescriptors)
+        throws IOException
+    {
+        if (enableOverride) {
+            throw new IllegalStateException("stream not rebindable");
+        }
+        Objects.requireNonNull(in);
+        if (depth != 0 || curContext != null) {
+            throw new IOException("stream active");
+        }
+        bin.setInputStream(in);
+        if (keepClassDescriptors) {
+            handles.retainDescriptors();
+            vlist.clear();
+        } else {
+            clear();
+        }
+        passHandle = NULL_HANDLE;
+        defaultDataEnd = false;
+        totalObjectRefs = 0;
+        closed = false;
+        readStreamHeader();
+        bin.setBlockDataMode(true);
+    }
+
     /**
      * Reads in a boolean.
      *
@@ -1781,6 +1858,10 @@ public class ObjectInputStream
 
         ObjectStreamClass desc = new ObjectStreamClass();
         int descHandle = handles.assign(unshared ? unsharedMarker : desc);
+        if (!unshared) {
+            // As the writer, only retain shared descriptors on rebind
+            handles.markDescriptor(descHandle);
+        }
         passHandle = NULL_HANDLE;
 
         int numIfaces = bin.readInt();
@@ -1850,6 +1931,10 @@ public class ObjectInputStream
 
         ObjectStreamClass desc = new ObjectStreamClass();
         int descHandle = handles.assign(unshared ? unsharedMarker : desc);
+        if (!unshared) {
+            // As the writer, only retain shared descriptors on rebind
+            handles.markDescriptor(descHandle);
+        }
         passHandle = NULL_HANDLE;
 
         ObjectStreamClass readDesc = null;
@@ -2617,7 +2702,7 @@ public class ObjectInputStream
     private static class PeekInputStream extends InputStream {
 
         /** underlying stream */
-        private final InputStream in;
+        private InputStream in;
         /** peeked byte */
         private int peekb = -1;
         /** total bytes read from the stream */
@@ -2630,6 +2715,15 @@ public class ObjectInputStream
             this.in = in;
         }
 
+        /**
+         * Sets the underlying stream, discarding any peeked byte.
+         */
+        void setInputStream(InputStream in) {
+            this.in = in;
+            peekb = -1;
+            totalBytesRead = 0;
+        }
+
         /**
          * Peeks at next byte value in stream.  Similar to read(), except
          * that it does not consume the read value.
@@ -2764,6 +2858,18 @@ public class ObjectInputStream
             din = new DataInputStream(this);
         }
 
+        /**
+         * Sets the underlying stream, discarding any buffered block data.
+         * Block data mode is turned off.
+         */
+        void setInputStream(InputStream in) {
+            this.in.setInputStream(in);
+            blkmode = false;
+            pos = 0;
+            end = -1;
+            unread = 0;
+        }
+
         /**
          * Sets block data mode to the given mode (true == on, false == off)
          * and returns the previous mode value.  If the new mode is the same as
@@ -3621,6 +3727,8 @@ public class ObjectInputStream
         int lowDep = -1;
         /** number of handles in table */
         int size = 0;
+        /** handles of class descriptors, or null if none */
+        BitSet descs;
 
         /**
          * Creates handle table with the given initial capacity.
@@ -3807,6 +3915,16 @@ public class ObjectInputStream
                 (ClassNotFoundException) entries[handle] : null;
         }
 
+        /**
+         * Records that the given handle is that of a class descriptor.
+         */
+        void markDescriptor(int handle) {
+            if (descs == null) {
+                descs = new BitSet();
+            }
+            descs.set(handle);
+        }
+
         /**
          * Resets table to its initial state.
          */
@@ -3814,10 +3932,37 @@ public class ObjectInputStream
             Arrays.fill(status, 0, size, (byte) 0);
             Arrays.fill(entries, 0, size, null);
             Arrays.fill(deps, 0, size, null);
+            if (descs != null) {
+                descs.clear();
+            }
             lowDep = -1;
             size = 0;
         }
 
+        /**
+         * Removes all handles but those of class descriptors, and renumbers
+         * the remaining handles in ascending order starting at 0, keeping
+         * their relative order and status.  All handles must be finished.
+         */
+        void retainDescriptors() {
+            int n = 0;
+            if (descs != null) {
+                for (int i = descs.nextSetBit(0); i >= 0 && i < size;
+                     i = descs.nextSetBit(i + 1)) {
+                    status[n] = status[i];
+                    entries[n] = entries[i];
+                    n++;
+                }
+                descs.clear();
+                descs.set(0, n);
+            }
+            Arrays.fill(status, n, size, (byte) 0);
+            Arrays.fill(entries, n, size, null);
+            Arrays.fill(deps, 0, size, null);
+            lowDep = -1;
+            size = n;
+        }
+
         /**
          * Returns number of handles registered in table.
          */
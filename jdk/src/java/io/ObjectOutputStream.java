@@ -503,6 +503,88 @@ public class ObjectOutputStream
         bout.setBlockDataMode(true);
     }
 
+    /**
+     * Rebinds this stream to the given output stream, to write a new
+     * serialization stream to it, as a new ObjectOutputStream on the same
+     * stream would.  This stream is first flushed to its current output
+     * stream, which is not closed.  The internal tables and buffers of this
+     * stream are kept, so that one stream can write many short
+     * serialization streams, such as messages, without allocating them
+     * again.  The protocol version and any enabled object replacement are
+     * kept; objects written to the previous stream will be written again.
+     *
+     * <p>Like the constructor, this method writes the serialization stream
+     * header to the new output stream.
+     *
+     * @param   out output stream to write to
+     * @throws  IOException if invoked while serializing an object, or if an
+     *          I/O error occurs while flushing this stream or writing the
+     *          stream header
+     * @throws  IllegalStateException if this stream was created by the
+     *          no-argument constructor
+     * @throws  NullPointerException if <code>out</code> is <code>null</code>
+     * @see     ObjectInputStream#rebind(InputStream)
+     * @since   1.8
+     */
+    public void rebind(OutputStream out) throws IOException {
+        rebind(out, false);
+    }
+
+    /**
+     * Rebinds this stream to the given output stream, as
+     * {@link #rebind(OutputStream)} does, optionally keeping the class
+     * descriptors already written.
+     *
+     * <p>If <code>keepClassDescriptors</code> is true, class descriptors
+     * written to the previous stream are not written again, but referred
+     * to by their handles in that stream.  The new stream can then be read
+     * only by an ObjectInputStream that read the previous streams, rebound
+     * with {@link ObjectInputStream#rebind(InputStream, boolean)} with
+     * <code>keepClassDescriptors</code> true at the same points, so that
+     * the handles of the two agree.  Both peers must opt in to this.  The
+     * descriptors are forgotten by {@link #reset()} and by rebinding
+     * without keeping them.
+     *
+     * @param   out output stream to write to
+     * @param   keepClassDescriptors if true, class descriptors already
+     *          written are referred to, rather than written again
+     * @throws  IOException if invoked while serializing an object, or if an
+     *          I/O error occurs while flushing this stream or writing the
+     *          stream header
+     * @throws  IllegalStateException if this stream was created by the
+     *          no-argument constructor
+     * @throws  NullPointerException if <code>out</code> is <code>null</code>
+     * @since   1.8
+     */
+    public void rebind(OutputStream out, boolean keepClassDescriptors)
+        throws IOException
+    {
+        if (enableOverride) {
+            throw new IllegalStateException("stream not rebindable");
+        }
+        if (out == null) {
+            throw new NullPointerException();
+        }
+        if (depth != 0) {
+            throw new IOException("stream active");
+        }
+        bout.flush();
+        bout.setBlockDataMode(false);
+        bout.setOutputStream(out);
+        subs.clear();
+        if (keepClassDescriptors) {
+            // descriptors are the only ObjectStreamClass handles
+            handles.retain(ObjectStreamClass.class);
+        } else {
+            handles.clear();
+        }
+        if (debugInfoStack != null) {
+            debugInfoStack.clear();
+        }
+        writeStreamHeader();
+        bout.setBlockDataMode(true);
+    }
+
     /**
      * Subclasses may implement this method to allow class data to be stored in
      * the stream. By default this method does nothing.  The corresponding
@@ -1759,7 +1841,7 @@ public class ObjectOutputStream
         private int pos = 0;
 
         /** underlying output stream */
-        private final OutputStream out;
+        private OutputStream out;
         /** loopback stream (for data writes that span data blocks) */
         private final DataOutputStream dout;
 
@@ -1772,6 +1854,14 @@ public class ObjectOutputStream
             dout = new DataOutputStream(this);
         }
 
+        /**
+         * Sets the underlying stream.  Any buffered data must have been
+         * drained to the previous stream.
+         */
+        void setOutputStream(OutputStream out) {
+            this.out = out;
+        }
+
         /**
          * Sets block data mode to the given mode (true == on, false == off)
          * and returns the previous mode value.  If the new mode is the same as
@@ -2308,6 +2398,26 @@ public class ObjectOutputStream
             size = 0;
         }
 
+        /**
+         * Removes the mappings of objects that are not instances of the
+         * given type, and renumbers the remaining handles in ascending
+         * order starting at 0, keeping their relative order.
+         */
+        void retain(Class<?> type) {
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (type.isInstance(objs[i])) {
+                    objs[n++] = objs[i];
+                }
+            }
+            Arrays.fill(objs, n, size, null);
+            Arrays.fill(spine, -1);
+            size = n;
+            for (int i = 0; i < n; i++) {
+                insert(objs[i], i);
+            }
+        }
+
         /**
          * Returns the number of mappings currently in table.
          */
@@ -25,6 +25,7 @@
 
 package java.io;
 
+import java.lang.invoke.MethodHandle;
 import java.lang.ref.Reference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
@@ -98,6 +99,18 @@ public class ObjectStreamClass implements Serializable {
             }
         ).booleanValue();
 
+    /** true if field accessors are generated rather than reflective */
+    private static final boolean generateFieldAccessors =
+        AccessController.doPrivileged(
+            new PrivilegedAction<Boolean>() {
+                public Boolean run() {
+                    String prop = "jdk.serialization.generateFieldAccessors";
+                    return "true".equals(System.getProperty(prop))
+                            ? Boolean.TRUE : Boolean.FALSE;
+                }
+            }
+        ).booleanValue();
+
     /** reflection factory for obtaining serialization constructors */
     private static final ReflectionFactory reflFactory =
         AccessController.doPrivileged(
@@ -2071,6 +2084,10 @@ public class ObjectStreamClass implements Serializable {
         private final char[] typeCodes;
         /** field types */
         private final Class<?>[] types;
+        /** generated accessors, indexed as by FieldAccessorGenerator */
+        private final MethodHandle[] accessors;
+        /** unsafe field keys for writing fields not set by the accessors */
+        private final long[] restKeys;
 
         /**
          * Constructs FieldReflector capable of setting/getting values from the
@@ -2107,6 +2124,57 @@ public class ObjectStreamClass implements Serializable {
 
             types = typeList.toArray(new Class<?>[typeList.size()]);
             numPrimFields = nfields - types.length;
+
+            MethodHandle[] mhs = null;
+            long[] rest = writeKeys;
+            if (generateFieldAccessors && nfields > 0) {
+                boolean[] writable = new boolean[nfields];
+                for (int i = 0; i < nfields; i++) {
+                    writable[i] =
+                        writeKeys[i] != Unsafe.INVALID_FIELD_OFFSET &&
+                        FieldAccessorGenerator.isWritable(fields[i].getField());
+                }
+                Field rf = null;
+                for (int i = 0; i < nfields && rf == null; i++) {
+                    rf = fields[i].getField();
+                }
+                mhs = (rf == null) ? null : FieldAccessorGenerator.generate(
+                    rf.getDeclaringClass(), fields, numPrimFields, writable);
+                if (mhs != null) {
+                    rest = writeKeys.clone();
+                    for (int i = 0; i < nfields; i++) {
+                        if (writable[i]) {
+                            rest[i] = Unsafe.INVALID_FIELD_OFFSET;
+                        }
+                    }
+                }
+            }
+            accessors = mhs;
+            restKeys = rest;
+        }
+
+        /**
+         * Invokes the generated accessor of type (Object, byte[])void or
+         * (Object, Object[])void at the given index, if any.  Returns false
+         * if there is none.
+         */
+        private boolean invoke(int index, Object obj, Object arg) {
+            MethodHandle mh = (accessors != null) ? accessors[index] : null;
+            if (mh == null) {
+                return false;
+            }
+            try {
+                if (arg instanceof byte[]) {
+                    mh.invokeExact(obj, (byte[]) arg);
+                } else {
+                    mh.invokeExact(obj, (Object[]) arg);
+                }
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new InternalError(t);
+            }
+            return true;
         }
 
         /**
@@ -2132,6 +2200,9 @@ public class ObjectStreamClass implements Serializable {
              * descriptor this FieldReflector was obtained from, no field keys
              * in array should be equal to Unsafe.INVALID_FIELD_OFFSET.
              */
+            if (invoke(FieldAccessorGenerator.GET_PRIM, obj, buf)) {
+                return;
+            }
             for (int i = 0; i < numPrimFields; i++) {
                 long key = readKeys[i];
                 int off = offsets[i];
@@ -2183,6 +2254,10 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            long[] writeKeys = this.writeKeys;
+            if (invoke(FieldAccessorGenerator.SET_PRIM, obj, buf)) {
+                writeKeys = restKeys;
+            }
             for (int i = 0; i < numPrimFields; i++) {
                 long key = writeKeys[i];
                 if (key == Unsafe.INVALID_FIELD_OFFSET) {
@@ -2241,6 +2316,9 @@ public class ObjectStreamClass implements Serializable {
              * descriptor this FieldReflector was obtained from, no field keys
              * in array should be equal to Unsafe.INVALID_FIELD_OFFSET.
              */
+            if (invoke(FieldAccessorGenerator.GET_OBJ, obj, vals)) {
+                return;
+            }
             for (int i = numPrimFields; i < fields.length; i++) {
                 switch (typeCodes[i]) {
                     case 'L':
@@ -2265,6 +2343,14 @@ public class ObjectStreamClass implements Serializable {
             if (obj == null) {
                 throw new NullPointerException();
             }
+            long[] writeKeys = this.writeKeys;
+            try {
+                if (invoke(FieldAccessorGenerator.SET_OBJ, obj, vals)) {
+                    writeKeys = restKeys;
+                }
+            } catch (ClassCastException e) {
+                // set the fields again below, for the detailed exception
+            }
             for (int i = numPrimFields; i < fields.length; i++) {
                 long key = writeKeys[i];
                 if (key == Unsafe.INVALID_FIELD_OFFSET) {
@@ -0,0 +1,556 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.net;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.jar.Manifest;
+import sun.net.www.ParseUtil;
+import sun.security.action.GetPropertyAction;
+
+/**
+ * A persistent cache of class bytes and resource lookups for
+ * {@link URLClassLoader}, enabled by naming the archive file in the
+ * {@code jdk.net.URLClassLoader.cacheFile} system property.
+ *
+ * <p> The archive holds, for each search path of local JAR files seen
+ * by a loader, the size and modification time of each JAR file, its raw
+ * manifest, and the results of the lookups made through the path: the
+ * bytes of each class defined from it, and the JAR file in which each
+ * class or resource was found, or that it was not found at all.  The
+ * archive is mapped when first needed, and class bytes are defined
+ * straight from the mapping.  A path is used only if none of its JAR
+ * files has changed size or modification time; lookups not recorded are
+ * made as usual and recorded, and the archive is rewritten when the VM
+ * shuts down.
+ *
+ * <p> Only search paths made up entirely of local JAR files are cached,
+ * and only if no JAR file is signed, has a {@code Class-Path} attribute
+ * or has a JAR index, since each of these makes the lookup depend on more
+ * than the files in the path.  The cache is not used when a security
+ * manager is installed.  The archive is trusted as much as the JAR files
+ * themselves, and must be protected like them.
+ *
+ * @since 1.8
+ */
+final class ClassCache {
+
+    private static final int MAGIC = 0x4a434c43;      // "JCLC"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+
+    // Class bytes beyond this many are not written to the archive
+    private static final long MAX_DATA = 1L << 30;
+
+    private static final String CACHE_FILE = AccessController.doPrivileged(
+        new GetPropertyAction("jdk.net.URLClassLoader.cacheFile"));
+
+    private static ClassCache instance;
+
+    private final File file;
+
+    // Search paths, keyed by their file names each followed by a newline
+    private final Map<String, Path> paths = new HashMap<>();
+
+    private ClassCache(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Returns the cached search path for the given URLs, or null if the
+     * cache is not enabled or the URLs cannot be cached.
+     */
+    static Path forURLs(URL[] urls) {
+        if (CACHE_FILE == null || urls.length == 0 ||
+            System.getSecurityManager() != null)
+            return null;
+        return AccessController.doPrivileged(new PrivilegedAction<Path>() {
+            public Path run() {
+                return getInstance().getPath(urls);
+            }
+        });
+    }
+
+    private static synchronized ClassCache getInstance() {
+        if (instance == null) {
+            final ClassCache cc = new ClassCache(new File(CACHE_FILE));
+            cc.load();
+            try {
+                Runtime.getRuntime().addShutdownHook(new Thread() {
+                    public void run() {
+                        cc.write();
+                    }
+                });
+            } catch (IllegalStateException e) {
+                // The VM is shutting down; the lookups are not persisted
+            }
+            instance = cc;
+        }
+        return instance;
+    }
+
+    private synchronized Path getPath(URL[] urls) {
+        File[] files = new File[urls.length];
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < urls.length; i++) {
+            URL url = urls[i];
+            if (url == null || !"file".equals(url.getProtocol()) ||
+                url.getRef() != null || url.getFile().endsWith("/"))
+                return null;
+            String name = ParseUtil.decode(url.getFile());
+            files[i] = new File(name.replace('/', File.separatorChar));
+            sb.append(files[i].getPath()).append('\n');
+        }
+        String key = sb.toString();
+        Path p = paths.get(key);
+        if (p == null || !p.isCurrent()) {
+            p = new Path(files);
+            if (!p.isCurrent())
+                return null;
+            paths.put(key, p);
+        }
+        p.bind(urls);
+        return p;
+    }
+
+    /*
+     * Reads the search paths from the archive, if any.  An archive that
+     * cannot be read is ignored, and replaced when the cache is written.
+     */
+    private void load() {
+        if (!file.isFile())
+            return;
+        try (FileChannel ch = FileChannel.open(file.toPath(),
+                                               StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (size < HEADER_SIZE || size > Integer.MAX_VALUE)
+                return;
+            // The mapping remains valid after the channel is closed
+            ByteBuffer map = ch.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (map.getInt(0) != MAGIC || map.getInt(4) != VERSION)
+                return;
+            int indexSize = map.getInt(8);
+            byte[] index = new byte[indexSize];
+            map.position(HEADER_SIZE);
+            map.get(index);
+            long dataStart = HEADER_SIZE + (long)indexSize;
+
+            DataInputStream in =
+                new DataInputStream(new ByteArrayInputStream(index));
+            for (int n = in.readInt(); n > 0; n--) {
+                int jars = in.readInt();
+                Path p = new Path(new File[jars]);
+                StringBuilder sb = new StringBuilder();
+                for (int i = 0; i < jars; i++) {
+                    p.files[i] = new File(in.readUTF());
+                    p.sizes[i] = in.readLong();
+                    p.mtimes[i] = in.readLong();
+                    int len = in.readInt();
+                    if (len >= 0) {
+                        p.manifests[i] = new byte[len];
+                        in.readFully(p.manifests[i]);
+                    }
+                    sb.append(p.files[i].getPath()).append('\n');
+                }
+                for (int m = in.readInt(); m > 0; m--) {
+                    String name = in.readUTF();
+                    int jar = in.readInt();
+                    int len = in.readInt();
+                    ByteBuffer data = null;
+                    if (len >= 0) {
+                        long off = dataStart + in.readLong();
+                        if (jar < 0 || jar >= jars || off + len > size)
+                            throw new IOException("Corrupt class cache");
+                        data = map.duplicate();
+                        data.position((int)off);
+                        data.limit((int)off + len);
+                        data = data.slice();
+                    } else if (jar >= jars) {
+                        throw new IOException("Corrupt class cache");
+                    }
+                    p.entries.put(name, new Entry(jar, data));
+                }
+                p.loaded = true;
+                paths.put(sb.toString(), p);
+            }
+        } catch (IOException | RuntimeException e) {
+            paths.clear();
+        }
+    }
+
+    /*
+     * Writes the search paths to a new archive, which then replaces the
+     * old one.  Paths whose JAR files changed while in use, or that cannot
+     * be cached, are left out.
+     */
+    private synchronized void write() {
+        boolean dirty = false;
+        for (Path p : paths.values())
+            dirty |= p.dirty;
+        if (!dirty)
+            return;
+
+        List<Path> out = new ArrayList<>();
+        List<List<Map.Entry<String, Entry>>> outEntries = new ArrayList<>();
+        List<ByteBuffer> data = new ArrayList<>();
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        DataOutputStream index = new DataOutputStream(bout);
+        File tmp = null;
+        try {
+            for (Path p : paths.values()) {
+                if (p.prepare()) {
+                    out.add(p);
+                    outEntries.add(new ArrayList<>(p.entries.entrySet()));
+                }
+            }
+            long off = 0;
+            index.writeInt(out.size());
+            for (int k = 0; k < out.size(); k++) {
+                Path p = out.get(k);
+                List<Map.Entry<String, Entry>> entries = outEntries.get(k);
+                index.writeInt(p.files.length);
+                for (int i = 0; i < p.files.length; i++) {
+                    index.writeUTF(p.files[i].getPath());
+                    index.writeLong(p.sizes[i]);
+                    index.writeLong(p.mtimes[i]);
+                    byte[] man = p.manifests[i];
+                    if (man != null) {
+                        index.writeInt(man.length);
+                        index.write(man);
+                    } else {
+                        index.writeInt(-1);
+                    }
+                }
+                List<Map.Entry<String, Entry>> kept = new ArrayList<>();
+                long start = off;
+                for (Map.Entry<String, Entry> me : entries) {
+                    ByteBuffer bb = me.getValue().data;
+                    if (bb == null) {
+                        kept.add(me);
+                    } else if (off + bb.remaining() <= MAX_DATA) {
+                        kept.add(me);
+                        off += bb.remaining();
+                    }
+                }
+                off = start;
+                index.writeInt(kept.size());
+                for (Map.Entry<String, Entry> me : kept) {
+                    Entry e = me.getValue();
+                    index.writeUTF(me.getKey());
+                    index.writeInt(e.jar);
+                    if (e.data == null) {
+                        index.writeInt(-1);
+                    } else {
+                        index.writeInt(e.data.remaining());
+                        index.writeLong(off);
+                        off += e.data.remaining();
+                        data.add(e.data.duplicate());
+                    }
+                }
+            }
+            index.flush();
+
+            File dir = file.getAbsoluteFile().getParentFile();
+            tmp = File.createTempFile(file.getName(), ".tmp", dir);
+            try (FileChannel ch = FileChannel.open(tmp.toPath(),
+                                                   StandardOpenOption.WRITE)) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putInt(bout.size());
+                header.flip();
+                writeFully(ch, header);
+                writeFully(ch, ByteBuffer.wrap(bout.toByteArray()));
+                for (ByteBuffer bb : data)
+                    writeFully(ch, bb);
+            }
+            try {
+                Files.move(tmp.toPath(), file.toPath(),
+                           StandardCopyOption.REPLACE_EXISTING,
+                           StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException x) {
+                Files.move(tmp.toPath(), file.toPath(),
+                           StandardCopyOption.REPLACE_EXISTING);
+            }
+            tmp = null;
+        } catch (IOException | RuntimeException e) {
+            // the cache is only an optimization
+        } finally {
+            if (tmp != null)
+                tmp.delete();
+        }
+    }
+
+    private static void writeFully(FileChannel ch, ByteBuffer bb)
+        throws IOException
+    {
+        while (bb.hasRemaining())
+            ch.write(bb);
+    }
+
+    /**
+     * The result of a lookup: the index of the JAR file in which the class
+     * or resource was found, or -1 if it was not found, and for a class
+     * defined from the path, its bytes.
+     */
+    static final class Entry {
+        final int jar;
+        final ByteBuffer data;
+
+        Entry(int jar, ByteBuffer data) {
+            this.jar = jar;
+            this.data = data;
+        }
+    }
+
+    private static final Entry NOT_FOUND = new Entry(-1, null);
+
+    /**
+     * The cached lookups for a search path of JAR files.  For a path read
+     * from the archive, {@link #get} returns the lookups read and those
+     * recorded since by this VM; for any other path it returns none, and
+     * the lookups recorded are only written.
+     */
+    static final class Path {
+        final File[] files;
+        final long[] sizes;
+        final long[] mtimes;
+        final byte[][] manifests;
+        private final Manifest[] parsed;
+        final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+        private URL[] urls;
+        private String[] urlStrings;
+        private boolean current;        // JAR files checked and unchanged
+        volatile boolean loaded;        // read from the archive
+        volatile boolean dirty;         // lookups recorded
+
+        Path(File[] files) {
+            int n = files.length;
+            this.files = files;
+            this.sizes = new long[n];
+            this.mtimes = new long[n];
+            this.manifests = new byte[n][];
+            this.parsed = new Manifest[n];
+        }
+
+        /*
+         * Checks, once, that the JAR files are as recorded.  The sizes and
+         * times of a path not read from the archive are recorded now.
+         */
+        synchronized boolean isCurrent() {
+            if (current)
+                return true;
+            for (int i = 0; i < files.length; i++) {
+                File f = files[i];
+                if (!f.isFile())
+                    return false;
+                if (loaded) {
+                    if (f.length() != sizes[i] ||
+                        f.lastModified() != mtimes[i])
+                        return false;
+                } else {
+                    sizes[i] = f.length();
+                    mtimes[i] = f.lastModified();
+                }
+            }
+            return current = true;
+        }
+
+        synchronized void bind(URL[] urls) {
+            if (this.urls == null) {
+                String[] s = new String[urls.length];
+                for (int i = 0; i < urls.length; i++)
+                    s[i] = urls[i].toExternalForm();
+                this.urlStrings = s;
+                this.urls = urls.clone();
+            }
+        }
+
+        /**
+         * Returns the recorded lookup of the given class file or resource
+         * name, or null if none.
+         */
+        Entry get(String name) {
+            return loaded ? entries.get(name) : null;
+        }
+
+        /**
+         * Returns the code source URL of the JAR file of the entry.
+         */
+        synchronized URL getURL(Entry e) {
+            return urls[e.jar];
+        }
+
+        /**
+         * Returns the manifest of the JAR file of the entry, or null if it
+         * has none.
+         */
+        Manifest getManifest(Entry e) throws IOException {
+            byte[] b = manifests[e.jar];
+            if (b == null)
+                return null;
+            synchronized (parsed) {
+                Manifest man = parsed[e.jar];
+                if (man == null)
+                    parsed[e.jar] = man =
+                        new Manifest(new ByteArrayInputStream(b));
+                return man;
+            }
+        }
+
+        /**
+         * Returns the URL of a resource found in the JAR file of the entry,
+         * as the search path would.
+         */
+        URL getResource(Entry e, String name,
+                        URLStreamHandlerFactory factory)
+            throws MalformedURLException
+        {
+            URLStreamHandler handler = null;
+            if (factory != null)
+                handler = factory.createURLStreamHandler("jar");
+            URL base = new URL("jar", "", -1,
+                               getURL(e).toExternalForm() + "!/", handler);
+            return new URL(base, ParseUtil.encodePath(name, false));
+        }
+
+        /**
+         * Records that the class of the given class file name was defined
+         * from the given bytes, found in the JAR file of the given code
+         * source URL.
+         */
+        void putClass(String name, URL url, byte[] b) {
+            int jar = indexOf(url.toExternalForm(), false);
+            if (jar >= 0) {
+                Entry old = entries.get(name);
+                if (old == null || old.data == null) {
+                    entries.put(name, new Entry(jar, ByteBuffer.wrap(b)));
+                    dirty = true;
+                }
+            }
+        }
+
+        /**
+         * Records that the given class file or resource name was found at
+         * the given URL, or was not found if the URL is null.
+         */
+        void putResource(String name, URL url) {
+            Entry e;
+            if (url == null) {
+                e = NOT_FOUND;
+            } else {
+                int jar = indexOf(url.toExternalForm(), true);
+                if (jar < 0)
+                    return;
+                e = new Entry(jar, null);
+            }
+            if (entries.putIfAbsent(name, e) == null)
+                dirty = true;
+        }
+
+        private synchronized int indexOf(String url, boolean resource) {
+            for (int i = 0; i < urlStrings.length; i++) {
+                String s = urlStrings[i];
+                if (resource) {
+                    if (url.startsWith("jar:") && url.startsWith(s, 4) &&
+                        url.startsWith("!/", 4 + s.length()))
+                        return i;
+                } else if (url.equals(s)) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /*
+         * Checks that the path can still be written to the archive: that
+         * its JAR files are unchanged since the path was first used, and,
+         * for a path not read from the archive, that none of them is
+         * signed or extends the search path.  Reads their manifests.
+         */
+        boolean prepare() throws IOException {
+            if (!isCurrent())
+                return false;
+            for (int i = 0; i < files.length; i++) {
+                File f = files[i];
+                if (f.length() != sizes[i] || f.lastModified() != mtimes[i])
+                    return false;
+                if (!loaded && !readManifest(i))
+                    return false;
+            }
+            return true;
+        }
+
+        private boolean readManifest(int i) throws IOException {
+            try (JarFile jf = new JarFile(files[i], false)) {
+                for (Enumeration<JarEntry> en = jf.entries();
+                     en.hasMoreElements(); ) {
+                    String name = en.nextElement().getName().toUpperCase();
+                    if (name.startsWith("META-INF/") &&
+                        (name.endsWith(".SF") ||
+                         name.equals("META-INF/INDEX.LIST")))
+                        return false;
+                }
+                JarEntry je = jf.getJarEntry(JarFile.MANIFEST_NAME);
+                if (je == null)
+                    return true;
+                ByteArrayOutputStream bout = new ByteArrayOutputStream();
+                try (InputStream in = jf.getInputStream(je)) {
+                    byte[] buf = new byte[8192];
+                    for (int n; (n = in.read(buf)) > 0; )
+                        bout.write(buf, 0, n);
+                }
+                byte[] b = bout.toByteArray();
+                Attributes attr =
+                    new Manifest(new ByteArrayInputStream(b)).getMainAttributes();
+                if (attr.getValue(Attributes.Name.CLASS_PATH) != null)
+                    return false;
+                manifests[i] = b;
+                return true;
+            }
+        }
+    }
+}
@@ -78,6 +78,12 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
     /* The context to be used when loading classes and resources */
     private final AccessControlContext acc;
 
+    /* The persistent cache of lookups through ucp, or null if none */
+    private volatile ClassCache.Path cache;
+
+    /* The factory of the stream handlers for resource URLs, or null */
+    private URLStreamHandlerFactory factory;
+
     /**
      * Constructs a new URLClassLoader for the given URLs. The URLs will be
      * searched in the order specified for classes and resources after first
@@ -106,6 +112,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = AccessController.getContext();
         ucp = new URLClassPath(urls, acc);
+        cache = ClassCache.forURLs(urls);
     }
 
     URLClassLoader(URL[] urls, ClassLoader parent,
@@ -118,6 +125,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = acc;
         ucp = new URLClassPath(urls, acc);
+        cache = ClassCache.forURLs(urls);
     }
 
     /**
@@ -150,6 +158,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = AccessController.getContext();
         ucp = new URLClassPath(urls, acc);
+        cache = ClassCache.forURLs(urls);
     }
 
     URLClassLoader(URL[] urls, AccessControlContext acc) {
@@ -161,6 +170,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         this.acc = acc;
         ucp = new URLClassPath(urls, acc);
+        cache = ClassCache.forURLs(urls);
     }
 
     /**
@@ -194,6 +204,8 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         }
         acc = AccessController.getContext();
         ucp = new URLClassPath(urls, factory, acc);
+        this.factory = factory;
+        cache = ClassCache.forURLs(urls);
     }
 
     /* A map (used as a set) to keep track of closeable local resources
@@ -289,6 +301,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         if (security != null) {
             security.checkPermission(new RuntimePermission("closeClassLoader"));
         }
+        cache = null;   // a closed loader finds nothing, cached or not
         List<IOException> errors = ucp.closeLoaders();
 
         // now close any remaining streams.
@@ -330,6 +343,7 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
      * @param url the URL to be added to the search path of URLs
      */
     protected void addURL(URL url) {
+        cache = null;
         ucp.addURL(url);
     }
 
@@ -363,14 +377,29 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
                 new PrivilegedExceptionAction<Class<?>>() {
                     public Class<?> run() throws ClassNotFoundException {
                         String path = name.replace('.', '/').concat(".class");
+                        ClassCache.Path cp = cache;
+                        if (cp != null) {
+                            ClassCache.Entry e = cp.get(path);
+                            if (e != null && e.jar < 0) {
+                                return null;
+                            } else if (e != null && e.data != null) {
+                                try {
+                                    return defineClass(name, cp, e);
+                                } catch (IOException x) {
+                                    throw new ClassNotFoundException(name, x);
+                                }
+                            }
+                        }
                         Resource res = ucp.getResource(path, false);
                         if (res != null) {
                             try {
-                                return defineClass(name, res);
+                                return defineClass(name, res, cp);
                             } catch (IOException e) {
                                 throw new ClassNotFoundException(name, e);
                             }
                         } else {
+                            if (cp != null)
+                                cp.putResource(path, null);
                             return null;
                         }
                     }
@@ -439,9 +468,11 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
     /*
      * Defines a Class using the class bytes obtained from the specified
      * Resource. The resulting Class must be resolved before it can be
-     * used.
+     * used. The bytes of a class from an unsigned JAR file are recorded
+     * in the cache, if any.
      */
-    private Class<?> defineClass(String name, Resource res) throws IOException {
+    private Class<?> defineClass(String name, Resource res,
+                                 ClassCache.Path cp) throws IOException {
         long t0 = System.nanoTime();
         int i = name.lastIndexOf('.');
         URL url = res.getCodeSourceURL();
@@ -455,18 +486,49 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
         java.nio.ByteBuffer bb = res.getByteBuffer();
         if (bb != null) {
             // Use (direct) ByteBuffer:
+            java.nio.ByteBuffer copy = (cp != null) ? bb.duplicate() : null;
             CodeSigner[] signers = res.getCodeSigners();
             CodeSource cs = new CodeSource(url, signers);
             sun.misc.PerfCounter.getReadClassBytesTime().addElapsedTimeFrom(t0);
-            return defineClass(name, bb, cs);
+            Class<?> c = defineClass(name, bb, cs);
+            if (cp != null && signers == null) {
+                byte[] b = new byte[copy.remaining()];
+                copy.get(b);
+                cp.putClass(name.replace('.', '/').concat(".class"), url, b);
+            }
+            return c;
         } else {
             byte[] b = res.getBytes();
             // must read certificates AFTER reading bytes.
             CodeSigner[] signers = res.getCodeSigners();
             CodeSource cs = new CodeSource(url, signers);
             sun.misc.PerfCounter.getReadClassBytesTime().addElapsedTimeFrom(t0);
-            return defineClass(name, b, 0, b.length, cs);
+            Class<?> c = defineClass(name, b, 0, b.length, cs);
+            if (cp != null && signers == null)
+                cp.putClass(name.replace('.', '/').concat(".class"), url, b);
+            return c;
+        }
+    }
+
+    /*
+     * Defines a Class using the class bytes recorded in the cache,
+     * directly from the mapped archive. The JAR file of the class is
+     * unchanged and unsigned, so the class has no code signers.
+     */
+    private Class<?> defineClass(String name, ClassCache.Path cp,
+                                 ClassCache.Entry e) throws IOException {
+        long t0 = System.nanoTime();
+        int i = name.lastIndexOf('.');
+        URL url = cp.getURL(e);
+        if (i != -1) {
+            String pkgname = name.substring(0, i);
+            // Check if package already loaded.
+            Manifest man = cp.getManifest(e);
+            definePackageInternal(pkgname, man, url);
         }
+        CodeSource cs = new CodeSource(url, (CodeSigner[]) null);
+        sun.misc.PerfCounter.getReadClassBytesTime().addElapsedTimeFrom(t0);
+        return defineClass(name, e.data.duplicate(), cs);
     }
 
     /**
@@ -563,6 +625,20 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
      * if the resource could not be found, or if the loader is closed.
      */
     public URL findResource(final String name) {
+        ClassCache.Path cp = cache;
+        if (cp != null) {
+            ClassCache.Entry e = cp.get(name);
+            if (e != null && e.jar < 0) {
+                return null;
+            } else if (e != null) {
+                try {
+                    return ucp.checkURL(cp.getResource(e, name, factory));
+                } catch (MalformedURLException x) {
+                    // look up the resource as usual
+                }
+            }
+        }
+
         /*
          * The same restriction to finding classes applies to resources
          */
@@ -573,6 +649,8 @@ public class URLClassLoader extends SecureClassLoader implements Closeable {
                 }
             }, acc);
 
+        if (cp != null)
+            cp.putResource(name, url);
         return url != null ? ucp.checkURL(url) : null;
     }
 
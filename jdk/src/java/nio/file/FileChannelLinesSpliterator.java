@@ -0,0 +1,288 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.nio.file;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A {@code Spliterator} over the lines of a range of a file, which maps the
+ * file into memory and splits the range on line boundaries.
+ *
+ * <p> The lines are those that {@link java.io.BufferedReader#readLine()}
+ * would read, terminated by {@code '\n'}, {@code '\r'} or {@code "\r\n"}.
+ * The line terminators are found in the bytes of the file, which is only
+ * possible in a charset that encodes them as the single bytes {@code 0x0A}
+ * and {@code 0x0D}, and never uses these bytes in the encoding of another
+ * character; see {@link #SUPPORTED_CHARSET_NAMES}.  Each line is then
+ * decoded on its own, by a decoder of the spliterator, so that the
+ * spliterators obtained by splitting can be traversed in parallel.
+ *
+ * <p> The file is mapped in windows of at most {@link #WINDOW_SIZE} bytes,
+ * so the size of a file is not limited by that of a buffer, and a window
+ * is mapped again, further, when a line crosses its end.  The channel is
+ * shared by all the spliterators split from one, and is closed by the
+ * stream.
+ */
+
+final class FileChannelLinesSpliterator implements Spliterator<String> {
+
+    /**
+     * The names of the charsets in which line terminators can be found in
+     * encoded bytes.
+     */
+    static final Set<String> SUPPORTED_CHARSET_NAMES;
+    static {
+        SUPPORTED_CHARSET_NAMES = new HashSet<>();
+        SUPPORTED_CHARSET_NAMES.add("UTF-8");
+        SUPPORTED_CHARSET_NAMES.add("ISO-8859-1");
+        SUPPORTED_CHARSET_NAMES.add("US-ASCII");
+    }
+
+    /** The size of the windows in which the file is mapped */
+    static final int WINDOW_SIZE = 1 << 24;
+
+    /** The size of the windows mapped to find a line boundary to split at */
+    private static final int PROBE_SIZE = 1 << 13;
+
+    /** The size of the smallest range that is split */
+    private static final long MIN_SPLIT_SIZE = 1 << 16;
+
+    /** The maximum size of a line, as of an array */
+    private static final int MAX_LINE_SIZE = Integer.MAX_VALUE - 8;
+
+    private final FileChannel fc;
+    private final Charset cs;
+
+    // The position of the next line, and the end of the range
+    private long index;
+    private final long fence;
+
+    // Created on first use
+    private CharsetDecoder decoder;
+    private CharBuffer chars;
+
+    // The window of the file mapped at windowStart, or null
+    private ByteBuffer window;
+    private long windowStart;
+
+    FileChannelLinesSpliterator(FileChannel fc, Charset cs,
+                                long index, long fence) {
+        this.fc = fc;
+        this.cs = cs;
+        this.index = index;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(Consumer<? super String> action) {
+        if (action == null)
+            throw new NullPointerException();
+        if (index >= fence)
+            return false;
+        action.accept(readLine());
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(Consumer<? super String> action) {
+        if (action == null)
+            throw new NullPointerException();
+        while (index < fence)
+            action.accept(readLine());
+    }
+
+    /**
+     * Reads the line at index, which is before the fence, and moves the
+     * index past it and its terminator.
+     */
+    private String readLine() {
+        int off, end, lim;
+        for (;;) {
+            if (window == null || index < windowStart ||
+                index >= windowStart + window.capacity())
+                map(index, WINDOW_SIZE);
+            off = (int)(index - windowStart);
+            lim = (int)(Math.min(fence, windowStart + window.capacity())
+                        - windowStart);
+            end = off;
+            byte b = 0;
+            while (end < lim && (b = window.get(end)) != '\n' && b != '\r')
+                end++;
+            // Done unless the line, or a "\r\n", may go on past the window
+            if (windowStart + lim == fence ||
+                (end < lim - 1 || (end == lim - 1 && b == '\n')))
+                break;
+            long size = Math.max(WINDOW_SIZE, 2L * (lim - off));
+            if (size > MAX_LINE_SIZE) {
+                if (lim - off >= MAX_LINE_SIZE)
+                    throw new OutOfMemoryError("Required array size too large");
+                size = MAX_LINE_SIZE;
+            }
+            map(index, size);
+        }
+
+        String line = decode(off, end);
+        if (end == lim)
+            index = windowStart + lim;
+        else if (window.get(end) == '\r' && end + 1 < lim &&
+                 window.get(end + 1) == '\n')
+            index = windowStart + end + 2;
+        else
+            index = windowStart + end + 1;
+        return line;
+    }
+
+    /**
+     * Maps the window of at most the given size at the given position,
+     * which is before the fence.
+     */
+    private void map(long position, long size) {
+        try {
+            window = fc.map(FileChannel.MapMode.READ_ONLY, position,
+                            Math.min(size, fence - position));
+            windowStart = position;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Decodes the bytes from off to end in the window.
+     */
+    private String decode(int off, int end) {
+        if (decoder == null) {
+            decoder = cs.newDecoder();
+            chars = CharBuffer.allocate(Math.max(end - off, 128));
+        }
+        int n = end - off;
+        int max = (int)Math.min(MAX_LINE_SIZE,
+                                (long)Math.ceil(n * (double)decoder.maxCharsPerByte()));
+        if (chars.capacity() < max)
+            chars = CharBuffer.allocate(max);
+        window.limit(end).position(off);
+        decoder.reset();
+        CoderResult cr = decoder.decode(window, chars, true);
+        if (!cr.isUnderflow())
+            throwException(cr);
+        cr = decoder.flush(chars);
+        if (!cr.isUnderflow())
+            throwException(cr);
+        window.clear();
+        String line = new String(chars.array(), 0, chars.position());
+        chars.clear();
+        return line;
+    }
+
+    private static void throwException(CoderResult cr) {
+        try {
+            cr.throwException();
+        } catch (CharacterCodingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Splits off the lines before the first line boundary at or after the
+     * middle of the range, if any.
+     */
+    @Override
+    public Spliterator<String> trySplit() {
+        long lo = index;
+        if (fence - lo < MIN_SPLIT_SIZE)
+            return null;
+        long mid = findBoundary(lo + ((fence - lo) >>> 1));
+        if (mid < 0)
+            return null;
+        index = mid;
+        return new FileChannelLinesSpliterator(fc, cs, lo, mid);
+    }
+
+    /**
+     * Returns the position just after the first line terminator at or after
+     * the given position, or -1 if it is not before the fence.
+     */
+    private long findBoundary(long position) {
+        try {
+            for (long p = position; p < fence; ) {
+                int size = (int)Math.min(PROBE_SIZE, fence - p);
+                ByteBuffer probe = fc.map(FileChannel.MapMode.READ_ONLY, p, size);
+                for (int i = 0; i < size; i++) {
+                    byte b = probe.get(i);
+                    if (b == '\n')
+                        return p + i + 1;
+                    if (b == '\r') {
+                        // A "\r\n" is not split
+                        long q = p + i + 1;
+                        if (q < fence && byteAt(probe, p, q) == '\n')
+                            q++;
+                        return (q < fence) ? q : -1;
+                    }
+                }
+                p += size;
+            }
+            return -1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Returns the byte at position q of the file, mapped at p by the given
+     * buffer if the buffer holds it.
+     */
+    private byte byteAt(ByteBuffer probe, long p, long q) throws IOException {
+        if (q - p < probe.capacity())
+            return probe.get((int)(q - p));
+        ByteBuffer one = ByteBuffer.allocate(1);
+        if (fc.read(one, q) < 1)
+            return 0;
+        return one.get(0);
+    }
+
+    @Override
+    public long estimateSize() {
+        // An estimate of the number of lines would need a mean line size;
+        // the number of bytes left is an upper bound
+        return fence - index;
+    }
+
+    @Override
+    public int characteristics() {
+        return Spliterator.ORDERED | Spliterator.NONNULL;
+    }
+}
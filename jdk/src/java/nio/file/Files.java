@@ -3714,12 +3714,31 @@ public final class Files {
      * place. In case an {@code IOException} is thrown when closing the file,
      * it is also wrapped as an {@code UncheckedIOException}.
      *
-     * <p> The returned stream encapsulates a {@link Reader}.  If timely
+     * <p> The returned stream encapsulates a {@link Reader}, or a {@link
+     * FileChannel}.  If timely
      * disposal of file system resources is required, the try-with-resources
      * construct should be used to ensure that the stream's
      * {@link Stream#close close} method is invoked after the stream operations
      * are completed.
      *
+     * @implNote
+     * This implementation supports good parallel stream performance for the
+     * standard charsets {@link StandardCharsets#UTF_8 UTF-8},
+     * {@link StandardCharsets#US_ASCII US-ASCII} and
+     * {@link StandardCharsets#ISO_8859_1 ISO-8859-1}.  Such
+     * <em>line-optimal</em> charsets have the property that the encoded bytes
+     * of a line feed ('\n') or a carriage return ('\r') are efficiently
+     * identifiable from other encoded characters when randomly accessing the
+     * bytes of the file.  A non-empty file of the default file system is
+     * then mapped into memory, in windows, and the stream's spliterator
+     * splits it at line boundaries near the middle of the remaining bytes,
+     * each part decoding its own lines.  Splitting thus yields balanced
+     * parts, however large the file, and the parts can be processed in
+     * parallel.  For other charsets, and for other files, the stream is
+     * that of the lines of a {@link BufferedReader}, whose spliterator
+     * splits only by buffering lines, and parallel performance is poor.
+     * Since the file is mapped, it should not be truncated while the
+     * stream is processed.
      *
      * @param   path
      *          the path to the file
@@ -3741,7 +3760,47 @@ public final class Files {
      * @since   1.8
      */
     public static Stream<String> lines(Path path, Charset cs) throws IOException {
-        BufferedReader br = Files.newBufferedReader(path, cs);
+        // Map a regular file of the default file system in a charset whose
+        // line terminators can be found in bytes, so that the stream splits
+        // on line boundaries
+        if (path.getFileSystem() == FileSystems.getDefault() &&
+            FileChannelLinesSpliterator.SUPPORTED_CHARSET_NAMES.contains(cs.name())) {
+            FileChannel fc = FileChannel.open(path, StandardOpenOption.READ);
+            Stream<String> lines = createFileChannelLinesStream(fc, cs);
+            if (lines != null)
+                return lines;
+            fc.close();
+        }
+        return createBufferedReaderLinesStream(Files.newBufferedReader(path, cs));
+    }
+
+    private static Stream<String> createFileChannelLinesStream(FileChannel fc, Charset cs)
+        throws IOException
+    {
+        try {
+            // A file that reports no size, such as a device or a file that
+            // the system generates as it is read, is read rather than mapped
+            long size = fc.size();
+            if (size > 0) {
+                Spliterator<String> s =
+                    new FileChannelLinesSpliterator(fc, cs, 0, size);
+                return StreamSupport.stream(s, false)
+                                    .onClose(asUncheckedRunnable(fc));
+            }
+        } catch (Error|RuntimeException|IOException e) {
+            try {
+                fc.close();
+            } catch (IOException ex) {
+                try {
+                    e.addSuppressed(ex);
+                } catch (Throwable ignore) {}
+            }
+            throw e;
+        }
+        return null;
+    }
+
+    private static Stream<String> createBufferedReaderLinesStream(BufferedReader br) {
         try {
             return br.lines().onClose(asUncheckedRunnable(br));
         } catch (Error|RuntimeException e) {
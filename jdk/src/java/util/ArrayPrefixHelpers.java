@@ -36,6 +36,8 @@ import java.util.function.BinaryOperator;
 import java.util.function.IntBinaryOperator;
 import java.util.function.LongBinaryOperator;
 import java.util.function.DoubleBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntPredicate;
 
 /**
  * ForkJoin tasks to perform Arrays.parallelPrefix operations.
@@ -693,4 +695,425 @@ class ArrayPrefixHelpers {
             }
         }
     }
+
+    /*
+     * Segmented and exclusive scans, and segmented reductions, divide
+     * the range into chunks, about eight for each thread of the common
+     * pool, and make two parallel passes over them.  The first reduces
+     * each chunk to a summary, from which the value carried into each
+     * chunk is found in sequence; as there are few chunks, this is cheap.
+     * The second cumulates each chunk from the value carried into it (or
+     * reduces the segments starting in it).  This reads the elements
+     * twice, but needs no identity, and no state beyond a few values for
+     * each chunk.
+     *
+     * The element at the start of the range, and each element at which
+     * the segment predicate holds, starts a segment, and is not combined
+     * with the elements before it.  The predicate is not tested at the
+     * start of the range.  An exclusive scan stores the identity at the
+     * start of each segment, and elsewhere the cumulation of the elements
+     * before it in the segment, so the identity is never passed to the
+     * function.
+     *
+     * As above, there are versions for each primitive type, which differ
+     * only by type.
+     */
+
+    /**
+     * Returns the size of the chunks to divide a range of n elements into.
+     */
+    static int chunkSize(int n) {
+        int p = n / (ForkJoinPool.getCommonPoolParallelism() << 3);
+        return (p <= MIN_PARTITION) ? MIN_PARTITION : p;
+    }
+
+    /**
+     * Returns the number of chunks of the given size in [from, to).
+     */
+    static int chunkCount(int from, int to, int size) {
+        return (int)(((long)to - from + size - 1) / size);
+    }
+
+    /**
+     * Returns the end of the chunk of the given size starting at lo.
+     */
+    static int chunkEnd(int lo, int size, int to) {
+        return (int)Math.min(to, (long)lo + size);
+    }
+
+    /**
+     * Runs an action, in parallel, on each chunk index in [0, n).
+     */
+    static void forEachChunk(int n, IntConsumer action) {
+        if (n > 0)
+            new ChunkTask(null, action, 0, n).invoke();
+    }
+
+    static final class ChunkTask extends CountedCompleter<Void> {
+        final IntConsumer action;
+        final int lo, hi;
+
+        ChunkTask(ChunkTask parent, IntConsumer action, int lo, int hi) {
+            super(parent);
+            this.action = action; this.lo = lo; this.hi = hi;
+        }
+
+        public final void compute() {
+            int l = lo, h = hi;
+            while (h - l > 1) {
+                int mid = (l + h) >>> 1;
+                addToPendingCount(1);
+                new ChunkTask(this, action, mid, h).fork();
+                h = mid;
+            }
+            if (l < h)
+                action.accept(l);
+            propagateCompletion();
+        }
+    }
+
+    /**
+     * Cumulates the elements of a[from, to) in place, within the segments
+     * started by head, or as one segment if head is null.
+     */
+    static void cumulate(long[] a, int from, int to, IntPredicate head,
+                         boolean exclusive, long identity,
+                         LongBinaryOperator fn) {
+        int size = chunkSize(to - from);
+        int n = chunkCount(from, to, size);
+        // The reduction of each chunk since its last segment start, if any
+        long[] sums = new long[n];
+        boolean[] starts = new boolean[n];
+        forEachChunk(n - 1, c -> {
+            int lo = from + c * size, hi = chunkEnd(lo, size, to);
+            boolean started = lo > from && head != null && head.test(lo);
+            long sum = a[lo];
+            for (int i = lo + 1; i < hi; i++) {
+                if (head != null && head.test(i)) {
+                    started = true;
+                    sum = a[i];
+                }
+                else
+                    sum = fn.applyAsLong(sum, a[i]);
+            }
+            sums[c] = sum;
+            starts[c] = started;
+        });
+        // Now sums[c] becomes the value carried into chunk c + 1
+        for (int c = 1; c < n - 1; c++) {
+            if (!starts[c])
+                sums[c] = fn.applyAsLong(sums[c - 1], sums[c]);
+        }
+        forEachChunk(n, c -> {
+            int lo = from + c * size, hi = chunkEnd(lo, size, to);
+            long sum = (c > 0) ? sums[c - 1] : identity;
+            for (int i = lo; i < hi; i++) {
+                long x = a[i];
+                if (i == from || (head != null && head.test(i))) {
+                    if (exclusive)
+                        a[i] = identity;
+                    sum = x;
+                }
+                else if (exclusive) {
+                    a[i] = sum;
+                    sum = fn.applyAsLong(sum, x);
+                }
+                else
+                    a[i] = sum = fn.applyAsLong(sum, x);
+            }
+        });
+    }
+
+    /**
+     * Returns the reductions of the segments of a[from, to) started by
+     * head, in order.
+     */
+    static long[] reduceSegments(long[] a, int from, int to, IntPredicate head,
+                                 LongBinaryOperator fn) {
+        int size = chunkSize(to - from);
+        int n = chunkCount(from, to, size);
+        // The number of segments starting in each chunk, and the reduction
+        // of the elements before the first of them, if any
+        int[] counts = new int[n];
+        long[] leads = new long[n];
+        boolean[] hasLeads = new boolean[n];
+        forEachChunk(n, c -> {
+            int lo = from + c * size, hi = chunkEnd(lo, size, to);
+            int count = 0;
+            long lead = 0;
+            for (int i = lo; i < hi; i++) {
+                if (i == from || head.test(i))
+                    count++;
+                else if (count == 0)
+                    lead = (i == lo) ? a[i] : fn.applyAsLong(lead, a[i]);
+            }
+            counts[c] = count;
+            leads[c] = lead;
+            hasLeads[c] = count == 0 || !(lo == from || head.test(lo));
+        });
+        // The index of the first segment starting in each chunk
+        int[] firsts = new int[n];
+        int m = 0;
+        for (int c = 0; c < n; c++) {
+            firsts[c] = m;
+            m += counts[c];
+        }
+        long[] r = new long[m];
+        forEachChunk(n, c -> {
+            if (counts[c] == 0)
+                return;
+            int lo = from + c * size, hi = chunkEnd(lo, size, to);
+            int k = firsts[c] - 1;
+            long sum = 0;
+            for (int i = lo; i < hi; i++) {
+                if (i == from || head.test(i)) {
+                    if (k >= firsts[c])
+                        r[k] = sum;
+                    k++;
+                    sum = a[i];
+                }
+                else if (k >= firsts[c])
+                    sum = fn.applyAsLong(sum, a[i]);
+            }
+            // The last segment may go on into the chunks after
+            for (int d = c + 1; d < n; d++) {
+                if (hasLeads[d])
+                    sum = fn.applyAsLong(sum, leads[d]);
+                if (counts[d] > 0)
+                    break;
+            }
+            r[k] = sum;
+        });
+        return r;
+    }
+
+    /**
+     * Cumulates the elements of a[from, to) in place, within the segments
+     * started by head, or as one segment if head is null.
+     */
+    static void cumulate(double[] a, int from, int to, IntPredicate head,
+                         boolean exclusive, double identity,
+                         DoubleBinaryOperator fn) {
+        int size = chunkSize(to - from);
+        int n = chunkCount(from, to, size);
+        // The reduction of each chunk since its last segment start, if any
+        double[] sums = new double[n];
+        boolean[] starts = new boolean[n];
+        forEachChunk(n - 1, c -> {
+            int lo = from + c * size, hi = chunkEnd(lo, size, to);
+            boolean started = lo > from && head != null && head.test(lo);
+            double sum = a[lo];
+            for (int i = lo + 1; i < hi; i++) {
+                if (head != null && head.test(i)) {
+                    started = true;
+                    sum = a[i];
+                }
+                else
+                    sum = fn.applyAsDouble(sum, a[i]);
+            }
+            sums[c] = sum;
+            starts[c] = started;
+        });
+        // Now sums[c] becomes the value carried into chunk c + 1
+        for (int c = 1; c < n - 1; c++) {
+            if (!starts[c])
+                sums[c] = fn.applyAsDouble(sums[c - 1], sums[c]);
+        }
+        forEachChunk(n, c -> {
+            int lo = from + c * size, hi = chunkEnd(lo, size, to);
+            double sum = (c > 0) ? sums[c - 1] : identity;
+            for (int i = lo; i < hi; i++) {
+                double x = a[i];
+                if (i == from || (head != null && head.test(i))) {
+                    if (exclusive)
+                        a[i] = identity;
+                    sum = x;
+                }
+                else if (exclusive) {
+                    a[i] = sum;
+                    sum = fn.applyAsDouble(sum, x);
+                }
+                else
+                    a[i] = sum = fn.applyAsDouble(sum, x);
+            }
+        });
+    }
+
+    /**
+     * Returns the reductions of the segments of a[from, to) started by
+     * head, in order.
+     */
+    static double[] reduceSegments(double[] a, int from, int to,
+                                   IntPredicate head, DoubleBinaryOperator fn) {
+        int size = chunkSize(to - from);
+        int n = chunkCount(from, to, size);
+        // The number of segments starting in each chunk, and the reduction
+        // of the elements before the first of them, if any
+        int[] counts = new int[n];
+        double[] leads = new double[n];
+        boolean[] hasLeads = new boolean[n];
+        forEachChunk(n, c -> {
+            int lo = from + c * size, hi = chunkEnd(lo, size, to);
+            int count = 0;
+            double lead = 0;
+            for (int i = lo; i < hi; i++) {
+                if (i == from || head.test(i))
+                    count++;
+                else if (count == 0)
+                    lead = (i == lo) ? a[i] : fn.applyAsDouble(lead, a[i]);
+            }
+            counts[c] = count;
+            leads[c] = lead;
+            hasLeads[c] = count == 0 || !(lo == from || head.test(lo));
+        });
+        // The index of the first segment starting in each chunk
+        int[] firsts = new int[n];
+        int m = 0;
+        for (int c = 0; c < n; c++) {
+            firsts[c] = m;
+            m += counts[c];
+        }
+        double[] r = new double[m];
+        forEachChunk(n, c -> {
+            if (counts[c] == 0)
+                return;
+            int lo = from + c * size, hi = chunkEnd(lo, size, to);
+            int k = firsts[c] - 1;
+            double sum = 0;
+            for (int i = lo; i < hi; i++) {
+                if (i == from || head.test(i)) {
+                    if (k >= firsts[c])
+                        r[k] = sum;
+                    k++;
+                    sum = a[i];
+                }
+                else if (k >= firsts[c])
+                    sum = fn.applyAsDouble(sum, a[i]);
+            }
+            // The last segment may go on into the chunks after
+            for (int d = c + 1; d < n; d++) {
+                if (hasLeads[d])
+                    sum = fn.applyAsDouble(sum, leads[d]);
+                if (counts[d] > 0)
+                    break;
+            }
+            r[k] = sum;
+        });
+        return r;
+    }
+
+    /**
+     * Cumulates the elements of a[from, to) in place, within the segments
+     * started by head, or as one segment if head is null.
+     */
+    static void cumulate(int[] a, int from, int to, IntPredicate head,
+                         boolean exclusive, int identity,
+                         IntBinaryOperator fn) {
+        int size = chunkSize(to - from);
+        int n = chunkCount(from, to, size);
+        // The reduction of each chunk since its last segment start, if any
+        int[] sums = new int[n];
+        boolean[] starts = new boolean[n];
+        forEachChunk(n - 1, c -> {
+            int lo = from + c * size, hi = chunkEnd(lo, size, to);
+            boolean started = lo > from && head != null && head.test(lo);
+            int sum = a[lo];
+            for (int i = lo + 1; i < hi; i++) {
+                if (head != null && head.test(i)) {
+                    started = true;
+                    sum = a[i];
+                }
+                else
+                    sum = fn.applyAsInt(sum, a[i]);
+            }
+            sums[c] = sum;
+            starts[c] = started;
+        });
+        // Now sums[c] becomes the value carried into chunk c + 1
+        for (int c = 1; c < n - 1; c++) {
+            if (!starts[c])
+                sums[c] = fn.applyAsInt(sums[c - 1], sums[c]);
+        }
+        forEachChunk(n, c -> {
+            int lo = from + c * size, hi = chunkEnd(lo, size, to);
+            int sum = (c > 0) ? sums[c - 1] : identity;
+            for (int i = lo; i < hi; i++) {
+                int x = a[i];
+                if (i == from || (head != null && head.test(i))) {
+                    if (exclusive)
+                        a[i] = identity;
+                    sum = x;
+                }
+                else if (exclusive) {
+                    a[i] = sum;
+                    sum = fn.applyAsInt(sum, x);
+                }
+                else
+                    a[i] = sum = fn.applyAsInt(sum, x);
+            }
+        });
+    }
+
+    /**
+     * Returns the reductions of the segments of a[from, to) started by
+     * head, in order.
+     */
+    static int[] reduceSegments(int[] a, int from, int to, IntPredicate head,
+                                 IntBinaryOperator fn) {
+        int size = chunkSize(to - from);
+        int n = chunkCount(from, to, size);
+        // The number of segments starting in each chunk, and the reduction
+        // of the elements before the first of them, if any
+        int[] counts = new int[n];
+        int[] leads = new int[n];
+        boolean[] hasLeads = new boolean[n];
+        forEachChunk(n, c -> {
+            int lo = from + c * size, hi = chunkEnd(lo, size, to);
+            int count = 0;
+            int lead = 0;
+            for (int i = lo; i < hi; i++) {
+                if (i == from || head.test(i))
+                    count++;
+                else if (count == 0)
+                    lead = (i == lo) ? a[i] : fn.applyAsInt(lead, a[i]);
+            }
+            counts[c] = count;
+            leads[c] = lead;
+            hasLeads[c] = count == 0 || !(lo == from || head.test(lo));
+        });
+        // The index of the first segment starting in each chunk
+        int[] firsts = new int[n];
+        int m = 0;
+        for (int c = 0; c < n; c++) {
+            firsts[c] = m;
+            m += counts[c];
+        }
+        int[] r = new int[m];
+        forEachChunk(n, c -> {
+            if (counts[c] == 0)
+                return;
+            int lo = from + c * size, hi = chunkEnd(lo, size, to);
+            int k = firsts[c] - 1;
+            int sum = 0;
+            for (int i = lo; i < hi; i++) {
+                if (i == from || head.test(i)) {
+                    if (k >= firsts[c])
+                        r[k] = sum;
+                    k++;
+                    sum = a[i];
+                }
+                else if (k >= firsts[c])
+                    sum = fn.applyAsInt(sum, a[i]);
+            }
+            // The last segment may go on into the chunks after
+            for (int d = c + 1; d < n; d++) {
+                if (hasLeads[d])
+                    sum = fn.applyAsInt(sum, leads[d]);
+                if (counts[d] > 0)
+                    break;
+            }
+            r[k] = sum;
+        });
+        return r;
+    }
 }
@@ -32,6 +32,7 @@ import java.util.function.Consumer;
 import java.util.function.DoubleBinaryOperator;
 import java.util.function.IntBinaryOperator;
 import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
 import java.util.function.IntToDoubleFunction;
 import java.util.function.IntToLongFunction;
 import java.util.function.IntUnaryOperator;
@@ -1665,6 +1666,145 @@ public class Arrays {
                     (null, op, array, fromIndex, toIndex).invoke();
     }
 
+    /**
+     * Cumulates, in parallel, each element of the given subrange of the
+     * array in place, within the segments of the subrange, using the
+     * supplied function.  The element at {@code fromIndex}, and each
+     * element at an index for which {@code segmentStart} holds, starts a
+     * segment, and is not combined with the elements before it.  For
+     * example if the array initially holds {@code [2, 1, 0, 3, 4]}, the
+     * operation performs addition, and segments start at indices 0 and 2,
+     * then upon return the array holds {@code [2, 3, 0, 3, 7]}.
+     *
+     * @param array the array, which is modified in-place by this method
+     * @param fromIndex the index of the first element, inclusive
+     * @param toIndex the index of the last element, exclusive
+     * @param segmentStart a side-effect-free predicate of the indices after
+     * {@code fromIndex} at which segments start, which may be tested more
+     * than once for an index, and in any order
+     * @param op a side-effect-free, associative function to perform the
+     * cumulation
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > array.length}
+     * @throws NullPointerException if the specified array, predicate or
+     * function is null
+     * @since 1.8
+     */
+    public static void parallelPrefix(long[] array, int fromIndex, int toIndex,
+                                      IntPredicate segmentStart,
+                                      LongBinaryOperator op) {
+        Objects.requireNonNull(segmentStart);
+        Objects.requireNonNull(op);
+        rangeCheck(array.length, fromIndex, toIndex);
+        if (fromIndex < toIndex)
+            ArrayPrefixHelpers.cumulate(array, fromIndex, toIndex, segmentStart,
+                                        false, 0L, op);
+    }
+
+    /**
+     * Cumulates, in parallel, the elements of the given array in place,
+     * using the supplied function, each element being replaced by the
+     * cumulation of the elements before it, and the first by the given
+     * identity.  For example if the array initially holds {@code [2, 1, 0,
+     * 3]}, the operation performs addition and the identity is {@code 0},
+     * then upon return the array holds {@code [0, 2, 3, 3]}.
+     *
+     * @param array the array, which is modified in-place by this method
+     * @param identity the value to store in place of the first element,
+     * which is not passed to the function
+     * @param op a side-effect-free, associative function to perform the
+     * cumulation
+     * @throws NullPointerException if the specified array or function is null
+     * @since 1.8
+     */
+    public static void parallelExclusivePrefix(long[] array, long identity,
+                                               LongBinaryOperator op) {
+        Objects.requireNonNull(op);
+        if (array.length > 0)
+            ArrayPrefixHelpers.cumulate(array, 0, array.length, null,
+                                        true, identity, op);
+    }
+
+    /**
+     * Performs {@link #parallelExclusivePrefix(long[], long,
+     * LongBinaryOperator)} for each segment of the given subrange of the array.
+     * The element at {@code fromIndex}, and each element at an index for which
+     * {@code segmentStart} holds, starts a segment, and is replaced by the
+     * identity.  For example if the array initially holds {@code [2, 1, 0, 3,
+     * 4]}, the operation performs addition, the identity is {@code 0}, and
+     * segments start at indices 0 and 2, then upon return the array holds
+     * {@code [0, 2, 0, 0, 3]}.
+     *
+     * @param array the array, which is modified in-place by this method
+     * @param fromIndex the index of the first element, inclusive
+     * @param toIndex the index of the last element, exclusive
+     * @param segmentStart a side-effect-free predicate of the indices after
+     * {@code fromIndex} at which segments start, which may be tested more
+     * than once for an index, and in any order
+     * @param identity the value to store in place of the first element of
+     * each segment, which is not passed to the function
+     * @param op a side-effect-free, associative function to perform the
+     * cumulation
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > array.length}
+     * @throws NullPointerException if the specified array, predicate or
+     * function is null
+     * @since 1.8
+     */
+    public static void parallelExclusivePrefix(long[] array, int fromIndex,
+                                               int toIndex,
+                                               IntPredicate segmentStart,
+                                               long identity,
+                                               LongBinaryOperator op) {
+        Objects.requireNonNull(segmentStart);
+        Objects.requireNonNull(op);
+        rangeCheck(array.length, fromIndex, toIndex);
+        if (fromIndex < toIndex)
+            ArrayPrefixHelpers.cumulate(array, fromIndex, toIndex, segmentStart,
+                                        true, identity, op);
+    }
+
+    /**
+     * Reduces, in parallel, each segment of the given subrange of the array
+     * using the supplied function, and returns the reductions in order.
+     * The element at {@code fromIndex}, and each element at an index for
+     * which {@code segmentStart} holds, starts a segment.  For example if
+     * the array holds {@code [2, 1, 0, 3, 4]}, the operation performs
+     * addition, and segments start at indices 0 and 2, then the array
+     * returned holds {@code [3, 7]}.
+     *
+     * @param array the array, which is not modified
+     * @param fromIndex the index of the first element, inclusive
+     * @param toIndex the index of the last element, exclusive
+     * @param segmentStart a side-effect-free predicate of the indices after
+     * {@code fromIndex} at which segments start, which may be tested more
+     * than once for an index, and in any order
+     * @param op a side-effect-free, associative function to perform the
+     * reduction
+     * @return an array of the reductions of the segments, which is empty
+     * if the subrange is
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > array.length}
+     * @throws NullPointerException if the specified array, predicate or
+     * function is null
+     * @since 1.8
+     */
+    public static long[] parallelSegmentedReduce(long[] array, int fromIndex,
+                                                 int toIndex,
+                                                 IntPredicate segmentStart,
+                                                 LongBinaryOperator op) {
+        Objects.requireNonNull(segmentStart);
+        Objects.requireNonNull(op);
+        rangeCheck(array.length, fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return new long[0];
+        return ArrayPrefixHelpers.reduceSegments(array, fromIndex, toIndex,
+                                                 segmentStart, op);
+    }
+
     /**
      * Cumulates, in parallel, each element of the given array in place,
      * using the supplied function. For example if the array initially
@@ -1713,6 +1853,163 @@ public class Arrays {
                     (null, op, array, fromIndex, toIndex).invoke();
     }
 
+    /**
+     * Cumulates, in parallel, each element of the given subrange of the
+     * array in place, within the segments of the subrange, using the
+     * supplied function.  The element at {@code fromIndex}, and each
+     * element at an index for which {@code segmentStart} holds, starts a
+     * segment, and is not combined with the elements before it.  For
+     * example if the array initially holds {@code [2.0, 1.0, 0.0, 3.0,
+     * 4.0]}, the operation performs addition, and segments start at indices
+     * 0 and 2, then upon return the array holds {@code [2.0, 3.0, 0.0, 3.0,
+     * 7.0]}.
+     *
+     * <p> Because floating-point operations may not be strictly associative,
+     * the returned result may not be identical to the value that would be
+     * obtained if the operation was performed sequentially.
+     *
+     * @param array the array, which is modified in-place by this method
+     * @param fromIndex the index of the first element, inclusive
+     * @param toIndex the index of the last element, exclusive
+     * @param segmentStart a side-effect-free predicate of the indices after
+     * {@code fromIndex} at which segments start, which may be tested more
+     * than once for an index, and in any order
+     * @param op a side-effect-free, associative function to perform the
+     * cumulation
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > array.length}
+     * @throws NullPointerException if the specified array, predicate or
+     * function is null
+     * @since 1.8
+     */
+    public static void parallelPrefix(double[] array, int fromIndex,
+                                      int toIndex, IntPredicate segmentStart,
+                                      DoubleBinaryOperator op) {
+        Objects.requireNonNull(segmentStart);
+        Objects.requireNonNull(op);
+        rangeCheck(array.length, fromIndex, toIndex);
+        if (fromIndex < toIndex)
+            ArrayPrefixHelpers.cumulate(array, fromIndex, toIndex, segmentStart,
+                                        false, 0.0, op);
+    }
+
+    /**
+     * Cumulates, in parallel, the elements of the given array in place,
+     * using the supplied function, each element being replaced by the
+     * cumulation of the elements before it, and the first by the given
+     * identity.  For example if the array initially holds {@code [2.0, 1.0,
+     * 0.0, 3.0]}, the operation performs addition and the identity is
+     * {@code 0.0}, then upon return the array holds {@code [0.0, 2.0, 3.0,
+     * 3.0]}.
+     *
+     * <p> Because floating-point operations may not be strictly associative,
+     * the returned result may not be identical to the value that would be
+     * obtained if the operation was performed sequentially.
+     *
+     * @param array the array, which is modified in-place by this method
+     * @param identity the value to store in place of the first element,
+     * which is not passed to the function
+     * @param op a side-effect-free, associative function to perform the
+     * cumulation
+     * @throws NullPointerException if the specified array or function is null
+     * @since 1.8
+     */
+    public static void parallelExclusivePrefix(double[] array, double identity,
+                                               DoubleBinaryOperator op) {
+        Objects.requireNonNull(op);
+        if (array.length > 0)
+            ArrayPrefixHelpers.cumulate(array, 0, array.length, null,
+                                        true, identity, op);
+    }
+
+    /**
+     * Performs {@link #parallelExclusivePrefix(double[], double,
+     * DoubleBinaryOperator)} for each segment of the given subrange of the
+     * array.  The element at {@code fromIndex}, and each element at an index
+     * for which {@code segmentStart} holds, starts a segment, and is replaced
+     * by the identity.  For example if the array initially holds {@code [2.0,
+     * 1.0, 0.0, 3.0, 4.0]}, the operation performs addition, the identity is
+     * {@code 0.0}, and segments start at indices 0 and 2, then upon return the
+     * array holds {@code [0.0, 2.0, 0.0, 0.0, 3.0]}.
+     *
+     * <p> Because floating-point operations may not be strictly associative,
+     * the returned result may not be identical to the value that would be
+     * obtained if the operation was performed sequentially.
+     *
+     * @param array the array, which is modified in-place by this method
+     * @param fromIndex the index of the first element, inclusive
+     * @param toIndex the index of the last element, exclusive
+     * @param segmentStart a side-effect-free predicate of the indices after
+     * {@code fromIndex} at which segments start, which may be tested more
+     * than once for an index, and in any order
+     * @param identity the value to store in place of the first element of
+     * each segment, which is not passed to the function
+     * @param op a side-effect-free, associative function to perform the
+     * cumulation
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > array.length}
+     * @throws NullPointerException if the specified array, predicate or
+     * function is null
+     * @since 1.8
+     */
+    public static void parallelExclusivePrefix(double[] array, int fromIndex,
+                                               int toIndex,
+                                               IntPredicate segmentStart,
+                                               double identity,
+                                               DoubleBinaryOperator op) {
+        Objects.requireNonNull(segmentStart);
+        Objects.requireNonNull(op);
+        rangeCheck(array.length, fromIndex, toIndex);
+        if (fromIndex < toIndex)
+            ArrayPrefixHelpers.cumulate(array, fromIndex, toIndex, segmentStart,
+                                        true, identity, op);
+    }
+
+    /**
+     * Reduces, in parallel, each segment of the given subrange of the array
+     * using the supplied function, and returns the reductions in order.
+     * The element at {@code fromIndex}, and each element at an index for
+     * which {@code segmentStart} holds, starts a segment.  For example if
+     * the array holds {@code [2.0, 1.0, 0.0, 3.0, 4.0]}, the operation
+     * performs addition, and segments start at indices 0 and 2, then the
+     * array returned holds {@code [3.0, 7.0]}.
+     *
+     * <p> Because floating-point operations may not be strictly associative,
+     * the returned result may not be identical to the value that would be
+     * obtained if the operation was performed sequentially.
+     *
+     * @param array the array, which is not modified
+     * @param fromIndex the index of the first element, inclusive
+     * @param toIndex the index of the last element, exclusive
+     * @param segmentStart a side-effect-free predicate of the indices after
+     * {@code fromIndex} at which segments start, which may be tested more
+     * than once for an index, and in any order
+     * @param op a side-effect-free, associative function to perform the
+     * reduction
+     * @return an array of the reductions of the segments, which is empty
+     * if the subrange is
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > array.length}
+     * @throws NullPointerException if the specified array, predicate or
+     * function is null
+     * @since 1.8
+     */
+    public static double[] parallelSegmentedReduce(double[] array,
+                                                   int fromIndex, int toIndex,
+                                                   IntPredicate segmentStart,
+                                                   DoubleBinaryOperator op) {
+        Objects.requireNonNull(segmentStart);
+        Objects.requireNonNull(op);
+        rangeCheck(array.length, fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return new double[0];
+        return ArrayPrefixHelpers.reduceSegments(array, fromIndex, toIndex,
+                                                 segmentStart, op);
+    }
+
     /**
      * Cumulates, in parallel, each element of the given array in place,
      * using the supplied function. For example if the array initially
@@ -1758,6 +2055,145 @@ public class Arrays {
                     (null, op, array, fromIndex, toIndex).invoke();
     }
 
+    /**
+     * Cumulates, in parallel, each element of the given subrange of the
+     * array in place, within the segments of the subrange, using the
+     * supplied function.  The element at {@code fromIndex}, and each
+     * element at an index for which {@code segmentStart} holds, starts a
+     * segment, and is not combined with the elements before it.  For
+     * example if the array initially holds {@code [2, 1, 0, 3, 4]}, the
+     * operation performs addition, and segments start at indices 0 and 2,
+     * then upon return the array holds {@code [2, 3, 0, 3, 7]}.
+     *
+     * @param array the array, which is modified in-place by this method
+     * @param fromIndex the index of the first element, inclusive
+     * @param toIndex the index of the last element, exclusive
+     * @param segmentStart a side-effect-free predicate of the indices after
+     * {@code fromIndex} at which segments start, which may be tested more
+     * than once for an index, and in any order
+     * @param op a side-effect-free, associative function to perform the
+     * cumulation
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > array.length}
+     * @throws NullPointerException if the specified array, predicate or
+     * function is null
+     * @since 1.8
+     */
+    public static void parallelPrefix(int[] array, int fromIndex, int toIndex,
+                                      IntPredicate segmentStart,
+                                      IntBinaryOperator op) {
+        Objects.requireNonNull(segmentStart);
+        Objects.requireNonNull(op);
+        rangeCheck(array.length, fromIndex, toIndex);
+        if (fromIndex < toIndex)
+            ArrayPrefixHelpers.cumulate(array, fromIndex, toIndex, segmentStart,
+                                        false, 0, op);
+    }
+
+    /**
+     * Cumulates, in parallel, the elements of the given array in place,
+     * using the supplied function, each element being replaced by the
+     * cumulation of the elements before it, and the first by the given
+     * identity.  For example if the array initially holds {@code [2, 1, 0,
+     * 3]}, the operation performs addition and the identity is {@code 0},
+     * then upon return the array holds {@code [0, 2, 3, 3]}.
+     *
+     * @param array the array, which is modified in-place by this method
+     * @param identity the value to store in place of the first element,
+     * which is not passed to the function
+     * @param op a side-effect-free, associative function to perform the
+     * cumulation
+     * @throws NullPointerException if the specified array or function is null
+     * @since 1.8
+     */
+    public static void parallelExclusivePrefix(int[] array, int identity,
+                                               IntBinaryOperator op) {
+        Objects.requireNonNull(op);
+        if (array.length > 0)
+            ArrayPrefixHelpers.cumulate(array, 0, array.length, null,
+                                        true, identity, op);
+    }
+
+    /**
+     * Performs {@link #parallelExclusivePrefix(int[], int, IntBinaryOperator)}
+     * for each segment of the given subrange of the array.  The element at
+     * {@code fromIndex}, and each element at an index for which {@code
+     * segmentStart} holds, starts a segment, and is replaced by the identity.
+     * For example if the array initially holds {@code [2, 1, 0, 3, 4]}, the
+     * operation performs addition, the identity is {@code 0}, and segments
+     * start at indices 0 and 2, then upon return the array holds {@code [0, 2,
+     * 0, 0, 3]}.
+     *
+     * @param array the array, which is modified in-place by this method
+     * @param fromIndex the index of the first element, inclusive
+     * @param toIndex the index of the last element, exclusive
+     * @param segmentStart a side-effect-free predicate of the indices after
+     * {@code fromIndex} at which segments start, which may be tested more
+     * than once for an index, and in any order
+     * @param identity the value to store in place of the first element of
+     * each segment, which is not passed to the function
+     * @param op a side-effect-free, associative function to perform the
+     * cumulation
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > array.length}
+     * @throws NullPointerException if the specified array, predicate or
+     * function is null
+     * @since 1.8
+     */
+    public static void parallelExclusivePrefix(int[] array, int fromIndex,
+                                               int toIndex,
+                                               IntPredicate segmentStart,
+                                               int identity,
+                                               IntBinaryOperator op) {
+        Objects.requireNonNull(segmentStart);
+        Objects.requireNonNull(op);
+        rangeCheck(array.length, fromIndex, toIndex);
+        if (fromIndex < toIndex)
+            ArrayPrefixHelpers.cumulate(array, fromIndex, toIndex, segmentStart,
+                                        true, identity, op);
+    }
+
+    /**
+     * Reduces, in parallel, each segment of the given subrange of the array
+     * using the supplied function, and returns the reductions in order.
+     * The element at {@code fromIndex}, and each element at an index for
+     * which {@code segmentStart} holds, starts a segment.  For example if
+     * the array holds {@code [2, 1, 0, 3, 4]}, the operation performs
+     * addition, and segments start at indices 0 and 2, then the array
+     * returned holds {@code [3, 7]}.
+     *
+     * @param array the array, which is not modified
+     * @param fromIndex the index of the first element, inclusive
+     * @param toIndex the index of the last element, exclusive
+     * @param segmentStart a side-effect-free predicate of the indices after
+     * {@code fromIndex} at which segments start, which may be tested more
+     * than once for an index, and in any order
+     * @param op a side-effect-free, associative function to perform the
+     * reduction
+     * @return an array of the reductions of the segments, which is empty
+     * if the subrange is
+     * @throws IllegalArgumentException if {@code fromIndex > toIndex}
+     * @throws ArrayIndexOutOfBoundsException
+     *     if {@code fromIndex < 0} or {@code toIndex > array.length}
+     * @throws NullPointerException if the specified array, predicate or
+     * function is null
+     * @since 1.8
+     */
+    public static int[] parallelSegmentedReduce(int[] array, int fromIndex,
+                                                 int toIndex,
+                                                 IntPredicate segmentStart,
+                                                 IntBinaryOperator op) {
+        Objects.requireNonNull(segmentStart);
+        Objects.requireNonNull(op);
+        rangeCheck(array.length, fromIndex, toIndex);
+        if (fromIndex == toIndex)
+            return new int[0];
+        return ArrayPrefixHelpers.reduceSegments(array, fromIndex, toIndex,
+                                                 segmentStart, op);
+    }
+
     // Searching
 
     /**
@@ -2533,6 +2533,42 @@ public final class Formatter implements Closeable, Flushable {
         return this;
     }
 
+    /**
+     * Compiles the given format string into a reusable {@link Template}.
+     *
+     * <p> The format string is parsed and checked once, when the template is
+     * compiled.  The template can then be applied to any number of argument
+     * lists, from any number of threads, without parsing the format string
+     * again.  For any locale {@code l}, format string {@code format} and
+     * arguments {@code args}, the invocation
+     *
+     * <blockquote><pre>
+     *     Formatter.compile(format).format(l, args)</pre></blockquote>
+     *
+     * behaves in exactly the same way as the invocation
+     *
+     * <blockquote><pre>
+     *     String.format(l, format, args)</pre></blockquote>
+     *
+     * @param  format
+     *         A format string as described in <a href="#syntax">Format string
+     *         syntax</a>
+     *
+     * @throws  IllegalFormatException
+     *          If the format string contains an illegal syntax, or a format
+     *          specifier that is illegal regardless of the arguments.  For
+     *          specification of all possible formatting errors, see the <a
+     *          href="#detail">Details</a> section of the formatter class
+     *          specification.
+     *
+     * @return  The compiled template
+     *
+     * @since 1.8
+     */
+    public static Template compile(String format) {
+        return new Template(format);
+    }
+
     // %[argument_index$][flags][width][.precision][t]conversion
     private static final String formatSpecifier
         = "%(\\d+\\$)?([-#+ 0,(\\<]*)?(\\d+)?(\\.\\d+)?([tT])?([a-zA-Z%])";
@@ -2596,6 +2632,506 @@ public final class Formatter implements Closeable, Flushable {
         public String toString() { return s; }
     }
 
+    /**
+     * A compiled format string.
+     *
+     * <p> A template is created by {@link Formatter#compile Formatter.compile}.
+     * It formats its arguments directly into a {@link StringBuilder} or other
+     * {@link Appendable}, without parsing the format string and without the
+     * per-call {@code Formatter}.  Fixed text, {@code %n}, {@code %%}, the
+     * {@code 's'} conversion of non-{@link Formattable} arguments, the
+     * integral conversions {@code 'd'}, {@code 'o'} and {@code 'x'} of {@code
+     * byte}, {@code short}, {@code int} and {@code long} arguments, and the
+     * {@code 'f'} conversion of finite {@code float} and {@code double}
+     * arguments are written character by character, without intermediate
+     * strings.  All other conversions produce the same output by the general
+     * mechanism used by {@link Formatter#format(Locale,String,Object...)
+     * Formatter.format}.
+     *
+     * <p> Templates are immutable, and are safe for use by multiple concurrent
+     * threads.
+     *
+     * @see Formatter#compile
+     * @since 1.8
+     */
+    public static final class Template {
+        private final String format;
+        private final FormatString[] fsa;
+
+        // The digits and separators for the most recently used locale.
+        private volatile Symbols symbols = Symbols.US;
+
+        Template(String format) {
+            this.format = format;
+            this.fsa = new Formatter((Locale) null, (Appendable) null).parse(format);
+        }
+
+        /**
+         * Returns a formatted string using this template, the default
+         * {@linkplain Locale.Category#FORMAT format} locale and the given
+         * arguments.
+         *
+         * @param  args
+         *         Arguments referenced by the format specifiers in the format
+         *         string.  If there are more arguments than format specifiers,
+         *         the extra arguments are ignored.
+         *
+         * @throws  IllegalFormatException
+         *          If a format specifier is incompatible with the given
+         *          arguments, or there are insufficient arguments.
+         *
+         * @return  A formatted string
+         */
+        public String format(Object ... args) {
+            return formatTo(new StringBuilder(),
+                            Locale.getDefault(Locale.Category.FORMAT),
+                            args).toString();
+        }
+
+        /**
+         * Returns a formatted string using this template, the given locale
+         * and arguments.
+         *
+         * @param  l
+         *         The {@linkplain java.util.Locale locale} to apply during
+         *         formatting.  If {@code l} is {@code null} then no
+         *         localization is applied.
+         *
+         * @param  args
+         *         Arguments referenced by the format specifiers in the format
+         *         string.  If there are more arguments than format specifiers,
+         *         the extra arguments are ignored.
+         *
+         * @throws  IllegalFormatException
+         *          If a format specifier is incompatible with the given
+         *          arguments, or there are insufficient arguments.
+         *
+         * @return  A formatted string
+         */
+        public String format(Locale l, Object ... args) {
+            return formatTo(new StringBuilder(), l, args).toString();
+        }
+
+        /**
+         * Appends a formatted string to the given {@code StringBuilder}, using
+         * this template, the given locale and arguments.
+         *
+         * @param  sb
+         *         The destination for the formatted output
+         *
+         * @param  l
+         *         The {@linkplain java.util.Locale locale} to apply during
+         *         formatting.  If {@code l} is {@code null} then no
+         *         localization is applied.
+         *
+         * @param  args
+         *         Arguments referenced by the format specifiers in the format
+         *         string.  If there are more arguments than format specifiers,
+         *         the extra arguments are ignored.
+         *
+         * @throws  IllegalFormatException
+         *          If a format specifier is incompatible with the given
+         *          arguments, or there are insufficient arguments.
+         *
+         * @return  The given {@code StringBuilder}
+         */
+        public StringBuilder formatTo(StringBuilder sb, Locale l, Object ... args) {
+            try {
+                print(sb, l, args);
+            } catch (IOException x) {
+                throw new InternalError(x);     // StringBuilder does not throw
+            }
+            return sb;
+        }
+
+        /**
+         * Appends a formatted string to the given {@code Appendable}, using
+         * this template, the given locale and arguments.  If an {@code
+         * IOException} is thrown by the destination, output stops and the
+         * exception is rethrown; the destination may hold a partial result.
+         *
+         * @param  a
+         *         The destination for the formatted output
+         *
+         * @param  l
+         *         The {@linkplain java.util.Locale locale} to apply during
+         *         formatting.  If {@code l} is {@code null} then no
+         *         localization is applied.
+         *
+         * @param  args
+         *         Arguments referenced by the format specifiers in the format
+         *         string.  If there are more arguments than format specifiers,
+         *         the extra arguments are ignored.
+         *
+         * @throws  IllegalFormatException
+         *          If a format specifier is incompatible with the given
+         *          arguments, or there are insufficient arguments.
+         *
+         * @throws  IOException
+         *          If the destination throws an {@code IOException}
+         */
+        public void formatTo(Appendable a, Locale l, Object ... args)
+            throws IOException
+        {
+            if (a == null)
+                throw new NullPointerException();
+            print(a, l, args);
+        }
+
+        /**
+         * Returns the format string from which this template was compiled.
+         *
+         * @return  The format string
+         */
+        public String toString() {
+            return format;
+        }
+
+        // Same as Formatter.format(Locale, String, Object...), except that
+        // common conversions are written directly to the destination.
+        private void print(Appendable a, Locale l, Object[] args)
+            throws IOException
+        {
+            // index of last argument referenced
+            int last = -1;
+            // last ordinary index
+            int lasto = -1;
+            // general formatter for the remaining conversions, if needed
+            Formatter fmt = null;
+
+            for (int i = 0; i < fsa.length; i++) {
+                FormatString fs = fsa[i];
+                int index = fs.index();
+                Object arg;
+                switch (index) {
+                case -2:  // fixed string, "%n", or "%%"
+                    arg = null;
+                    break;
+                case -1:  // relative index
+                    if (last < 0 || (args != null && last > args.length - 1))
+                        throw new MissingFormatArgumentException(fs.toString());
+                    arg = (args == null ? null : args[last]);
+                    break;
+                case 0:  // ordinary index
+                    lasto++;
+                    last = lasto;
+                    if (args != null && lasto > args.length - 1)
+                        throw new MissingFormatArgumentException(fs.toString());
+                    arg = (args == null ? null : args[lasto]);
+                    break;
+                default:  // explicit index
+                    last = index - 1;
+                    if (args != null && last > args.length - 1)
+                        throw new MissingFormatArgumentException(fs.toString());
+                    arg = (args == null ? null : args[last]);
+                    break;
+                }
+                if (fs instanceof FixedString) {
+                    a.append(((FixedString) fs).s);
+                } else {
+                    FormatSpecifier spec = (FormatSpecifier) fs;
+                    if (!print(a, spec, arg, l)) {
+                        if (fmt == null)
+                            fmt = new Formatter(l, a);
+                        fmt.new FormatSpecifier(spec).print(arg, l);
+                    }
+                }
+            }
+        }
+
+        // Writes the conversions handled directly.  Returns false, having
+        // written nothing, for any other conversion.
+        private boolean print(Appendable a, FormatSpecifier fs, Object arg,
+                              Locale l)
+            throws IOException
+        {
+            if (fs.dt)
+                return false;
+            int f = fs.f.valueOf();
+            switch (fs.c) {
+            case Conversion.LINE_SEPARATOR:
+                a.append(System.lineSeparator());
+                return true;
+            case Conversion.PERCENT_SIGN:
+                if (fs.width != -1)
+                    return false;
+                a.append('%');
+                return true;
+            case Conversion.STRING:
+                if (arg instanceof Formattable
+                    || (f & ~Flags.LEFT_JUSTIFY.valueOf()) != 0)
+                    return false;
+                printString(a, fs, (arg == null ? "null" : arg.toString()));
+                return true;
+            case Conversion.DECIMAL_INTEGER:
+                if (!isIntegral(arg))
+                    return false;
+                return printDecimal(a, fs, ((Number) arg).longValue(), l);
+            case Conversion.OCTAL_INTEGER:
+            case Conversion.HEXADECIMAL_INTEGER:
+                if (!isIntegral(arg)
+                    || (f & (Flags.PARENTHESES.valueOf()
+                             | Flags.LEADING_SPACE.valueOf()
+                             | Flags.PLUS.valueOf())) != 0)
+                    return false;
+                printUnsigned(a, fs, unsignedValue(arg));
+                return true;
+            case Conversion.DECIMAL_FLOAT:
+                if (!(arg instanceof Double || arg instanceof Float))
+                    return false;
+                return printFloat(a, fs, ((Number) arg).doubleValue(), l);
+            default:
+                return false;
+            }
+        }
+
+        private static boolean isIntegral(Object arg) {
+            return arg instanceof Integer || arg instanceof Long
+                || arg instanceof Short || arg instanceof Byte;
+        }
+
+        // The two's complement bits of the argument, as for print(byte),
+        // print(short) and print(int) of a negative value.
+        private static long unsignedValue(Object arg) {
+            if (arg instanceof Integer)
+                return ((Integer) arg) & 0xffffffffL;
+            else if (arg instanceof Long)
+                return (Long) arg;
+            else if (arg instanceof Short)
+                return ((Short) arg) & 0xffffL;
+            else
+                return ((Byte) arg) & 0xffL;
+        }
+
+        private static void printString(Appendable a, FormatSpecifier fs,
+                                        String s)
+            throws IOException
+        {
+            int len = s.length();
+            if (fs.precision != -1 && fs.precision < len)
+                len = fs.precision;
+            boolean left = fs.f.contains(Flags.LEFT_JUSTIFY);
+            int sp = fs.width - len;
+            if (!left)
+                pad(a, ' ', sp);
+            a.append(s, 0, len);
+            if (left)
+                pad(a, ' ', sp);
+        }
+
+        private boolean printDecimal(Appendable a, FormatSpecifier fs,
+                                     long value, Locale l)
+            throws IOException
+        {
+            Flags f = fs.f;
+            Symbols sym = symbols(l);
+            boolean group = f.contains(Flags.GROUP);
+            // Grouping by one digit is left to localizedMagnitude, whose
+            // output it must match
+            if (group && sym.grpSize <= 1)
+                return false;
+            boolean neg = value < 0;
+            // Work with the non-positive magnitude, so that Long.MIN_VALUE
+            // needs no special case.
+            long q = neg ? value : -value;
+            int nd = 1;
+            long p = 1;
+            for (long t = q / 10; t != 0; t /= 10) {
+                nd++;
+                p *= 10;
+            }
+            int seps = group ? (nd - 1) / sym.grpSize : 0;
+            int body = nd + seps;
+            printSigned(a, fs, neg, body, sym.zero);
+            for (int j = 0; j < nd; j++, p /= 10) {
+                a.append((char) (sym.zero - (int) ((q / p) % 10)));
+                if (group && j != nd - 1 && ((nd - j - 1) % sym.grpSize == 0))
+                    a.append(sym.grpSep);
+            }
+            printTrailer(a, fs, neg, body);
+            return true;
+        }
+
+        private boolean printFloat(Appendable a, FormatSpecifier fs,
+                                   double value, Locale l)
+            throws IOException
+        {
+            if (Double.isNaN(value) || Double.isInfinite(value))
+                return false;
+            Flags f = fs.f;
+            Symbols sym = symbols(l);
+            boolean group = f.contains(Flags.GROUP);
+            if (group && sym.grpSize <= 1)
+                return false;
+            boolean neg = Double.compare(value, 0.0) == -1;
+            int prec = (fs.precision == -1 ? 6 : fs.precision);
+            char[] mant = FormattedFloatingDecimal.valueOf(Math.abs(value), prec,
+                              FormattedFloatingDecimal.Form.DECIMAL_FLOAT)
+                          .getMantissa();
+
+            // Lay out as addZeros, and addDot for '#', would.
+            int len = mant.length;
+            int dot = 0;
+            while (dot < len && mant[dot] != '.')
+                dot++;
+            int frac = (dot == len ? 0 : len - dot - 1);
+            assert frac <= prec;
+            int zeros = prec - frac;
+            boolean hasDot = dot < len || zeros > 0
+                || (prec == 0 && f.contains(Flags.ALTERNATE));
+            int seps = group ? (dot - 1) / sym.grpSize : 0;
+            int body = dot + seps + (hasDot ? 1 : 0) + frac + zeros;
+
+            printSigned(a, fs, neg, body, sym.zero);
+            for (int j = 0; j < dot; j++) {
+                a.append((char) ((mant[j] - '0') + sym.zero));
+                if (group && j != dot - 1 && ((dot - j - 1) % sym.grpSize == 0))
+                    a.append(sym.grpSep);
+            }
+            if (hasDot)
+                a.append(sym.decSep);
+            for (int j = dot + 1; j < len; j++)
+                a.append((char) ((mant[j] - '0') + sym.zero));
+            pad(a, sym.zero, zeros);
+            printTrailer(a, fs, neg, body);
+            return true;
+        }
+
+        // Writes the leading padding, the sign and any zero padding of a
+        // signed number whose digits and separators take body characters,
+        // as justify, leadingSign and localizedMagnitude would.
+        private static void printSigned(Appendable a, FormatSpecifier fs,
+                                        boolean neg, int body, char zero)
+            throws IOException
+        {
+            Flags f = fs.f;
+            char sign = 0;
+            if (neg)
+                sign = f.contains(Flags.PARENTHESES) ? '(' : '-';
+            else if (f.contains(Flags.PLUS))
+                sign = '+';
+            else if (f.contains(Flags.LEADING_SPACE))
+                sign = ' ';
+            int n = body + (sign != 0 ? 1 : 0);
+            int trail = (neg && f.contains(Flags.PARENTHESES)) ? 1 : 0;
+            int zeros = 0;
+            if (fs.width != -1 && f.contains(Flags.ZERO_PAD))
+                zeros = Math.max(0, fs.width - trail - n);
+            if (!f.contains(Flags.LEFT_JUSTIFY))
+                pad(a, ' ', fs.width - (n + zeros + trail));
+            if (sign != 0)
+                a.append(sign);
+            pad(a, zero, zeros);
+        }
+
+        // Writes the trailing sign and padding matching printSigned.
+        private static void printTrailer(Appendable a, FormatSpecifier fs,
+                                         boolean neg, int body)
+            throws IOException
+        {
+            Flags f = fs.f;
+            boolean paren = neg && f.contains(Flags.PARENTHESES);
+            if (paren)
+                a.append(')');
+            if (f.contains(Flags.LEFT_JUSTIFY)) {
+                boolean sign = neg || f.contains(Flags.PLUS)
+                    || f.contains(Flags.LEADING_SPACE);
+                int n = body + (sign ? 1 : 0) + (paren ? 1 : 0);
+                pad(a, ' ', fs.width - n);
+            }
+        }
+
+        private static void printUnsigned(Appendable a, FormatSpecifier fs,
+                                          long v)
+            throws IOException
+        {
+            Flags f = fs.f;
+            boolean hex = fs.c == Conversion.HEXADECIMAL_INTEGER;
+            boolean upper = f.contains(Flags.UPPERCASE);
+            int shift = hex ? 4 : 3;
+            int nd = Math.max(1, (64 - Long.numberOfLeadingZeros(v) + shift - 1)
+                                 / shift);
+            int prefix = f.contains(Flags.ALTERNATE) ? (hex ? 2 : 1) : 0;
+            int zeros = f.contains(Flags.ZERO_PAD)
+                ? Math.max(0, fs.width - (nd + prefix)) : 0;
+            int sp = fs.width - (prefix + zeros + nd);
+            boolean left = f.contains(Flags.LEFT_JUSTIFY);
+            if (!left)
+                pad(a, ' ', sp);
+            if (prefix != 0) {
+                a.append('0');
+                if (hex)
+                    a.append(upper ? 'X' : 'x');
+            }
+            pad(a, '0', zeros);
+            char[] digits = upper ? UPPER_DIGITS : DIGITS;
+            for (int i = nd - 1; i >= 0; i--)
+                a.append(digits[(int) (v >>> (i * shift)) & ((1 << shift) - 1)]);
+            if (left)
+                pad(a, ' ', sp);
+        }
+
+        private static void pad(Appendable a, char c, int n) throws IOException {
+            for (int i = 0; i < n; i++)
+                a.append(c);
+        }
+
+        private static final char[] DIGITS = {
+            '0', '1', '2', '3', '4', '5', '6', '7',
+            '8', '9', 'a', 'b', 'c', 'd', 'e', 'f'
+        };
+
+        private static final char[] UPPER_DIGITS = {
+            '0', '1', '2', '3', '4', '5', '6', '7',
+            '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'
+        };
+
+        private Symbols symbols(Locale l) {
+            Symbols sym = symbols;
+            if (sym.locale == l || (l != null && l.equals(sym.locale)))
+                return sym;
+            if (l == null || l.equals(Locale.US))
+                sym = new Symbols(l, '0', '.', ',', 3);
+            else
+                sym = Symbols.of(l);
+            symbols = sym;
+            return sym;
+        }
+
+        /**
+         * The localized zero digit and separators used by localizedMagnitude,
+         * for one locale.
+         */
+        private static final class Symbols {
+            static final Symbols US = new Symbols(Locale.US, '0', '.', ',', 3);
+
+            final Locale locale;
+            final char zero;
+            final char decSep;
+            final char grpSep;
+            final int grpSize;      // -1 if grouping is not supported
+
+            Symbols(Locale locale, char zero, char decSep, char grpSep,
+                    int grpSize) {
+                this.locale = locale;
+                this.zero = zero;
+                this.decSep = decSep;
+                this.grpSep = grpSep;
+                this.grpSize = grpSize;
+            }
+
+            static Symbols of(Locale l) {
+                DecimalFormatSymbols dfs = DecimalFormatSymbols.getInstance(l);
+                NumberFormat nf = NumberFormat.getIntegerInstance(l);
+                int grpSize = (nf instanceof DecimalFormat)
+                    ? ((DecimalFormat) nf).getGroupingSize() : -1;
+                return new Symbols(l, dfs.getZeroDigit(),
+                                   dfs.getDecimalSeparator(),
+                                   dfs.getGroupingSeparator(), grpSize);
+            }
+        }
+    }
+
     /**
      * Enum for {@code BigDecimal} formatting.
      */
@@ -2702,6 +3238,17 @@ public final class Formatter implements Closeable, Flushable {
             return c;
         }
 
+        // Copies a specifier parsed by another formatter, so that a
+        // Template can print it to this formatter's destination.
+        FormatSpecifier(FormatSpecifier fs) {
+            index = fs.index;
+            f = fs.f;
+            width = fs.width;
+            precision = fs.precision;
+            dt = fs.dt;
+            c = fs.c;
+        }
+
         FormatSpecifier(Matcher m) {
             int idx = 1;
 
@@ -0,0 +1,898 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util;
+
+import java.util.function.IntConsumer;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Hash table based implementation of a map from primitive <tt>int</tt> keys
+ * to primitive <tt>int</tt> values.  This class offers the same basic
+ * operations as a <tt>HashMap&lt;Integer,Integer&gt;</tt> (<tt>get</tt>,
+ * <tt>put</tt>, <tt>remove</tt>, <tt>containsKey</tt>, <tt>merge</tt> and so
+ * on), but neither keys nor values are ever boxed: they are stored in two
+ * parallel flat <tt>int[]</tt> arrays, so the map allocates no per-entry
+ * objects at all.  Lookups of absent keys return {@code 0}; use
+ * {@link #containsKey} or {@link #getOrDefault} to tell absence apart from
+ * a mapping to {@code 0}.
+ *
+ * <p>This is an open-addressing table with linear probing, in the manner of
+ * {@link IdentityHashMap}.  A key of {@code 0} marks a free slot, so the
+ * mapping for key {@code 0}, if any, is held outside the table.  Removal
+ * closes the gap left behind instead of leaving a tombstone, so lookups never
+ * degrade as a result of earlier removals.  The table is kept at most
+ * two-thirds full; creating the map with a suitable expected maximum size
+ * avoids rehashing as it grows.
+ *
+ * <p>Keys are visited through the {@link PrimitiveIterator.OfInt}
+ * returned by {@link #keyIterator()} or the {@link Spliterator.OfInt}
+ * returned by {@link #keySpliterator()}, and mappings through
+ * {@link #forEach}; none of these box the keys.
+ *
+ * <p><strong>Note that this implementation is not synchronized.</strong>
+ * If multiple threads access this map concurrently, and at least one of
+ * the threads modifies the map structurally, it <i>must</i> be synchronized
+ * externally.
+ *
+ * <p>The iterators and spliterators returned by this class are
+ * <i>fail-fast</i>: if the map is structurally modified after they are
+ * created they throw a {@link ConcurrentModificationException} on a
+ * best-effort basis.  They do not support removal.
+ *
+ * @see     HashMap
+ * @see     IdentityHashMap
+ * @see     LongLongHashMap
+ * @since   1.8
+ */
+public class IntIntHashMap implements java.io.Serializable, Cloneable {
+
+    private static final long serialVersionUID = 8405384632740958219L;
+
+    /**
+     * The initial capacity used by the no-args constructor.
+     * MUST be a power of two.  The value 32 corresponds to the
+     * (specified) expected maximum size of 21, given a load factor
+     * of 2/3.
+     */
+    private static final int DEFAULT_CAPACITY = 32;
+
+    /**
+     * The minimum capacity, used if a lower value is implicitly specified
+     * by either of the constructors with arguments.  The value 4 corresponds
+     * to an expected maximum size of 2, given a load factor of 2/3.
+     * MUST be a power of two.
+     */
+    private static final int MINIMUM_CAPACITY = 4;
+
+    /**
+     * The maximum capacity, used if a higher value is implicitly specified
+     * by either of the constructors with arguments.
+     * MUST be a power of two <= 1<<29.
+     *
+     * In fact, the table can hold no more than MAXIMUM_CAPACITY-1 items
+     * because it has to have at least one free slot in order to avoid
+     * infinite loops in get(), put(), remove()
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 29;
+
+    /**
+     * The keys, resized as necessary. Length MUST always be a power of two.
+     * A zero entry denotes a free slot.
+     */
+    transient int[] keys;
+
+    /**
+     * The values, parallel to keys.
+     */
+    transient int[] vals;
+
+    /**
+     * Whether a mapping for key 0, which cannot be held in the table,
+     * is present.
+     */
+    transient boolean hasZeroKey;
+
+    /**
+     * The value mapped to key 0, if hasZeroKey.
+     */
+    transient int zeroVal;
+
+    /**
+     * The number of key-value mappings contained in this map, including
+     * any mapping for key 0.
+     */
+    transient int size;
+
+    /**
+     * The number of modifications, to support fast-fail iterators
+     */
+    transient int modCount;
+
+    /**
+     * Constructs a new, empty map with a default expected maximum size (21).
+     */
+    public IntIntHashMap() {
+        init(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new, empty map with the specified expected maximum size.
+     * Putting more than the expected number of key-value mappings into
+     * the map may cause the internal data structure to grow, which may be
+     * somewhat time-consuming.
+     *
+     * @param expectedMaxSize the expected maximum size of the map
+     * @throws IllegalArgumentException if <tt>expectedMaxSize</tt> is negative
+     */
+    public IntIntHashMap(int expectedMaxSize) {
+        if (expectedMaxSize < 0)
+            throw new IllegalArgumentException("expectedMaxSize is negative: "
+                                               + expectedMaxSize);
+        init(capacity(expectedMaxSize));
+    }
+
+    /**
+     * Returns the appropriate capacity for the given expected maximum size.
+     * Returns the smallest power of two between MINIMUM_CAPACITY and
+     * MAXIMUM_CAPACITY, inclusive, that is greater than (3 *
+     * expectedMaxSize)/2, if such a number exists.  Otherwise returns
+     * MAXIMUM_CAPACITY.
+     */
+    private static int capacity(int expectedMaxSize) {
+        // assert expectedMaxSize >= 0;
+        return
+            (expectedMaxSize > MAXIMUM_CAPACITY / 3) ? MAXIMUM_CAPACITY :
+            (expectedMaxSize <= 2 * MINIMUM_CAPACITY / 3) ? MINIMUM_CAPACITY :
+            Integer.highestOneBit(expectedMaxSize + (expectedMaxSize << 1));
+    }
+
+    /**
+     * Initializes object to be an empty map with the specified initial
+     * capacity, which is assumed to be a power of two between
+     * MINIMUM_CAPACITY and MAXIMUM_CAPACITY inclusive.
+     */
+    private void init(int initCapacity) {
+        // assert (initCapacity & -initCapacity) == initCapacity; // power of 2
+        // assert initCapacity >= MINIMUM_CAPACITY;
+        // assert initCapacity <= MAXIMUM_CAPACITY;
+
+        keys = new int[initCapacity];
+        vals = new int[initCapacity];
+    }
+
+    /**
+     * Returns index for key x, which must not be zero.  The key is
+     * scrambled by a multiplicative (Fibonacci) hash so that sequential
+     * keys do not form long probe runs.
+     */
+    private static int hash(int x, int length) {
+        int h = x * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (length - 1);
+    }
+
+    /**
+     * Circularly traverses table of size len.
+     */
+    private static int nextKeyIndex(int i, int len) {
+        return (i + 1 < len ? i + 1 : 0);
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.
+     *
+     * @return the number of key-value mappings in this map
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains no key-value mappings.
+     *
+     * @return <tt>true</tt> if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Returns the table index of the given non-zero key, or -1 if absent.
+     */
+    private int indexOf(int key) {
+        int[] tab = keys;
+        int len = tab.length;
+        int i = hash(key, len);
+        while (true) {
+            int item = tab[i];
+            if (item == key)
+                return i;
+            if (item == 0)
+                return -1;
+            i = nextKeyIndex(i, len);
+        }
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code 0} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @return the value to which the specified key is mapped, or
+     *         {@code 0} if this map contains no mapping for the key
+     * @see #put(int, int)
+     */
+    public int get(int key) {
+        if (key == 0)
+            return zeroVal;
+        int i = indexOf(key);
+        return (i < 0) ? 0 : vals[i];
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped, or
+     * {@code defaultValue} if this map contains no mapping for the key.
+     *
+     * @param key the key whose associated value is to be returned
+     * @param defaultValue the default mapping of the key
+     * @return the value to which the specified key is mapped, or
+     *         {@code defaultValue} if this map contains no mapping for the key
+     */
+    public int getOrDefault(int key, int defaultValue) {
+        if (key == 0)
+            return hasZeroKey ? zeroVal : defaultValue;
+        int i = indexOf(key);
+        return (i < 0) ? defaultValue : vals[i];
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map contains a mapping for the
+     * specified key.
+     *
+     * @param   key   possible key
+     * @return <tt>true</tt> if this map contains a mapping for the specified
+     *         key
+     */
+    public boolean containsKey(int key) {
+        return (key == 0) ? hasZeroKey : indexOf(key) >= 0;
+    }
+
+    /**
+     * Returns <tt>true</tt> if this map maps one or more keys to the
+     * specified value.  This operation requires time linear in the
+     * capacity of the map.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return <tt>true</tt> if this map maps one or more keys to the
+     *         specified value
+     */
+    public boolean containsValue(int value) {
+        if (hasZeroKey && zeroVal == value)
+            return true;
+        int[] tab = keys;
+        int[] vs = vals;
+        for (int i = 0; i < tab.length; i++)
+            if (tab[i] != 0 && vs[i] == value)
+                return true;
+        return false;
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key the key with which the specified value is to be associated
+     * @param value the value to be associated with the specified key
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>0</tt> if there was no mapping for <tt>key</tt>
+     */
+    public int put(int key, int value) {
+        int i = insertionIndex(key);
+        int oldValue;
+        if (i < 0) {
+            oldValue = zeroVal;
+            zeroVal = value;
+        } else {
+            oldValue = vals[i];
+            vals[i] = value;
+        }
+        return oldValue;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value and returns {@code 0}, else
+     * returns the current value.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key, or
+     *         {@code 0} if there was no mapping for the key
+     */
+    public int putIfAbsent(int key, int value) {
+        if (containsKey(key))
+            return get(key);
+        put(key, value);
+        return 0;
+    }
+
+    /**
+     * If the specified key is not already associated with a value,
+     * associates it with the given value.  Otherwise, replaces the
+     * associated value with the result of the given remapping function.
+     * This is the unboxed counterpart of
+     * <tt>Map.merge(key, value, Integer::sum)</tt> and similar idioms, and
+     * is convenient for counting and accumulating:
+     * <pre> {@code
+     * map.merge(k, 1, Integer::sum)}</pre>
+     *
+     * <p>The remapping function should not modify this map during
+     * computation; if it does, a {@link ConcurrentModificationException}
+     * is thrown.
+     *
+     * @param key key with which the resulting value is to be associated
+     * @param value the value to be used if the key is absent
+     * @param remappingFunction the function to recompute a value if present
+     * @return the new value associated with the specified key
+     * @throws NullPointerException if the remapping function is null
+     */
+    public int merge(int key, int value,
+                     IntBinaryOperator remappingFunction) {
+        Objects.requireNonNull(remappingFunction);
+        boolean present = containsKey(key);
+        int i = insertionIndex(key);
+        if (present) {
+            int oldValue = (i < 0) ? zeroVal : vals[i];
+            int mc = modCount;
+            value = remappingFunction.applyAsInt(oldValue, value);
+            if (mc != modCount)
+                throw new ConcurrentModificationException();
+        }
+        if (i < 0)
+            zeroVal = value;
+        else
+            vals[i] = value;
+        return value;
+    }
+
+    /**
+     * Returns the slot holding the given key, inserting the key with
+     * value 0 if it is not yet present, or -1 for key 0.
+     */
+    private int insertionIndex(int key) {
+        if (key == 0) {
+            if (!hasZeroKey) {
+                modCount++;
+                size++;
+                hasZeroKey = true;
+            }
+            return -1;
+        }
+
+        retryAfterResize: for (;;) {
+            final int[] tab = keys;
+            final int len = tab.length;
+            int i = hash(key, len);
+
+            for (int item; (item = tab[i]) != 0; i = nextKeyIndex(i, len)) {
+                if (item == key)
+                    return i;
+            }
+
+            final int s = size + 1;
+            // Use optimized form of 3 * s.
+            // Next capacity is 2 * current capacity.
+            if (s + (s << 1) > (len << 1) && resize(len << 1))
+                continue retryAfterResize;
+
+            modCount++;
+            tab[i] = key;
+            size = s;
+            return i;
+        }
+    }
+
+    /**
+     * Resizes the table if necessary to hold given capacity.
+     *
+     * @param newCapacity the new capacity, must be a power of two.
+     * @return whether a resize did in fact take place
+     */
+    private boolean resize(int newCapacity) {
+        // assert (newCapacity & -newCapacity) == newCapacity; // power of 2
+        int[] oldKeys = keys;
+        int[] oldVals = vals;
+        int oldLength = oldKeys.length;
+        if (oldLength == MAXIMUM_CAPACITY) { // can't expand any further
+            if (size == MAXIMUM_CAPACITY - 1)
+                throw new IllegalStateException("Capacity exhausted.");
+            return false;
+        }
+        if (oldLength >= newCapacity)
+            return false;
+
+        int[] newKeys = new int[newCapacity];
+        int[] newVals = new int[newCapacity];
+
+        for (int j = 0; j < oldLength; j++) {
+            int key = oldKeys[j];
+            if (key != 0) {
+                int i = hash(key, newCapacity);
+                while (newKeys[i] != 0)
+                    i = nextKeyIndex(i, newCapacity);
+                newKeys[i] = key;
+                newVals[i] = oldVals[j];
+            }
+        }
+        keys = newKeys;
+        vals = newVals;
+        return true;
+    }
+
+    /**
+     * Removes the mapping for this key from this map if present.
+     *
+     * @param key key whose mapping is to be removed from the map
+     * @return the previous value associated with <tt>key</tt>, or
+     *         <tt>0</tt> if there was no mapping for <tt>key</tt>
+     */
+    public int remove(int key) {
+        if (key == 0) {
+            if (!hasZeroKey)
+                return 0;
+            int oldValue = zeroVal;
+            modCount++;
+            size--;
+            hasZeroKey = false;
+            zeroVal = 0;
+            return oldValue;
+        }
+        int i = indexOf(key);
+        if (i < 0)
+            return 0;
+        modCount++;
+        size--;
+        int oldValue = vals[i];
+        keys[i] = 0;
+        vals[i] = 0;
+        closeDeletion(i);
+        return oldValue;
+    }
+
+    /**
+     * Rehash all possibly-colliding entries following a
+     * deletion. This preserves the linear-probe
+     * collision properties required by get, put, etc.
+     *
+     * @param d the index of a newly empty deleted slot
+     */
+    private void closeDeletion(int d) {
+        // Adapted from Knuth Section 6.4 Algorithm R
+        int[] tab = keys;
+        int[] vs = vals;
+        int len = tab.length;
+
+        // Look for items to swap into newly vacated slot
+        // starting at index immediately following deletion,
+        // and continuing until a free slot is seen, indicating
+        // the end of a run of possibly-colliding keys.
+        int item;
+        for (int i = nextKeyIndex(d, len); (item = tab[i]) != 0;
+             i = nextKeyIndex(i, len) ) {
+            // The item at slot i (which hashes to be at slot r) moves
+            // into the vacated slot d unless r lies cyclically in (d, i].
+            int r = hash(item, len);
+            if ((i < r && (r <= d || d <= i)) || (r <= d && d <= i)) {
+                tab[d] = item;
+                vs[d] = vs[i];
+                tab[i] = 0;
+                vs[i] = 0;
+                d = i;
+            }
+        }
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     * The map will be empty after this call returns.
+     */
+    public void clear() {
+        modCount++;
+        Arrays.fill(keys, 0);
+        Arrays.fill(vals, 0);
+        hasZeroKey = false;
+        zeroVal = 0;
+        size = 0;
+    }
+
+    /**
+     * Performs the given action for each mapping in this map until all
+     * mappings have been processed or the action throws an exception.
+     * Mappings are visited in no particular order.
+     *
+     * @param action The action to be performed for each mapping
+     * @throws NullPointerException if the specified action is null
+     * @throws ConcurrentModificationException if the map is structurally
+     *         modified during the traversal
+     */
+    public void forEach(EntryConsumer action) {
+        Objects.requireNonNull(action);
+        int expectedModCount = modCount;
+
+        if (hasZeroKey)
+            action.accept(0, zeroVal);
+        int[] t = keys;
+        int[] vs = vals;
+        for (int index = 0; index < t.length; index++) {
+            int k = t[index];
+            if (k != 0)
+                action.accept(k, vs[index]);
+
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
+
+    /**
+     * Returns an iterator over the keys of this map, in no particular
+     * order.  The iterator does not support removal.
+     *
+     * @return an iterator over the keys of this map
+     */
+    public PrimitiveIterator.OfInt keyIterator() {
+        return new KeyIterator();
+    }
+
+    /**
+     * Returns a {@link Spliterator.OfInt} over the keys of this map.
+     *
+     * <p>The spliterator reports {@link Spliterator#SIZED} and
+     * {@link Spliterator#DISTINCT}, and is <em>fail-fast</em>.
+     *
+     * @return a spliterator over the keys of this map
+     */
+    public Spliterator.OfInt keySpliterator() {
+        return new KeySpliterator(this, -1, -1, 0, 0);
+    }
+
+    /**
+     * Compares the specified object with this map for equality.  Returns
+     * <tt>true</tt> if the given object is also a <tt>IntIntHashMap</tt> and
+     * the two maps contain the same key-value mappings.
+     *
+     * @param  o object to be compared for equality with this map
+     * @return <tt>true</tt> if the specified object is equal to this map
+     */
+    public boolean equals(Object o) {
+        if (o == this)
+            return true;
+        if (!(o instanceof IntIntHashMap))
+            return false;
+        IntIntHashMap m = (IntIntHashMap) o;
+        if (m.size != size || m.hasZeroKey != hasZeroKey)
+            return false;
+        if (hasZeroKey && zeroVal != m.zeroVal)
+            return false;
+        int[] tab = keys;
+        int[] vs = vals;
+        for (int i = 0; i < tab.length; i++) {
+            int k = tab[i];
+            if (k != 0) {
+                int j = m.indexOf(k);
+                if (j < 0 || vs[i] != m.vals[j])
+                    return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the hash code value for this map.  This is the sum, over
+     * all mappings, of <tt>Integer.hashCode(key) ^ Integer.hashCode(value)</tt>,
+     * which is the hash code of an equal <tt>Map&lt;Integer,Integer&gt;</tt>.
+     *
+     * @return the hash code value for this map
+     */
+    public int hashCode() {
+        int result = 0;
+        if (hasZeroKey)
+            result += Integer.hashCode(zeroVal);
+        int[] tab = keys;
+        int[] vs = vals;
+        for (int i = 0; i < tab.length; i++) {
+            int k = tab[i];
+            if (k != 0)
+                result += Integer.hashCode(k) ^ Integer.hashCode(vs[i]);
+        }
+        return result;
+    }
+
+    /**
+     * Returns a string representation of this map, in the same form as
+     * {@link AbstractMap#toString()}.
+     *
+     * @return a string representation of this map
+     */
+    public String toString() {
+        if (size == 0)
+            return "{}";
+
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        if (hasZeroKey)
+            sb.append(0).append('=').append(zeroVal).append(", ");
+        int[] tab = keys;
+        int[] vs = vals;
+        for (int i = 0; i < tab.length; i++) {
+            if (tab[i] != 0)
+                sb.append(tab[i]).append('=').append(vs[i]).append(", ");
+        }
+        sb.setLength(sb.length() - 2);
+        return sb.append('}').toString();
+    }
+
+    /**
+     * Returns a copy of this map.
+     *
+     * @return a copy of this map
+     */
+    public Object clone() {
+        try {
+            IntIntHashMap m = (IntIntHashMap) super.clone();
+            m.keys = keys.clone();
+            m.vals = vals.clone();
+            return m;
+        } catch (CloneNotSupportedException e) {
+            throw new InternalError(e);
+        }
+    }
+
+    /**
+     * Represents an operation that accepts a <tt>int</tt> key and its
+     * mapped <tt>int</tt> value, and returns no result.
+     *
+     * @see IntIntHashMap#forEach(EntryConsumer)
+     */
+    @FunctionalInterface
+    public interface EntryConsumer {
+        /**
+         * Performs this operation on the given mapping.
+         *
+         * @param key the key
+         * @param value the value mapped to the key
+         */
+        void accept(int key, int value);
+    }
+
+    private final class KeyIterator implements PrimitiveIterator.OfInt {
+        int index = hasZeroKey ? -1 : 0; // current slot; -1 denotes key 0
+        int expectedModCount = modCount; // to support fast-fail
+        final int[] tab = keys;
+
+        public boolean hasNext() {
+            if (index < 0)
+                return true;
+            int[] t = tab;
+            for (int i = index; i < t.length; i++) {
+                if (t[i] != 0) {
+                    index = i;
+                    return true;
+                }
+            }
+            index = t.length;
+            return false;
+        }
+
+        public int nextInt() {
+            if (modCount != expectedModCount)
+                throw new ConcurrentModificationException();
+            if (!hasNext())
+                throw new NoSuchElementException();
+            int i = index++;
+            return (i < 0) ? 0 : tab[i];
+        }
+    }
+
+    /**
+     * Similar form as array-based Spliterators, but skips free slots,
+     * and guestimates size as decreasing by half per split.  Index -1
+     * stands for the mapping for key 0, held outside the table.
+     */
+    static final class KeySpliterator implements Spliterator.OfInt {
+        final IntIntHashMap map;
+        int index;             // current index, modified on advance/split
+        int fence;             // -1 until first use; then one past last index
+        int est;               // size estimate
+        int expectedModCount;  // initialized when fence set
+
+        KeySpliterator(IntIntHashMap map, int origin, int fence, int est,
+                       int expectedModCount) {
+            this.map = map;
+            this.index = origin;
+            this.fence = fence;
+            this.est = est;
+            this.expectedModCount = expectedModCount;
+        }
+
+        final int getFence() { // initialize fence and size on first use
+            int hi;
+            if ((hi = fence) < 0) {
+                est = map.size;
+                expectedModCount = map.modCount;
+                hi = fence = map.keys.length;
+            }
+            return hi;
+        }
+
+        public KeySpliterator trySplit() {
+            int hi = getFence(), lo = index, mid = (lo + hi) >>> 1;
+            return (lo >= mid) ? null :
+                new KeySpliterator(map, lo, index = mid, est >>>= 1,
+                                   expectedModCount);
+        }
+
+        public void forEachRemaining(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int i, hi; int key;
+            IntIntHashMap m; int[] a;
+            if ((m = map) != null && (a = m.keys) != null &&
+                (i = index) >= -1 && (index = hi = getFence()) <= a.length) {
+                if (i < 0) {
+                    if (m.hasZeroKey)
+                        action.accept(0);
+                    i = 0;
+                }
+                for (; i < hi; i++) {
+                    if ((key = a[i]) != 0)
+                        action.accept(key);
+                }
+                if (m.modCount == expectedModCount)
+                    return;
+            }
+            throw new ConcurrentModificationException();
+        }
+
+        public boolean tryAdvance(IntConsumer action) {
+            if (action == null)
+                throw new NullPointerException();
+            int[] a = map.keys;
+            int hi = getFence();
+            while (index < hi) {
+                int i = index++;
+                int key;
+                if (i < 0) {
+                    if (!map.hasZeroKey)
+                        continue;
+                    key = 0;
+                } else if ((key = a[i]) == 0)
+                    continue;
+                action.accept(key);
+                if (map.modCount != expectedModCount)
+                    throw new ConcurrentModificationException();
+                return true;
+            }
+            return false;
+        }
+
+        public long estimateSize() {
+            getFence(); // force init
+            return (long) est;
+        }
+
+        public int characteristics() {
+            return (fence < 0 || est == map.size ? SIZED : 0) | Spliterator.DISTINCT;
+        }
+    }
+
+    /**
+     * Saves the state of the <tt>IntIntHashMap</tt> instance to a stream
+     * (i.e., serializes it).
+     *
+     * @serialData The <i>size</i> of the map (the number of key-value
+     *          mappings) (<tt>int</tt>), followed by the key
+     *          (<tt>int</tt>) and value (<tt>int</tt>) for each key-value
+     *          mapping.  The key-value mappings are emitted in no
+     *          particular order.
+     */
+    private void writeObject(java.io.ObjectOutputStream s)
+        throws java.io.IOException  {
+        // Write out and any hidden stuff
+        s.defaultWriteObject();
+
+        // Write out size (number of Mappings)
+        s.writeInt(size);
+
+        // Write out keys and values (alternating)
+        if (hasZeroKey) {
+            s.writeInt(0);
+            s.writeInt(zeroVal);
+        }
+        int[] tab = keys;
+        int[] vs = vals;
+        for (int i = 0; i < tab.length; i++) {
+            int key = tab[i];
+            if (key != 0) {
+                s.writeInt(key);
+                s.writeInt(vs[i]);
+            }
+        }
+    }
+
+    /**
+     * Reconstitutes the <tt>IntIntHashMap</tt> instance from a stream (i.e.,
+     * deserializes it).
+     */
+    private void readObject(java.io.ObjectInputStream s)
+        throws java.io.IOException, ClassNotFoundException  {
+        // Read in any hidden stuff
+        s.defaultReadObject();
+
+        // Read in size (number of Mappings)
+        int size = s.readInt();
+        if (size < 0)
+            throw new java.io.StreamCorruptedException
+                ("Illegal mappings count: " + size);
+        init(capacity(size));
+
+        // Read the keys and values, and put the mappings in the table
+        for (int i=0; i<size; i++) {
+            int key = s.readInt();
+            int value = s.readInt();
+            if (key == 0) {
+                if (hasZeroKey)
+                    throw new java.io.StreamCorruptedException();
+                hasZeroKey = true;
+                zeroVal = value;
+            } else {
+                putForCreate(key, value);
+            }
+        }
+        this.size = size;
+    }
+
+    /**
+     * The put method for readObject.  It does not resize the table,
+     * update modCount, etc.
+     */
+    private void putForCreate(int key, int value)
+        throws java.io.StreamCorruptedException
+    {
+        int[] tab = keys;
+        int len = tab.length;
+        int i = hash(key, len);
+
+        int item;
+        while ( (item = tab[i]) != 0) {
+            if (item == key)
+                throw new java.io.StreamCorruptedException();
+            i = nextKeyIndex(i, len);
+        }
+        tab[i] = key;
+        vals[i] = value;
+    }
+}
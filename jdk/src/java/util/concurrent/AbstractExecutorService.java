@@ -35,6 +35,7 @@
 
 package java.util.concurrent;
 import java.util.*;
+import java.util.concurrent.locks.LockSupport;
 
 /**
  * Provides default implementations of {@link ExecutorService}
@@ -304,4 +305,185 @@ public abstract class AbstractExecutorService implements ExecutorService {
         }
     }
 
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation submits a single {@code Runnable} to
+     * {@code execute} a few times, rather than one per task.  Each
+     * submission, when run, runs the tasks of the batch not yet claimed
+     * by another, one at a time, until none remain.  Hooks that observe
+     * the {@code Runnable} passed to {@code execute}, such as those of
+     * {@link ThreadPoolExecutor}, see this {@code Runnable}, not the
+     * tasks.  An exception thrown by a task propagates from the run of
+     * that {@code Runnable} after the remaining tasks it claims have run.
+     * The batch is rejected only if its first submission is rejected;
+     * later submissions that are rejected are dropped, since the
+     * accepted ones run all the tasks.
+     *
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @since 1.8
+     */
+    public void executeAll(Collection<? extends Runnable> tasks) {
+        Object[] a = toTaskArray(tasks);
+        if (a.length > 0)
+            submitBatch(new Batch(a, null));
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * <p>This implementation runs the tasks as does {@link #executeAll},
+     * storing their results in a single array.
+     *
+     * @throws InterruptedException       {@inheritDoc}
+     * @throws ExecutionException         {@inheritDoc}
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @since 1.8
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> invokeAllResults(Collection<? extends Callable<T>> tasks)
+        throws InterruptedException, ExecutionException {
+        Object[] a = toTaskArray(tasks);
+        Object[] results = new Object[a.length];
+        if (a.length > 0) {
+            Batch b = new Batch(a, results);
+            submitBatch(b);
+            b.await();
+            if (b.failure != null)
+                throw new ExecutionException(b.failure);
+        }
+        return (List<T>)Arrays.asList(results);
+    }
+
+    /**
+     * Returns the tasks of the given collection as an array, checking
+     * that none is null.
+     */
+    static Object[] toTaskArray(Collection<?> tasks) {
+        if (tasks == null)
+            throw new NullPointerException();
+        Object[] a = tasks.toArray();
+        for (Object t : a) {
+            if (t == null)
+                throw new NullPointerException();
+        }
+        return a;
+    }
+
+    /**
+     * Returns the number of threads that can usefully run the tasks of
+     * a batch at once.  Overridden by ThreadPoolExecutor.
+     */
+    int batchParallelism() {
+        return Runtime.getRuntime().availableProcessors();
+    }
+
+    private void submitBatch(Batch b) {
+        int k = Math.max(1, Math.min(b.tasks.length, batchParallelism()));
+        execute(b);
+        try {
+            while (--k > 0 && b.next < b.tasks.length)
+                execute(b);
+        } catch (RejectedExecutionException ignore) {
+        }
+    }
+
+    /**
+     * A batch of Runnables, or of Callables whose results are stored
+     * in an array, run by each thread that runs the batch claiming the
+     * index of the next task until none remain.  A waiting caller parks
+     * until the count of tasks not yet finished reaches zero.  Failures
+     * of Callables are recorded under the batch's lock, keeping the one
+     * with the lowest index.
+     */
+    static final class Batch implements Runnable {
+        final Object[] tasks;
+        final Object[] results;     // null for Runnables
+        volatile int next;          // index of next task to claim
+        volatile int pending;       // number of tasks not finished
+        volatile Thread waiter;
+        int failedIndex;            // guarded by this
+        Throwable failure;          // guarded by this
+
+        Batch(Object[] tasks, Object[] results) {
+            this.tasks = tasks;
+            this.results = results;
+            this.pending = tasks.length;
+        }
+
+        public void run() {
+            final Object[] a = tasks;
+            Throwable ex = null;
+            for (int i; (i = next) < a.length; ) {
+                if (!U.compareAndSwapInt(this, NEXT, i, i + 1))
+                    continue;
+                try {
+                    if (results == null)
+                        ((Runnable)a[i]).run();
+                    else
+                        results[i] = ((Callable<?>)a[i]).call();
+                } catch (Throwable x) {
+                    if (results != null)
+                        fail(i, x);
+                    else if (ex == null)
+                        ex = x;
+                }
+                finish(1);
+            }
+            if (ex != null)
+                ForkJoinTask.rethrow(ex);
+        }
+
+        private synchronized void fail(int i, Throwable x) {
+            if (failure == null || i < failedIndex) {
+                failure = x;
+                failedIndex = i;
+            }
+        }
+
+        private void finish(int n) {
+            if (U.getAndAddInt(this, PENDING, -n) == n) {
+                Thread w = waiter;
+                if (w != null)
+                    LockSupport.unpark(w);
+            }
+        }
+
+        /**
+         * Waits until all tasks have finished.  If interrupted, claims
+         * the tasks not yet started, so that they are not run.
+         */
+        void await() throws InterruptedException {
+            waiter = Thread.currentThread();
+            while (pending != 0) {
+                if (Thread.interrupted()) {
+                    for (int i; (i = next) < tasks.length; ) {
+                        if (U.compareAndSwapInt(this, NEXT, i, tasks.length)) {
+                            finish(tasks.length - i);
+                            break;
+                        }
+                    }
+                    throw new InterruptedException();
+                }
+                LockSupport.park(this);
+            }
+        }
+
+        private static final sun.misc.Unsafe U;
+        private static final long NEXT;
+        private static final long PENDING;
+        static {
+            try {
+                U = sun.misc.Unsafe.getUnsafe();
+                Class<?> k = Batch.class;
+                NEXT = U.objectFieldOffset(k.getDeclaredField("next"));
+                PENDING = U.objectFieldOffset(k.getDeclaredField("pending"));
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+
 }
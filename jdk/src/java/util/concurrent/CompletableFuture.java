@@ -1313,6 +1313,89 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
         return d;
     }
 
+    /**
+     * Shared state of the AndRelays of a counted allOf: the number of
+     * sources not yet known to be done, plus one until all relays are
+     * pushed.  The relay that counts down to zero completes dep with
+     * the exception of the first source, in array order, that has one,
+     * as does andTree.
+     */
+    static final class AndCount {
+        final CompletableFuture<Void> dep;
+        final CompletableFuture<?>[] srcs;
+        volatile int pending;
+        AndCount(CompletableFuture<Void> dep, CompletableFuture<?>[] srcs) {
+            this.dep = dep; this.srcs = srcs; this.pending = srcs.length + 1;
+        }
+
+        /** Returns true if dep was completed by this call. */
+        final boolean countDown() {
+            int p;
+            do {} while (!UNSAFE.compareAndSwapInt(this, PENDING,
+                                                   p = pending, p - 1));
+            if (p != 1)
+                return false;
+            CompletableFuture<Void> d = dep;
+            Object r; Throwable x;
+            for (CompletableFuture<?> a : srcs) {
+                if ((r = a.result) instanceof AltResult &&
+                    (x = ((AltResult)r).ex) != null) {
+                    d.completeThrowable(x, r);
+                    return true;
+                }
+            }
+            d.completeNull();
+            return true;
+        }
+    }
+
+    @SuppressWarnings("serial")
+    static final class AndRelay extends Completion { // for counted allOf
+        AndCount count;
+        CompletableFuture<?> src;
+        AndRelay(AndCount count, CompletableFuture<?> src) {
+            this.count = count; this.src = src;
+        }
+        final CompletableFuture<?> tryFire(int mode) {
+            AndCount k; CompletableFuture<?> a;
+            if ((k = count) == null || (a = src) == null ||
+                a.result == null ||
+                !compareAndSetForkJoinTaskTag((short)0, (short)1))
+                return null;
+            count = null; src = null;
+            k.countDown();
+            return k.dep.postFire(a, mode);
+        }
+        final boolean isLive() { return count != null; }
+    }
+
+    /**
+     * Constructs the dependent of allOf with one relay per source, all
+     * counting down a single AndCount, rather than a tree of BiRelays
+     * and intermediate futures.
+     */
+    static CompletableFuture<Void> andCount(CompletableFuture<?>[] cfs) {
+        CompletableFuture<?>[] srcs = cfs.clone();
+        for (CompletableFuture<?> a : srcs) {
+            if (a == null)
+                throw new NullPointerException();
+        }
+        CompletableFuture<Void> d = new CompletableFuture<Void>();
+        AndCount k = new AndCount(d, srcs);
+        for (CompletableFuture<?> a : srcs) {
+            if (a.result != null)
+                k.countDown();
+            else {
+                AndRelay c = new AndRelay(k, a);
+                while (a.result == null && !a.tryPushStack(c))
+                    lazySetNext(c, null); // clear on failure
+                c.tryFire(SYNC);
+            }
+        }
+        k.countDown();
+        return d;
+    }
+
     /* ------------- Projected (Ored) BiCompletions -------------- */
 
     /** Pushes completion to this and b unless either done. */
@@ -2222,7 +2305,8 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
      * {@code null}
      */
     public static CompletableFuture<Void> allOf(CompletableFuture<?>... cfs) {
-        return andTree(cfs, 0, cfs.length - 1);
+        return (cfs.length <= 2) ? andTree(cfs, 0, cfs.length - 1) :
+            andCount(cfs);
     }
 
     /**
@@ -2369,6 +2453,7 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
     private static final long RESULT;
     private static final long STACK;
     private static final long NEXT;
+    private static final long PENDING;
     static {
         try {
             final sun.misc.Unsafe u;
@@ -2378,6 +2463,8 @@ public class CompletableFuture<T> implements Future<T>, CompletionStage<T> {
             STACK = u.objectFieldOffset(k.getDeclaredField("stack"));
             NEXT = u.objectFieldOffset
                 (Completion.class.getDeclaredField("next"));
+            PENDING = u.objectFieldOffset
+                (AndCount.class.getDeclaredField("pending"));
         } catch (Exception x) {
             throw new Error(x);
         }
@@ -0,0 +1,166 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+/**
+ * The management interface for the statistics of a {@link
+ * ThreadPoolExecutor} or {@link ForkJoinPool}.
+ *
+ * <p>Statistics are kept only if the system property {@code
+ * java.util.concurrent.executorStatistics} is set to {@code true}
+ * when the executor is created.  Each such executor then registers an
+ * instance of this interface, which is an {@link javax.management.MXBean
+ * MXBean}, with the {@linkplain
+ * java.lang.management.ManagementFactory#getPlatformMBeanServer platform
+ * {@code MBeanServer}}, and unregisters it when the executor terminates.
+ * The registration does not keep the executor reachable: the instance
+ * of an executor that is garbage collected without being shut down is
+ * unregistered when a later executor registers its own.
+ * The {@link javax.management.ObjectName ObjectName} that uniquely
+ * identifies the management interface within the {@code MBeanServer}
+ * takes the form:
+ * <pre>
+ *    java.util.concurrent:type=Executor,name=<i>executor name</i>
+ * </pre>
+ * where <em>executor name</em> is the {@link #getName name} of the
+ * executor.
+ *
+ * <p>Two distributions of times in nanoseconds are recorded: the
+ * <em>queue latency</em>, from the submission of a task until a
+ * thread starts to run it, and the <em>run time</em> of the task.
+ * Queue latency is recorded only for tasks that the executor creates
+ * to represent a submitted {@code Runnable} or {@code Callable}: those
+ * returned by the {@code submit} methods of a {@code ThreadPoolExecutor},
+ * and those of a {@code ForkJoinPool} created by its {@code execute},
+ * {@code submit} and {@code invokeAll} methods for tasks that are not
+ * already {@code ForkJoinTask}s.  Run time is recorded for every task
+ * run by a {@code ThreadPoolExecutor}, and for every top-level task run
+ * by a {@code ForkJoinPool}, including the subtasks it forks and joins.
+ *
+ * <p>Each distribution is kept as a histogram whose buckets have
+ * bounds given by {@link #getHistogramBounds}: every power of two is
+ * divided into eight buckets, so that a value is known to within 12.5%.
+ * Values are recorded without locking, and the statistics returned by
+ * this interface are estimates while tasks are running.
+ *
+ * @since 1.8
+ */
+public interface ExecutorMXBean {
+
+    /**
+     * Returns the name of the executor.  The name of a {@code
+     * ForkJoinPool} is the prefix of the names of its worker threads.
+     *
+     * @return the name of the executor
+     */
+    String getName();
+
+    /**
+     * Returns the number of tasks rejected by the executor.
+     *
+     * @return the number of rejected tasks
+     */
+    long getRejectedTaskCount();
+
+    /**
+     * Returns an estimate of the total number of tasks stolen from
+     * one thread's work queue by another, as {@link
+     * ForkJoinPool#getStealCount}, or zero if the executor is not a
+     * {@code ForkJoinPool}.
+     *
+     * @return the number of steals
+     */
+    long getStealCount();
+
+    /**
+     * Returns the number of steals by each current worker of a {@code
+     * ForkJoinPool}, since it started or its count was last added to
+     * the pool total, or an empty array if the executor is not a
+     * {@code ForkJoinPool}.
+     *
+     * @return the number of steals for each work queue
+     */
+    long[] getWorkQueueStealCounts();
+
+    /**
+     * Returns the lower bounds, in nanoseconds, of the histogram
+     * buckets.  Bucket {@code i} counts values at least {@code
+     * bounds[i]} and less than {@code bounds[i + 1]}.
+     *
+     * @return the lower bound of each bucket
+     */
+    long[] getHistogramBounds();
+
+    /**
+     * Returns the number of tasks in each bucket of the queue latency
+     * histogram.
+     *
+     * @return the count of each bucket
+     */
+    long[] getQueueLatencyHistogram();
+
+    /**
+     * Returns the number of tasks in each bucket of the run time
+     * histogram.
+     *
+     * @return the count of each bucket
+     */
+    long[] getRunTimeHistogram();
+
+    /**
+     * Returns the longest queue latency recorded, in nanoseconds.
+     *
+     * @return the longest queue latency
+     */
+    long getMaxQueueLatency();
+
+    /**
+     * Returns the longest run time recorded, in nanoseconds.
+     *
+     * @return the longest run time
+     */
+    long getMaxRunTime();
+
+    /**
+     * Returns an upper bound, in nanoseconds, of the given percentile
+     * of the queue latencies recorded, or zero if none are recorded.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the queue latency at the percentile
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    long getQueueLatencyPercentile(double percentile);
+
+    /**
+     * Returns an upper bound, in nanoseconds, of the given percentile
+     * of the run times recorded, or zero if none are recorded.
+     *
+     * @param percentile the percentile, from 0 to 100
+     * @return the run time at the percentile
+     * @throws IllegalArgumentException if the percentile is out of range
+     */
+    long getRunTimePercentile(double percentile);
+}
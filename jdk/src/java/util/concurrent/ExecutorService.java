@@ -36,6 +36,7 @@
 package java.util.concurrent;
 import java.util.List;
 import java.util.Collection;
+import java.util.ArrayList;
 
 /**
  * An {@link Executor} that provides methods to manage termination and
@@ -319,6 +320,76 @@ public interface ExecutorService extends Executor {
                                   long timeout, TimeUnit unit)
         throws InterruptedException;
 
+    /**
+     * Executes the given tasks sometime in the future, as if by calling
+     * {@link Executor#execute execute} for each task in the order
+     * produced by the iterator of the collection.  An implementation
+     * may instead submit the tasks together, with fewer queue
+     * insertions and thread wakeups than separate calls to {@code
+     * execute}; in that case the tasks need not start in order, and an
+     * exception thrown by one task does not prevent the others from
+     * running.
+     * The results of this method are undefined if the given
+     * collection is modified while this operation is in progress.
+     *
+     * @implSpec
+     * The default implementation calls {@code execute} for each task.
+     *
+     * @param tasks the collection of tasks
+     * @throws NullPointerException if tasks or any of its elements are
+     *         {@code null}
+     * @throws RejectedExecutionException if the tasks cannot be
+     *         accepted for execution
+     * @since 1.8
+     */
+    default void executeAll(Collection<? extends Runnable> tasks) {
+        if (tasks == null)
+            throw new NullPointerException();
+        for (Runnable t : tasks)
+            execute(t);
+    }
+
+    /**
+     * Executes the given tasks, returning a list of their results,
+     * in the same sequential order as produced by the iterator for
+     * the given task list, when all complete.  Unlike {@link
+     * #invokeAll(Collection) invokeAll}, this method does not report
+     * the status of each task through a {@code Future}, and so an
+     * implementation need not create one for each task.  If any task
+     * completes by throwing an exception, this method throws an
+     * {@code ExecutionException} holding the exception of the first
+     * such task in that order, once all tasks have completed.
+     * The results of this method are undefined if the given
+     * collection is modified while this operation is in progress.
+     *
+     * @implSpec
+     * The default implementation calls {@code invokeAll} and then
+     * {@link Future#get get} on each of the returned futures.
+     *
+     * @param tasks the collection of tasks
+     * @param <T> the type of the values returned from the tasks
+     * @return a list of the results of the tasks, in the same
+     *         sequential order as produced by the iterator for the
+     *         given task list
+     * @throws InterruptedException if interrupted while waiting, in
+     *         which case tasks that have not started are not run
+     * @throws ExecutionException if any task completed by throwing
+     *         an exception
+     * @throws NullPointerException if tasks or any of its elements are
+     *         {@code null}
+     * @throws RejectedExecutionException if any task cannot be
+     *         scheduled for execution
+     * @since 1.8
+     */
+    default <T> List<T> invokeAllResults(Collection<? extends Callable<T>> tasks)
+        throws InterruptedException, ExecutionException {
+        List<Future<T>> futures = invokeAll(tasks);
+        List<T> results = new ArrayList<T>(futures.size());
+        for (Future<T> f : futures)
+            results.add(f.get());
+        return results;
+    }
+
     /**
      * Executes the given tasks, returning the result
      * of one that has completed successfully (i.e., without throwing
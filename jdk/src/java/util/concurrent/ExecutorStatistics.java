@@ -0,0 +1,369 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+/**
+ * The statistics of a ThreadPoolExecutor or ForkJoinPool, created only
+ * if enabled by the system property
+ * {@code java.util.concurrent.executorStatistics}.  The executor calls
+ * {@link #taskStarted} and {@link #taskFinished} around each task it
+ * runs, and {@link #taskRejected} for each task it rejects.
+ *
+ * <p>The statistics are unregistered when the executor terminates.  An
+ * executor that is never shut down is held only weakly, and its
+ * statistics are unregistered by the next registration after it has
+ * been garbage collected.
+ */
+final class ExecutorStatistics implements ExecutorMXBean {
+
+    static final boolean ENABLED =
+        AccessController.doPrivileged(new PrivilegedAction<Boolean>() {
+            public Boolean run() {
+                return Boolean.getBoolean
+                    ("java.util.concurrent.executorStatistics");
+            }});
+
+    private static final String WORKER_SUFFIX = "-worker-";
+
+    /** Sequence number for naming ThreadPoolExecutors */
+    private static final AtomicInteger executorNumber = new AtomicInteger(1);
+
+    /** Queue of the references to collected executors */
+    private static final ReferenceQueue<ExecutorService> staleExecutors =
+        new ReferenceQueue<ExecutorService>();
+
+    private final String name;
+    private final ExecutorRef executor;
+    private final Histogram queueLatency = new Histogram();
+    private final Histogram runTime = new Histogram();
+    private final LongAdder rejected = new LongAdder();
+    private volatile ObjectName objectName;
+
+    private ExecutorStatistics(String name, ExecutorService executor) {
+        this.name = name;
+        this.executor = new ExecutorRef(executor, this);
+    }
+
+    /**
+     * A weak reference to an executor, enqueued when the executor is
+     * collected, so that its statistics can be unregistered.
+     */
+    static final class ExecutorRef extends WeakReference<ExecutorService> {
+        final ExecutorStatistics statistics;
+        ExecutorRef(ExecutorService executor, ExecutorStatistics statistics) {
+            super(executor, staleExecutors);
+            this.statistics = statistics;
+        }
+    }
+
+    /**
+     * Returns the registered statistics of the given executor, or null
+     * if statistics are disabled.
+     */
+    static ExecutorStatistics create(ThreadPoolExecutor executor) {
+        if (!ENABLED)
+            return null;
+        String s = executor.getClass().getSimpleName();
+        if (s.isEmpty())
+            s = "ThreadPoolExecutor";
+        return register(new ExecutorStatistics
+                        (s + "-" + executorNumber.getAndIncrement(),
+                         executor));
+    }
+
+    /**
+     * Returns the registered statistics of the given pool, or null if
+     * statistics are disabled.
+     */
+    static ExecutorStatistics create(ForkJoinPool pool, String prefix) {
+        if (!ENABLED)
+            return null;
+        String s = prefix;
+        if (s.endsWith(WORKER_SUFFIX))
+            s = s.substring(0, s.length() - WORKER_SUFFIX.length());
+        return register(new ExecutorStatistics(s, pool));
+    }
+
+    private static ExecutorStatistics register(final ExecutorStatistics st) {
+        expungeStaleStatistics();
+        AccessController.doPrivileged(new PrivilegedAction<Void>() {
+            public Void run() {
+                try {
+                    ObjectName on = new ObjectName
+                        ("java.util.concurrent:type=Executor,name=" +
+                         st.name);
+                    ManagementFactory.getPlatformMBeanServer()
+                        .registerMBean(st, on);
+                    st.objectName = on;
+                } catch (JMException | RuntimeException e) {
+                    // keep the statistics, unregistered
+                }
+                return null;
+            }});
+        return st;
+    }
+
+    /**
+     * Unregisters the statistics when the executor terminates.
+     */
+    void unregister() {
+        final ObjectName on = objectName;
+        if (on != null) {
+            objectName = null;
+            AccessController.doPrivileged(new PrivilegedAction<Void>() {
+                public Void run() {
+                    try {
+                        ManagementFactory.getPlatformMBeanServer()
+                            .unregisterMBean(on);
+                    } catch (JMException | RuntimeException e) {
+                        // already unregistered
+                    }
+                    return null;
+                }});
+        }
+    }
+
+    /**
+     * Unregisters the statistics of executors that have been collected
+     * without terminating.
+     */
+    private static void expungeStaleStatistics() {
+        for (Object x; (x = staleExecutors.poll()) != null;) {
+            if (x instanceof ExecutorRef)
+                ((ExecutorRef)x).statistics.unregister();
+        }
+    }
+
+    /**
+     * Records the queue latency of a task that is about to run, if its
+     * submission time is known.
+     *
+     * @param submitTime the submission time, or zero if unknown
+     * @return the start time, to pass to taskFinished
+     */
+    long taskStarted(long submitTime) {
+        long now = System.nanoTime();
+        if (submitTime != 0L)
+            queueLatency.record(now - submitTime);
+        return now;
+    }
+
+    void taskFinished(long startTime) {
+        runTime.record(System.nanoTime() - startTime);
+    }
+
+    void taskRejected() {
+        rejected.increment();
+    }
+
+    // ExecutorMXBean methods
+
+    public String getName() {
+        return name;
+    }
+
+    public long getRejectedTaskCount() {
+        return rejected.sum();
+    }
+
+    public long getStealCount() {
+        ExecutorService e = executor.get();
+        return (e instanceof ForkJoinPool) ?
+            ((ForkJoinPool)e).getStealCount() : 0L;
+    }
+
+    public long[] getWorkQueueStealCounts() {
+        ExecutorService e = executor.get();
+        return (e instanceof ForkJoinPool) ?
+            ((ForkJoinPool)e).workQueueStealCounts() : new long[0];
+    }
+
+    public long[] getHistogramBounds() {
+        long[] bounds = new long[Histogram.BUCKETS];
+        for (int i = 0; i < bounds.length; i++)
+            bounds[i] = Histogram.lowerBound(i);
+        return bounds;
+    }
+
+    public long[] getQueueLatencyHistogram() {
+        return queueLatency.counts();
+    }
+
+    public long[] getRunTimeHistogram() {
+        return runTime.counts();
+    }
+
+    public long getMaxQueueLatency() {
+        return queueLatency.max;
+    }
+
+    public long getMaxRunTime() {
+        return runTime.max;
+    }
+
+    public long getQueueLatencyPercentile(double percentile) {
+        return queueLatency.percentile(percentile);
+    }
+
+    public long getRunTimePercentile(double percentile) {
+        return runTime.percentile(percentile);
+    }
+
+    /**
+     * A FutureTask recording when it was created, returned by the
+     * newTaskFor methods of a ThreadPoolExecutor keeping statistics.
+     */
+    static final class TimedFutureTask<V> extends FutureTask<V> {
+        final long submitTime = System.nanoTime();
+
+        TimedFutureTask(Callable<V> callable) {
+            super(callable);
+        }
+
+        TimedFutureTask(Runnable runnable, V result) {
+            super(runnable, result);
+        }
+    }
+
+    /**
+     * A histogram of non-negative long values, with buckets of equal
+     * width within each power of two, in the manner of HdrHistogram.
+     * Values less than SUB_COUNT have a bucket each; above that, the
+     * bucket of a value is given by the position of its highest bit and
+     * the SUB_BITS bits below it.  Counts are kept in several stripes,
+     * selected by the thread's probe, and summed when read, so that
+     * threads recording the same value rarely update the same word.
+     */
+    static final class Histogram {
+
+        static final int SUB_BITS = 3;
+        static final int SUB_COUNT = 1 << SUB_BITS;
+        static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+        static final int MAX_STRIPES = 4;
+
+        final long[] stripes;
+        final int stripeMask;
+        volatile long max;
+
+        Histogram() {
+            int n = 1;
+            int p = Runtime.getRuntime().availableProcessors();
+            while (n < p && n < MAX_STRIPES)
+                n <<= 1;
+            stripes = new long[n * BUCKETS];
+            stripeMask = n - 1;
+        }
+
+        static int bucketFor(long v) {
+            if (v < SUB_COUNT)
+                return (v < 0L) ? 0 : (int)v;
+            int k = 63 - Long.numberOfLeadingZeros(v);
+            return ((k - SUB_BITS + 1) << SUB_BITS) +
+                (int)((v >>> (k - SUB_BITS)) & (SUB_COUNT - 1));
+        }
+
+        static long lowerBound(int i) {
+            if (i < SUB_COUNT)
+                return i;
+            int k = (i >>> SUB_BITS) + SUB_BITS - 1;
+            return (long)(SUB_COUNT + (i & (SUB_COUNT - 1))) <<
+                (k - SUB_BITS);
+        }
+
+        void record(long v) {
+            int s = ThreadLocalRandom.getProbe() & stripeMask;
+            long j = ((long)(s * BUCKETS + bucketFor(v)) << ASHIFT) + ABASE;
+            U.getAndAddLong(stripes, j, 1L);
+            long m;
+            while (v > (m = max) && !U.compareAndSwapLong(this, MAX, m, v))
+                ;
+        }
+
+        long[] counts() {
+            long[] c = new long[BUCKETS];
+            long[] a = stripes;
+            for (int i = 0; i < a.length; i++)
+                c[i % BUCKETS] +=
+                    U.getLongVolatile(a, ((long)i << ASHIFT) + ABASE);
+            return c;
+        }
+
+        /**
+         * Returns the highest value in the bucket holding the value at
+         * the given percentile, but no more than the maximum recorded.
+         */
+        long percentile(double percentile) {
+            if (!(percentile >= 0.0 && percentile <= 100.0))
+                throw new IllegalArgumentException();
+            long[] c = counts();
+            long total = 0L;
+            for (long n : c)
+                total += n;
+            if (total == 0L)
+                return 0L;
+            long rank = Math.max(1L, (long)Math.ceil(total * percentile / 100.0));
+            long seen = 0L;
+            for (int i = 0; i < c.length; i++) {
+                if ((seen += c[i]) >= rank) {
+                    long high = (i + 1 < BUCKETS) ?
+                        lowerBound(i + 1) - 1L : Long.MAX_VALUE;
+                    return Math.min(high, max);
+                }
+            }
+            return max;
+        }
+
+        // Unsafe mechanics
+        private static final sun.misc.Unsafe U;
+        private static final long MAX;
+        private static final int ABASE;
+        private static final int ASHIFT;
+        static {
+            try {
+                U = sun.misc.Unsafe.getUnsafe();
+                MAX = U.objectFieldOffset
+                    (Histogram.class.getDeclaredField("max"));
+                ABASE = U.arrayBaseOffset(long[].class);
+                int scale = U.arrayIndexScale(long[].class);
+                if ((scale & (scale - 1)) != 0)
+                    throw new Error("data type scale not a power of two");
+                ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+}
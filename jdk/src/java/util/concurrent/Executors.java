@@ -154,6 +154,49 @@ public class Executors {
                                       threadFactory);
     }
 
+    /**
+     * Creates a thread pool that reuses a fixed number of threads
+     * operating off an unbounded queue split into lanes, from which
+     * idle threads steal tasks submitted to the lanes of other threads.
+     * The pool otherwise behaves as one created by {@link
+     * #newFixedThreadPool(int)}, except that tasks submitted from
+     * different threads are not executed in submission order.
+     *
+     * @param nThreads the number of threads in the pool
+     * @return the newly created thread pool
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     * @see WorkStealingThreadPoolExecutor
+     * @since 1.8
+     */
+    public static ExecutorService newWorkStealingThreadPool(int nThreads) {
+        return new WorkStealingThreadPoolExecutor(nThreads, nThreads,
+                                                  0L, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Creates a thread pool that reuses a fixed number of threads
+     * operating off an unbounded queue split into lanes, using the
+     * provided ThreadFactory to create new threads when needed.
+     * The pool otherwise behaves as one created by {@link
+     * #newFixedThreadPool(int, ThreadFactory)}, except that tasks
+     * submitted from different threads are not executed in submission
+     * order.
+     *
+     * @param nThreads the number of threads in the pool
+     * @param threadFactory the factory to use when creating new threads
+     * @return the newly created thread pool
+     * @throws NullPointerException if threadFactory is null
+     * @throws IllegalArgumentException if {@code nThreads <= 0}
+     * @see WorkStealingThreadPoolExecutor
+     * @since 1.8
+     */
+    public static ExecutorService newWorkStealingThreadPool(int nThreads,
+                                                            ThreadFactory threadFactory) {
+        return new WorkStealingThreadPoolExecutor(nThreads, nThreads,
+                                                  0L, TimeUnit.MILLISECONDS,
+                                                  threadFactory);
+    }
+
     /**
      * Creates an Executor that uses a single worker thread operating
      * off an unbounded queue. (Note however that if this single
@@ -692,6 +735,13 @@ public class Executors {
             throws InterruptedException {
             return e.invokeAll(tasks, timeout, unit);
         }
+        public void executeAll(Collection<? extends Runnable> tasks) {
+            e.executeAll(tasks);
+        }
+        public <T> List<T> invokeAllResults(Collection<? extends Callable<T>> tasks)
+            throws InterruptedException, ExecutionException {
+            return e.invokeAllResults(tasks);
+        }
         public <T> T invokeAny(Collection<? extends Callable<T>> tasks)
             throws InterruptedException, ExecutionException {
             return e.invokeAny(tasks);
@@ -43,6 +43,7 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.AbstractExecutorService;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
@@ -1053,7 +1054,14 @@ public class ForkJoinPool extends AbstractExecutorService {
         final void runTask(ForkJoinTask<?> task) {
             if (task != null) {
                 scanState &= ~SCANNING; // mark as busy
-                (currentSteal = task).doExec();
+                ForkJoinPool p; ExecutorStatistics st;
+                if ((p = pool) == null || (st = p.statistics) == null)
+                    (currentSteal = task).doExec();
+                else {
+                    long start = st.taskStarted(task.submitTime());
+                    (currentSteal = task).doExec();
+                    st.taskFinished(start);
+                }
                 U.putOrderedObject(this, QCURRENTSTEAL, null); // release for GC
                 execLocalTasks();
                 ForkJoinWorkerThread thread = owner;
@@ -1396,6 +1404,7 @@ public class ForkJoinPool extends AbstractExecutorService {
     final UncaughtExceptionHandler ueh;  // per-worker UEH
     final String workerNamePrefix;       // to create worker name string
     volatile AtomicLong stealCounter;    // also used as sync monitor
+    final ExecutorStatistics statistics; // null unless enabled
 
     /**
      * Acquires the runState lock; returns current (locked) runState.
@@ -2266,6 +2275,8 @@ public class ForkJoinPool extends AbstractExecutorService {
                     rs = lockRunState();          // done
                     unlockRunState(rs, (rs & ~RSLOCK) | TERMINATED);
                     synchronized (this) { notifyAll(); } // for awaitTermination
+                    if (statistics != null)
+                        statistics.unregister();
                 }
                 break;
             }
@@ -2325,6 +2336,8 @@ public class ForkJoinPool extends AbstractExecutorService {
             boolean move = false;
             if ((rs = runState) < 0) {
                 tryTerminate(false, false);     // help terminate
+                if (statistics != null)
+                    statistics.taskRejected();
                 throw new RejectedExecutionException();
             }
             else if ((rs & STARTED) == 0 ||     // initialize
@@ -2398,6 +2411,8 @@ public class ForkJoinPool extends AbstractExecutorService {
      */
     final void externalPush(ForkJoinTask<?> task) {
         WorkQueue[] ws; WorkQueue q; int m;
+        if (statistics != null)
+            task.setSubmitTime(System.nanoTime());
         int r = ThreadLocalRandom.getProbe();
         int rs = runState;
         if ((ws = workQueues) != null && (m = (ws.length - 1)) >= 0 &&
@@ -2570,6 +2585,7 @@ public class ForkJoinPool extends AbstractExecutorService {
         this.config = (parallelism & SMASK) | mode;
         long np = (long)(-parallelism); // offset ctl counts
         this.ctl = ((np << AC_SHIFT) & AC_MASK) | ((np << TC_SHIFT) & TC_MASK);
+        this.statistics = ExecutorStatistics.create(this, workerNamePrefix);
     }
 
     /**
@@ -2732,6 +2748,140 @@ public class ForkJoinPool extends AbstractExecutorService {
         }
     }
 
+    /**
+     * Submits the given tasks as a single task that splits the batch
+     * among the workers that steal parts of it, so that the tasks are
+     * added to the pool with one queue insertion and workers are woken
+     * only as parts of the batch become available to them.  As with
+     * {@link #execute(Runnable)}, an exception thrown by a task
+     * propagates to the worker that runs it, here after the other
+     * tasks of its part of the batch have run.
+     *
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @since 1.8
+     */
+    public void executeAll(Collection<? extends Runnable> tasks) {
+        Object[] a = AbstractExecutorService.toTaskArray(tasks);
+        if (a.length > 0)
+            externalPush(new BatchTask(a, null, batchLeafSize(a.length)));
+    }
+
+    /**
+     * Runs the given tasks as does {@link #executeAll}, storing their
+     * results in a single array.  If not already a worker of this
+     * pool, the caller may run some of the tasks while waiting.
+     *
+     * @throws InterruptedException       {@inheritDoc}
+     * @throws ExecutionException         {@inheritDoc}
+     * @throws NullPointerException       {@inheritDoc}
+     * @throws RejectedExecutionException {@inheritDoc}
+     * @since 1.8
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<T> invokeAllResults(Collection<? extends Callable<T>> tasks)
+        throws InterruptedException, ExecutionException {
+        Object[] a = AbstractExecutorService.toTaskArray(tasks);
+        Object[] results = new Object[a.length];
+        if (a.length > 0) {
+            BatchTask b = new BatchTask(a, results, batchLeafSize(a.length));
+            externalPush(b);
+            try {
+                b.get();
+            } catch (InterruptedException ie) {
+                b.cancelled = true;
+                throw ie;
+            }
+            if (b.failure != null)
+                throw new ExecutionException(b.failure);
+        }
+        return (List<T>)Arrays.asList(results);
+    }
+
+    /**
+     * Returns the number of tasks below which a batch is not split,
+     * aiming at four parts per worker as do parallel array sorts.
+     */
+    private int batchLeafSize(int n) {
+        return Math.max(1, n / (getParallelism() << 2));
+    }
+
+    /**
+     * A batch of tasks for executeAll and invokeAllResults.  Each task
+     * forks the upper halves of its range until it is at most leafSize,
+     * then runs the tasks of the range.  Failures of Callables are
+     * recorded in the root, keeping the one with the lowest index;
+     * those of Runnables are rethrown to the worker, as for
+     * RunnableExecuteAction.
+     */
+    @SuppressWarnings("serial")
+    static final class BatchTask extends CountedCompleter<Void> {
+        final BatchTask root;
+        final Object[] tasks;
+        final Object[] results;     // null for Runnables
+        final int lo, hi, leafSize;
+        volatile boolean cancelled; // set in root only
+        int failedIndex;            // root only, guarded by root
+        Throwable failure;          // root only, guarded by root
+
+        BatchTask(Object[] tasks, Object[] results, int leafSize) {
+            super(null);
+            this.root = this;
+            this.tasks = tasks; this.results = results;
+            this.lo = 0; this.hi = tasks.length; this.leafSize = leafSize;
+        }
+
+        BatchTask(BatchTask parent, int lo, int hi) {
+            super(parent);
+            this.root = parent.root;
+            this.tasks = parent.tasks; this.results = parent.results;
+            this.lo = lo; this.hi = hi; this.leafSize = parent.leafSize;
+        }
+
+        public final void compute() {
+            final BatchTask r = root;
+            final Object[] a = tasks;
+            int l = lo, h = hi;
+            while (h - l > leafSize) {
+                int mid = (l + h) >>> 1;
+                addToPendingCount(1);
+                new BatchTask(this, mid, h).fork();
+                h = mid;
+            }
+            Throwable ex = null;
+            for (int i = l; i < h && !r.cancelled; ++i) {
+                try {
+                    if (results == null)
+                        ((Runnable)a[i]).run();
+                    else
+                        results[i] = ((Callable<?>)a[i]).call();
+                } catch (Throwable x) {
+                    if (results != null)
+                        r.fail(i, x);
+                    else if (ex == null)
+                        ex = x;
+                }
+            }
+            tryComplete();
+            if (ex != null)
+                rethrow(ex);
+        }
+
+        private synchronized void fail(int i, Throwable x) {
+            if (failure == null || i < failedIndex) {
+                failure = x;
+                failedIndex = i;
+            }
+        }
+
+        void internalPropagateException(Throwable ex) {
+            if (results == null)
+                rethrow(ex); // rethrow outside exec() catches.
+            else
+                super.internalPropagateException(ex);
+        }
+    }
+
     /**
      * Returns the factory used for constructing new workers.
      *
@@ -2864,6 +3014,26 @@ public class ForkJoinPool extends AbstractExecutorService {
         return count;
     }
 
+    /**
+     * Returns the steal counts of the worker queues, not including
+     * those already added to the pool total.  Used by
+     * ExecutorStatistics.
+     */
+    final long[] workQueueStealCounts() {
+        WorkQueue[] ws; WorkQueue w;
+        long[] counts = new long[0];
+        if ((ws = workQueues) != null) {
+            int n = 0;
+            counts = new long[ws.length >>> 1];
+            for (int i = 1; i < ws.length; i += 2) {
+                if ((w = ws[i]) != null)
+                    counts[n++] = w.nsteals;
+            }
+            counts = Arrays.copyOf(counts, n);
+        }
+        return counts;
+    }
+
     /**
      * Returns an estimate of the total number of tasks currently held
      * in queues by worker threads (but not including tasks submitted
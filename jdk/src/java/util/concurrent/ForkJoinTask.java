@@ -500,6 +500,18 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
     void internalPropagateException(Throwable ex) {
     }
 
+    /**
+     * Hooks for the queue latency statistics of a ForkJoinPool,
+     * recording the time of external submission of the adaptors of
+     * Runnables and Callables.  Other tasks do not record it.
+     */
+    void setSubmitTime(long nanos) {
+    }
+
+    long submitTime() {
+        return 0L;
+    }
+
     /**
      * Cancels, ignoring any exceptions thrown by cancel. Used during
      * worker and pool shutdown. Cancel is spec'ed not to throw any
@@ -1358,6 +1370,7 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
     static final class AdaptedRunnable<T> extends ForkJoinTask<T>
         implements RunnableFuture<T> {
         final Runnable runnable;
+        transient long submitTime;
         T result;
         AdaptedRunnable(Runnable runnable, T result) {
             if (runnable == null) throw new NullPointerException();
@@ -1368,6 +1381,8 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
         public final void setRawResult(T v) { result = v; }
         public final boolean exec() { runnable.run(); return true; }
         public final void run() { invoke(); }
+        void setSubmitTime(long nanos) { submitTime = nanos; }
+        long submitTime() { return submitTime; }
         private static final long serialVersionUID = 5232453952276885070L;
     }
 
@@ -1377,6 +1392,7 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
     static final class AdaptedRunnableAction extends ForkJoinTask<Void>
         implements RunnableFuture<Void> {
         final Runnable runnable;
+        transient long submitTime;
         AdaptedRunnableAction(Runnable runnable) {
             if (runnable == null) throw new NullPointerException();
             this.runnable = runnable;
@@ -1385,6 +1401,8 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
         public final void setRawResult(Void v) { }
         public final boolean exec() { runnable.run(); return true; }
         public final void run() { invoke(); }
+        void setSubmitTime(long nanos) { submitTime = nanos; }
+        long submitTime() { return submitTime; }
         private static final long serialVersionUID = 5232453952276885070L;
     }
 
@@ -1393,6 +1411,7 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
      */
     static final class RunnableExecuteAction extends ForkJoinTask<Void> {
         final Runnable runnable;
+        transient long submitTime;
         RunnableExecuteAction(Runnable runnable) {
             if (runnable == null) throw new NullPointerException();
             this.runnable = runnable;
@@ -1403,6 +1422,8 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
         void internalPropagateException(Throwable ex) {
             rethrow(ex); // rethrow outside exec() catches.
         }
+        void setSubmitTime(long nanos) { submitTime = nanos; }
+        long submitTime() { return submitTime; }
         private static final long serialVersionUID = 5232453952276885070L;
     }
 
@@ -1412,6 +1433,7 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
     static final class AdaptedCallable<T> extends ForkJoinTask<T>
         implements RunnableFuture<T> {
         final Callable<? extends T> callable;
+        transient long submitTime;
         T result;
         AdaptedCallable(Callable<? extends T> callable) {
             if (callable == null) throw new NullPointerException();
@@ -1432,6 +1454,8 @@ public abstract class ForkJoinTask<V> implements Future<V>, Serializable {
             }
         }
         public final void run() { invoke(); }
+        void setSubmitTime(long nanos) { submitTime = nanos; }
+        long submitTime() { return submitTime; }
         private static final long serialVersionUID = 2838392045355241008L;
     }
 
@@ -0,0 +1,1044 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.lang.management.BufferPoolMXBean;
+import java.nio.ByteBuffer;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+
+/**
+ * A hash table supporting high expected concurrency for retrievals and
+ * updates, whose keys and values are held outside the Java heap.  Each mapping is serialized by a pair of
+ * {@link Codec}s into a record in a slab of {@linkplain
+ * ByteBuffer#allocateDirect direct} memory, so that a map holding tens
+ * of millions of mappings contributes only its bin table, a
+ * {@code long[]}, to the garbage-collected heap.  Keys are compared by
+ * their encoded form: two keys are the same key if and only if their
+ * encodings are equal, so key codecs must be deterministic.
+ *
+ * <p>The table is organized as in {@link ConcurrentHashMap}: a
+ * power-of-two array of bins, each heading a list of records, that is
+ * doubled when the mapping count exceeds three quarters of the table
+ * size.  Updates lock a <em>stripe</em> of bins rather than the first
+ * node of a bin, since there are no node objects to lock.  The stripe
+ * of a key depends only on the low bits of its hash, so it is the same
+ * in every table, and during a resize a bin and both of the bins it
+ * splits into are guarded by the same stripe.  As in ConcurrentHashMap,
+ * resizing proceeds bin by bin while other operations continue,
+ * marking each transferred bin as forwarded so that operations on it
+ * are redirected to the next table.  Because an off-heap record cannot
+ * be kept alive by the garbage collector while a reader traverses it,
+ * retrievals also lock the key's stripe, so unlike ConcurrentHashMap
+ * they may block on concurrent updates to the same stripe; the {@code
+ * concurrencyLevel} constructor argument sets the number of stripes.
+ *
+ * <p>Each stripe allocates records from its own slabs and keeps free
+ * lists of released blocks by power-of-two size class, so memory is
+ * reused without compaction.  Records larger than a slab are given
+ * dedicated buffers, which are dropped when the record is removed.
+ * Slab memory is reclaimed when the map itself becomes unreachable.
+ * Current usage may be monitored through the {@link BufferPoolMXBean}
+ * returned by {@link #getBufferPoolMXBean}, which can be registered
+ * with the platform {@code MBeanServer}:
+ * <pre> {@code
+ * BufferPoolMXBean pool = map.getBufferPoolMXBean("sessions");
+ * ManagementFactory.getPlatformMBeanServer()
+ *     .registerMBean(pool, pool.getObjectName());}</pre>
+ *
+ * <p>Iterators return a weakly consistent view: the mappings of each
+ * stripe are copied atomically as the iteration reaches it, and values
+ * are decoded on demand.  Like {@link java.util.Hashtable} but unlike
+ * {@link java.util.HashMap}, this class does <em>not</em> allow {@code null}
+ * to be used as a key or value.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ *
+ * @see ConcurrentHashMap
+ * @since 1.8
+ */
+public class OffHeapConcurrentHashMap<K,V> extends AbstractMap<K,V>
+    implements ConcurrentMap<K,V> {
+
+    /**
+     * Converts objects to and from the bytes stored off-heap.
+     *
+     * @param <T> the type of object converted
+     */
+    public interface Codec<T> {
+        /**
+         * Returns the exact number of bytes that {@link #encode} will
+         * write for the given object.
+         *
+         * @param value the object to be encoded
+         * @return the encoded size in bytes
+         */
+        int encodedSize(T value);
+
+        /**
+         * Writes the encoded form of the given object, which occupies
+         * exactly {@link #encodedSize encodedSize(value)} bytes, at the
+         * current position of the given buffer.
+         *
+         * @param value the object to be encoded
+         * @param dst the buffer to write to
+         */
+        void encode(T value, ByteBuffer dst);
+
+        /**
+         * Reconstitutes an object from the remaining bytes of the
+         * given buffer.  The buffer is not retained by the map after
+         * this method returns, nor may it be by the codec.
+         *
+         * @param src a buffer holding exactly one encoded object
+         * @return the decoded object
+         */
+        T decode(ByteBuffer src);
+    }
+
+    /* ---------------- Constants -------------- */
+
+    /**
+     * The largest possible table capacity.
+     */
+    private static final int MAXIMUM_CAPACITY = 1 << 30;
+
+    /**
+     * The default initial table capacity.  Must be a power of 2
+     * (i.e., at least 1) and at most MAXIMUM_CAPACITY.
+     */
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * The default number of lock stripes.  Must be a power of 2.
+     */
+    private static final int DEFAULT_CONCURRENCY_LEVEL = 16;
+
+    /**
+     * The largest number of lock stripes.
+     */
+    private static final int MAX_STRIPES = 1 << 16;
+
+    /**
+     * The default size in bytes of each slab of direct memory.
+     */
+    private static final int DEFAULT_SLAB_SIZE = 1 << 20;
+
+    /**
+     * The smallest permitted slab size.
+     */
+    private static final int MIN_SLAB_SIZE = 1 << 12;
+
+    /**
+     * Bin value marking a bin whose records have been transferred to
+     * nextTable; the off-heap counterpart of a ForwardingNode.
+     */
+    static final long MOVED = -1L;
+
+    static final int HASH_BITS = 0x7fffffff; // usable bits of normal record hash
+
+    /*
+     * Record layout.  A record reference is a long holding the slab
+     * index in its upper half and the byte offset within the slab in
+     * its lower half.  Slab indices start at 1, so that no reference
+     * is 0 (the empty bin or list end) or MOVED.
+     */
+    private static final int NEXT   = 0;   // long: next record in bin
+    private static final int HASH   = 8;   // int: spread hash of key
+    private static final int KLEN   = 12;  // int: encoded key length
+    private static final int VLEN   = 16;  // int: encoded value length
+    private static final int HEADER = 20;  // key bytes, then value bytes
+
+    /**
+     * Records occupy power-of-two blocks of at least this shift.
+     */
+    private static final int MIN_BLOCK_SHIFT = 5;
+
+    /**
+     * The largest encoded record, including its header.
+     */
+    private static final int MAX_RECORD_SIZE = 1 << 30;
+
+    /* ---------------- Fields -------------- */
+
+    final Codec<K> keyCodec;
+    final Codec<V> valueCodec;
+    final int slabSize;
+
+    /**
+     * The lock stripes, each also owning the slabs its records live in.
+     */
+    private final Stripe[] stripes;
+
+    /**
+     * The bin table; length is a power of two, not less than the
+     * number of stripes.
+     */
+    private volatile long[] table;
+
+    /**
+     * The next table to use; non-null only while resizing.
+     */
+    private volatile long[] nextTable;
+
+    /**
+     * Table resizing control.  When -1, the table is being resized.
+     * Otherwise, holds the element count at which to resize.
+     */
+    private final AtomicInteger sizeCtl;
+
+    private final LongAdder count = new LongAdder();
+
+    /**
+     * Slab registry, indexed by the upper half of record references.
+     */
+    private volatile ByteBuffer[] slabs = new ByteBuffer[8];
+    private int slabTop;                                   // guarded by slabLock
+    private final ArrayDeque<Integer> freeSlabIds = new ArrayDeque<>();
+    private final Object slabLock = new Object();
+
+    private final LongAdder slabCount = new LongAdder();
+    private final LongAdder reservedBytes = new LongAdder();
+    private final LongAdder usedBytes = new LongAdder();
+
+    /**
+     * A lock stripe and its allocator state, guarded by the stripe's
+     * monitor.
+     */
+    static final class Stripe {
+        final long[] freeLists = new long[32]; // by block shift
+        int slab;                              // bump slab, or 0 if none
+        int top;                               // bump offset in slab
+    }
+
+    /* ---------------- Public operations -------------- */
+
+    /**
+     * Creates a new, empty map with the default initial table size (16),
+     * concurrency level (16) and slab size (1 MB).
+     *
+     * @param keyCodec the codec for keys
+     * @param valueCodec the codec for values
+     * @throws NullPointerException if either codec is null
+     */
+    public OffHeapConcurrentHashMap(Codec<K> keyCodec, Codec<V> valueCodec) {
+        this(keyCodec, valueCodec, DEFAULT_CAPACITY,
+             DEFAULT_CONCURRENCY_LEVEL, DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a new, empty map with an initial table size based on the
+     * given number of elements ({@code initialCapacity}), table density
+     * of 0.75, and number of concurrently updating threads
+     * ({@code concurrencyLevel}).
+     *
+     * @param keyCodec the codec for keys
+     * @param valueCodec the codec for values
+     * @param initialCapacity the initial capacity
+     * @param concurrencyLevel the estimated number of concurrently
+     * updating threads, used as the number of lock stripes
+     * @throws IllegalArgumentException if the initial capacity is
+     * negative or the concurrency level is nonpositive
+     * @throws NullPointerException if either codec is null
+     */
+    public OffHeapConcurrentHashMap(Codec<K> keyCodec, Codec<V> valueCodec,
+                                    int initialCapacity, int concurrencyLevel) {
+        this(keyCodec, valueCodec, initialCapacity, concurrencyLevel,
+             DEFAULT_SLAB_SIZE);
+    }
+
+    /**
+     * Creates a new, empty map with an initial table size based on the
+     * given number of elements ({@code initialCapacity}), table density
+     * of 0.75, number of concurrently updating threads
+     * ({@code concurrencyLevel}), and size in bytes of each slab of
+     * direct memory allocated to hold mappings ({@code slabSize}).
+     *
+     * @param keyCodec the codec for keys
+     * @param valueCodec the codec for values
+     * @param initialCapacity the initial capacity
+     * @param concurrencyLevel the estimated number of concurrently
+     * updating threads, used as the number of lock stripes
+     * @param slabSize the size of each slab of direct memory
+     * @throws IllegalArgumentException if the initial capacity is
+     * negative, the concurrency level is nonpositive, or the slab size
+     * is less than 4096
+     * @throws NullPointerException if either codec is null
+     */
+    public OffHeapConcurrentHashMap(Codec<K> keyCodec, Codec<V> valueCodec,
+                                    int initialCapacity, int concurrencyLevel,
+                                    int slabSize) {
+        if (keyCodec == null || valueCodec == null)
+            throw new NullPointerException();
+        if (initialCapacity < 0 || concurrencyLevel <= 0 ||
+            slabSize < MIN_SLAB_SIZE)
+            throw new IllegalArgumentException();
+        int ns = tableSizeFor(Math.min(concurrencyLevel, MAX_STRIPES));
+        long size = (long)(1.0 + (long)initialCapacity / 0.75f);
+        int cap = (size >= (long)MAXIMUM_CAPACITY) ?
+            MAXIMUM_CAPACITY : tableSizeFor(Math.max((int)size, ns));
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        this.slabSize = slabSize;
+        this.stripes = new Stripe[ns];
+        for (int i = 0; i < ns; ++i)
+            stripes[i] = new Stripe();
+        this.table = new long[cap];
+        this.sizeCtl = new AtomicInteger(cap - (cap >>> 2));
+    }
+
+    /**
+     * Returns a power of two table size for the given desired capacity.
+     * See Hackers Delight, sec 3.2
+     */
+    private static final int tableSizeFor(int c) {
+        int n = c - 1;
+        n |= n >>> 1;
+        n |= n >>> 2;
+        n |= n >>> 4;
+        n |= n >>> 8;
+        n |= n >>> 16;
+        return (n < 0) ? 1 : (n >= MAXIMUM_CAPACITY) ? MAXIMUM_CAPACITY : n + 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public int size() {
+        long n = count.sum();
+        return ((n < 0L) ? 0 :
+                (n > (long)Integer.MAX_VALUE) ? Integer.MAX_VALUE :
+                (int)n);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    public boolean isEmpty() {
+        return count.sum() <= 0L; // ignore transient negative values
+    }
+
+    /**
+     * Returns the number of mappings. This method should be used
+     * instead of {@link #size} because a map of this kind may contain
+     * more mappings than can be represented as an int. The value
+     * returned is an estimate; the actual count may differ if there are
+     * concurrent insertions or removals.
+     *
+     * @return the number of mappings
+     */
+    public long mappingCount() {
+        long n = count.sum();
+        return (n < 0L) ? 0L : n; // ignore transient negative values
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @throws NullPointerException if the specified key is null
+     * @throws ClassCastException if the key is of a type the key codec
+     *         cannot encode
+     */
+    public V get(Object key) {
+        byte[] vb = null;
+        @SuppressWarnings("unchecked") byte[] kb = encode(keyCodec, (K)key);
+        int h = hash(kb);
+        synchronized (stripeFor(h)) {
+            long[] tab = tabFor(h);
+            for (long e = tab[(tab.length - 1) & h]; e != 0L; e = next(e)) {
+                if (matches(e, h, kb)) {
+                    vb = valueBytes(e);
+                    break;
+                }
+            }
+        }
+        return (vb == null) ? null : decode(valueCodec, vb);
+    }
+
+    /**
+     * Tests if the specified object is a key in this table.
+     *
+     * @param  key possible key
+     * @return {@code true} if and only if the specified object
+     *         is a key in this table
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        @SuppressWarnings("unchecked") byte[] kb = encode(keyCodec, (K)key);
+        int h = hash(kb);
+        synchronized (stripeFor(h)) {
+            long[] tab = tabFor(h);
+            for (long e = tab[(tab.length - 1) & h]; e != 0L; e = next(e)) {
+                if (matches(e, h, kb))
+                    return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Maps the specified key to the specified value in this table.
+     * Neither the key nor the value can be null.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalArgumentException if the encoded mapping exceeds
+     *         the largest supported record size
+     */
+    public V put(K key, V value) {
+        return putVal(key, value, false);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        return putVal(key, value, true);
+    }
+
+    /** Implementation for put and putIfAbsent */
+    final V putVal(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null) throw new NullPointerException();
+        byte[] kb = encode(keyCodec, key), vb = encode(valueCodec, value);
+        int h = hash(kb);
+        byte[] oldVal = null;
+        Stripe st = stripeFor(h);
+        synchronized (st) {
+            long[] tab = tabFor(h);
+            int i = (tab.length - 1) & h;
+            for (long e = tab[i], pred = 0L; e != 0L; pred = e, e = next(e)) {
+                if (matches(e, h, kb)) {
+                    oldVal = valueBytes(e);
+                    if (!onlyIfAbsent) {
+                        link(tab, i, pred, newRecord(st, h, kb, vb, next(e)));
+                        free(st, e);
+                    }
+                    break;
+                }
+            }
+            if (oldVal == null)
+                tab[i] = newRecord(st, h, kb, vb, tab[i]);
+        }
+        if (oldVal != null)
+            return decode(valueCodec, oldVal);
+        addCount(1L);
+        return null;
+    }
+
+    /**
+     * Removes the key (and its corresponding value) from this map.
+     * This method does nothing if the key is not in the map.
+     *
+     * @param  key the key that needs to be removed
+     * @return the previous value associated with {@code key}, or
+     *         {@code null} if there was no mapping for {@code key}
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        return replaceNode(key, null, null);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        return value != null && replaceNode(key, null, value) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (key == null || oldValue == null || newValue == null)
+            throw new NullPointerException();
+        return replaceNode(key, newValue, oldValue) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        return replaceNode(key, value, null);
+    }
+
+    /**
+     * Implementation for the four public remove/replace methods:
+     * Replaces record value with v, conditional upon match of cv if
+     * non-null.  If resulting value is null, delete.
+     */
+    @SuppressWarnings("unchecked")
+    final V replaceNode(Object key, V value, Object cv) {
+        byte[] kb = encode(keyCodec, (K)key);
+        byte[] vb = (value == null) ? null : encode(valueCodec, value);
+        byte[] cb = (cv == null) ? null : encode(valueCodec, (V)cv);
+        int h = hash(kb);
+        byte[] oldVal = null;
+        Stripe st = stripeFor(h);
+        synchronized (st) {
+            long[] tab = tabFor(h);
+            int i = (tab.length - 1) & h;
+            for (long e = tab[i], pred = 0L; e != 0L; pred = e, e = next(e)) {
+                if (matches(e, h, kb)) {
+                    byte[] ev = valueBytes(e);
+                    if (cb == null || Arrays.equals(cb, ev)) {
+                        oldVal = ev;
+                        link(tab, i, pred, (vb != null) ?
+                             newRecord(st, h, kb, vb, next(e)) : next(e));
+                        free(st, e);
+                    }
+                    break;
+                }
+            }
+        }
+        if (oldVal == null)
+            return null;
+        if (vb == null)
+            addCount(-1L);
+        return decode(valueCodec, oldVal);
+    }
+
+    /**
+     * Removes all of the mappings from this map, returning their
+     * records to the free lists of their stripes.
+     */
+    public void clear() {
+        for (int s = 0; s < stripes.length; ++s) {
+            Stripe st = stripes[s];
+            long removed;
+            synchronized (st) {
+                removed = traverseStripe(st, s, table, null);
+            }
+            if (removed != 0L)
+                addCount(-removed);
+        }
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map.
+     * The set supports element removal, which removes the corresponding
+     * mapping from the map, via the {@code Iterator.remove},
+     * {@code Set.remove}, {@code removeAll}, {@code retainAll}, and
+     * {@code clear} operations.
+     *
+     * <p>The view's iterators are <a
+     * href="package-summary.html#Weakly"><i>weakly consistent</i></a>.
+     *
+     * @return the set view
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        return new EntrySetView();
+    }
+
+    /**
+     * Returns a {@link BufferPoolMXBean} reporting this map's use of
+     * direct memory: {@link BufferPoolMXBean#getCount getCount} is the
+     * number of slabs, {@link BufferPoolMXBean#getTotalCapacity
+     * getTotalCapacity} the bytes occupied by live records, and {@link
+     * BufferPoolMXBean#getMemoryUsed getMemoryUsed} the bytes reserved
+     * by all slabs.  Its object name is {@code
+     * java.nio:type=BufferPool,name=}<i>name</i>.
+     *
+     * @param name the name of the buffer pool
+     * @return the management interface for this map's off-heap memory
+     * @throws IllegalArgumentException if the name is not valid in an
+     *         {@link ObjectName}
+     */
+    public BufferPoolMXBean getBufferPoolMXBean(String name) {
+        final ObjectName objectName;
+        try {
+            objectName = ObjectName.getInstance
+                ("java.nio:type=BufferPool,name=" + name);
+        } catch (MalformedObjectNameException e) {
+            throw new IllegalArgumentException(e);
+        }
+        return new BufferPoolMXBean() {
+            public String getName() { return name; }
+            public long getCount() { return slabCount.sum(); }
+            public long getTotalCapacity() { return usedBytes.sum(); }
+            public long getMemoryUsed() { return reservedBytes.sum(); }
+            public ObjectName getObjectName() { return objectName; }
+        };
+    }
+
+    /* ---------------- Table access -------------- */
+
+    /**
+     * Spreads the hash of an encoded key, as ConcurrentHashMap.spread.
+     */
+    static final int hash(byte[] kb) {
+        int h = Arrays.hashCode(kb);
+        return (h ^ (h >>> 16)) & HASH_BITS;
+    }
+
+    private Stripe stripeFor(int h) {
+        return stripes[h & (stripes.length - 1)];
+    }
+
+    /**
+     * Returns the table whose bin for hash h is not forwarded.  Must
+     * be called holding the stripe lock for h.
+     */
+    private long[] tabFor(int h) {
+        long[] tab = table;
+        for (long[] nt;;) {
+            if (tab[(tab.length - 1) & h] != MOVED)
+                return tab;
+            if ((nt = nextTable) != null && nt.length == tab.length << 1)
+                tab = nt;
+            else
+                tab = table; // transfer completed since table was read
+        }
+    }
+
+    /**
+     * Replaces the record following pred (or heading bin i if pred is
+     * 0) with r.
+     */
+    private void link(long[] tab, int i, long pred, long r) {
+        if (pred == 0L)
+            tab[i] = r;
+        else
+            setNext(pred, r);
+    }
+
+    /**
+     * Adds to count, and if table is too small and not already
+     * resizing, initiates transfer.
+     */
+    private void addCount(long x) {
+        count.add(x);
+        int sc; long[] tab;
+        if (x > 0L && (sc = sizeCtl.get()) >= 0 && count.sum() >= sc &&
+            (tab = table).length < MAXIMUM_CAPACITY &&
+            sizeCtl.compareAndSet(sc, -1)) {
+            try {
+                if (tab == table)
+                    transfer(tab);
+            } finally {
+                int n = table.length;
+                sizeCtl.set(n - (n >>> 2));
+            }
+        }
+    }
+
+    /**
+     * Moves the records in each bin to a table of twice the size,
+     * marking each bin MOVED as it is done.  Records stay where they
+     * are in their slabs; only their links are rewritten.  Each bin
+     * is transferred under its stripe lock, which also guards the
+     * two bins it splits into.
+     */
+    private void transfer(long[] tab) {
+        int n = tab.length;
+        long[] nextTab = new long[n << 1];
+        nextTable = nextTab;
+        for (int i = 0; i < n; ++i) {
+            synchronized (stripes[i & (stripes.length - 1)]) {
+                long ln = 0L, hn = 0L;
+                for (long e = tab[i], nx; e != 0L; e = nx) {
+                    nx = next(e);
+                    if ((hashOf(e) & n) == 0) {
+                        setNext(e, ln);
+                        ln = e;
+                    }
+                    else {
+                        setNext(e, hn);
+                        hn = e;
+                    }
+                }
+                nextTab[i] = ln;
+                nextTab[i + n] = hn;
+                tab[i] = MOVED;
+            }
+        }
+        table = nextTab;
+        nextTable = null;
+    }
+
+    /**
+     * Visits every record of stripe s, following forwarded bins into
+     * the next table.  If out is null, frees the records and empties
+     * the bins; otherwise appends each mapping's key and value bytes.
+     * Must be called holding the stripe lock.
+     *
+     * @return the number of records visited
+     */
+    private long traverseStripe(Stripe st, int s, long[] tab,
+                                ArrayList<byte[]> out) {
+        long visited = 0L;
+        boolean forwarded = false;
+        int n = tab.length;
+        for (int i = s; i < n; i += stripes.length) {
+            long e = tab[i];
+            if (e == MOVED) {
+                forwarded = true;
+                continue;
+            }
+            for (long nx; e != 0L; e = nx) {
+                nx = next(e);
+                ++visited;
+                if (out == null)
+                    free(st, e);
+                else {
+                    out.add(keyBytes(e));
+                    out.add(valueBytes(e));
+                }
+            }
+            if (out == null)
+                tab[i] = 0L;
+        }
+        if (forwarded) {
+            long[] nt = nextTable;
+            if (nt == null || nt.length != n << 1)
+                nt = table;
+            visited += traverseStripe(st, s, nt, out);
+        }
+        return visited;
+    }
+
+    /* ---------------- Records -------------- */
+
+    private ByteBuffer slab(long r) {
+        return slabs[(int)(r >>> 32)];
+    }
+
+    private long next(long r) {
+        return slab(r).getLong((int)r + NEXT);
+    }
+
+    private void setNext(long r, long next) {
+        slab(r).putLong((int)r + NEXT, next);
+    }
+
+    private int hashOf(long r) {
+        return slab(r).getInt((int)r + HASH);
+    }
+
+    /**
+     * Returns true if record r holds the key with hash h and encoding kb.
+     */
+    private boolean matches(long r, int h, byte[] kb) {
+        ByteBuffer b = slab(r);
+        int o = (int)r;
+        if (b.getInt(o + HASH) != h || b.getInt(o + KLEN) != kb.length)
+            return false;
+        o += HEADER;
+        for (int j = 0; j < kb.length; ++j) {
+            if (b.get(o + j) != kb[j])
+                return false;
+        }
+        return true;
+    }
+
+    private byte[] keyBytes(long r) {
+        ByteBuffer b = slab(r);
+        int o = (int)r;
+        return copyOut(b, o + HEADER, b.getInt(o + KLEN));
+    }
+
+    private byte[] valueBytes(long r) {
+        ByteBuffer b = slab(r);
+        int o = (int)r;
+        return copyOut(b, o + HEADER + b.getInt(o + KLEN), b.getInt(o + VLEN));
+    }
+
+    private static byte[] copyOut(ByteBuffer b, int off, int len) {
+        byte[] a = new byte[len];
+        ByteBuffer d = b.duplicate();
+        d.position(off);
+        d.get(a);
+        return a;
+    }
+
+    /**
+     * Allocates and fills a record in a slab owned by stripe st.
+     */
+    private long newRecord(Stripe st, int h, byte[] kb, byte[] vb, long next) {
+        if (kb.length > MAX_RECORD_SIZE - HEADER - vb.length)
+            throw new IllegalArgumentException("Mapping too large");
+        long r = allocate(st, HEADER + kb.length + vb.length);
+        ByteBuffer b = slab(r);
+        int o = (int)r;
+        b.putLong(o + NEXT, next);
+        b.putInt(o + HASH, h);
+        b.putInt(o + KLEN, kb.length);
+        b.putInt(o + VLEN, vb.length);
+        ByteBuffer d = b.duplicate();
+        d.position(o + HEADER);
+        d.put(kb);
+        d.put(vb);
+        return r;
+    }
+
+    private static int blockShift(int size) {
+        return Math.max(MIN_BLOCK_SHIFT,
+                        32 - Integer.numberOfLeadingZeros(size - 1));
+    }
+
+    /**
+     * Returns a block of at least the given size, from the stripe's
+     * free list for its size class if possible, else from the
+     * stripe's current slab.
+     */
+    private long allocate(Stripe st, int size) {
+        int shift = blockShift(size), bsize = 1 << shift;
+        long r;
+        if (bsize > slabSize) {                 // dedicated buffer
+            usedBytes.add(size);
+            return (long)newSlab(size) << 32;
+        }
+        if ((r = st.freeLists[shift]) != 0L)
+            st.freeLists[shift] = next(r);
+        else {
+            if (st.slab == 0 || st.top + bsize > slabSize) {
+                retireSlab(st);
+                st.slab = newSlab(slabSize);
+                st.top = 0;
+            }
+            r = ((long)st.slab << 32) | st.top;
+            st.top += bsize;
+        }
+        usedBytes.add(bsize);
+        return r;
+    }
+
+    /**
+     * Carves the unused tail of the stripe's current slab into free
+     * blocks.
+     */
+    private void retireSlab(Stripe st) {
+        if (st.slab == 0)
+            return;
+        for (int rem; (rem = slabSize - st.top) >= (1 << MIN_BLOCK_SHIFT); ) {
+            int shift = 31 - Integer.numberOfLeadingZeros(rem);
+            long r = ((long)st.slab << 32) | st.top;
+            setNext(r, st.freeLists[shift]);
+            st.freeLists[shift] = r;
+            st.top += 1 << shift;
+        }
+    }
+
+    /**
+     * Returns the block of record r to its stripe.
+     */
+    private void free(Stripe st, long r) {
+        ByteBuffer b = slab(r);
+        int o = (int)r;
+        int size = HEADER + b.getInt(o + KLEN) + b.getInt(o + VLEN);
+        int shift = blockShift(size), bsize = 1 << shift;
+        if (bsize > slabSize) {
+            usedBytes.add(-size);
+            releaseSlab((int)(r >>> 32));
+        }
+        else {
+            usedBytes.add(-bsize);
+            setNext(r, st.freeLists[shift]);
+            st.freeLists[shift] = r;
+        }
+    }
+
+    /**
+     * Allocates a direct buffer and registers it, returning its index.
+     */
+    private int newSlab(int capacity) {
+        ByteBuffer b = ByteBuffer.allocateDirect(capacity);
+        int id;
+        synchronized (slabLock) {
+            Integer f = freeSlabIds.poll();
+            ByteBuffer[] a = slabs;
+            if (f != null)
+                id = f;
+            else if ((id = ++slabTop) >= a.length)
+                a = Arrays.copyOf(a, a.length << 1);
+            a[id] = b;
+            slabs = a; // publish
+        }
+        slabCount.increment();
+        reservedBytes.add(capacity);
+        return id;
+    }
+
+    private void releaseSlab(int id) {
+        int capacity;
+        synchronized (slabLock) {
+            ByteBuffer[] a = slabs;
+            capacity = a[id].capacity();
+            a[id] = null;
+            slabs = a;
+            freeSlabIds.push(id);
+        }
+        slabCount.decrement();
+        reservedBytes.add(-capacity);
+    }
+
+    /* ---------------- Encoding -------------- */
+
+    static <T> byte[] encode(Codec<T> codec, T x) {
+        if (x == null)
+            throw new NullPointerException();
+        ByteBuffer b = ByteBuffer.allocate(codec.encodedSize(x));
+        codec.encode(x, b);
+        if (b.hasRemaining())
+            throw new IllegalStateException("Codec wrote " + b.position() +
+                                            " of " + b.capacity() + " bytes");
+        return b.array();
+    }
+
+    static <T> T decode(Codec<T> codec, byte[] bytes) {
+        return codec.decode(ByteBuffer.wrap(bytes).asReadOnlyBuffer());
+    }
+
+    /* ---------------- Views -------------- */
+
+    final class EntrySetView extends AbstractSet<Map.Entry<K,V>> {
+        public Iterator<Map.Entry<K,V>> iterator() {
+            return new EntryIterator();
+        }
+        public int size() {
+            return OffHeapConcurrentHashMap.this.size();
+        }
+        public boolean isEmpty() {
+            return OffHeapConcurrentHashMap.this.isEmpty();
+        }
+        public void clear() {
+            OffHeapConcurrentHashMap.this.clear();
+        }
+        public boolean contains(Object o) {
+            Object k, v, r; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (r = get(k)) != null &&
+                    (v = e.getValue()) != null &&
+                    (v == r || v.equals(r)));
+        }
+        public boolean remove(Object o) {
+            Object k, v; Map.Entry<?,?> e;
+            return ((o instanceof Map.Entry) &&
+                    (k = (e = (Map.Entry<?,?>)o).getKey()) != null &&
+                    (v = e.getValue()) != null &&
+                    OffHeapConcurrentHashMap.this.remove(k, v));
+        }
+    }
+
+    /**
+     * Iterates stripe by stripe over copies of each stripe's encoded
+     * mappings, decoding them as they are returned.
+     */
+    final class EntryIterator implements Iterator<Map.Entry<K,V>> {
+        final ArrayList<byte[]> batch = new ArrayList<>();
+        int stripe;          // next stripe to copy
+        int index;           // next key index in batch
+        K lastKey;           // for remove
+
+        public boolean hasNext() {
+            while (index >= batch.size()) {
+                if (stripe >= stripes.length)
+                    return false;
+                batch.clear();
+                index = 0;
+                Stripe st = stripes[stripe];
+                synchronized (st) {
+                    traverseStripe(st, stripe, table, batch);
+                }
+                ++stripe;
+            }
+            return true;
+        }
+
+        public Map.Entry<K,V> next() {
+            if (!hasNext())
+                throw new NoSuchElementException();
+            K k = decode(keyCodec, batch.get(index));
+            V v = decode(valueCodec, batch.get(index + 1));
+            index += 2;
+            lastKey = k;
+            return new MapEntry(k, v);
+        }
+
+        public void remove() {
+            K k;
+            if ((k = lastKey) == null)
+                throw new IllegalStateException();
+            lastKey = null;
+            OffHeapConcurrentHashMap.this.remove(k);
+        }
+    }
+
+    /**
+     * Exported Entry for EntryIterator, writing through to the map.
+     */
+    final class MapEntry extends AbstractMap.SimpleEntry<K,V> {
+        private static final long serialVersionUID = 2882475980085620713L;
+
+        MapEntry(K key, V val) {
+            super(key, val);
+        }
+
+        /**
+         * Sets our entry's value and writes through to the map. The
+         * value to return is somewhat arbitrary here, as for
+         * ConcurrentHashMap.MapEntry.
+         */
+        public V setValue(V value) {
+            if (value == null) throw new NullPointerException();
+            V v = super.setValue(value);
+            put(getKey(), value);
+            return v;
+        }
+    }
+}
@@ -0,0 +1,1978 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractCollection;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A {@link ConcurrentNavigableMap} whose skip list lives in a
+ * memory-mapped file, so that a large ordered index can be reopened
+ * after a restart without being rebuilt.  Keys and values are
+ * converted to bytes by {@link OffHeapConcurrentHashMap.Codec}s; keys
+ * are ordered by their decoded form, using the {@link Comparator}
+ * given at construction or their {@linkplain Comparable natural
+ * ordering}, which must be the same each time the file is opened.
+ *
+ * <p>The file is append-only.  A node, holding a key, a reference to
+ * its current value record and its forward links, is written once
+ * when its key is first inserted.  Replacing a value appends a new
+ * value record and swings the node's value reference; removing a
+ * mapping clears the reference and unlinks the node.  Space held by
+ * removed nodes and superseded values is not reclaimed; a compacted
+ * copy can be made by {@code putAll} into a map on a new file.  The
+ * file is mapped in segments of fixed size (1 GB by default), which
+ * are extended sparsely as the map grows.
+ *
+ * <p>Retrievals and traversals are lock-free, and proceed
+ * concurrently with updates, with the same weakly consistent
+ * guarantees as {@link ConcurrentSkipListMap}.  Updates are
+ * serialized by a single lock, since appending to the file is
+ * inherently sequential.
+ *
+ * <p>Changes reach the file at the discretion of the operating
+ * system.  The {@link #force} method writes all changes to the storage
+ * device and marks the file as consistent; {@link #close} does the
+ * same.  A file that was modified after its last checkpoint, for
+ * example because the process crashed, may be inconsistent, and
+ * opening it throws an {@code IOException}, after which the index
+ * must be rebuilt.
+ *
+ * <p>This class does <em>not</em> permit the use of {@code null} keys
+ * or values.  Keys may be compared with each other many times per
+ * operation, each time being decoded from the file, so codecs should
+ * be cheap.
+ *
+ * @param <K> the type of keys maintained by this map
+ * @param <V> the type of mapped values
+ *
+ * @see ConcurrentSkipListMap
+ * @since 1.8
+ */
+public class PersistentConcurrentSkipListMap<K,V> extends AbstractMap<K,V>
+    implements ConcurrentNavigableMap<K,V>, Closeable {
+
+    /*
+     * File layout.  All offsets are positions in the file; a position
+     * is translated to an address through the base address of the
+     * segment containing it.  Records never straddle segments and are
+     * 8-byte aligned, so links and value references can be read and
+     * written atomically with volatile semantics.
+     *
+     * Header, at position 0:
+     *   long  magic
+     *   int   version
+     *   int   segment shift
+     *   long  append position at last checkpoint
+     *   int   1 if consistent (checkpointed), else 0
+     * The head node follows at HEAD, with MAX_LEVEL links.
+     *
+     * Node:
+     *   int   level (number of links)
+     *   int   encoded key length
+     *   long  position of value record, or 0 if removed
+     *   long  links[level]
+     *   byte  key[]
+     *
+     * Value record:
+     *   int   encoded value length
+     *   byte  value[]
+     *
+     * Nodes are published by writing them fully, then storing their
+     * position into predecessors' links (bottom level first) with
+     * volatile writes, so a reader that finds a node through a
+     * volatile read of a link sees its contents.  Fields are in native
+     * byte order, so files are not portable across architectures of
+     * differing endianness.
+     */
+
+    private static final long MAGIC = 0x504353534c4d4150L;
+    private static final int VERSION = 1;
+
+    private static final int H_MAGIC   = 0;
+    private static final int H_VERSION = 8;
+    private static final int H_SHIFT   = 12;
+    private static final int H_TOP     = 16;
+    private static final int H_CLEAN   = 24;
+
+    private static final int N_LEVEL = 0;
+    private static final int N_KLEN  = 4;
+    private static final int N_VALUE = 8;
+    private static final int N_LINKS = 16;
+
+    /**
+     * The maximum number of levels.  Node levels are chosen with
+     * probability 1/4 of each further level.
+     */
+    private static final int MAX_LEVEL = 16;
+
+    /** Position of the head node. */
+    private static final long HEAD = 32;
+
+    /** Position of the first record after the head node. */
+    private static final long DATA_START = HEAD + N_LINKS + 8 * MAX_LEVEL;
+
+    private static final int DEFAULT_SEGMENT_SHIFT = 30;
+    private static final int MIN_SEGMENT_SHIFT = 16;
+    private static final int MAX_SEGMENT_SHIFT = 30;
+
+    /**
+     * The comparator used to maintain order in this map, or null if
+     * using natural ordering.
+     */
+    final Comparator<? super K> comparator;
+    final OffHeapConcurrentHashMap.Codec<K> keyCodec;
+    final OffHeapConcurrentHashMap.Codec<V> valueCodec;
+
+    private final FileChannel channel;
+    private final int segmentShift;
+    private final long segmentMask;
+
+    /** Mapped segments, retained for force(). Guarded by lock. */
+    private MappedByteBuffer[] segments;
+
+    /** Base addresses of mapped segments. */
+    private volatile long[] bases;
+
+    /** The lock serializing all mutators */
+    final ReentrantLock lock = new ReentrantLock();
+
+    /** Next append position.  Guarded by lock. */
+    private long top;
+
+    /** Whether the file is marked consistent.  Guarded by lock. */
+    private boolean clean;
+
+    private volatile boolean closed;
+
+    /** Unbounded ascending range, providing iterators for the whole map. */
+    private final SubMap<K,V> range;
+
+    /** Lazily initialized key set */
+    private transient KeySet<K> keySet;
+    /** Lazily initialized entry set */
+    private transient EntrySet<K,V> entrySet;
+    /** Lazily initialized values collection */
+    private transient Values<V> values;
+    /** Lazily initialized descending map */
+    private transient ConcurrentNavigableMap<K,V> descendingMap;
+
+    /* ---------------- Constructors -------------- */
+
+    /**
+     * Opens or creates a map in the given file, sorted according to
+     * the {@linkplain Comparable natural ordering} of the keys.
+     *
+     * @param file the file holding the map
+     * @param keyCodec the codec for keys
+     * @param valueCodec the codec for values
+     * @throws IOException if an I/O error occurs, or the file exists
+     *         but does not hold a consistent map
+     * @throws NullPointerException if any argument is null
+     */
+    public PersistentConcurrentSkipListMap(Path file,
+                                           OffHeapConcurrentHashMap.Codec<K> keyCodec,
+                                           OffHeapConcurrentHashMap.Codec<V> valueCodec)
+        throws IOException {
+        this(file, keyCodec, valueCodec, null, 1 << DEFAULT_SEGMENT_SHIFT);
+    }
+
+    /**
+     * Opens or creates a map in the given file, sorted according to
+     * the specified comparator.  The segment size applies only when
+     * the file is created; an existing file keeps the segment size it
+     * was created with.
+     *
+     * @param file the file holding the map
+     * @param keyCodec the codec for keys
+     * @param valueCodec the codec for values
+     * @param comparator the comparator that will be used to order this
+     *        map.  If {@code null}, the {@linkplain Comparable natural
+     *        ordering} of the keys will be used.
+     * @param segmentSize the size of each mapped segment of the file,
+     *        a power of two between 64 KB and 1 GB inclusive
+     * @throws IOException if an I/O error occurs, or the file exists
+     *         but does not hold a consistent map
+     * @throws IllegalArgumentException if the segment size is invalid
+     * @throws NullPointerException if the file or either codec is null
+     */
+    public PersistentConcurrentSkipListMap(Path file,
+                                           OffHeapConcurrentHashMap.Codec<K> keyCodec,
+                                           OffHeapConcurrentHashMap.Codec<V> valueCodec,
+                                           Comparator<? super K> comparator,
+                                           int segmentSize)
+        throws IOException {
+        if (file == null || keyCodec == null || valueCodec == null)
+            throw new NullPointerException();
+        int shift = 31 - Integer.numberOfLeadingZeros(segmentSize);
+        if ((segmentSize & (segmentSize - 1)) != 0 ||
+            shift < MIN_SEGMENT_SHIFT || shift > MAX_SEGMENT_SHIFT)
+            throw new IllegalArgumentException("Illegal segment size: " +
+                                               segmentSize);
+        this.comparator = comparator;
+        this.keyCodec = keyCodec;
+        this.valueCodec = valueCodec;
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.READ,
+                                          StandardOpenOption.WRITE,
+                                          StandardOpenOption.CREATE);
+        boolean created = false;
+        try {
+            if (ch.size() == 0L)
+                created = true;
+            else {
+                ByteBuffer h = ByteBuffer.allocate((int)HEAD)
+                    .order(ByteOrder.nativeOrder());
+                while (h.hasRemaining() && ch.read(h, h.position()) >= 0)
+                    ;
+                if (h.hasRemaining() || h.getLong(H_MAGIC) != MAGIC ||
+                    h.getInt(H_VERSION) != VERSION)
+                    throw new IOException("Not a skip list map: " + file);
+                if (h.getInt(H_CLEAN) == 0)
+                    throw new IOException("Map was not checkpointed: " + file);
+                shift = h.getInt(H_SHIFT);
+                top = h.getLong(H_TOP);
+                if (shift < MIN_SEGMENT_SHIFT || shift > MAX_SEGMENT_SHIFT ||
+                    top < DATA_START || top > ch.size())
+                    throw new IOException("Corrupt header: " + file);
+            }
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+        this.channel = ch;
+        this.segmentShift = shift;
+        this.segmentMask = (1L << shift) - 1;
+        this.segments = new MappedByteBuffer[0];
+        this.bases = new long[0];
+        if (created) {
+            top = DATA_START;
+            segment(0);
+            long a = bases[0];
+            U.putLong(a + H_MAGIC, MAGIC);
+            U.putInt(a + H_VERSION, VERSION);
+            U.putInt(a + H_SHIFT, shift);
+            U.putInt(a + HEAD + N_LEVEL, MAX_LEVEL);
+            checkpoint();
+        }
+        else {
+            for (int i = 0, n = (int)((top - 1) >>> shift); i <= n; ++i)
+                segment(i);
+            clean = true;
+        }
+        this.range = new SubMap<K,V>(this, null, false, null, false, false);
+    }
+
+    /* ---------------- Durability -------------- */
+
+    /**
+     * Writes all changes made to this map to the storage device
+     * containing its file, and marks the file as consistent, so that
+     * it can be reopened.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void force() throws IOException {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (closed)
+                throw new ClosedChannelException();
+            if (!clean)
+                checkpoint();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Checkpoints this map, as by {@link #force}, and closes its file.
+     * Further updates throw {@code IllegalStateException}; retrievals
+     * continue to read the last state.  If the map is already closed
+     * then invoking this method has no effect.
+     *
+     * @throws IOException if an I/O error occurs
+     */
+    public void close() throws IOException {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            if (closed)
+                return;
+            try {
+                if (!clean)
+                    checkpoint();
+            } finally {
+                closed = true;
+                channel.close();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Forces all segments, then records the append position and the
+     * consistent flag in the header and forces it.
+     */
+    private void checkpoint() {
+        MappedByteBuffer[] segs = segments;
+        for (MappedByteBuffer s : segs)
+            s.force();
+        long a = bases[0];
+        U.putLong(a + H_TOP, top);
+        U.putInt(a + H_CLEAN, 1);
+        segs[0].force();
+        clean = true;
+    }
+
+    /**
+     * Called before each change.  Marks the file as inconsistent, and
+     * forces the header, before any change can reach the file.
+     */
+    private void beginUpdate() {
+        if (closed)
+            throw new IllegalStateException("Map is closed");
+        if (clean) {
+            U.putInt(bases[0] + H_CLEAN, 0);
+            segments[0].force();
+            clean = false;
+        }
+    }
+
+    /* ---------------- File access -------------- */
+
+    /**
+     * Maps segment i if not already mapped.  Called with lock held, or
+     * from the constructor.
+     */
+    private void segment(int i) {
+        MappedByteBuffer[] segs = segments;
+        if (i < segs.length)
+            return;
+        long[] bs = bases;
+        MappedByteBuffer[] ns = java.util.Arrays.copyOf(segs, i + 1);
+        long[] nb = java.util.Arrays.copyOf(bs, i + 1);
+        for (int j = segs.length; j <= i; ++j) {
+            try {
+                ns[j] = channel.map(FileChannel.MapMode.READ_WRITE,
+                                    (long)j << segmentShift,
+                                    1L << segmentShift);
+            } catch (IOException e) {
+                throw new IllegalStateException("Cannot extend map", e);
+            }
+            nb[j] = ((sun.nio.ch.DirectBuffer)ns[j]).address();
+        }
+        segments = ns;
+        bases = nb; // publish
+    }
+
+    private long address(long pos) {
+        return bases[(int)(pos >>> segmentShift)] + (pos & segmentMask);
+    }
+
+    /**
+     * Reserves size bytes at the end of the file.  Called with lock held.
+     */
+    private long append(int size) {
+        long segSize = segmentMask + 1;
+        size = (size + 7) & ~7;
+        if (size > segSize)
+            throw new IllegalArgumentException("Record too large: " + size);
+        long p = top;
+        if ((p & segmentMask) + size > segSize)
+            p = (p + segmentMask) & ~segmentMask;  // skip to next segment
+        segment((int)(p >>> segmentShift));
+        top = p + size;
+        return p;
+    }
+
+    private long link(long n, int level) {
+        return U.getLongVolatile(null, address(n) + N_LINKS + 8L * level);
+    }
+
+    private void setLink(long n, int level, long x) {
+        U.putLongVolatile(null, address(n) + N_LINKS + 8L * level, x);
+    }
+
+    private long valueRef(long n) {
+        return U.getLongVolatile(null, address(n) + N_VALUE);
+    }
+
+    private void setValueRef(long n, long v) {
+        U.putLongVolatile(null, address(n) + N_VALUE, v);
+    }
+
+    private int levelOf(long n) {
+        return U.getInt(address(n) + N_LEVEL);
+    }
+
+    /** Returns the key of node n. */
+    final K keyOf(long n) {
+        long a = address(n);
+        int level = U.getInt(a + N_LEVEL);
+        return OffHeapConcurrentHashMap.decode
+            (keyCodec, copyOut(a + N_LINKS + 8L * level, U.getInt(a + N_KLEN)));
+    }
+
+    /** Returns the value of node n, or null if it has been removed. */
+    final V valueOf(long n) {
+        long v = valueRef(n);
+        if (v == 0L)
+            return null;
+        long a = address(v);
+        return OffHeapConcurrentHashMap.decode
+            (valueCodec, copyOut(a + 4, U.getInt(a)));
+    }
+
+    private static byte[] copyOut(long address, int len) {
+        byte[] b = new byte[len];
+        U.copyMemory(null, address, b, BYTE_ARRAY_OFFSET, len);
+        return b;
+    }
+
+    private void copyIn(byte[] b, long address) {
+        U.copyMemory(b, BYTE_ARRAY_OFFSET, null, address, b.length);
+    }
+
+    /** Appends a value record.  Called with lock held. */
+    private long appendValue(byte[] vb) {
+        long p = append(4 + vb.length);
+        long a = address(p);
+        U.putInt(a, vb.length);
+        copyIn(vb, a + 4);
+        return p;
+    }
+
+    /** Appends an unlinked node.  Called with lock held. */
+    private long appendNode(int level, byte[] kb, long v) {
+        long p = append(N_LINKS + 8 * level + kb.length);
+        long a = address(p);
+        U.putInt(a + N_LEVEL, level);
+        U.putInt(a + N_KLEN, kb.length);
+        U.putLong(a + N_VALUE, v);
+        copyIn(kb, a + N_LINKS + 8L * level);
+        return p;
+    }
+
+    /* ---------------- Traversal -------------- */
+
+    /**
+     * Returns the last node whose key is strictly less than the given
+     * key at each level, in preds if non-null, and at the bottom level
+     * as the result; HEAD if there is none.
+     */
+    private long findPredecessor(Object key, Comparator<? super K> cmp,
+                                 long[] preds) {
+        if (key == null)
+            throw new NullPointerException(); // don't postpone errors
+        long b = HEAD;
+        for (int level = MAX_LEVEL - 1; level >= 0; --level) {
+            for (long n; (n = link(b, level)) != 0L &&
+                     ConcurrentSkipListMap.cpr(cmp, key, keyOf(n)) > 0; )
+                b = n;
+            if (preds != null)
+                preds[level] = b;
+        }
+        return b;
+    }
+
+    /**
+     * Returns node holding key or 0 if no such.  The node may have
+     * been removed concurrently, in which case its value is null.
+     */
+    private long findNode(Object key) {
+        Comparator<? super K> cmp = comparator;
+        long n = link(findPredecessor(key, cmp, null), 0);
+        return (n != 0L && ConcurrentSkipListMap.cpr(cmp, key, keyOf(n)) == 0)
+            ? n : 0L;
+    }
+
+    /**
+     * Returns first node with a value, or 0 if empty.
+     */
+    final long findFirst() {
+        for (long n = link(HEAD, 0); n != 0L; n = link(n, 0)) {
+            if (valueRef(n) != 0L)
+                return n;
+        }
+        return 0L;
+    }
+
+    /**
+     * Returns last node with a value, or 0 if empty.
+     */
+    final long findLast() {
+        long b = HEAD;
+        for (int level = MAX_LEVEL - 1; level >= 0; --level) {
+            for (long n; (n = link(b, level)) != 0L; )
+                b = n;
+        }
+        if (b == HEAD)
+            return 0L;
+        return (valueRef(b) != 0L) ? b : findNear(keyOf(b), LT, comparator);
+    }
+
+    // Control values OR'ed as arguments to findNear
+
+    static final int EQ = 1;
+    static final int LT = 2;
+    static final int GT = 0; // Actually checked as !LT
+
+    /**
+     * Utility for ceiling, floor, lower, higher methods.
+     * @param key the key
+     * @param rel the relation -- OR'ed combination of EQ, LT, GT
+     * @return nearest node with a value fitting relation, or 0 if no such
+     */
+    final long findNear(K key, int rel, Comparator<? super K> cmp) {
+        long b = findPredecessor(key, cmp, null);
+        if ((rel & LT) == 0) {
+            for (long n = link(b, 0); n != 0L; n = link(n, 0)) {
+                int c = ConcurrentSkipListMap.cpr(cmp, key, keyOf(n));
+                if ((c < 0 || (c == 0 && (rel & EQ) != 0)) &&
+                    valueRef(n) != 0L)
+                    return n;
+            }
+            return 0L;
+        }
+        if ((rel & EQ) != 0) {
+            long n = link(b, 0);
+            if (n != 0L && valueRef(n) != 0L &&
+                ConcurrentSkipListMap.cpr(cmp, key, keyOf(n)) == 0)
+                return n;
+        }
+        while (b != HEAD && valueRef(b) == 0L) // b was removed; look lower
+            b = findPredecessor(keyOf(b), cmp, null);
+        return (b == HEAD) ? 0L : b;
+    }
+
+    /**
+     * Returns SimpleImmutableEntry for results of findNear.
+     */
+    final AbstractMap.SimpleImmutableEntry<K,V> getNear(K key, int rel) {
+        Comparator<? super K> cmp = comparator;
+        for (;;) {
+            long n = findNear(key, rel, cmp);
+            if (n == 0L)
+                return null;
+            AbstractMap.SimpleImmutableEntry<K,V> e = createSnapshot(n);
+            if (e != null)
+                return e;
+        }
+    }
+
+    /**
+     * Creates and returns a new SimpleImmutableEntry holding current
+     * mapping of node n if it has a value, else null.
+     */
+    final AbstractMap.SimpleImmutableEntry<K,V> createSnapshot(long n) {
+        V v = valueOf(n);
+        return (v == null) ? null :
+            new AbstractMap.SimpleImmutableEntry<K,V>(keyOf(n), v);
+    }
+
+    /* ---------------- Insertion and deletion -------------- */
+
+    private static int randomLevel() {
+        int rnd = ThreadLocalRandom.current().nextInt(), level = 1;
+        while ((rnd & 3) == 0 && level < MAX_LEVEL) {
+            ++level;
+            rnd >>>= 2;
+        }
+        return level;
+    }
+
+    /**
+     * Main insertion method.  Adds element if not present, or
+     * replaces value if present and onlyIfAbsent is false.
+     */
+    private V doPut(K key, V value, boolean onlyIfAbsent) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        byte[] kb = OffHeapConcurrentHashMap.encode(keyCodec, key);
+        byte[] vb = OffHeapConcurrentHashMap.encode(valueCodec, value);
+        long[] preds = new long[MAX_LEVEL];
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            beginUpdate();
+            Comparator<? super K> cmp = comparator;
+            long b = findPredecessor(key, cmp, preds);
+            long n = link(b, 0);
+            if (n != 0L && ConcurrentSkipListMap.cpr(cmp, key, keyOf(n)) == 0) {
+                V old = valueOf(n);
+                if (!onlyIfAbsent)
+                    setValueRef(n, appendValue(vb));
+                return old;
+            }
+            int level = randomLevel();
+            long z = appendNode(level, kb, appendValue(vb));
+            for (int i = 0; i < level; ++i)
+                setLink(z, i, link(preds[i], i));
+            for (int i = 0; i < level; ++i)
+                setLink(preds[i], i, z);
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Main deletion method.  Clears the node's value, making the
+     * mapping invisible to readers, then unlinks the node from the top
+     * level down.  Readers positioned at the node can still follow
+     * its links.
+     *
+     * @param key the key
+     * @param value if non-null, the value that must be
+     * associated with key
+     * @return the value, or null if not found
+     */
+    final V doRemove(Object key, Object value) {
+        long[] preds = new long[MAX_LEVEL];
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            Comparator<? super K> cmp = comparator;
+            long n = link(findPredecessor(key, cmp, preds), 0);
+            if (n == 0L || ConcurrentSkipListMap.cpr(cmp, key, keyOf(n)) != 0)
+                return null;
+            V v = valueOf(n);
+            if (value != null && !value.equals(v))
+                return null;
+            beginUpdate();
+            setValueRef(n, 0L);
+            for (int i = levelOf(n) - 1; i >= 0; --i)
+                setLink(preds[i], i, link(n, i));
+            return v;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the value of key if present, and if cv is non-null only
+     * if equal to cv.
+     */
+    private V doReplace(K key, V value, Object cv) {
+        if (key == null || value == null)
+            throw new NullPointerException();
+        byte[] vb = OffHeapConcurrentHashMap.encode(valueCodec, value);
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            long n = findNode(key);
+            V v;
+            if (n == 0L || (v = valueOf(n)) == null ||
+                (cv != null && !cv.equals(v)))
+                return null;
+            beginUpdate();
+            setValueRef(n, appendValue(vb));
+            return v;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes first entry; returns its snapshot.
+     * @return null if empty, else snapshot of first entry
+     */
+    private Map.Entry<K,V> doRemoveFirstEntry() {
+        for (;;) {
+            long n = findFirst();
+            if (n == 0L)
+                return null;
+            K k = keyOf(n);
+            V v = doRemove(k, null);
+            if (v != null)
+                return new AbstractMap.SimpleImmutableEntry<K,V>(k, v);
+        }
+    }
+
+    /**
+     * Removes last entry; returns its snapshot.
+     * @return null if empty, else snapshot of last entry
+     */
+    private Map.Entry<K,V> doRemoveLastEntry() {
+        for (;;) {
+            long n = findLast();
+            if (n == 0L)
+                return null;
+            K k = keyOf(n);
+            V v = doRemove(k, null);
+            if (v != null)
+                return new AbstractMap.SimpleImmutableEntry<K,V>(k, v);
+        }
+    }
+
+    /* ------ Map API methods ------ */
+
+    /**
+     * Returns {@code true} if this map contains a mapping for the specified
+     * key.
+     *
+     * @param key key whose presence in this map is to be tested
+     * @return {@code true} if this map contains a mapping for the specified key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean containsKey(Object key) {
+        long n = findNode(key);
+        return n != 0L && valueRef(n) != 0L;
+    }
+
+    /**
+     * Returns the value to which the specified key is mapped,
+     * or {@code null} if this map contains no mapping for the key.
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public V get(Object key) {
+        long n = findNode(key);
+        return (n == 0L) ? null : valueOf(n);
+    }
+
+    /**
+     * Associates the specified value with the specified key in this map.
+     * If the map previously contained a mapping for the key, the old
+     * value is replaced.
+     *
+     * @param key key with which the specified value is to be associated
+     * @param value value to be associated with the specified key
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key or value is null
+     * @throws IllegalStateException if the map is closed, or the file
+     *         cannot be extended
+     */
+    public V put(K key, V value) {
+        return doPut(key, value, false);
+    }
+
+    /**
+     * Removes the mapping for the specified key from this map if present.
+     *
+     * @param  key key for which mapping should be removed
+     * @return the previous value associated with the specified key, or
+     *         {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public V remove(Object key) {
+        return doRemove(key, null);
+    }
+
+    /**
+     * Returns {@code true} if this map maps one or more keys to the
+     * specified value.  This operation requires time linear in the
+     * map size.
+     *
+     * @param value value whose presence in this map is to be tested
+     * @return {@code true} if a mapping to {@code value} exists;
+     *         {@code false} otherwise
+     * @throws NullPointerException if the specified value is null
+     */
+    public boolean containsValue(Object value) {
+        if (value == null)
+            throw new NullPointerException();
+        for (long n = findFirst(); n != 0L; n = link(n, 0)) {
+            V v = valueOf(n);
+            if (v != null && value.equals(v))
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of key-value mappings in this map.  As for
+     * {@link ConcurrentSkipListMap#size}, this is <em>not</em> a
+     * constant-time operation: it traverses the map.
+     *
+     * @return the number of elements in this map
+     */
+    public int size() {
+        long count = 0;
+        for (long n = findFirst(); n != 0L; n = link(n, 0)) {
+            if (valueRef(n) != 0L)
+                ++count;
+        }
+        return (count >= Integer.MAX_VALUE) ? Integer.MAX_VALUE : (int) count;
+    }
+
+    /**
+     * Returns {@code true} if this map contains no key-value mappings.
+     * @return {@code true} if this map contains no key-value mappings
+     */
+    public boolean isEmpty() {
+        return findFirst() == 0L;
+    }
+
+    /**
+     * Removes all of the mappings from this map.
+     */
+    public void clear() {
+        final ReentrantLock lock = this.lock;
+        lock.lock();
+        try {
+            beginUpdate();
+            for (long n = link(HEAD, 0); n != 0L; n = link(n, 0))
+                setValueRef(n, 0L);
+            for (int i = MAX_LEVEL - 1; i >= 0; --i)
+                setLink(HEAD, i, 0L);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /* ---------------- View methods -------------- */
+
+    public NavigableSet<K> keySet() {
+        KeySet<K> ks = keySet;
+        return (ks != null) ? ks : (keySet = new KeySet<K>(this));
+    }
+
+    public NavigableSet<K> navigableKeySet() {
+        KeySet<K> ks = keySet;
+        return (ks != null) ? ks : (keySet = new KeySet<K>(this));
+    }
+
+    public Collection<V> values() {
+        Values<V> vs = values;
+        return (vs != null) ? vs : (values = new Values<V>(this));
+    }
+
+    /**
+     * Returns a {@link Set} view of the mappings contained in this map,
+     * in ascending key order.  The view's iterators are
+     * <a href="package-summary.html#Weakly"><i>weakly consistent</i></a>,
+     * and the entries they return do <em>not</em> support the
+     * {@code setValue} operation.
+     *
+     * @return a set view of the mappings contained in this map,
+     *         sorted in ascending key order
+     */
+    public Set<Map.Entry<K,V>> entrySet() {
+        EntrySet<K,V> es = entrySet;
+        return (es != null) ? es : (entrySet = new EntrySet<K,V>(this));
+    }
+
+    public ConcurrentNavigableMap<K,V> descendingMap() {
+        ConcurrentNavigableMap<K,V> dm = descendingMap;
+        return (dm != null) ? dm : (descendingMap = new SubMap<K,V>
+                                    (this, null, false, null, false, true));
+    }
+
+    public NavigableSet<K> descendingKeySet() {
+        return descendingMap().navigableKeySet();
+    }
+
+    Iterator<K> keyIterator() {
+        return range.keyIterator();
+    }
+
+    Iterator<V> valueIterator() {
+        return range.valueIterator();
+    }
+
+    Iterator<Map.Entry<K,V>> entryIterator() {
+        return range.entryIterator();
+    }
+
+    /* ------ ConcurrentMap API methods ------ */
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V putIfAbsent(K key, V value) {
+        return doPut(key, value, true);
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key is null
+     */
+    public boolean remove(Object key, Object value) {
+        if (key == null)
+            throw new NullPointerException();
+        return value != null && doRemove(key, value) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if any of the arguments are null
+     */
+    public boolean replace(K key, V oldValue, V newValue) {
+        if (oldValue == null)
+            throw new NullPointerException();
+        return doReplace(key, newValue, oldValue) != null;
+    }
+
+    /**
+     * {@inheritDoc}
+     *
+     * @return the previous value associated with the specified key,
+     *         or {@code null} if there was no mapping for the key
+     * @throws ClassCastException if the specified key cannot be compared
+     *         with the keys currently in the map
+     * @throws NullPointerException if the specified key or value is null
+     */
+    public V replace(K key, V value) {
+        return doReplace(key, value, null);
+    }
+
+    /* ------ SortedMap API methods ------ */
+
+    public Comparator<? super K> comparator() {
+        return comparator;
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K firstKey() {
+        long n = findFirst();
+        if (n == 0L)
+            throw new NoSuchElementException();
+        return keyOf(n);
+    }
+
+    /**
+     * @throws NoSuchElementException {@inheritDoc}
+     */
+    public K lastKey() {
+        long n = findLast();
+        if (n == 0L)
+            throw new NoSuchElementException();
+        return keyOf(n);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} or {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> subMap(K fromKey,
+                                              boolean fromInclusive,
+                                              K toKey,
+                                              boolean toInclusive) {
+        if (fromKey == null || toKey == null)
+            throw new NullPointerException();
+        return new SubMap<K,V>
+            (this, fromKey, fromInclusive, toKey, toInclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code toKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> headMap(K toKey,
+                                               boolean inclusive) {
+        if (toKey == null)
+            throw new NullPointerException();
+        return new SubMap<K,V>
+            (this, null, false, toKey, inclusive, false);
+    }
+
+    /**
+     * @throws ClassCastException {@inheritDoc}
+     * @throws NullPointerException if {@code fromKey} is null
+     * @throws IllegalArgumentException {@inheritDoc}
+     */
+    public ConcurrentNavigableMap<K,V> tailMap(K fromKey,
+                                               boolean inclusive) {
+        if (fromKey == null)
+            throw new NullPointerException();
+        return new SubMap<K,V>
+            (this, fromKey, inclusive, null, false, false);
+    }
+
+    public ConcurrentNavigableMap<K,V> subMap(K fromKey, K toKey) {
+        return subMap(fromKey, true, toKey, false);
+    }
+
+    public ConcurrentNavigableMap<K,V> headMap(K toKey) {
+        return headMap(toKey, false);
+    }
+
+    public ConcurrentNavigableMap<K,V> tailMap(K fromKey) {
+        return tailMap(fromKey, true);
+    }
+
+    /* ---------------- Relational operations -------------- */
+
+    public Map.Entry<K,V> lowerEntry(K key) {
+        return getNear(key, LT);
+    }
+
+    public K lowerKey(K key) {
+        long n = findNear(key, LT, comparator);
+        return (n == 0L) ? null : keyOf(n);
+    }
+
+    public Map.Entry<K,V> floorEntry(K key) {
+        return getNear(key, LT|EQ);
+    }
+
+    public K floorKey(K key) {
+        long n = findNear(key, LT|EQ, comparator);
+        return (n == 0L) ? null : keyOf(n);
+    }
+
+    public Map.Entry<K,V> ceilingEntry(K key) {
+        return getNear(key, GT|EQ);
+    }
+
+    public K ceilingKey(K key) {
+        long n = findNear(key, GT|EQ, comparator);
+        return (n == 0L) ? null : keyOf(n);
+    }
+
+    public Map.Entry<K,V> higherEntry(K key) {
+        return getNear(key, GT);
+    }
+
+    public K higherKey(K key) {
+        long n = findNear(key, GT, comparator);
+        return (n == 0L) ? null : keyOf(n);
+    }
+
+    public Map.Entry<K,V> firstEntry() {
+        for (;;) {
+            long n = findFirst();
+            if (n == 0L)
+                return null;
+            AbstractMap.SimpleImmutableEntry<K,V> e = createSnapshot(n);
+            if (e != null)
+                return e;
+        }
+    }
+
+    public Map.Entry<K,V> lastEntry() {
+        for (;;) {
+            long n = findLast();
+            if (n == 0L)
+                return null;
+            AbstractMap.SimpleImmutableEntry<K,V> e = createSnapshot(n);
+            if (e != null)
+                return e;
+        }
+    }
+
+    public Map.Entry<K,V> pollFirstEntry() {
+        return doRemoveFirstEntry();
+    }
+
+    public Map.Entry<K,V> pollLastEntry() {
+        return doRemoveLastEntry();
+    }
+
+    /* ---------------- View Classes -------------- */
+
+    /*
+     * As in ConcurrentSkipListMap, view classes are static, delegating
+     * to a ConcurrentNavigableMap to allow use by SubMaps.  All
+     * iterators are those of a SubMap; the whole map's are those of
+     * its unbounded ascending range.
+     */
+
+    static final <E> List<E> toList(Collection<E> c) {
+        // Using size() here would be a pessimization.
+        ArrayList<E> list = new ArrayList<E>();
+        for (E e : c)
+            list.add(e);
+        return list;
+    }
+
+    static final class KeySet<E>
+            extends AbstractSet<E> implements NavigableSet<E> {
+        final ConcurrentNavigableMap<E,?> m;
+        KeySet(ConcurrentNavigableMap<E,?> map) { m = map; }
+        public int size() { return m.size(); }
+        public boolean isEmpty() { return m.isEmpty(); }
+        public boolean contains(Object o) { return m.containsKey(o); }
+        public boolean remove(Object o) { return m.remove(o) != null; }
+        public void clear() { m.clear(); }
+        public E lower(E e) { return m.lowerKey(e); }
+        public E floor(E e) { return m.floorKey(e); }
+        public E ceiling(E e) { return m.ceilingKey(e); }
+        public E higher(E e) { return m.higherKey(e); }
+        public Comparator<? super E> comparator() { return m.comparator(); }
+        public E first() { return m.firstKey(); }
+        public E last() { return m.lastKey(); }
+        public E pollFirst() {
+            Map.Entry<E,?> e = m.pollFirstEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        public E pollLast() {
+            Map.Entry<E,?> e = m.pollLastEntry();
+            return (e == null) ? null : e.getKey();
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<E> iterator() {
+            if (m instanceof PersistentConcurrentSkipListMap)
+                return ((PersistentConcurrentSkipListMap<E,Object>)m).keyIterator();
+            else
+                return ((SubMap<E,Object>)m).keyIterator();
+        }
+        public boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (!(o instanceof Set))
+                return false;
+            Collection<?> c = (Collection<?>) o;
+            try {
+                return containsAll(c) && c.containsAll(this);
+            } catch (ClassCastException unused) {
+                return false;
+            } catch (NullPointerException unused) {
+                return false;
+            }
+        }
+        public Object[] toArray()     { return toList(this).toArray();  }
+        public <T> T[] toArray(T[] a) { return toList(this).toArray(a); }
+        public Iterator<E> descendingIterator() {
+            return descendingSet().iterator();
+        }
+        public NavigableSet<E> subSet(E fromElement,
+                                      boolean fromInclusive,
+                                      E toElement,
+                                      boolean toInclusive) {
+            return new KeySet<E>(m.subMap(fromElement, fromInclusive,
+                                          toElement,   toInclusive));
+        }
+        public NavigableSet<E> headSet(E toElement, boolean inclusive) {
+            return new KeySet<E>(m.headMap(toElement, inclusive));
+        }
+        public NavigableSet<E> tailSet(E fromElement, boolean inclusive) {
+            return new KeySet<E>(m.tailMap(fromElement, inclusive));
+        }
+        public NavigableSet<E> subSet(E fromElement, E toElement) {
+            return subSet(fromElement, true, toElement, false);
+        }
+        public NavigableSet<E> headSet(E toElement) {
+            return headSet(toElement, false);
+        }
+        public NavigableSet<E> tailSet(E fromElement) {
+            return tailSet(fromElement, true);
+        }
+        public NavigableSet<E> descendingSet() {
+            return new KeySet<E>(m.descendingMap());
+        }
+        @SuppressWarnings("unchecked")
+        public Spliterator<E> spliterator() {
+            return (Spliterator<E>)iterator();
+        }
+    }
+
+    static final class Values<E> extends AbstractCollection<E> {
+        final ConcurrentNavigableMap<?, E> m;
+        Values(ConcurrentNavigableMap<?, E> map) {
+            m = map;
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<E> iterator() {
+            if (m instanceof PersistentConcurrentSkipListMap)
+                return ((PersistentConcurrentSkipListMap<?,E>)m).valueIterator();
+            else
+                return ((SubMap<?,E>)m).valueIterator();
+        }
+        public boolean isEmpty() {
+            return m.isEmpty();
+        }
+        public int size() {
+            return m.size();
+        }
+        public boolean contains(Object o) {
+            return m.containsValue(o);
+        }
+        public void clear() {
+            m.clear();
+        }
+        public Object[] toArray()     { return toList(this).toArray();  }
+        public <T> T[] toArray(T[] a) { return toList(this).toArray(a); }
+        @SuppressWarnings("unchecked")
+        public Spliterator<E> spliterator() {
+            return (Spliterator<E>)iterator();
+        }
+    }
+
+    static final class EntrySet<K1,V1> extends AbstractSet<Map.Entry<K1,V1>> {
+        final ConcurrentNavigableMap<K1, V1> m;
+        EntrySet(ConcurrentNavigableMap<K1, V1> map) {
+            m = map;
+        }
+        @SuppressWarnings("unchecked")
+        public Iterator<Map.Entry<K1,V1>> iterator() {
+            if (m instanceof PersistentConcurrentSkipListMap)
+                return ((PersistentConcurrentSkipListMap<K1,V1>)m).entryIterator();
+            else
+                return ((SubMap<K1,V1>)m).entryIterator();
+        }
+        public boolean contains(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            V1 v = m.get(e.getKey());
+            return v != null && v.equals(e.getValue());
+        }
+        public boolean remove(Object o) {
+            if (!(o instanceof Map.Entry))
+                return false;
+            Map.Entry<?,?> e = (Map.Entry<?,?>)o;
+            return m.remove(e.getKey(),
+                            e.getValue());
+        }
+        public boolean isEmpty() {
+            return m.isEmpty();
+        }
+        public int size() {
+            return m.size();
+        }
+        public void clear() {
+            m.clear();
+        }
+        public boolean equals(Object o) {
+            if (o == this)
+                return true;
+            if (!(o instanceof Set))
+                return false;
+            Collection<?> c = (Collection<?>) o;
+            try {
+                return containsAll(c) && c.containsAll(this);
+            } catch (ClassCastException unused) {
+                return false;
+            } catch (NullPointerException unused) {
+                return false;
+            }
+        }
+        public Object[] toArray()     { return toList(this).toArray();  }
+        public <T> T[] toArray(T[] a) { return toList(this).toArray(a); }
+        @SuppressWarnings("unchecked")
+        public Spliterator<Map.Entry<K1,V1>> spliterator() {
+            return (Spliterator<Map.Entry<K1,V1>>)iterator();
+        }
+    }
+
+    /**
+     * Submaps returned by {@link PersistentConcurrentSkipListMap}
+     * submap operations, as for ConcurrentSkipListMap.SubMap.
+     */
+    static final class SubMap<K,V> extends AbstractMap<K,V>
+        implements ConcurrentNavigableMap<K,V> {
+
+        /** Underlying map */
+        private final PersistentConcurrentSkipListMap<K,V> m;
+        /** lower bound key, or null if from start */
+        private final K lo;
+        /** upper bound key, or null if to end */
+        private final K hi;
+        /** inclusion flag for lo */
+        private final boolean loInclusive;
+        /** inclusion flag for hi */
+        private final boolean hiInclusive;
+        /** direction */
+        private final boolean isDescending;
+
+        // Lazily initialized view holders
+        private transient KeySet<K> keySetView;
+        private transient Set<Map.Entry<K,V>> entrySetView;
+        private transient Collection<V> valuesView;
+
+        /**
+         * Creates a new submap, initializing all fields.
+         */
+        SubMap(PersistentConcurrentSkipListMap<K,V> map,
+               K fromKey, boolean fromInclusive,
+               K toKey, boolean toInclusive,
+               boolean isDescending) {
+            Comparator<? super K> cmp = map.comparator;
+            if (fromKey != null && toKey != null &&
+                ConcurrentSkipListMap.cpr(cmp, fromKey, toKey) > 0)
+                throw new IllegalArgumentException("inconsistent range");
+            this.m = map;
+            this.lo = fromKey;
+            this.hi = toKey;
+            this.loInclusive = fromInclusive;
+            this.hiInclusive = toInclusive;
+            this.isDescending = isDescending;
+        }
+
+        /* ----------------  Utilities -------------- */
+
+        boolean tooLow(Object key, Comparator<? super K> cmp) {
+            int c;
+            return (lo != null && ((c = ConcurrentSkipListMap.cpr(cmp, key, lo)) < 0 ||
+                                   (c == 0 && !loInclusive)));
+        }
+
+        boolean tooHigh(Object key, Comparator<? super K> cmp) {
+            int c;
+            return (hi != null && ((c = ConcurrentSkipListMap.cpr(cmp, key, hi)) > 0 ||
+                                   (c == 0 && !hiInclusive)));
+        }
+
+        boolean inBounds(Object key, Comparator<? super K> cmp) {
+            return !tooLow(key, cmp) && !tooHigh(key, cmp);
+        }
+
+        void checkKeyBounds(K key, Comparator<? super K> cmp) {
+            if (key == null)
+                throw new NullPointerException();
+            if (!inBounds(key, cmp))
+                throw new IllegalArgumentException("key out of range");
+        }
+
+        /**
+         * Returns true if node key is less than upper bound of range.
+         */
+        boolean isBeforeEnd(long n, Comparator<? super K> cmp) {
+            if (n == 0L)
+                return false;
+            if (hi == null)
+                return true;
+            int c = ConcurrentSkipListMap.cpr(cmp, m.keyOf(n), hi);
+            if (c > 0 || (c == 0 && !hiInclusive))
+                return false;
+            return true;
+        }
+
+        /**
+         * Returns lowest node. This node might not be in range, so
+         * most usages need to check bounds.
+         */
+        long loNode(Comparator<? super K> cmp) {
+            if (lo == null)
+                return m.findFirst();
+            else if (loInclusive)
+                return m.findNear(lo, GT|EQ, cmp);
+            else
+                return m.findNear(lo, GT, cmp);
+        }
+
+        /**
+         * Returns highest node. This node might not be in range, so
+         * most usages need to check bounds.
+         */
+        long hiNode(Comparator<? super K> cmp) {
+            if (hi == null)
+                return m.findLast();
+            else if (hiInclusive)
+                return m.findNear(hi, LT|EQ, cmp);
+            else
+                return m.findNear(hi, LT, cmp);
+        }
+
+        /**
+         * Returns lowest absolute key (ignoring directonality).
+         */
+        K lowestKey() {
+            Comparator<? super K> cmp = m.comparator;
+            long n = loNode(cmp);
+            if (isBeforeEnd(n, cmp))
+                return m.keyOf(n);
+            else
+                throw new NoSuchElementException();
+        }
+
+        /**
+         * Returns highest absolute key (ignoring directonality).
+         */
+        K highestKey() {
+            Comparator<? super K> cmp = m.comparator;
+            long n = hiNode(cmp);
+            if (n != 0L) {
+                K last = m.keyOf(n);
+                if (inBounds(last, cmp))
+                    return last;
+            }
+            throw new NoSuchElementException();
+        }
+
+        Map.Entry<K,V> lowestEntry() {
+            Comparator<? super K> cmp = m.comparator;
+            for (;;) {
+                long n = loNode(cmp);
+                if (!isBeforeEnd(n, cmp))
+                    return null;
+                Map.Entry<K,V> e = m.createSnapshot(n);
+                if (e != null)
+                    return e;
+            }
+        }
+
+        Map.Entry<K,V> highestEntry() {
+            Comparator<? super K> cmp = m.comparator;
+            for (;;) {
+                long n = hiNode(cmp);
+                if (n == 0L || !inBounds(m.keyOf(n), cmp))
+                    return null;
+                Map.Entry<K,V> e = m.createSnapshot(n);
+                if (e != null)
+                    return e;
+            }
+        }
+
+        Map.Entry<K,V> removeLowest() {
+            Comparator<? super K> cmp = m.comparator;
+            for (;;) {
+                long n = loNode(cmp);
+                if (n == 0L)
+                    return null;
+                K k = m.keyOf(n);
+                if (!inBounds(k, cmp))
+                    return null;
+                V v = m.doRemove(k, null);
+                if (v != null)
+                    return new AbstractMap.SimpleImmutableEntry<K,V>(k, v);
+            }
+        }
+
+        Map.Entry<K,V> removeHighest() {
+            Comparator<? super K> cmp = m.comparator;
+            for (;;) {
+                long n = hiNode(cmp);
+                if (n == 0L)
+                    return null;
+                K k = m.keyOf(n);
+                if (!inBounds(k, cmp))
+                    return null;
+                V v = m.doRemove(k, null);
+                if (v != null)
+                    return new AbstractMap.SimpleImmutableEntry<K,V>(k, v);
+            }
+        }
+
+        /**
+         * Submap version of PersistentConcurrentSkipListMap.getNear
+         */
+        Map.Entry<K,V> getNearEntry(K key, int rel) {
+            Comparator<? super K> cmp = m.comparator;
+            if (isDescending) { // adjust relation for direction
+                if ((rel & LT) == 0)
+                    rel |= LT;
+                else
+                    rel &= ~LT;
+            }
+            if (tooLow(key, cmp))
+                return ((rel & LT) != 0) ? null : lowestEntry();
+            if (tooHigh(key, cmp))
+                return ((rel & LT) != 0) ? highestEntry() : null;
+            for (;;) {
+                long n = m.findNear(key, rel, cmp);
+                if (n == 0L)
+                    return null;
+                K k = m.keyOf(n);
+                if (!inBounds(k, cmp))
+                    return null;
+                V v = m.valueOf(n);
+                if (v != null)
+                    return new AbstractMap.SimpleImmutableEntry<K,V>(k, v);
+            }
+        }
+
+        // Almost the same as getNearEntry, except for keys
+        K getNearKey(K key, int rel) {
+            Map.Entry<K,V> e = getNearEntry(key, rel);
+            return (e == null) ? null : e.getKey();
+        }
+
+        /* ----------------  Map API methods -------------- */
+
+        public boolean containsKey(Object key) {
+            if (key == null) throw new NullPointerException();
+            return inBounds(key, m.comparator) && m.containsKey(key);
+        }
+
+        public V get(Object key) {
+            if (key == null) throw new NullPointerException();
+            return (!inBounds(key, m.comparator)) ? null : m.get(key);
+        }
+
+        public V put(K key, V value) {
+            checkKeyBounds(key, m.comparator);
+            return m.put(key, value);
+        }
+
+        public V remove(Object key) {
+            return (!inBounds(key, m.comparator)) ? null : m.remove(key);
+        }
+
+        public int size() {
+            Comparator<? super K> cmp = m.comparator;
+            long count = 0;
+            for (long n = loNode(cmp);
+                 isBeforeEnd(n, cmp);
+                 n = m.link(n, 0)) {
+                if (m.valueRef(n) != 0L)
+                    ++count;
+            }
+            return count >= Integer.MAX_VALUE ? Integer.MAX_VALUE : (int)count;
+        }
+
+        public boolean isEmpty() {
+            Comparator<? super K> cmp = m.comparator;
+            return !isBeforeEnd(loNode(cmp), cmp);
+        }
+
+        public boolean containsValue(Object value) {
+            if (value == null)
+                throw new NullPointerException();
+            Comparator<? super K> cmp = m.comparator;
+            for (long n = loNode(cmp);
+                 isBeforeEnd(n, cmp);
+                 n = m.link(n, 0)) {
+                V v = m.valueOf(n);
+                if (v != null && value.equals(v))
+                    return true;
+            }
+            return false;
+        }
+
+        public void clear() {
+            Comparator<? super K> cmp = m.comparator;
+            for (long n = loNode(cmp);
+                 isBeforeEnd(n, cmp);
+                 n = m.link(n, 0)) {
+                if (m.valueRef(n) != 0L)
+                    m.remove(m.keyOf(n));
+            }
+        }
+
+        /* ----------------  ConcurrentMap API methods -------------- */
+
+        public V putIfAbsent(K key, V value) {
+            checkKeyBounds(key, m.comparator);
+            return m.putIfAbsent(key, value);
+        }
+
+        public boolean remove(Object key, Object value) {
+            return inBounds(key, m.comparator) && m.remove(key, value);
+        }
+
+        public boolean replace(K key, V oldValue, V newValue) {
+            checkKeyBounds(key, m.comparator);
+            return m.replace(key, oldValue, newValue);
+        }
+
+        public V replace(K key, V value) {
+            checkKeyBounds(key, m.comparator);
+            return m.replace(key, value);
+        }
+
+        /* ----------------  SortedMap API methods -------------- */
+
+        public Comparator<? super K> comparator() {
+            Comparator<? super K> cmp = m.comparator();
+            if (isDescending)
+                return Collections.reverseOrder(cmp);
+            else
+                return cmp;
+        }
+
+        /**
+         * Utility to create submaps, where given bounds override
+         * unbounded(null) ones and/or are checked against bounded ones.
+         */
+        SubMap<K,V> newSubMap(K fromKey, boolean fromInclusive,
+                              K toKey, boolean toInclusive) {
+            Comparator<? super K> cmp = m.comparator;
+            if (isDescending) { // flip senses
+                K tk = fromKey;
+                fromKey = toKey;
+                toKey = tk;
+                boolean ti = fromInclusive;
+                fromInclusive = toInclusive;
+                toInclusive = ti;
+            }
+            if (lo != null) {
+                if (fromKey == null) {
+                    fromKey = lo;
+                    fromInclusive = loInclusive;
+                }
+                else {
+                    int c = ConcurrentSkipListMap.cpr(cmp, fromKey, lo);
+                    if (c < 0 || (c == 0 && !loInclusive && fromInclusive))
+                        throw new IllegalArgumentException("key out of range");
+                }
+            }
+            if (hi != null) {
+                if (toKey == null) {
+                    toKey = hi;
+                    toInclusive = hiInclusive;
+                }
+                else {
+                    int c = ConcurrentSkipListMap.cpr(cmp, toKey, hi);
+                    if (c > 0 || (c == 0 && !hiInclusive && toInclusive))
+                        throw new IllegalArgumentException("key out of range");
+                }
+            }
+            return new SubMap<K,V>(m, fromKey, fromInclusive,
+                                   toKey, toInclusive, isDescending);
+        }
+
+        public SubMap<K,V> subMap(K fromKey, boolean fromInclusive,
+                                  K toKey, boolean toInclusive) {
+            if (fromKey == null || toKey == null)
+                throw new NullPointerException();
+            return newSubMap(fromKey, fromInclusive, toKey, toInclusive);
+        }
+
+        public SubMap<K,V> headMap(K toKey, boolean inclusive) {
+            if (toKey == null)
+                throw new NullPointerException();
+            return newSubMap(null, false, toKey, inclusive);
+        }
+
+        public SubMap<K,V> tailMap(K fromKey, boolean inclusive) {
+            if (fromKey == null)
+                throw new NullPointerException();
+            return newSubMap(fromKey, inclusive, null, false);
+        }
+
+        public SubMap<K,V> subMap(K fromKey, K toKey) {
+            return subMap(fromKey, true, toKey, false);
+        }
+
+        public SubMap<K,V> headMap(K toKey) {
+            return headMap(toKey, false);
+        }
+
+        public SubMap<K,V> tailMap(K fromKey) {
+            return tailMap(fromKey, true);
+        }
+
+        public SubMap<K,V> descendingMap() {
+            return new SubMap<K,V>(m, lo, loInclusive,
+                                   hi, hiInclusive, !isDescending);
+        }
+
+        /* ----------------  Relational methods -------------- */
+
+        public Map.Entry<K,V> ceilingEntry(K key) {
+            return getNearEntry(key, GT|EQ);
+        }
+
+        public K ceilingKey(K key) {
+            return getNearKey(key, GT|EQ);
+        }
+
+        public Map.Entry<K,V> lowerEntry(K key) {
+            return getNearEntry(key, LT);
+        }
+
+        public K lowerKey(K key) {
+            return getNearKey(key, LT);
+        }
+
+        public Map.Entry<K,V> floorEntry(K key) {
+            return getNearEntry(key, LT|EQ);
+        }
+
+        public K floorKey(K key) {
+            return getNearKey(key, LT|EQ);
+        }
+
+        public Map.Entry<K,V> higherEntry(K key) {
+            return getNearEntry(key, GT);
+        }
+
+        public K higherKey(K key) {
+            return getNearKey(key, GT);
+        }
+
+        public K firstKey() {
+            return isDescending ? highestKey() : lowestKey();
+        }
+
+        public K lastKey() {
+            return isDescending ? lowestKey() : highestKey();
+        }
+
+        public Map.Entry<K,V> firstEntry() {
+            return isDescending ? highestEntry() : lowestEntry();
+        }
+
+        public Map.Entry<K,V> lastEntry() {
+            return isDescending ? lowestEntry() : highestEntry();
+        }
+
+        public Map.Entry<K,V> pollFirstEntry() {
+            return isDescending ? removeHighest() : removeLowest();
+        }
+
+        public Map.Entry<K,V> pollLastEntry() {
+            return isDescending ? removeLowest() : removeHighest();
+        }
+
+        /* ---------------- Submap Views -------------- */
+
+        public NavigableSet<K> keySet() {
+            KeySet<K> ks = keySetView;
+            return (ks != null) ? ks : (keySetView = new KeySet<K>(this));
+        }
+
+        public NavigableSet<K> navigableKeySet() {
+            KeySet<K> ks = keySetView;
+            return (ks != null) ? ks : (keySetView = new KeySet<K>(this));
+        }
+
+        public Collection<V> values() {
+            Collection<V> vs = valuesView;
+            return (vs != null) ? vs : (valuesView = new Values<V>(this));
+        }
+
+        public Set<Map.Entry<K,V>> entrySet() {
+            Set<Map.Entry<K,V>> es = entrySetView;
+            return (es != null) ? es : (entrySetView = new EntrySet<K,V>(this));
+        }
+
+        public NavigableSet<K> descendingKeySet() {
+            return descendingMap().navigableKeySet();
+        }
+
+        Iterator<K> keyIterator() {
+            return new SubMapKeyIterator();
+        }
+
+        Iterator<V> valueIterator() {
+            return new SubMapValueIterator();
+        }
+
+        Iterator<Map.Entry<K,V>> entryIterator() {
+            return new SubMapEntryIterator();
+        }
+
+        /**
+         * Iterator over a range, also serving as its Spliterator.
+         * Ascends along bottom-level links; descends by repeated
+         * lookups, as in ConcurrentSkipListMap.
+         */
+        abstract class SubMapIter<T> implements Iterator<T>, Spliterator<T> {
+            /** the key of the last node returned by next() */
+            K lastReturned;
+            /** the next node to return from next(); */
+            long next;
+            /** the key of next */
+            K nextKey;
+            /** Cache of next value to maintain weak consistency */
+            V nextValue;
+
+            SubMapIter() {
+                Comparator<? super K> cmp = m.comparator;
+                for (;;) {
+                    next = isDescending ? hiNode(cmp) : loNode(cmp);
+                    if (next == 0L)
+                        break;
+                    V x = m.valueOf(next);
+                    if (x != null) {
+                        nextKey = m.keyOf(next);
+                        if (! inBounds(nextKey, cmp))
+                            next = 0L;
+                        else
+                            nextValue = x;
+                        break;
+                    }
+                }
+            }
+
+            public final boolean hasNext() {
+                return next != 0L;
+            }
+
+            final void advance() {
+                if (next == 0L)
+                    throw new NoSuchElementException();
+                lastReturned = nextKey;
+                if (isDescending)
+                    descend();
+                else
+                    ascend();
+            }
+
+            private void ascend() {
+                Comparator<? super K> cmp = m.comparator;
+                for (;;) {
+                    next = m.link(next, 0);
+                    if (next == 0L)
+                        break;
+                    V x = m.valueOf(next);
+                    if (x != null) {
+                        nextKey = m.keyOf(next);
+                        if (tooHigh(nextKey, cmp))
+                            next = 0L;
+                        else
+                            nextValue = x;
+                        break;
+                    }
+                }
+            }
+
+            private void descend() {
+                Comparator<? super K> cmp = m.comparator;
+                for (;;) {
+                    next = m.findNear(lastReturned, LT, cmp);
+                    if (next == 0L)
+                        break;
+                    V x = m.valueOf(next);
+                    if (x != null) {
+                        nextKey = m.keyOf(next);
+                        if (tooLow(nextKey, cmp))
+                            next = 0L;
+                        else
+                            nextValue = x;
+                        break;
+                    }
+                }
+            }
+
+            public void remove() {
+                K l = lastReturned;
+                if (l == null)
+                    throw new IllegalStateException();
+                m.remove(l);
+                lastReturned = null;
+            }
+
+            public Spliterator<T> trySplit() {
+                return null;
+            }
+
+            public boolean tryAdvance(Consumer<? super T> action) {
+                if (hasNext()) {
+                    action.accept(next());
+                    return true;
+                }
+                return false;
+            }
+
+            public void forEachRemaining(Consumer<? super T> action) {
+                while (hasNext())
+                    action.accept(next());
+            }
+
+            public long estimateSize() {
+                return Long.MAX_VALUE;
+            }
+
+        }
+
+        final class SubMapValueIterator extends SubMapIter<V> {
+            public V next() {
+                V v = nextValue;
+                advance();
+                return v;
+            }
+            public int characteristics() {
+                return Spliterator.CONCURRENT | Spliterator.NONNULL |
+                    Spliterator.ORDERED;
+            }
+        }
+
+        final class SubMapKeyIterator extends SubMapIter<K> {
+            public K next() {
+                K k = nextKey;
+                advance();
+                return k;
+            }
+            public int characteristics() {
+                return Spliterator.DISTINCT | Spliterator.ORDERED |
+                    Spliterator.SORTED | Spliterator.CONCURRENT |
+                    Spliterator.NONNULL;
+            }
+            public final Comparator<? super K> getComparator() {
+                return SubMap.this.comparator();
+            }
+        }
+
+        final class SubMapEntryIterator extends SubMapIter<Map.Entry<K,V>> {
+            public Map.Entry<K,V> next() {
+                K k = nextKey;
+                V v = nextValue;
+                advance();
+                return new AbstractMap.SimpleImmutableEntry<K,V>(k, v);
+            }
+            public int characteristics() {
+                return Spliterator.DISTINCT | Spliterator.ORDERED |
+                    Spliterator.CONCURRENT | Spliterator.NONNULL;
+            }
+        }
+    }
+
+    // Unsafe mechanics
+    private static final sun.misc.Unsafe U;
+    private static final long BYTE_ARRAY_OFFSET;
+    static {
+        try {
+            U = sun.misc.Unsafe.getUnsafe();
+            BYTE_ARRAY_OFFSET = U.arrayBaseOffset(byte[].class);
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+}
@@ -576,6 +576,12 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
     /* The context to be used when executing the finalizer, or null. */
     private final AccessControlContext acc;
 
+    /**
+     * Task statistics, or null unless enabled by the system property
+     * java.util.concurrent.executorStatistics.  See ExecutorMXBean.
+     */
+    private final ExecutorStatistics statistics;
+
     /**
      * Class Worker mainly maintains interrupt control state for
      * threads running tasks, along with other minor bookkeeping.
@@ -714,6 +720,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                     } finally {
                         ctl.set(ctlOf(TERMINATED, 0));
                         termination.signalAll();
+                        if (statistics != null)
+                            statistics.unregister();
                     }
                     return;
                 }
@@ -827,6 +835,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
      * Package-protected for use by ScheduledThreadPoolExecutor.
      */
     final void reject(Runnable command) {
+        if (statistics != null)
+            statistics.taskRejected();
         handler.rejectedExecution(command, this);
     }
 
@@ -1128,6 +1138,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         Thread wt = Thread.currentThread();
         Runnable task = w.firstTask;
         w.firstTask = null;
+        final ExecutorStatistics st = statistics;
         w.unlock(); // allow interrupts
         boolean completedAbruptly = true;
         try {
@@ -1145,6 +1156,12 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                 try {
                     beforeExecute(wt, task);
                     Throwable thrown = null;
+                    long start = 0L;
+                    if (st != null)
+                        start = st.taskStarted
+                            ((task instanceof ExecutorStatistics.TimedFutureTask) ?
+                             ((ExecutorStatistics.TimedFutureTask<?>)task).submitTime :
+                             0L);
                     try {
                         task.run();
                     } catch (RuntimeException x) {
@@ -1154,6 +1171,8 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
                     } catch (Throwable x) {
                         thrown = x; throw new Error(x);
                     } finally {
+                        if (st != null)
+                            st.taskFinished(start);
                         afterExecute(task, thrown);
                     }
                 } finally {
@@ -1323,6 +1342,7 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         this.keepAliveTime = unit.toNanos(keepAliveTime);
         this.threadFactory = threadFactory;
         this.handler = handler;
+        this.statistics = ExecutorStatistics.create(this);
     }
 
     /**
@@ -1693,6 +1713,17 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         return maximumPoolSize;
     }
 
+    /**
+     * Returns the number of threads that may run a batch of tasks at
+     * once: no more than the maximum pool size, nor, unless there are
+     * more core threads, the number of processors.
+     */
+    int batchParallelism() {
+        int p = Math.max(corePoolSize,
+                         Runtime.getRuntime().availableProcessors());
+        return Math.min(p, maximumPoolSize);
+    }
+
     /**
      * Sets the time limit for which threads may remain idle before
      * being terminated.  If there are more than the core number of
@@ -1799,6 +1830,45 @@ public class ThreadPoolExecutor extends AbstractExecutorService {
         tryTerminate(); // In case SHUTDOWN and now empty
     }
 
+    /**
+     * Returns a {@code RunnableFuture} for the given runnable and
+     * default value, which records its submission time if this
+     * executor keeps {@linkplain ExecutorMXBean statistics}.
+     *
+     * @param runnable the runnable task being wrapped
+     * @param value the default value for the returned future
+     * @param <T> the type of the given value
+     * @return a {@code RunnableFuture} which, when run, will run the
+     * underlying runnable and which, as a {@code Future}, will yield
+     * the given value as its result and provide for cancellation of
+     * the underlying task
+     * @since 1.8
+     */
+    protected <T> RunnableFuture<T> newTaskFor(Runnable runnable, T value) {
+        if (statistics == null)
+            return super.newTaskFor(runnable, value);
+        return new ExecutorStatistics.TimedFutureTask<T>(runnable, value);
+    }
+
+    /**
+     * Returns a {@code RunnableFuture} for the given callable task,
+     * which records its submission time if this executor keeps
+     * {@linkplain ExecutorMXBean statistics}.
+     *
+     * @param callable the callable task being wrapped
+     * @param <T> the type of the callable's result
+     * @return a {@code RunnableFuture} which, when run, will call the
+     * underlying callable and which, as a {@code Future}, will yield
+     * the callable's result as its result and provide for
+     * cancellation of the underlying task
+     * @since 1.8
+     */
+    protected <T> RunnableFuture<T> newTaskFor(Callable<T> callable) {
+        if (statistics == null)
+            return super.newTaskFor(callable);
+        return new ExecutorStatistics.TimedFutureTask<T>(callable);
+    }
+
     /* Statistics */
 
     /**
@@ -0,0 +1,718 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.concurrent;
+
+import java.util.AbstractQueue;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A {@link ThreadPoolExecutor} whose queue of waiting tasks is split
+ * into lanes, so that threads submitting and taking tasks rarely contend
+ * with one another.  Each thread, whether submitting tasks or running
+ * them in the pool, is associated with a lane by a per-thread random
+ * probe, in the way that {@link ForkJoinPool} chooses the submission
+ * queue of an external thread.  A task is added to the lane of the
+ * submitting thread, so that tasks submitted by a task running in the
+ * pool are usually taken by the same worker; a worker whose lane is
+ * empty steals tasks from the other lanes, and waits only when all are
+ * empty.  Tasks are taken from a lane in the order they were added, but
+ * there is no ordering among lanes.
+ *
+ * <p>Adding a task briefly locks its lane with a spin lock, and taking a
+ * task claims it with a single compare-and-set, as in the work queues
+ * of ForkJoinPool; there is no lock common to all lanes.  A thread that
+ * finds its lane locked moves to another lane.
+ *
+ * <p>In all other respects, this class behaves as a
+ * {@code ThreadPoolExecutor}: the core and maximum pool sizes,
+ * keep-alive time, thread factory, {@link RejectedExecutionHandler} and
+ * the {@link #beforeExecute beforeExecute} and {@link #afterExecute
+ * afterExecute} hooks have their usual meanings.  The queue is
+ * unbounded unless a capacity is given, in which case a count of the
+ * queued tasks, common to all lanes, holds the queue to that capacity;
+ * when it is full, as with any bounded queue, a new thread is started
+ * if fewer than the maximum pool size are running, and the task is
+ * rejected if not.  The queue returned by {@link #getQueue} supports
+ * all {@link BlockingQueue} operations, but its size and iteration are
+ * only estimates while tasks are being added and taken.
+ *
+ * @since 1.8
+ */
+public class WorkStealingThreadPoolExecutor extends ThreadPoolExecutor {
+
+    /**
+     * The maximum number of lanes.
+     */
+    private static final int MAX_LANES = 1 << 12;
+
+    /**
+     * Creates a new {@code WorkStealingThreadPoolExecutor} with the given
+     * initial parameters, an unbounded queue, the default thread factory
+     * and the default rejected execution handler.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param maximumPoolSize the maximum number of threads to allow in the
+     *        pool
+     * @param keepAliveTime when the number of threads is greater than
+     *        the core, this is the maximum time that excess idle threads
+     *        will wait for new tasks before terminating.
+     * @param unit the time unit for the {@code keepAliveTime} argument
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code corePoolSize < 0}<br>
+     *         {@code keepAliveTime < 0}<br>
+     *         {@code maximumPoolSize <= 0}<br>
+     *         {@code maximumPoolSize < corePoolSize}
+     * @throws NullPointerException if {@code unit} is null
+     */
+    public WorkStealingThreadPoolExecutor(int corePoolSize,
+                                          int maximumPoolSize,
+                                          long keepAliveTime,
+                                          TimeUnit unit) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit, 0,
+             Executors.defaultThreadFactory(), new AbortPolicy());
+    }
+
+    /**
+     * Creates a new {@code WorkStealingThreadPoolExecutor} with the given
+     * initial parameters, an unbounded queue and the default rejected
+     * execution handler.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param maximumPoolSize the maximum number of threads to allow in the
+     *        pool
+     * @param keepAliveTime when the number of threads is greater than
+     *        the core, this is the maximum time that excess idle threads
+     *        will wait for new tasks before terminating.
+     * @param unit the time unit for the {@code keepAliveTime} argument
+     * @param threadFactory the factory to use when the executor
+     *        creates a new thread
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code corePoolSize < 0}<br>
+     *         {@code keepAliveTime < 0}<br>
+     *         {@code maximumPoolSize <= 0}<br>
+     *         {@code maximumPoolSize < corePoolSize}
+     * @throws NullPointerException if {@code unit}
+     *         or {@code threadFactory} is null
+     */
+    public WorkStealingThreadPoolExecutor(int corePoolSize,
+                                          int maximumPoolSize,
+                                          long keepAliveTime,
+                                          TimeUnit unit,
+                                          ThreadFactory threadFactory) {
+        this(corePoolSize, maximumPoolSize, keepAliveTime, unit, 0,
+             threadFactory, new AbortPolicy());
+    }
+
+    /**
+     * Creates a new {@code WorkStealingThreadPoolExecutor} with the given
+     * initial parameters.
+     *
+     * @param corePoolSize the number of threads to keep in the pool, even
+     *        if they are idle, unless {@code allowCoreThreadTimeOut} is set
+     * @param maximumPoolSize the maximum number of threads to allow in the
+     *        pool
+     * @param keepAliveTime when the number of threads is greater than
+     *        the core, this is the maximum time that excess idle threads
+     *        will wait for new tasks before terminating.
+     * @param unit the time unit for the {@code keepAliveTime} argument
+     * @param queueCapacity the capacity of the queue, or zero if it is
+     *        unbounded
+     * @param threadFactory the factory to use when the executor
+     *        creates a new thread
+     * @param handler the handler to use when execution is blocked
+     *        because the thread bounds and queue capacities are reached
+     * @throws IllegalArgumentException if one of the following holds:<br>
+     *         {@code corePoolSize < 0}<br>
+     *         {@code keepAliveTime < 0}<br>
+     *         {@code maximumPoolSize <= 0}<br>
+     *         {@code maximumPoolSize < corePoolSize}<br>
+     *         {@code queueCapacity < 0}
+     * @throws NullPointerException if {@code unit}, {@code threadFactory}
+     *         or {@code handler} is null
+     */
+    public WorkStealingThreadPoolExecutor(int corePoolSize,
+                                          int maximumPoolSize,
+                                          long keepAliveTime,
+                                          TimeUnit unit,
+                                          int queueCapacity,
+                                          ThreadFactory threadFactory,
+                                          RejectedExecutionHandler handler) {
+        super(corePoolSize, maximumPoolSize, keepAliveTime, unit,
+              new StealingQueue(lanesFor(maximumPoolSize), queueCapacity),
+              threadFactory, handler);
+    }
+
+    /**
+     * Returns the number of lanes for the given maximum pool size: the
+     * power of two at least twice the number of threads that can run at
+     * once.
+     */
+    private static int lanesFor(int maximumPoolSize) {
+        int p = Math.min(Math.max(maximumPoolSize, 1),
+                         Runtime.getRuntime().availableProcessors());
+        int n = 1;
+        while (n < (p << 1) && n < MAX_LANES)
+            n <<= 1;
+        return n;
+    }
+
+    /**
+     * The queue of a WorkStealingThreadPoolExecutor.  Waiting consumers
+     * are kept on a Treiber stack; a producer that adds a task pops and
+     * unparks one of them.  A consumer pushes its node and then looks
+     * for a task again before parking, so that either it finds a task
+     * added before the push or the producer finds the node.  A consumer
+     * that gives up waiting, or finds a task, after its node was popped
+     * passes the wakeup on to another consumer.
+     */
+    static final class StealingQueue extends AbstractQueue<Runnable>
+        implements BlockingQueue<Runnable> {
+
+        /** Placeholder for a task removed by remove(Object). */
+        static final Runnable REMOVED = new Runnable() {
+            public void run() { }
+        };
+
+        final Lane[] lanes;
+        /** The capacity, or 0 if unbounded */
+        final int capacity;
+        /** The number of tasks queued or being added, if bounded */
+        volatile int count;
+        volatile WaitNode waiters;
+
+        StealingQueue(int nLanes, int capacity) {
+            if (capacity < 0)
+                throw new IllegalArgumentException();
+            lanes = new Lane[nLanes];
+            for (int i = 0; i < nLanes; i++)
+                lanes[i] = new Lane();
+            this.capacity = capacity;
+        }
+
+        /**
+         * Adds the task to the lane of the current thread, or to another
+         * lane if that one is locked or full.  Returns false if the queue
+         * is at capacity, or if every lane is full.
+         */
+        public boolean offer(Runnable x) {
+            if (x == null)
+                throw new NullPointerException();
+            if (capacity > 0) {
+                for (int c;;) {
+                    if ((c = count) >= capacity)
+                        return false;
+                    if (U.compareAndSwapInt(this, COUNT, c, c + 1))
+                        break;
+                }
+            }
+            if (!push(x)) {
+                if (capacity > 0)
+                    U.getAndAddInt(this, COUNT, -1);
+                return false;
+            }
+            if (waiters != null)
+                signal();
+            return true;
+        }
+
+        /**
+         * Adds the task to the lane of the current thread, or to another
+         * lane if that one is locked or full.  Returns false if every lane
+         * is full.
+         */
+        private boolean push(Runnable x) {
+            Lane[] ls = lanes;
+            int m = ls.length - 1;
+            int r = ThreadLocalRandom.getProbe();
+            if (r == 0) {
+                ThreadLocalRandom.localInit();
+                r = ThreadLocalRandom.getProbe();
+            }
+            for (int full = 0;;) {
+                int st = ls[r & m].tryPush(x);
+                if (st > 0)
+                    return true;
+                if (st < 0 && ++full > m) {
+                    // Random probes may miss a lane with room, so try
+                    // each lane in turn before giving up
+                    return pushToAnyLane(x);
+                }
+                r = ThreadLocalRandom.advanceProbe(r);
+            }
+        }
+
+        /**
+         * Adds the task to the first lane, in index order, that has room,
+         * waiting out the lock of each lane.  Returns false if none has.
+         */
+        private boolean pushToAnyLane(Runnable x) {
+            for (Lane l : lanes) {
+                int st;
+                while ((st = l.tryPush(x)) == 0)
+                    Thread.yield();
+                if (st > 0)
+                    return true;
+            }
+            return false;
+        }
+
+        /**
+         * Takes a task from the lane of the current thread, or else from
+         * the first other lane, in probe order, that has one.
+         */
+        public Runnable poll() {
+            Lane[] ls = lanes;
+            int m = ls.length - 1;
+            int r = ThreadLocalRandom.getProbe();
+            for (int i = 0; i <= m; i++) {
+                Runnable x = ls[(r + i) & m].poll();
+                if (x != null) {
+                    if (capacity > 0)
+                        U.getAndAddInt(this, COUNT, -1);
+                    return x;
+                }
+            }
+            return null;
+        }
+
+        public Runnable take() throws InterruptedException {
+            return awaitTask(false, 0L);
+        }
+
+        public Runnable poll(long timeout, TimeUnit unit)
+            throws InterruptedException {
+            return awaitTask(true, unit.toNanos(timeout));
+        }
+
+        private Runnable awaitTask(boolean timed, long nanos)
+            throws InterruptedException {
+            if (Thread.interrupted())
+                throw new InterruptedException();
+            final long deadline = timed ? System.nanoTime() + nanos : 0L;
+            WaitNode node = null;
+            for (;;) {
+                Runnable x = poll();
+                if (x != null) {
+                    if (node != null && !node.cancel())
+                        signal();
+                    return x;
+                }
+                if (node == null) {
+                    node = new WaitNode(Thread.currentThread());
+                    pushWaiter(node);
+                    continue;                   // recheck before parking
+                }
+                if (node.thread == null) {      // signalled
+                    node = null;
+                    continue;
+                }
+                if (timed) {
+                    nanos = deadline - System.nanoTime();
+                    if (nanos <= 0L) {
+                        if (!node.cancel())
+                            signal();
+                        return null;
+                    }
+                    LockSupport.parkNanos(this, nanos);
+                } else {
+                    LockSupport.park(this);
+                }
+                if (Thread.interrupted()) {
+                    if (!node.cancel())
+                        signal();
+                    throw new InterruptedException();
+                }
+            }
+        }
+
+        private void pushWaiter(WaitNode node) {
+            for (WaitNode h;;) {
+                if ((h = waiters) != null && h.thread == null) {
+                    U.compareAndSwapObject(this, WAITERS, h, h.next);
+                } else {
+                    node.next = h;
+                    if (U.compareAndSwapObject(this, WAITERS, h, node))
+                        return;
+                }
+            }
+        }
+
+        /**
+         * Pops waiters until one is claimed, and unparks it.
+         */
+        void signal() {
+            for (WaitNode w; (w = waiters) != null; ) {
+                if (U.compareAndSwapObject(this, WAITERS, w, w.next)) {
+                    Thread t = w.thread;
+                    if (t != null && w.claim(t)) {
+                        LockSupport.unpark(t);
+                        return;
+                    }
+                }
+            }
+        }
+
+        public void put(Runnable x) throws InterruptedException {
+            while (!offer(x)) {
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+                LockSupport.parkNanos(this, SPIN_FOR_SPACE_NANOS);
+            }
+        }
+
+        public boolean offer(Runnable x, long timeout, TimeUnit unit)
+            throws InterruptedException {
+            long nanos = unit.toNanos(timeout);
+            final long deadline = System.nanoTime() + nanos;
+            while (!offer(x)) {
+                if (Thread.interrupted())
+                    throw new InterruptedException();
+                if ((nanos = deadline - System.nanoTime()) <= 0L)
+                    return false;
+                LockSupport.parkNanos(this,
+                                      Math.min(nanos, SPIN_FOR_SPACE_NANOS));
+            }
+            return true;
+        }
+
+        public Runnable peek() {
+            for (Lane l : lanes) {
+                Runnable x = l.peek();
+                if (x != null)
+                    return x;
+            }
+            return null;
+        }
+
+        public boolean isEmpty() {
+            return peek() == null;
+        }
+
+        public int size() {
+            if (capacity > 0)
+                return Math.max(count, 0);
+            long n = 0L;
+            for (Lane l : lanes)
+                n += l.size();
+            return (int)Math.min(n, Integer.MAX_VALUE);
+        }
+
+        public int remainingCapacity() {
+            if (capacity == 0)
+                return Integer.MAX_VALUE;
+            return Math.max(capacity - count, 0);
+        }
+
+        public boolean remove(Object o) {
+            if (o != null) {
+                for (Lane l : lanes) {
+                    if (l.remove(o)) {
+                        if (capacity > 0)
+                            U.getAndAddInt(this, COUNT, -1);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        public int drainTo(Collection<? super Runnable> c) {
+            return drainTo(c, Integer.MAX_VALUE);
+        }
+
+        public int drainTo(Collection<? super Runnable> c, int maxElements) {
+            if (c == null)
+                throw new NullPointerException();
+            if (c == this)
+                throw new IllegalArgumentException();
+            int n = 0;
+            for (Runnable x; n < maxElements && (x = poll()) != null; n++)
+                c.add(x);
+            return n;
+        }
+
+        /**
+         * Returns an iterator over a snapshot of the tasks in the lanes.
+         */
+        public Iterator<Runnable> iterator() {
+            ArrayList<Runnable> list = new ArrayList<>();
+            for (Lane l : lanes)
+                l.addTo(list);
+            final Iterator<Runnable> it = list.iterator();
+            return new Iterator<Runnable>() {
+                Runnable lastRet;
+                public boolean hasNext() {
+                    return it.hasNext();
+                }
+                public Runnable next() {
+                    return lastRet = it.next();
+                }
+                public void remove() {
+                    if (lastRet == null)
+                        throw new IllegalStateException();
+                    StealingQueue.this.remove(lastRet);
+                    lastRet = null;
+                }
+            };
+        }
+
+        /**
+         * Time a producer waits for space in a bounded queue between
+         * attempts.  Producers are not signalled when space frees up.
+         */
+        static final long SPIN_FOR_SPACE_NANOS = 50L * 1000L;
+
+        private static final sun.misc.Unsafe U;
+        private static final long WAITERS;
+        private static final long COUNT;
+        static {
+            try {
+                U = sun.misc.Unsafe.getUnsafe();
+                WAITERS = U.objectFieldOffset
+                    (StealingQueue.class.getDeclaredField("waiters"));
+                COUNT = U.objectFieldOffset
+                    (StealingQueue.class.getDeclaredField("count"));
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    /**
+     * A consumer waiting for a task.  The thread is cleared, by CAS, by a
+     * producer claiming the node to unpark it, or by the consumer itself
+     * when it stops waiting.
+     */
+    static final class WaitNode {
+        volatile Thread thread;
+        WaitNode next;
+
+        WaitNode(Thread thread) {
+            this.thread = thread;
+        }
+
+        boolean claim(Thread t) {
+            return U.compareAndSwapObject(this, THREAD, t, null);
+        }
+
+        /** Returns false if the node was already claimed. */
+        boolean cancel() {
+            Thread t = thread;
+            return t != null && claim(t);
+        }
+
+        private static final sun.misc.Unsafe U;
+        private static final long THREAD;
+        static {
+            try {
+                U = sun.misc.Unsafe.getUnsafe();
+                THREAD = U.objectFieldOffset
+                    (WaitNode.class.getDeclaredField("thread"));
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+
+    /**
+     * A lane of the queue: a circular array of tasks, as in the work
+     * queues of ForkJoinPool, with tasks added at the top under a spin
+     * lock and taken from the base by CAS of their slot to null.  A null
+     * slot below the top is in transition, being taken or moved to a
+     * larger array; removal from the middle replaces the task by REMOVED,
+     * which takers skip, and is counted until then so that the size of the
+     * lane covers only the tasks it holds.
+     */
+    @sun.misc.Contended
+    static final class Lane {
+
+        static final int INITIAL_QUEUE_CAPACITY = 1 << 5;
+        static final int MAXIMUM_QUEUE_CAPACITY = 1 << 26; // 64M
+
+        volatile int qlock;         // 1: locked, else 0
+        volatile int base;          // index of next slot to take
+        volatile int top;           // index of next slot to fill
+        volatile int removed;       // REMOVED slots not yet taken
+        volatile Runnable[] array;  // the elements (initially unallocated)
+
+        /**
+         * Adds the task, unless the lane is locked or holds as many as it
+         * can.  Returns 1 on success, 0 if locked, -1 if full.
+         */
+        int tryPush(Runnable x) {
+            if (!U.compareAndSwapInt(this, QLOCK, 0, 1))
+                return 0;
+            try {
+                Runnable[] a = array;
+                int s = top, n = s - base;
+                if (a == null || n >= a.length - 1) {
+                    if ((a = growArray()) == null)
+                        return -1;
+                }
+                U.putOrderedObject(a, (((a.length - 1) & s) << ASHIFT) + ABASE,
+                                   x);
+                top = s + 1;
+                return 1;
+            } finally {
+                qlock = 0;
+            }
+        }
+
+        /**
+         * Initializes or doubles the capacity of the array, moving the
+         * tasks by CAS so that none is also taken.  Call only while
+         * holding the lock.  Returns null if at maximum capacity.
+         */
+        Runnable[] growArray() {
+            Runnable[] oldA = array;
+            int size = (oldA != null) ? oldA.length << 1 :
+                INITIAL_QUEUE_CAPACITY;
+            if (size > MAXIMUM_QUEUE_CAPACITY)
+                return null;
+            Runnable[] a = new Runnable[size];
+            int oldMask, t, b;
+            if (oldA != null && (oldMask = oldA.length - 1) >= 0 &&
+                (t = top) - (b = base) > 0) {
+                int mask = size - 1;
+                do {
+                    long oldj = ((b & oldMask) << ASHIFT) + ABASE;
+                    long j = ((b & mask) << ASHIFT) + ABASE;
+                    Object x = U.getObjectVolatile(oldA, oldj);
+                    if (x != null &&
+                        U.compareAndSwapObject(oldA, oldj, x, null))
+                        U.putObjectVolatile(a, j, x);
+                } while (++b != t);
+            }
+            array = a;
+            return a;
+        }
+
+        /**
+         * Takes the task at the base, if any.
+         */
+        Runnable poll() {
+            Runnable[] a; int b;
+            while ((b = base) - top < 0 && (a = array) != null) {
+                long j = (((a.length - 1) & b) << ASHIFT) + ABASE;
+                Runnable x = (Runnable)U.getObjectVolatile(a, j);
+                if (base == b) {
+                    if (x != null) {
+                        if (U.compareAndSwapObject(a, j, x, null)) {
+                            base = b + 1;
+                            if (x != StealingQueue.REMOVED)
+                                return x;
+                            U.getAndAddInt(this, REMOVED_COUNT, -1);
+                        }
+                    }
+                    else if (b + 1 == top)  // now empty
+                        break;
+                }
+            }
+            return null;
+        }
+
+        Runnable peek() {
+            Runnable[] a = array;
+            if (a != null) {
+                int m = a.length - 1;
+                for (int b = base, t = top; b - t < 0; b++) {
+                    Object x = U.getObjectVolatile
+                        (a, ((m & b) << ASHIFT) + ABASE);
+                    if (x != null && x != StealingQueue.REMOVED)
+                        return (Runnable)x;
+                }
+            }
+            return null;
+        }
+
+        int size() {
+            int n = top - base - removed;
+            return (n < 0) ? 0 : n;
+        }
+
+        boolean remove(Object o) {
+            Runnable[] a = array;
+            if (a != null) {
+                int m = a.length - 1;
+                for (int b = base, t = top; b - t < 0; b++) {
+                    long j = ((m & b) << ASHIFT) + ABASE;
+                    Object x = U.getObjectVolatile(a, j);
+                    if (x != null && x != StealingQueue.REMOVED &&
+                        o.equals(x) &&
+                        U.compareAndSwapObject(a, j, x,
+                                               StealingQueue.REMOVED)) {
+                        U.getAndAddInt(this, REMOVED_COUNT, 1);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        void addTo(Collection<Runnable> c) {
+            Runnable[] a = array;
+            if (a != null) {
+                int m = a.length - 1;
+                for (int b = base, t = top; b - t < 0; b++) {
+                    Object x = U.getObjectVolatile
+                        (a, ((m & b) << ASHIFT) + ABASE);
+                    if (x != null && x != StealingQueue.REMOVED)
+                        c.add((Runnable)x);
+                }
+            }
+        }
+
+        // Unsafe mechanics
+        private static final sun.misc.Unsafe U;
+        private static final int  ABASE;
+        private static final int  ASHIFT;
+        private static final long QLOCK;
+        private static final long REMOVED_COUNT;
+        static {
+            try {
+                U = sun.misc.Unsafe.getUnsafe();
+                Class<?> ak = Runnable[].class;
+                QLOCK = U.objectFieldOffset
+                    (Lane.class.getDeclaredField("qlock"));
+                REMOVED_COUNT = U.objectFieldOffset
+                    (Lane.class.getDeclaredField("removed"));
+                ABASE = U.arrayBaseOffset(ak);
+                int scale = U.arrayIndexScale(ak);
+                if ((scale & (scale - 1)) != 0)
+                    throw new Error("data type scale not a power of two");
+                ASHIFT = 31 - Integer.numberOfLeadingZeros(scale);
+            } catch (Exception e) {
+                throw new Error(e);
+            }
+        }
+    }
+}
@@ -36,6 +36,9 @@ import java.security.CodeSigner;
 import java.security.cert.Certificate;
 import java.security.AccessController;
 import java.security.CodeSource;
+import java.security.PrivilegedExceptionAction;
+import java.security.PrivilegedActionException;
+import java.util.concurrent.ForkJoinPool;
 import sun.misc.IOUtils;
 import sun.security.action.GetPropertyAction;
 import sun.security.util.ManifestEntryVerifier;
@@ -74,6 +77,9 @@ class JarFile extends ZipFile {
     private JarVerifier jv;
     private boolean jvInitialized;
     private boolean verify;
+    private final int mode;
+    private final boolean mapped;
+    private String[] metaInfNames;     // if mapped, once found
 
     // indicates if Class-Path attribute present (only valid if hasCheckedSpecialAttributes true)
     private boolean hasClassPathAttribute;
@@ -90,6 +96,17 @@ class JarFile extends ZipFile {
      */
     public static final String MANIFEST_NAME = "META-INF/MANIFEST.MF";
 
+    // A system property to verify all the signed entries of a jar file in
+    // parallel when its verifier is initialized, instead of each as it is
+    // read, and not hash verified entries again when they are read.
+    private static final boolean parallelVerify;
+
+    static {
+        String prop = sun.misc.VM.getSavedProperty("jdk.util.jar.parallelVerify");
+        parallelVerify = prop != null && (prop.length() == 0 ||
+                                          prop.equalsIgnoreCase("true"));
+    }
+
     /**
      * Creates a new <code>JarFile</code> to read from the specified
      * file <code>name</code>. The <code>JarFile</code> will be verified if
@@ -149,7 +166,8 @@ class JarFile extends ZipFile {
     /**
      * Creates a new <code>JarFile</code> to read from the specified
      * <code>File</code> object in the specified mode.  The mode argument
-     * must be either <tt>OPEN_READ</tt> or <tt>OPEN_READ | OPEN_DELETE</tt>.
+     * must be <tt>OPEN_READ</tt>, optionally combined with <tt>OPEN_DELETE</tt>
+     * and <tt>OPEN_MAPPED</tt>.
      *
      * @param file the jar file to be opened for reading
      * @param verify whether or not to verify the jar file if
@@ -165,6 +183,8 @@ class JarFile extends ZipFile {
     public JarFile(File file, boolean verify, int mode) throws IOException {
         super(file, mode);
         this.verify = verify;
+        this.mode = mode;
+        this.mapped = (mode & OPEN_MAPPED) != 0;
     }
 
     /**
@@ -206,6 +226,30 @@ class JarFile extends ZipFile {
 
     private native String[] getMetaInfEntryNames();
 
+    /*
+     * Returns the names of the "META-INF/" entries, or null if none.  A
+     * mapped jar file has no native zip file for getMetaInfEntryNames to
+     * read, so its entries are scanned instead, once.
+     */
+    private String[] metaInfEntryNames() {
+        if (!mapped) {
+            return getMetaInfEntryNames();
+        }
+        String[] names = metaInfNames;
+        if (names == null) {
+            List<String> list = new ArrayList<>();
+            Enumeration<? extends ZipEntry> entries = super.entries();
+            while (entries.hasMoreElements()) {
+                String name = entries.nextElement().getName();
+                if (name.regionMatches(true, 0, "META-INF/", 0, 9)) {
+                    list.add(name);
+                }
+            }
+            metaInfNames = names = list.toArray(new String[list.size()]);
+        }
+        return names.length == 0 ? null : names.clone();
+    }
+
     /**
      * Returns the <code>JarEntry</code> for the given entry name or
      * <code>null</code> if not found.
@@ -330,7 +374,7 @@ class JarFile extends ZipFile {
         }
 
         if (verify) {
-            String[] names = getMetaInfEntryNames();
+            String[] names = metaInfEntryNames();
             if (names != null) {
                 for (int i = 0; i < names.length; i++) {
                     String name = names[i].toUpperCase(Locale.ENGLISH);
@@ -362,7 +406,7 @@ class JarFile extends ZipFile {
 
         // Verify "META-INF/" entries...
         try {
-            String[] names = getMetaInfEntryNames();
+            String[] names = metaInfEntryNames();
             if (names != null) {
                 for (int i = 0; i < names.length; i++) {
                     String uname = names[i].toUpperCase(Locale.ENGLISH);
@@ -412,10 +456,40 @@ class JarFile extends ZipFile {
                 }
                 jv = null;
                 verify = false;
+            } else if (parallelVerify) {
+                verifyAll();
             }
         }
     }
 
+    /*
+     * Verifies all the signed entries in parallel.  The workers read the
+     * entries through a second ZipFile on the same file, as reading this
+     * one may need the lock held by the caller; the native zip library
+     * shares the underlying open file between the two.  Any entry not
+     * verified here is verified as usual when read.
+     */
+    private void verifyAll() {
+        final File file = new File(getName());
+        final int mode = this.mode & ~OPEN_DELETE;
+        try (ZipFile zf = AccessController.doPrivileged(
+                 new PrivilegedExceptionAction<ZipFile>() {
+                     public ZipFile run() throws IOException {
+                         return new ZipFile(file, mode);
+                     }
+                 })) {
+            jv.verifyAll(zf, getManifestFromReference(),
+                         ForkJoinPool.commonPool());
+        } catch (PrivilegedActionException | IOException e) {
+            if (JarVerifier.debug != null) {
+                JarVerifier.debug.println("parallel verification failed: " + e);
+            }
+        }
+        if (JarVerifier.debug != null) {
+            JarVerifier.debug.println("done with parallel verification!");
+        }
+    }
+
     /*
      * Reads all the bytes for a given entry. Used to process the
      * META-INF files.
@@ -455,6 +529,9 @@ class JarFile extends ZipFile {
             if (jv == null)
                 return super.getInputStream(ze);
         }
+        if (parallelVerify && jv.isVerified(ze.getName())) {
+            return super.getInputStream(ze);
+        }
 
         // wrap a verifier stream around the real stream
         return new JarVerifier.VerifierStream(
@@ -495,7 +572,7 @@ class JarFile extends ZipFile {
             if (manEntry == null) {
                 // If not found, then iterate through all the "META-INF/"
                 // entries to find a match.
-                String[] names = getMetaInfEntryNames();
+                String[] names = metaInfEntryNames();
                 if (names != null) {
                     for (int i = 0; i < names.length; i++) {
                         if (MANIFEST_NAME.equals(
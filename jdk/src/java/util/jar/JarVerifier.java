@@ -30,7 +30,10 @@ import java.net.URL;
 import java.util.*;
 import java.security.*;
 import java.security.cert.CertificateException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
 
 import sun.misc.JarIndex;
 import sun.security.util.ManifestDigester;
@@ -436,6 +439,85 @@ class JarVerifier {
         }
     }
 
+    /**
+     * Verifies all the signed entries at once, rather than each as it is
+     * read, by hashing them in parallel in the given pool.  Entries are
+     * read from the given zip file, which must be open on the same file
+     * as the jar file and is not locked by reading the jar file.  Each
+     * task hashes a range of entries with a single ManifestEntryVerifier,
+     * and so a single MessageDigest for each digest algorithm.
+     *
+     * <p>Verified entries are moved to verifiedSigners, as when read.  An
+     * entry that fails, or cannot be read, is left as it was, so that it
+     * fails when it is read.  Should only be called after doneWithMeta.
+     */
+    void verifyAll(ZipFile zf, Manifest man, ForkJoinPool pool) {
+        List<String> names = new ArrayList<>(sigFileSigners.keySet());
+        if (names.isEmpty())
+            return;
+        int threshold = Math.max(1, names.size() /
+                                 (pool.getParallelism() << 2));
+        pool.invoke(new VerifyTask(zf, man, names, 0, names.size(),
+                                   threshold));
+    }
+
+    /**
+     * Returns true if the named entry has been verified, so that it need
+     * not be hashed again when read.
+     */
+    boolean isVerified(String name) {
+        return verifiedSigners.get(name) != null;
+    }
+
+    @SuppressWarnings("serial") // Not statically typed as Serializable
+    private final class VerifyTask extends RecursiveAction {
+        final ZipFile zf;
+        final Manifest man;
+        final List<String> names;
+        final int lo, hi, threshold;
+
+        VerifyTask(ZipFile zf, Manifest man, List<String> names,
+                   int lo, int hi, int threshold) {
+            this.zf = zf;
+            this.man = man;
+            this.names = names;
+            this.lo = lo;
+            this.hi = hi;
+            this.threshold = threshold;
+        }
+
+        protected void compute() {
+            if (hi - lo > threshold) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new VerifyTask(zf, man, names, lo, mid, threshold),
+                          new VerifyTask(zf, man, names, mid, hi, threshold));
+                return;
+            }
+            ManifestEntryVerifier mev = new ManifestEntryVerifier(man);
+            byte[] buf = new byte[8192];
+            for (int i = lo; i < hi; i++) {
+                String name = names.get(i);
+                try {
+                    ZipEntry ze = zf.getEntry(name);
+                    if (ze == null || ze.isDirectory())
+                        continue;
+                    mev.setEntry(name, new JarEntry(ze));
+                    try (InputStream is = zf.getInputStream(ze)) {
+                        int n;
+                        while ((n = is.read(buf, 0, buf.length)) != -1)
+                            mev.update(buf, 0, n);
+                    }
+                    mev.verify(verifiedSigners, sigFileSigners);
+                } catch (IOException | SecurityException e) {
+                    // left unverified, to be verified when read
+                    if (debug != null) {
+                        debug.println("verifyAll: " + name + ": " + e);
+                    }
+                }
+            }
+        }
+    }
+
     static class VerifierStream extends java.io.InputStream {
 
         private InputStream is;
@@ -0,0 +1,618 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.logging;
+
+import static java.nio.file.StandardOpenOption.APPEND;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * File logging <tt>Handler</tt> that formats and writes records on a
+ * dedicated writer thread.
+ * <p>
+ * The <tt>publish</tt> method does not format the record or perform any
+ * I/O, and takes no locks: it places the record in a bounded lock-free
+ * ring buffer and returns.  A daemon writer thread drains the buffer in
+ * batches, formats each batch into a single buffer and writes it to the
+ * file through a <tt>FileChannel</tt>.  This keeps formatting and I/O
+ * off the logging threads, and keeps them from contending with each
+ * other as they do on the <tt>synchronized</tt>
+ * {@link StreamHandler#publish StreamHandler.publish}.
+ * <p>
+ * Because records are formatted after <tt>publish</tt> returns, the
+ * parameters of a record should not be modified once it has been
+ * logged.  The source class and method of each record are determined
+ * on the logging thread, before the record is queued.
+ * <p>
+ * When the buffer is full, the {@link Overflow overflow policy}
+ * decides whether the logging thread waits for space, or the record is
+ * discarded.  The number of discarded records is available from
+ * {@link #getDroppedCount}.
+ * <p>
+ * The <tt>flush</tt> method waits until all records previously
+ * published have been written.  The <tt>close</tt> method writes any
+ * remaining records, and then stops the writer thread and closes the
+ * file.
+ * <p>
+ * <b>Configuration:</b>
+ * By default each <tt>AsyncFileHandler</tt> is initialized using the following
+ * <tt>LogManager</tt> configuration properties where <tt>&lt;handler-name&gt;</tt>
+ * refers to the fully-qualified class name of the handler.
+ * If properties are not defined
+ * (or have invalid values) then the specified default values are used.
+ * <ul>
+ * <li>   &lt;handler-name&gt;.level
+ *        specifies the default level for the <tt>Handler</tt>
+ *        (defaults to <tt>Level.ALL</tt>). </li>
+ * <li>   &lt;handler-name&gt;.filter
+ *        specifies the name of a <tt>Filter</tt> class to use
+ *        (defaults to no <tt>Filter</tt>). </li>
+ * <li>   &lt;handler-name&gt;.formatter
+ *        specifies the name of a <tt>Formatter</tt> class to use
+ *        (defaults to <tt>java.util.logging.SimpleFormatter</tt>). </li>
+ * <li>   &lt;handler-name&gt;.encoding
+ *        the name of the character set encoding to use (defaults to
+ *        the default platform encoding). </li>
+ * <li>   &lt;handler-name&gt;.file
+ *        specifies the name of the output file, in which "%h", "%t"
+ *        and "%%" are replaced as for <tt>FileHandler</tt> patterns
+ *        (defaults to "%h/java.log"). </li>
+ * <li>   &lt;handler-name&gt;.append
+ *        specifies whether to append onto an existing file
+ *        (defaults to false). </li>
+ * <li>   &lt;handler-name&gt;.capacity
+ *        specifies the number of records the buffer can hold,
+ *        rounded up to a power of two (defaults to 8192). </li>
+ * <li>   &lt;handler-name&gt;.overflow
+ *        specifies the overflow policy, one of "block", "drop"
+ *        or "sample" (defaults to "block"). </li>
+ * <li>   &lt;handler-name&gt;.sample
+ *        specifies, for the "sample" policy, that one in this many
+ *        records that find the buffer full is kept
+ *        (defaults to 100). </li>
+ * </ul>
+ * <p>
+ * For example, the properties for {@code AsyncFileHandler} would be:
+ * <ul>
+ * <li>   java.util.logging.AsyncFileHandler.file=%t/app.log </li>
+ * <li>   java.util.logging.AsyncFileHandler.overflow=drop </li>
+ * </ul>
+ *
+ * @see FileHandler
+ * @since 1.8
+ */
+
+public class AsyncFileHandler extends Handler {
+
+    /**
+     * Policies for a record published when the buffer is full.
+     *
+     * @since 1.8
+     */
+    public enum Overflow {
+        /**
+         * The logging thread waits until the writer thread makes space.
+         * No records are lost.
+         */
+        BLOCK,
+        /**
+         * The record is discarded.
+         */
+        DROP,
+        /**
+         * One in every <tt>sample</tt> records is kept, waiting as for
+         * {@link #BLOCK}; the others are discarded.  A sparse sample of
+         * a burst of logging is retained without stalling most logging
+         * threads.
+         */
+        SAMPLE
+    }
+
+    private static final int DEFAULT_CAPACITY = 8192;
+    private static final int MAXIMUM_CAPACITY = 1 << 20;
+    private static final int DEFAULT_SAMPLE = 100;
+
+    /** Size of the buffer holding encoded text for the channel. */
+    private static final int OUTPUT_SIZE = 8192;
+
+    /** How long the idle writer sleeps before checking for work. */
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    /** Upper bound on the backoff of a logging thread waiting for space. */
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private Path file;
+    private boolean append;
+    private volatile Overflow overflow;
+    private int sample;
+
+    /*
+     * The buffer is a bounded multi-producer single-consumer array
+     * queue.  Each slot has a sequence number: slot (t & mask) is free
+     * for the producer that claims ticket t when its sequence is t, and
+     * holds a record for the consumer at ticket t when its sequence is
+     * t + 1.  Producers claim tickets by CAS on tail; the writer thread
+     * alone advances head.  The volatile sequence writes publish the
+     * plain slot writes in both directions.
+     */
+    private LogRecord[] slots;
+    private AtomicLongArray sequences;
+    private int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;                      // accessed only by writer
+
+    /** Number of records fully written, for flush. */
+    private volatile long written;
+
+    /** Set by the writer thread before it parks when idle. */
+    private volatile boolean idle;
+    private volatile boolean closed;
+
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong overflows = new AtomicLong();
+
+    private FileChannel channel;
+    private Thread writerThread;
+
+    // Accessed only by the writer thread.
+    private boolean doneHeader;
+    private final StringBuilder text = new StringBuilder();
+    private ByteBuffer out;
+    private CharsetEncoder encoder;
+    private String encoderName;
+
+    // Private method to configure an AsyncFileHandler from LogManager
+    // properties and/or default values as specified in the class
+    // javadoc.
+    private void configure() {
+        LogManager manager = LogManager.getLogManager();
+        String cname = getClass().getName();
+
+        file = Paths.get(expand(manager.getStringProperty(cname + ".file",
+                                                          "%h/java.log")));
+        append = manager.getBooleanProperty(cname + ".append", false);
+        int capacity = manager.getIntProperty(cname + ".capacity", DEFAULT_CAPACITY);
+        if (capacity <= 0) {
+            capacity = DEFAULT_CAPACITY;
+        }
+        overflow = Overflow.BLOCK;
+        String policy = manager.getStringProperty(cname + ".overflow", null);
+        if (policy != null) {
+            try {
+                overflow = Overflow.valueOf(policy.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ex) {
+                // Keep the default.
+            }
+        }
+        sample = manager.getIntProperty(cname + ".sample", DEFAULT_SAMPLE);
+        if (sample <= 0) {
+            sample = DEFAULT_SAMPLE;
+        }
+        setLevel(manager.getLevelProperty(cname + ".level", Level.ALL));
+        setFilter(manager.getFilterProperty(cname + ".filter", null));
+        setFormatter(manager.getFormatterProperty(cname + ".formatter", new SimpleFormatter()));
+        try {
+            setEncoding(manager.getStringProperty(cname + ".encoding", null));
+        } catch (Exception ex) {
+            try {
+                setEncoding(null);
+            } catch (Exception ex2) {
+                // doing a setEncoding with null should always work.
+                // assert false;
+            }
+        }
+        initBuffer(capacity);
+    }
+
+    private void initBuffer(int capacity) {
+        int n = Integer.highestOneBit(Math.min(capacity, MAXIMUM_CAPACITY));
+        if (n < capacity && n < MAXIMUM_CAPACITY) {
+            n <<= 1;
+        }
+        slots = new LogRecord[n];
+        sequences = new AtomicLongArray(n);
+        for (int i = 0; i < n; i++) {
+            sequences.set(i, i);
+        }
+        mask = n - 1;
+    }
+
+    // Replace "%h", "%t" and "%%" in a file name, as FileHandler does.
+    private static String expand(String name) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            char ch2 = (i + 1 < name.length()) ? name.charAt(i + 1) : 0;
+            if (ch == '%' && (ch2 == 'h' || ch2 == 't' || ch2 == '%')) {
+                i++;
+                if (ch2 == '%') {
+                    sb.append('%');
+                } else {
+                    String key = (ch2 == 'h') ? "user.home" : "java.io.tmpdir";
+                    String dir = AccessController.doPrivileged(
+                            (PrivilegedAction<String>) () -> System.getProperty(key));
+                    sb.append(dir == null ? "." : dir);
+                }
+            } else {
+                sb.append(ch);
+            }
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Construct a default <tt>AsyncFileHandler</tt>.  This will be configured
+     * entirely from <tt>LogManager</tt> properties (or their default values).
+     *
+     * @exception  IOException if there are IO problems opening the file.
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control"))</tt>.
+     */
+    public AsyncFileHandler() throws IOException, SecurityException {
+        checkPermission();
+        sealed = false;
+        configure();
+        sealed = true;
+        open();
+    }
+
+    /**
+     * Initialize an <tt>AsyncFileHandler</tt> to write to the given file,
+     * with the given overflow policy.
+     * <p>
+     * The <tt>AsyncFileHandler</tt> is configured based on <tt>LogManager</tt>
+     * properties (or their default values) except that the given file,
+     * append mode and overflow policy are used.
+     *
+     * @param file  the name of the output file
+     * @param append  specifies append mode
+     * @param overflow  the policy when the buffer is full
+     * @exception  IOException if there are IO problems opening the file.
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    public AsyncFileHandler(String file, boolean append, Overflow overflow)
+            throws IOException, SecurityException {
+        if (file == null || overflow == null) {
+            throw new NullPointerException();
+        }
+        checkPermission();
+        sealed = false;
+        configure();
+        sealed = true;
+        this.file = Paths.get(file);
+        this.append = append;
+        this.overflow = overflow;
+        open();
+    }
+
+    // Open the file and start the writer thread.
+    private void open() throws IOException {
+        channel = append ? FileChannel.open(file, WRITE, CREATE, APPEND)
+                         : FileChannel.open(file, WRITE, CREATE, TRUNCATE_EXISTING);
+        writerThread = AccessController.doPrivileged(
+                (PrivilegedAction<Thread>) () -> {
+                    Thread t = new Thread(this::drain, "AsyncFileHandler " + file);
+                    t.setDaemon(true);
+                    // Don't retain the context class loader of the logging thread.
+                    t.setContextClassLoader(null);
+                    return t;
+                });
+        writerThread.start();
+    }
+
+    /**
+     * Queue a <tt>LogRecord</tt> for writing.
+     * <p>
+     * The logging request was made initially to a <tt>Logger</tt> object,
+     * which initialized the <tt>LogRecord</tt> and forwarded it here.
+     * <p>
+     * If the buffer is full, the record is handled according to the
+     * overflow policy.  After the handler is closed, records are
+     * silently ignored.
+     *
+     * @param  record  description of the log event. A null record is
+     *                 silently ignored and is not published
+     */
+    @Override
+    public void publish(LogRecord record) {
+        if (closed || !isLoggable(record)) {
+            return;
+        }
+        // Infer the caller now, while we are still on its thread.
+        record.getSourceClassName();
+        if (!offer(record)) {
+            Overflow policy = overflow;
+            if (policy == Overflow.DROP ||
+                (policy == Overflow.SAMPLE &&
+                 overflows.getAndIncrement() % sample != 0)) {
+                dropped.increment();
+                return;
+            }
+            long backoff = 1;
+            do {
+                if (closed) {
+                    dropped.increment();
+                    return;
+                }
+                LockSupport.parkNanos(this, backoff);
+                backoff = Math.min(backoff << 1, MAX_BACKOFF_NANOS);
+            } while (!offer(record));
+        }
+        if (idle) {
+            LockSupport.unpark(writerThread);
+        }
+    }
+
+    // Try to place a record in the buffer.  Returns false if full.
+    private boolean offer(LogRecord record) {
+        final AtomicLongArray seqs = sequences;
+        for (;;) {
+            long t = tail.get();
+            int i = (int) t & mask;
+            long d = seqs.get(i) - t;
+            if (d == 0) {
+                if (tail.compareAndSet(t, t + 1)) {
+                    slots[i] = record;
+                    seqs.set(i, t + 1);
+                    return true;
+                }
+            } else if (d < 0) {
+                return false;
+            }
+            // Otherwise another producer claimed t; retry.
+        }
+    }
+
+    // Writer thread loop.
+    private void drain() {
+        for (;;) {
+            boolean stop = closed;
+            if (writeBatch() == 0) {
+                if (stop) {
+                    break;
+                }
+                idle = true;
+                if (!hasPending() && !closed) {
+                    LockSupport.parkNanos(this, IDLE_NANOS);
+                }
+                idle = false;
+            }
+        }
+        try {
+            if (!doneHeader) {
+                text.append(getFormatter().getHead(this));
+                doneHeader = true;
+            }
+            text.append(getFormatter().getTail(this));
+            writeText();
+        } catch (Exception ex) {
+            reportError(null, ex, ErrorManager.WRITE_FAILURE);
+        }
+        try {
+            channel.close();
+        } catch (Exception ex) {
+            reportError(null, ex, ErrorManager.CLOSE_FAILURE);
+        }
+    }
+
+    private boolean hasPending() {
+        return sequences.get((int) head & mask) == head + 1;
+    }
+
+    // Remove, format and write all available records.  Returns the
+    // number of records taken.
+    private int writeBatch() {
+        final AtomicLongArray seqs = sequences;
+        final Formatter formatter = getFormatter();
+        final int capacity = mask + 1;
+        int n = 0;
+        long h = head;
+        for (; n < capacity; n++, h++) {
+            int i = (int) h & mask;
+            if (seqs.get(i) != h + 1) {
+                break;
+            }
+            LogRecord record = slots[i];
+            slots[i] = null;
+            seqs.set(i, h + capacity);
+            try {
+                if (!doneHeader) {
+                    text.append(formatter.getHead(this));
+                    doneHeader = true;
+                }
+                text.append(formatter.format(record));
+            } catch (Exception ex) {
+                // We don't want to throw an exception here, but we
+                // report the exception to any registered ErrorManager.
+                reportError(null, ex, ErrorManager.FORMAT_FAILURE);
+            }
+        }
+        head = h;
+        if (n > 0) {
+            try {
+                writeText();
+            } catch (Exception ex) {
+                reportError(null, ex, ErrorManager.WRITE_FAILURE);
+            }
+            written = h;
+        }
+        return n;
+    }
+
+    // Encode the accumulated text and write it to the channel.
+    private void writeText() throws IOException {
+        if (text.length() == 0) {
+            return;
+        }
+        String encoding = getEncoding();
+        if (encoder == null || !Objects.equals(encoding, encoderName)) {
+            Charset cs = (encoding == null) ? Charset.defaultCharset()
+                                            : Charset.forName(encoding);
+            encoder = cs.newEncoder()
+                    .onMalformedInput(CodingErrorAction.REPLACE)
+                    .onUnmappableCharacter(CodingErrorAction.REPLACE);
+            encoderName = encoding;
+        }
+        if (out == null) {
+            out = ByteBuffer.allocateDirect(OUTPUT_SIZE);
+        }
+        CharBuffer src = CharBuffer.wrap(text);
+        CharsetEncoder enc = encoder.reset();
+        try {
+            for (;;) {
+                CoderResult cr = enc.encode(src, out, true);
+                if (cr.isUnderflow()) {
+                    break;
+                }
+                if (cr.isOverflow()) {
+                    flushOut();
+                } else {
+                    cr.throwException();
+                }
+            }
+            while (enc.flush(out).isOverflow()) {
+                flushOut();
+            }
+            flushOut();
+        } finally {
+            out.clear();
+            text.setLength(0);
+        }
+    }
+
+    private void flushOut() throws IOException {
+        out.flip();
+        while (out.hasRemaining()) {
+            channel.write(out);
+        }
+        out.clear();
+    }
+
+    /**
+     * Wait until all records published before this call have been
+     * written to the file.
+     */
+    @Override
+    public void flush() {
+        long target = tail.get();
+        long backoff = 1;
+        while (written < target && writerThread.isAlive() &&
+               Thread.currentThread() != writerThread) {
+            LockSupport.unpark(writerThread);
+            LockSupport.parkNanos(this, backoff);
+            backoff = Math.min(backoff << 1, MAX_BACKOFF_NANOS);
+        }
+    }
+
+    /**
+     * Write any queued records, then close the file and stop the
+     * writer thread.
+     *
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    @Override
+    public void close() throws SecurityException {
+        checkPermission();
+        synchronized (this) {
+            if (closed) {
+                return;
+            }
+            closed = true;
+        }
+        LockSupport.unpark(writerThread);
+        if (Thread.currentThread() == writerThread) {
+            return;
+        }
+        boolean interrupted = false;
+        while (writerThread.isAlive()) {
+            try {
+                writerThread.join();
+            } catch (InterruptedException ex) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Return the overflow policy of this handler.
+     *
+     * @return the overflow policy
+     */
+    public Overflow getOverflow() {
+        return overflow;
+    }
+
+    /**
+     * Set the overflow policy of this handler.
+     *
+     * @param policy the new overflow policy
+     * @exception  SecurityException  if a security manager exists and if
+     *             the caller does not have <tt>LoggingPermission("control")</tt>.
+     */
+    public synchronized void setOverflow(Overflow policy) throws SecurityException {
+        if (policy == null) {
+            throw new NullPointerException();
+        }
+        checkPermission();
+        overflow = policy;
+    }
+
+    /**
+     * Return the number of records discarded because the buffer was full,
+     * or because the handler was closed while they waited for space.
+     *
+     * @return the number of discarded records
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+}
@@ -0,0 +1,547 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * A finite automaton recognizing whether each of a number of {@link
+ * Pattern}s can be found in an input, in one pass over the input.
+ *
+ * <p> A pattern is added by translating the object tree it was compiled
+ * into to a nondeterministic automaton, in the manner of Thompson.  Only
+ * the regular subset of the nodes can be translated: literal slices,
+ * character properties, alternation, the greedy and reluctant
+ * quantifiers, groups, and the anchors at the beginning and end of
+ * input.  A pattern with any other node (back references, look-around,
+ * word boundaries, possessive or independent groups, and so on) cannot
+ * be added, and must be matched by its own Matcher.
+ *
+ * <p> The automaton is run as a deterministic one whose states, each a
+ * set of states of the nondeterministic one, are created as the input
+ * requires them and cached.  Since a pattern may be found anywhere in
+ * the input, the start states of the patterns are added to every state
+ * reached.  If the cache grows beyond MAX_STATES it is discarded, so that
+ * memory stays bounded whatever the input.
+ *
+ * <p> The automaton runs over chars.  It never sees a supplementary
+ * character: an input with a surrogate char is not run, since the
+ * patterns may match it a code point at a time.
+ */
+final class Automaton {
+
+    // Kinds of the states of the nondeterministic automaton
+    private static final int CHAR = 0;      // a char satisfying prop, to out1
+    private static final int SPLIT = 1;     // to out1 and, if set, out2
+    private static final int BEGIN = 2;     // at the beginning, to out1
+    private static final int ACCEPT = 3;    // the pattern is found
+    private static final int END = 4;       // found if at the end (\z)
+    private static final int DOLLAR = 5;    // found as by $
+    private static final int UNIX_DOLLAR = 6; // found as by $ with UNIX_LINES
+
+    /** The most states of the nondeterministic automaton */
+    private static final int MAX_NFA_STATES = 1 << 16;
+
+    /** The most repetitions of a group that are unrolled */
+    private static final int MAX_UNROLL = 1000;
+
+    /** The most cached states of the deterministic automaton */
+    private static final int MAX_STATES = 4096;
+
+    /** The chars whose transitions are cached in a table */
+    private static final int TABLE_SIZE = 128;
+
+    private int[] kind = new int[64];
+    private int[] out1 = new int[64];
+    private int[] out2 = new int[64];
+    private int[] owner = new int[64];
+    private Pattern.CharProperty[] prop = new Pattern.CharProperty[64];
+    private int count;
+
+    /** The start states of the patterns, and those that may start anywhere */
+    private int[] starts = new int[0];
+    private int[] anywhere = new int[0];
+
+    /** The cache of deterministic states; guarded by this */
+    private final Map<State,State> states = new HashMap<>();
+    private volatile State initial;
+
+    /**
+     * Thrown when a node cannot be translated.
+     */
+    @SuppressWarnings("serial")
+    private static final class IrregularException extends Exception {
+        IrregularException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private static final IrregularException IRREGULAR =
+        new IrregularException();
+
+    /**
+     * Adds a pattern to the automaton, unless it has a node that cannot
+     * be translated.
+     *
+     * @param p the pattern
+     * @param id the number to report when the pattern is found
+     * @return true if the pattern was added
+     */
+    synchronized boolean add(Pattern p, int id) {
+        int mark = count;
+        int start;
+        try {
+            start = build(p.matchRoot, Pattern.lastAccept,
+                          newState(ACCEPT, -1, -1, id),
+                          new IdentityHashMap<Pattern.Node,Integer>());
+        } catch (IrregularException e) {
+            count = mark;
+            return false;
+        }
+        starts = append(starts, start);
+        if (!anchored(start))
+            anywhere = append(anywhere, start);
+        clearCache();
+        return true;
+    }
+
+    private static int[] append(int[] a, int x) {
+        int[] b = Arrays.copyOf(a, a.length + 1);
+        b[a.length] = x;
+        return b;
+    }
+
+    /**
+     * Returns true if every path from the state passes through BEGIN
+     * before reading a char, so that the state need only be started at
+     * the beginning of the input.
+     */
+    private boolean anchored(int s) {
+        return anchored(s, new BitSet());
+    }
+
+    private boolean anchored(int s, BitSet seen) {
+        if (seen.get(s))
+            return true;
+        seen.set(s);
+        switch (kind[s]) {
+        case BEGIN:
+            return true;
+        case SPLIT:
+            return anchored(out1[s], seen) &&
+                (out2[s] < 0 || anchored(out2[s], seen));
+        default:
+            return false;
+        }
+    }
+
+    private int newState(int k, int o1, int o2, int id)
+        throws IrregularException {
+        if (count == kind.length) {
+            if (count >= MAX_NFA_STATES)
+                throw IRREGULAR;
+            int n = count << 1;
+            kind = Arrays.copyOf(kind, n);
+            out1 = Arrays.copyOf(out1, n);
+            out2 = Arrays.copyOf(out2, n);
+            owner = Arrays.copyOf(owner, n);
+            prop = Arrays.copyOf(prop, n);
+        }
+        kind[count] = k;
+        out1[count] = o1;
+        out2[count] = o2;
+        owner[count] = id;
+        prop[count] = null;
+        return count++;
+    }
+
+    private int newChar(Pattern.CharProperty p, int next)
+        throws IrregularException {
+        int s = newState(CHAR, next, -1, -1);
+        prop[s] = p;
+        return s;
+    }
+
+    /**
+     * Translates the chain of nodes from node up to, but not including,
+     * stop, which continues to the state exit.  Returns the state that
+     * starts the chain.  The memo maps the nodes already translated in
+     * this chain to their states, so that the continuation shared by the
+     * alternatives of a branch is translated once.
+     */
+    private int build(Pattern.Node node, Pattern.Node stop, int exit,
+                      Map<Pattern.Node,Integer> memo)
+        throws IrregularException {
+        if (node == stop)
+            return exit;
+        Integer done = memo.get(node);
+        if (done != null)
+            return done;
+        int s = build0(node, stop, exit, memo);
+        memo.put(node, s);
+        return s;
+    }
+
+    private int build0(Pattern.Node node, Pattern.Node stop, int exit,
+                       Map<Pattern.Node,Integer> memo)
+        throws IrregularException {
+        Class<?> c = node.getClass();
+        if (node instanceof Pattern.CharProperty)
+            return newChar((Pattern.CharProperty)node,
+                           build(node.next, stop, exit, memo));
+        if (c == Pattern.Slice.class || c == Pattern.SliceI.class ||
+            c == Pattern.SliceU.class) {
+            int s = build(node.next, stop, exit, memo);
+            int[] buf = ((Pattern.SliceNode)node).buffer;
+            for (int j = buf.length - 1; j >= 0; j--)
+                s = newChar(sliceChar(c, buf[j]), s);
+            return s;
+        }
+        if (c == Pattern.GroupHead.class || c == Pattern.GroupTail.class ||
+            c == Pattern.BranchConn.class)
+            return build(node.next, stop, exit, memo);
+        if (c == Pattern.Begin.class)
+            return newState(BEGIN, build(node.next, stop, exit, memo), -1, -1);
+        if (c == Pattern.Branch.class) {
+            Pattern.Branch b = (Pattern.Branch)node;
+            int rest = build(b.conn.next, stop, exit, memo);
+            int s = -1;
+            for (int n = b.size - 1; n >= 0; n--) {
+                int a = (b.atoms[n] == null) ? rest :
+                    build(b.atoms[n], stop, exit, memo);
+                s = (s < 0) ? a : newState(SPLIT, a, s, -1);
+            }
+            return s;
+        }
+        if (c == Pattern.Ques.class) {
+            Pattern.Ques q = (Pattern.Ques)node;
+            if (q.type != Pattern.GREEDY && q.type != Pattern.LAZY)
+                throw IRREGULAR;
+            return repeat(q.atom, Pattern.accept, 0, 1,
+                          build(node.next, stop, exit, memo));
+        }
+        if (c == Pattern.Curly.class) {
+            Pattern.Curly q = (Pattern.Curly)node;
+            if (q.type != Pattern.GREEDY && q.type != Pattern.LAZY)
+                throw IRREGULAR;
+            return repeat(q.atom, Pattern.accept, q.cmin, q.cmax,
+                          build(node.next, stop, exit, memo));
+        }
+        if (c == Pattern.GroupCurly.class) {
+            Pattern.GroupCurly q = (Pattern.GroupCurly)node;
+            if (q.type != Pattern.GREEDY && q.type != Pattern.LAZY)
+                throw IRREGULAR;
+            return repeat(q.atom, Pattern.accept, q.cmin, q.cmax,
+                          build(node.next, stop, exit, memo));
+        }
+        if (c == Pattern.Prolog.class) {
+            Pattern.Loop loop = ((Pattern.Prolog)node).loop;
+            return repeat(loop.body, loop, loop.cmin, loop.cmax,
+                          build(loop.next, stop, exit, memo));
+        }
+        if (node == Pattern.lastAccept && stop != Pattern.lastAccept)
+            throw IRREGULAR;
+        if (c == Pattern.End.class)
+            return endState(END, node, stop, exit);
+        if (c == Pattern.Dollar.class && !((Pattern.Dollar)node).multiline)
+            return endState(DOLLAR, node, stop, exit);
+        if (c == Pattern.UnixDollar.class &&
+            !((Pattern.UnixDollar)node).multiline)
+            return endState(UNIX_DOLLAR, node, stop, exit);
+        throw IRREGULAR;
+    }
+
+    /**
+     * Translates an anchor at the end, which must be the last node of
+     * the pattern.  Its state is a conditional form of the accept state
+     * exit.
+     */
+    private int endState(int k, Pattern.Node node, Pattern.Node stop,
+                         int exit)
+        throws IrregularException {
+        if (node.next != Pattern.lastAccept || stop != Pattern.lastAccept)
+            throw IRREGULAR;
+        return newState(k, -1, -1, owner[exit]);
+    }
+
+    /**
+     * Translates between cmin and cmax repetitions of the chain from body
+     * up to stop, continuing to the state next.  Repetitions up to the
+     * minimum are unrolled, as are the optional ones if the maximum is
+     * bounded; otherwise the last repetition loops.
+     */
+    private int repeat(Pattern.Node body, Pattern.Node stop, int cmin,
+                       int cmax, int next)
+        throws IrregularException {
+        boolean unbounded = (cmax == Pattern.MAX_REPS);
+        if (cmin > MAX_UNROLL || (!unbounded && cmax > MAX_UNROLL))
+            throw IRREGULAR;
+        int s = next;
+        if (unbounded) {
+            // split: body looping back to the split, or next
+            int split = newState(SPLIT, -1, next, -1);
+            int b = build(body, stop, split,
+                          new IdentityHashMap<Pattern.Node,Integer>());
+            out1[split] = b;    // after build, which may grow out1
+            s = split;
+        } else {
+            for (int n = cmax; n > cmin; n--) {
+                int b = build(body, stop, s,
+                              new IdentityHashMap<Pattern.Node,Integer>());
+                s = newState(SPLIT, b, next, -1);
+            }
+        }
+        for (int n = 0; n < cmin; n++)
+            s = build(body, stop, s,
+                      new IdentityHashMap<Pattern.Node,Integer>());
+        return s;
+    }
+
+    /**
+     * Returns a property matching a char as the given char of a slice of
+     * the given class does.
+     */
+    private static Pattern.CharProperty sliceChar(Class<?> c, final int ch) {
+        if (c == Pattern.Slice.class)
+            return new Pattern.Single(ch);
+        if (c == Pattern.SliceI.class)
+            return new Pattern.BmpCharProperty() {
+                boolean isSatisfiedBy(int x) {
+                    return ch == x || ch == ASCII.toLower(x);
+                }};
+        return new Pattern.BmpCharProperty() {
+            boolean isSatisfiedBy(int x) {
+                return ch == x ||
+                    ch == Character.toLowerCase(Character.toUpperCase(x));
+            }};
+    }
+
+    /**
+     * A state of the deterministic automaton: a sorted set of CHAR,
+     * ACCEPT and end states, with the ids of the patterns it accepts and
+     * its cached transitions.
+     */
+    private static final class State {
+        final int[] set;
+        final int[] accepts;
+        final int[] endStates;
+        final State[] table = new State[TABLE_SIZE];
+        Map<Character,State> others;    // guarded by the automaton
+        final int hash;
+
+        State(int[] set, int[] accepts, int[] endStates) {
+            this.set = set;
+            this.accepts = accepts;
+            this.endStates = endStates;
+            this.hash = Arrays.hashCode(set);
+        }
+
+        public int hashCode() {
+            return hash;
+        }
+
+        public boolean equals(Object o) {
+            return o instanceof State && Arrays.equals(set, ((State)o).set);
+        }
+    }
+
+    /**
+     * Returns the state of the deterministic automaton for the closure
+     * of the given states over SPLIT, and over BEGIN if at the
+     * beginning.  Called with the lock held.
+     */
+    private State closure(int[] seeds, int n, boolean atBegin) {
+        BitSet seen = new BitSet(count);
+        int[] stack = new int[n + 2 * count];
+        int sp = 0;
+        for (int i = 0; i < n; i++)
+            stack[sp++] = seeds[i];
+        BitSet set = new BitSet(count);
+        while (sp > 0) {
+            int s = stack[--sp];
+            if (seen.get(s))
+                continue;
+            seen.set(s);
+            switch (kind[s]) {
+            case SPLIT:
+                if (out2[s] >= 0)
+                    stack[sp++] = out2[s];
+                stack[sp++] = out1[s];
+                break;
+            case BEGIN:
+                if (atBegin)
+                    stack[sp++] = out1[s];
+                break;
+            default:
+                set.set(s);
+            }
+        }
+        int[] a = new int[set.cardinality()];
+        int na = 0, ne = 0;
+        int[] accepts = new int[a.length], ends = new int[a.length];
+        for (int s = set.nextSetBit(0), i = 0; s >= 0;
+             s = set.nextSetBit(s + 1)) {
+            a[i++] = s;
+            if (kind[s] == ACCEPT)
+                accepts[na++] = owner[s];
+            else if (kind[s] != CHAR)
+                ends[ne++] = s;
+        }
+        State st = new State(a, Arrays.copyOf(accepts, na),
+                             Arrays.copyOf(ends, ne));
+        State cached = states.get(st);
+        if (cached != null)
+            return cached;
+        if (states.size() >= MAX_STATES)
+            clearCache();
+        states.put(st, st);
+        return st;
+    }
+
+    /**
+     * Discards the cached states.  Threads running the automaton keep
+     * the states they hold, which stay correct, but their transitions are
+     * recomputed.  Called with the lock held.
+     */
+    private void clearCache() {
+        for (State st : states.keySet()) {
+            Arrays.fill(st.table, null);
+            st.others = null;
+        }
+        states.clear();
+        initial = null;
+    }
+
+    private State initial() {
+        State st = initial;
+        if (st == null) {
+            synchronized (this) {
+                if ((st = initial) == null)
+                    initial = st = closure(starts, starts.length, true);
+            }
+        }
+        return st;
+    }
+
+    private State next(State st, char ch) {
+        State to;
+        if (ch < TABLE_SIZE && (to = st.table[ch]) != null)
+            return to;
+        synchronized (this) {
+            if (ch >= TABLE_SIZE && st.others != null &&
+                (to = st.others.get(ch)) != null)
+                return to;
+            int[] seeds = new int[st.set.length + anywhere.length];
+            int n = 0;
+            for (int s : st.set) {
+                if (kind[s] == CHAR && prop[s].isSatisfiedBy(ch))
+                    seeds[n++] = out1[s];
+            }
+            for (int s : anywhere)
+                seeds[n++] = s;
+            to = closure(seeds, n, false);
+            if (states.get(st) != st)
+                return to;          // st was discarded
+            if (ch < TABLE_SIZE) {
+                st.table[ch] = to;
+            } else {
+                if (st.others == null)
+                    st.others = new HashMap<>();
+                st.others.put(ch, to);
+            }
+            return to;
+        }
+    }
+
+    /**
+     * Returns true if the end state s accepts at index i of the input.
+     */
+    private boolean acceptsAt(int s, CharSequence input, int i) {
+        int end = input.length();
+        if (i == end)
+            return true;
+        switch (kind[s]) {
+        case DOLLAR:
+            if (i == end - 2)
+                return input.charAt(i) == '\r' && input.charAt(i + 1) == '\n';
+            if (i == end - 1) {
+                char ch = input.charAt(i);
+                if (ch == '\n')
+                    return i == 0 || input.charAt(i - 1) != '\r';
+                return ch == '\r' || ch == '\u0085' || (ch|1) == '\u2029';
+            }
+            return false;
+        case UNIX_DOLLAR:
+            return i == end - 1 && input.charAt(i) == '\n';
+        default:
+            return false;
+        }
+    }
+
+    /**
+     * Runs the automaton over the input, setting in found the ids of the
+     * patterns found, until all of them are found or, if any is true,
+     * until one is found.
+     *
+     * @return false if the input has a surrogate char, in which case
+     *         found is left as it was
+     */
+    boolean find(CharSequence input, BitSet found, boolean any) {
+        BitSet f = new BitSet();
+        int wanted = any ? 1 : starts.length, n = 0;
+        State st = initial();
+        int len = input.length();
+        for (int i = 0; ; i++) {
+            for (int id : st.accepts) {
+                if (!f.get(id)) {
+                    f.set(id);
+                    n++;
+                }
+            }
+            if (st.endStates.length > 0 && i >= len - 2) {
+                for (int s : st.endStates) {
+                    if (!f.get(owner[s]) && acceptsAt(s, input, i)) {
+                        f.set(owner[s]);
+                        n++;
+                    }
+                }
+            }
+            // stop if all are found, or none can be
+            if (i == len || n >= wanted || st.set.length == 0)
+                break;
+            char ch = input.charAt(i);
+            if (Character.isSurrogate(ch))
+                return false;
+            st = next(st, ch);
+        }
+        found.or(f);
+        return true;
+    }
+}
@@ -26,6 +26,10 @@
 package java.util.regex;
 
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * An engine that performs match operations on a {@linkplain java.lang.CharSequence
@@ -254,6 +258,62 @@ public final class Matcher implements MatchResult {
         return result;
     }
 
+    /**
+     * Returns a stream of the results of the subsequent matches of this
+     * matcher's pattern in its input, without copying them.
+     *
+     * <p> Each element of the stream is this matcher itself, in the state
+     * left by an invocation of {@link #find()} that returned {@code true}:
+     * the stream advances by invoking {@code find()}, and ends when it
+     * returns {@code false}.  Unlike the results of {@link #toMatchResult
+     * toMatchResult}, no object is created for a match, so an element is
+     * only valid until the stream advances to the next element.  A match
+     * that must be kept should be mapped to what is needed of it, or
+     * copied by {@code toMatchResult}:
+     *
+     * <blockquote><pre>
+     * int total = m.resultViews().mapToInt(r -&gt; r.end() - r.start()).sum();
+     * List&lt;String&gt; words = m.resultViews().map(MatchResult::group)
+     *                            .collect(Collectors.toList());</pre></blockquote>
+     *
+     * <p> The stream is sequential, and is never split for parallel
+     * execution.  Matching starts where {@code find()} would start, so the
+     * matcher should be reset before this method is invoked if earlier
+     * matches are not to be skipped.  The matcher must not be otherwise
+     * used until the terminal stream operation completes; otherwise its
+     * result is undefined.
+     *
+     * @return  A sequential stream of this matcher, once for each
+     *          subsequent match
+     * @see     #find()
+     * @since   1.8
+     */
+    public Stream<MatchResult> resultViews() {
+        class ResultSpliterator implements Spliterator<MatchResult> {
+            public boolean tryAdvance(Consumer<? super MatchResult> action) {
+                if (action == null)
+                    throw new NullPointerException();
+                if (!find())
+                    return false;
+                action.accept(Matcher.this);
+                return true;
+            }
+
+            public Spliterator<MatchResult> trySplit() {
+                return null;
+            }
+
+            public long estimateSize() {
+                return Long.MAX_VALUE;
+            }
+
+            public int characteristics() {
+                return Spliterator.ORDERED | Spliterator.NONNULL;
+            }
+        }
+        return StreamSupport.stream(new ResultSpliterator(), false);
+    }
+
     /**
       * Changes the <tt>Pattern</tt> that this <tt>Matcher</tt> uses to
       * find matches with.
@@ -0,0 +1,642 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.ArrayList;
+import java.util.List;
+import jdk.internal.org.objectweb.asm.ClassWriter;
+import jdk.internal.org.objectweb.asm.Label;
+import jdk.internal.org.objectweb.asm.MethodVisitor;
+import jdk.internal.org.objectweb.asm.Type;
+import sun.misc.Unsafe;
+
+import static jdk.internal.org.objectweb.asm.Opcodes.*;
+
+/**
+ * Compiles a chain of {@link Pattern.Node}s to bytecode, for {@link
+ * Pattern#compileToBytecode}.  The longest prefix of the chain made of
+ * supported nodes is replaced by a single node of a generated class,
+ * whose {@code match} method performs the work of each node in turn
+ * without a virtual call, and then calls {@code match} on the first
+ * node not compiled, which the interpreter handles as before.
+ *
+ * <p> The supported nodes are case sensitive {@code Slice}s, character
+ * properties, {@code Curly} repetitions of a character property, capturing
+ * {@code GroupHead}s and {@code GroupTail}s, {@code Begin}, and the
+ * accepting nodes at the end of a pattern.  Each does exactly what its
+ * own {@code match} method does, including the updates of {@code hitEnd}
+ * and the group state of the {@code Matcher}.  A node that must run the
+ * rest of the chain and then act on the result, such as a repetition
+ * backing off, ends the method in which it is generated: the rest of
+ * the chain is generated in a further method, which it calls.
+ *
+ * <p> The class is defined as a VM anonymous class hosted by {@code
+ * Pattern}, which gives it access to the package-private node and
+ * matcher state.  Properties other than single characters are tested by
+ * calling {@code isSatisfiedBy} on the original node, cast to its exact
+ * class, so that each call site sees one receiver type.
+ *
+ * @since 1.8
+ */
+final class NodeCompiler {
+
+    private static final Unsafe UNSAFE = Unsafe.getUnsafe();
+
+    /** Chains longer than this are compiled in part */
+    private static final int MAX_NODES = 64;
+
+    /** Slices longer than this are not compiled */
+    private static final int MAX_SLICE = 64;
+
+    private static final String NODE = Type.getInternalName(Pattern.Node.class);
+    private static final String NODES = "[L" + NODE + ";";
+    private static final String MATCHER = Type.getInternalName(Matcher.class);
+    private static final String SEQ = "java/lang/CharSequence";
+    private static final String MATCH_DESC =
+        "(L" + MATCHER + ";IL" + SEQ + ";)Z";
+
+    // Local variables of the generated match methods
+    private static final int THIS = 0, M = 1, I = 2, S = 3, TMP = 4;
+
+    private final List<Pattern.Node> nodes;
+    private final Pattern.Node tail;
+
+    /** The nodes the generated code refers to, loaded from its field */
+    private final List<Pattern.Node> constants;
+    private final String className;
+
+    private NodeCompiler(List<Pattern.Node> nodes, Pattern.Node tail) {
+        this.nodes = nodes;
+        this.tail = tail;
+        this.constants = new ArrayList<>(nodes);
+        this.className = "java/util/regex/Pattern$$Compiled";
+    }
+
+    /**
+     * Returns a node that matches as the chain starting at the given
+     * node, or null if none of the chain can be compiled.
+     */
+    static Pattern.Node compile(Pattern.Node node) {
+        List<Pattern.Node> list = new ArrayList<>();
+        while (node != null && list.size() < MAX_NODES && isSupported(node)) {
+            list.add(node);
+            node = node.next;
+        }
+        if (list.isEmpty())
+            return null;
+        try {
+            return new NodeCompiler(list, node).generate();
+        } catch (LinkageError e) {
+            return null;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            return null;
+        }
+    }
+
+    private static boolean isSupported(Pattern.Node node) {
+        Class<?> c = node.getClass();
+        if (c == Pattern.Slice.class)
+            return ((Pattern.Slice)node).buffer.length <= MAX_SLICE;
+        if (node instanceof Pattern.CharProperty)
+            return true;
+        if (c == Pattern.Curly.class) {
+            Pattern.Curly curly = (Pattern.Curly)node;
+            return curly.atom instanceof Pattern.CharProperty &&
+                curly.atom.next == Pattern.accept &&
+                curly.type <= Pattern.POSSESSIVE;
+        }
+        return c == Pattern.GroupHead.class || c == Pattern.GroupTail.class ||
+            c == Pattern.Begin.class;
+    }
+
+    /** Returns true if the node is compiled to a call of the next method. */
+    private static boolean callsRest(Pattern.Node node) {
+        Class<?> c = node.getClass();
+        return c == Pattern.Curly.class || c == Pattern.GroupHead.class ||
+            c == Pattern.GroupTail.class || c == Pattern.Begin.class;
+    }
+
+    private Pattern.Node generate() throws Throwable {
+        ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS |
+                                         ClassWriter.COMPUTE_FRAMES);
+        cw.visit(V1_8, ACC_PUBLIC + ACC_SUPER + ACC_FINAL + ACC_SYNTHETIC,
+                 className, null, NODE, null);
+        cw.visitField(ACC_PRIVATE + ACC_FINAL, "nodes", NODES, null, null)
+            .visitEnd();
+
+        MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>",
+                                          "(" + NODES + ")V", null, null);
+        mv.visitCode();
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitMethodInsn(INVOKESPECIAL, NODE, "<init>", "()V", false);
+        mv.visitVarInsn(ALOAD, 0);
+        mv.visitVarInsn(ALOAD, 1);
+        mv.visitFieldInsn(PUTFIELD, className, "nodes", NODES);
+        mv.visitInsn(RETURN);
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+
+        // match runs from node 0; each node that calls the rest of the
+        // chain starts a method for the nodes after it
+        int start = 0;
+        for (int k = 0; k < nodes.size(); k++) {
+            if (callsRest(nodes.get(k)) || k == nodes.size() - 1) {
+                genMethod(cw, start, k);
+                start = k + 1;
+            }
+        }
+        if (callsRest(nodes.get(nodes.size() - 1)))
+            genMethod(cw, start, start - 1);   // only the tail
+        cw.visitEnd();
+
+        Class<?> c = UNSAFE.defineAnonymousClass(Pattern.class,
+                                                 cw.toByteArray(), null);
+        UNSAFE.ensureClassInitialized(c);       // verify it now
+        MethodHandle ctor = MethodHandles.publicLookup().findConstructor
+            (c, MethodType.methodType(void.class, Pattern.Node[].class));
+        Pattern.Node n = (Pattern.Node)ctor.invoke
+            (constants.toArray(new Pattern.Node[constants.size()]));
+        n.next = tail;
+        return n;
+    }
+
+    private static String methodName(int start) {
+        return (start == 0) ? "match" : "match" + start;
+    }
+
+    /**
+     * Generates the method matching nodes start through last, ending
+     * with the tail if last is the last node compiled.  Only the node at
+     * last may call the rest of the chain.
+     */
+    private void genMethod(ClassWriter cw, int start, int last) {
+        MethodVisitor mv = cw.visitMethod(
+            (start == 0) ? 0 : ACC_PRIVATE, methodName(start),
+            MATCH_DESC, null, null);
+        mv.visitCode();
+        int k = start;
+        for (; k <= last; k++) {
+            Pattern.Node node = nodes.get(k);
+            Class<?> c = node.getClass();
+            if (c == Pattern.Slice.class)
+                genSlice(mv, ((Pattern.Slice)node).buffer);
+            else if (node instanceof Pattern.CharProperty)
+                genProperty(mv, k, (Pattern.CharProperty)node, null);
+            else
+                break;
+        }
+        if (k <= last) {
+            Pattern.Node node = nodes.get(k);
+            Class<?> c = node.getClass();
+            if (c == Pattern.Curly.class)
+                genCurly(mv, k, (Pattern.Curly)node);
+            else if (c == Pattern.GroupHead.class)
+                genGroupHead(mv, k, (Pattern.GroupHead)node);
+            else if (c == Pattern.GroupTail.class)
+                genGroupTail(mv, k, (Pattern.GroupTail)node);
+            else
+                genBegin(mv, k);
+        } else {
+            genTail(mv);
+        }
+        mv.visitMaxs(0, 0);
+        mv.visitEnd();
+    }
+
+    /** Emits: matcher.hitEnd = true; return false; */
+    private static void genHitEnd(MethodVisitor mv) {
+        mv.visitVarInsn(ALOAD, M);
+        mv.visitInsn(ICONST_1);
+        mv.visitFieldInsn(PUTFIELD, MATCHER, "hitEnd", "Z");
+        mv.visitInsn(ICONST_0);
+        mv.visitInsn(IRETURN);
+    }
+
+    private static void genReturnFalse(MethodVisitor mv) {
+        mv.visitInsn(ICONST_0);
+        mv.visitInsn(IRETURN);
+    }
+
+    private static void genMatcherField(MethodVisitor mv, String name) {
+        mv.visitVarInsn(ALOAD, M);
+        mv.visitFieldInsn(GETFIELD, MATCHER, name, "I");
+    }
+
+    private static void genCharAt(MethodVisitor mv, int index) {
+        mv.visitVarInsn(ALOAD, S);
+        mv.visitVarInsn(ILOAD, index);
+        mv.visitMethodInsn(INVOKEINTERFACE, SEQ, "charAt", "(I)C", true);
+    }
+
+    /** As Slice.match, with the characters unrolled. */
+    private static void genSlice(MethodVisitor mv, int[] buf) {
+        for (int j = 0; j < buf.length; j++) {
+            Label inRange = new Label(), same = new Label();
+            mv.visitVarInsn(ILOAD, I);
+            mv.visitLdcInsn(j);
+            mv.visitInsn(IADD);
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ISTORE, TMP);
+            genMatcherField(mv, "to");
+            mv.visitJumpInsn(IF_ICMPLT, inRange);
+            genHitEnd(mv);
+            mv.visitLabel(inRange);
+            genCharAt(mv, TMP);
+            mv.visitLdcInsn(buf[j]);
+            mv.visitJumpInsn(IF_ICMPEQ, same);
+            genReturnFalse(mv);
+            mv.visitLabel(same);
+        }
+        mv.visitIincInsn(I, buf.length);
+    }
+
+    /**
+     * Emits a test of the property at constant k against the character
+     * at index i.  If it fails, jumps to
+     * fail, or returns false if fail is null, setting hitEnd first if
+     * at the end of the region.  If it holds, advances i past the
+     * character and leaves its length in TMP.
+     */
+    private void genProperty(MethodVisitor mv, int k, Pattern.CharProperty p,
+                             Label fail) {
+        boolean bmp = p instanceof Pattern.BmpCharProperty;
+        Label inRange = new Label(), ok = new Label();
+        mv.visitVarInsn(ILOAD, I);
+        genMatcherField(mv, "to");
+        mv.visitJumpInsn(IF_ICMPLT, inRange);
+        if (fail == null) {
+            genHitEnd(mv);
+        } else {
+            mv.visitVarInsn(ALOAD, M);
+            mv.visitInsn(ICONST_1);
+            mv.visitFieldInsn(PUTFIELD, MATCHER, "hitEnd", "Z");
+            mv.visitJumpInsn(GOTO, fail);
+        }
+        mv.visitLabel(inRange);
+        if (bmp) {
+            genCharAt(mv, I);
+        } else {
+            mv.visitVarInsn(ALOAD, S);
+            mv.visitVarInsn(ILOAD, I);
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Character",
+                               "codePointAt", "(L" + SEQ + ";I)I", false);
+        }
+        mv.visitVarInsn(ISTORE, TMP);
+        if (p.getClass() == Pattern.Single.class ||
+            p.getClass() == Pattern.SingleS.class) {
+            mv.visitVarInsn(ILOAD, TMP);
+            mv.visitLdcInsn((p instanceof Pattern.Single) ?
+                            ((Pattern.Single)p).c : ((Pattern.SingleS)p).c);
+            mv.visitJumpInsn(IF_ICMPEQ, ok);
+        } else {
+            String owner = Type.getInternalName(p.getClass());
+            genConstant(mv, k);
+            mv.visitTypeInsn(CHECKCAST, owner);
+            mv.visitVarInsn(ILOAD, TMP);
+            mv.visitMethodInsn(INVOKEVIRTUAL, owner, "isSatisfiedBy",
+                               "(I)Z", false);
+            mv.visitJumpInsn(IFNE, ok);
+        }
+        if (fail == null)
+            genReturnFalse(mv);
+        else
+            mv.visitJumpInsn(GOTO, fail);
+        mv.visitLabel(ok);
+        if (bmp) {
+            mv.visitInsn(ICONST_1);
+            mv.visitVarInsn(ISTORE, TMP);
+            mv.visitIincInsn(I, 1);
+        } else {
+            mv.visitVarInsn(ILOAD, TMP);
+            mv.visitMethodInsn(INVOKESTATIC, "java/lang/Character",
+                               "charCount", "(I)I", false);
+            mv.visitInsn(DUP);
+            mv.visitVarInsn(ISTORE, TMP);
+            mv.visitVarInsn(ILOAD, I);
+            mv.visitInsn(IADD);
+            mv.visitVarInsn(ISTORE, I);
+        }
+    }
+
+    /** Pushes the node at index k of the constants. */
+    private void genConstant(MethodVisitor mv, int k) {
+        mv.visitVarInsn(ALOAD, THIS);
+        mv.visitFieldInsn(GETFIELD, className, "nodes", NODES);
+        mv.visitLdcInsn(k);
+        mv.visitInsn(AALOAD);
+    }
+
+    /** Emits a call of the method matching the nodes after node k. */
+    private void genRest(MethodVisitor mv, int k) {
+        mv.visitVarInsn(ALOAD, THIS);
+        mv.visitVarInsn(ALOAD, M);
+        mv.visitVarInsn(ILOAD, I);
+        mv.visitVarInsn(ALOAD, S);
+        mv.visitMethodInsn(INVOKESPECIAL, className, methodName(k + 1),
+                           MATCH_DESC, false);
+    }
+
+    /**
+     * As Curly.match for a character property atom.  A greedy
+     * repetition backs off one char at a time; if it meets a
+     * supplementary character it instead hands the match, from where
+     * the repetition started, to the Curly node itself.
+     */
+    private void genCurly(MethodVisitor mv, int k, Pattern.Curly curly) {
+        final int START = TMP + 1, J = TMP + 2, BACK = TMP + 3;
+        Pattern.CharProperty atom = (Pattern.CharProperty)curly.atom;
+        int a = constants.size();
+        constants.add(atom);
+        boolean bmp = atom instanceof Pattern.BmpCharProperty;
+        Label interpret = new Label();
+        mv.visitVarInsn(ILOAD, I);
+        mv.visitVarInsn(ISTORE, START);
+        mv.visitInsn(ICONST_0);
+        mv.visitVarInsn(ISTORE, J);
+
+        // the minimum: for (; j < cmin; j++) if (!atom) return false
+        Label minTest = new Label(), minDone = new Label();
+        mv.visitLabel(minTest);
+        mv.visitVarInsn(ILOAD, J);
+        mv.visitLdcInsn(curly.cmin);
+        mv.visitJumpInsn(IF_ICMPGE, minDone);
+        genProperty(mv, a, atom, null);
+        genAtomAccept(mv);
+        mv.visitIincInsn(J, 1);
+        mv.visitJumpInsn(GOTO, minTest);
+        mv.visitLabel(minDone);
+
+        if (curly.type == Pattern.GREEDY) {
+            // take as many as possible, then back off
+            Label more = new Label(), backOff = new Label(), failed = new Label();
+            mv.visitVarInsn(ILOAD, J);
+            mv.visitVarInsn(ISTORE, BACK);
+            mv.visitLabel(more);
+            mv.visitVarInsn(ILOAD, J);
+            mv.visitLdcInsn(curly.cmax);
+            mv.visitJumpInsn(IF_ICMPGE, backOff);
+            genProperty(mv, a, atom, backOff);
+            genAtomAccept(mv);
+            if (!bmp)
+                genWideCheck(mv, interpret);
+            mv.visitIincInsn(J, 1);
+            mv.visitJumpInsn(GOTO, more);
+            mv.visitLabel(backOff);
+            mv.visitVarInsn(ILOAD, J);
+            mv.visitVarInsn(ILOAD, BACK);
+            mv.visitJumpInsn(IF_ICMPLT, failed);
+            genRest(mv, k);
+            Label retry = new Label();
+            mv.visitJumpInsn(IFEQ, retry);
+            mv.visitInsn(ICONST_1);
+            mv.visitInsn(IRETURN);
+            mv.visitLabel(retry);
+            mv.visitIincInsn(I, -1);
+            mv.visitIincInsn(J, -1);
+            mv.visitJumpInsn(GOTO, backOff);
+            mv.visitLabel(failed);
+            genReturnFalse(mv);
+            if (!bmp) {
+                mv.visitLabel(interpret);
+                genConstant(mv, k);
+                mv.visitVarInsn(ALOAD, M);
+                mv.visitVarInsn(ILOAD, START);
+                mv.visitVarInsn(ALOAD, S);
+                mv.visitMethodInsn(INVOKEVIRTUAL, NODE, "match",
+                                   MATCH_DESC, false);
+                mv.visitInsn(IRETURN);
+            }
+        } else if (curly.type == Pattern.LAZY) {
+            // try the rest before each further atom
+            Label loop = new Label(), fail = new Label();
+            mv.visitLabel(loop);
+            genRest(mv, k);
+            Label next = new Label();
+            mv.visitJumpInsn(IFEQ, next);
+            mv.visitInsn(ICONST_1);
+            mv.visitInsn(IRETURN);
+            mv.visitLabel(next);
+            mv.visitVarInsn(ILOAD, J);
+            mv.visitLdcInsn(curly.cmax);
+            mv.visitJumpInsn(IF_ICMPGE, fail);
+            genProperty(mv, a, atom, null);
+            genAtomAccept(mv);
+            mv.visitIincInsn(J, 1);
+            mv.visitJumpInsn(GOTO, loop);
+            mv.visitLabel(fail);
+            genReturnFalse(mv);
+        } else {
+            // possessive: take as many as possible, never back off
+            Label loop = new Label(), done = new Label();
+            mv.visitLabel(loop);
+            mv.visitVarInsn(ILOAD, J);
+            mv.visitLdcInsn(curly.cmax);
+            mv.visitJumpInsn(IF_ICMPGE, done);
+            genProperty(mv, a, atom, done);
+            genAtomAccept(mv);
+            mv.visitIincInsn(J, 1);
+            mv.visitJumpInsn(GOTO, loop);
+            mv.visitLabel(done);
+            genRest(mv, k);
+            mv.visitInsn(IRETURN);
+        }
+    }
+
+    /**
+     * Emits the state updates of the accept node that ends the atom of
+     * a repetition, which the interpreter leaves behind as it goes.
+     */
+    private static void genAtomAccept(MethodVisitor mv) {
+        mv.visitVarInsn(ALOAD, M);
+        mv.visitVarInsn(ILOAD, I);
+        mv.visitFieldInsn(PUTFIELD, MATCHER, "last", "I");
+        genGroupsElement(mv, 0);
+        genMatcherField(mv, "first");
+        mv.visitInsn(IASTORE);
+        genGroupsElement(mv, 1);
+        mv.visitVarInsn(ILOAD, I);
+        mv.visitInsn(IASTORE);
+    }
+
+    /** Jumps to the label if the last character matched was wide. */
+    private static void genWideCheck(MethodVisitor mv, Label wide) {
+        mv.visitVarInsn(ILOAD, TMP);
+        mv.visitInsn(ICONST_1);
+        mv.visitJumpInsn(IF_ICMPNE, wide);
+    }
+
+    /** As GroupHead.match. */
+    private void genGroupHead(MethodVisitor mv, int k, Pattern.GroupHead head) {
+        final int SAVE = TMP + 1, RET = TMP + 2;
+        mv.visitVarInsn(ALOAD, M);
+        mv.visitFieldInsn(GETFIELD, MATCHER, "locals", "[I");
+        mv.visitLdcInsn(head.localIndex);
+        mv.visitInsn(IALOAD);
+        mv.visitVarInsn(ISTORE, SAVE);
+        mv.visitVarInsn(ALOAD, M);
+        mv.visitFieldInsn(GETFIELD, MATCHER, "locals", "[I");
+        mv.visitLdcInsn(head.localIndex);
+        mv.visitVarInsn(ILOAD, I);
+        mv.visitInsn(IASTORE);
+        genRest(mv, k);
+        mv.visitVarInsn(ISTORE, RET);
+        mv.visitVarInsn(ALOAD, M);
+        mv.visitFieldInsn(GETFIELD, MATCHER, "locals", "[I");
+        mv.visitLdcInsn(head.localIndex);
+        mv.visitVarInsn(ILOAD, SAVE);
+        mv.visitInsn(IASTORE);
+        mv.visitVarInsn(ILOAD, RET);
+        mv.visitInsn(IRETURN);
+    }
+
+    /** As GroupTail.match. */
+    private void genGroupTail(MethodVisitor mv, int k, Pattern.GroupTail gt) {
+        final int START = TMP + 1, END = TMP + 2;
+        Label ref = new Label(), fail = new Label();
+        mv.visitVarInsn(ALOAD, M);
+        mv.visitFieldInsn(GETFIELD, MATCHER, "locals", "[I");
+        mv.visitLdcInsn(gt.localIndex);
+        mv.visitInsn(IALOAD);
+        mv.visitInsn(DUP);
+        mv.visitVarInsn(ISTORE, TMP);
+        mv.visitJumpInsn(IFLT, ref);
+        // save the group, so that it can be unset if the rest fails
+        genGroupsElement(mv, gt.groupIndex);
+        mv.visitInsn(IALOAD);
+        mv.visitVarInsn(ISTORE, START);
+        genGroupsElement(mv, gt.groupIndex + 1);
+        mv.visitInsn(IALOAD);
+        mv.visitVarInsn(ISTORE, END);
+        genGroupsElement(mv, gt.groupIndex);
+        mv.visitVarInsn(ILOAD, TMP);
+        mv.visitInsn(IASTORE);
+        genGroupsElement(mv, gt.groupIndex + 1);
+        mv.visitVarInsn(ILOAD, I);
+        mv.visitInsn(IASTORE);
+        genRest(mv, k);
+        mv.visitJumpInsn(IFEQ, fail);
+        mv.visitInsn(ICONST_1);
+        mv.visitInsn(IRETURN);
+        mv.visitLabel(fail);
+        genGroupsElement(mv, gt.groupIndex);
+        mv.visitVarInsn(ILOAD, START);
+        mv.visitInsn(IASTORE);
+        genGroupsElement(mv, gt.groupIndex + 1);
+        mv.visitVarInsn(ILOAD, END);
+        mv.visitInsn(IASTORE);
+        genReturnFalse(mv);
+        // a group reference: no group state to set
+        mv.visitLabel(ref);
+        mv.visitVarInsn(ALOAD, M);
+        mv.visitVarInsn(ILOAD, I);
+        mv.visitFieldInsn(PUTFIELD, MATCHER, "last", "I");
+        mv.visitInsn(ICONST_1);
+        mv.visitInsn(IRETURN);
+    }
+
+    /** Pushes matcher.groups and the given index. */
+    private static void genGroupsElement(MethodVisitor mv, int index) {
+        mv.visitVarInsn(ALOAD, M);
+        mv.visitFieldInsn(GETFIELD, MATCHER, "groups", "[I");
+        mv.visitLdcInsn(index);
+    }
+
+    /** As Begin.match. */
+    private void genBegin(MethodVisitor mv, int k) {
+        Label bounds = new Label(), test = new Label(), fail = new Label();
+        mv.visitVarInsn(ILOAD, I);
+        mv.visitVarInsn(ALOAD, M);
+        mv.visitFieldInsn(GETFIELD, MATCHER, "anchoringBounds", "Z");
+        mv.visitJumpInsn(IFNE, bounds);
+        mv.visitInsn(ICONST_0);
+        mv.visitJumpInsn(GOTO, test);
+        mv.visitLabel(bounds);
+        genMatcherField(mv, "from");
+        mv.visitLabel(test);
+        mv.visitJumpInsn(IF_ICMPNE, fail);
+        genRest(mv, k);
+        mv.visitJumpInsn(IFEQ, fail);
+        mv.visitVarInsn(ALOAD, M);
+        mv.visitVarInsn(ILOAD, I);
+        mv.visitFieldInsn(PUTFIELD, MATCHER, "first", "I");
+        genGroupsElement(mv, 0);
+        mv.visitVarInsn(ILOAD, I);
+        mv.visitInsn(IASTORE);
+        genGroupsElement(mv, 1);
+        genMatcherField(mv, "last");
+        mv.visitInsn(IASTORE);
+        mv.visitInsn(ICONST_1);
+        mv.visitInsn(IRETURN);
+        mv.visitLabel(fail);
+        genReturnFalse(mv);
+    }
+
+    /**
+     * Emits the match of the tail: inline if it is one of the accepting
+     * nodes, else a call of its match method.
+     */
+    private void genTail(MethodVisitor mv) {
+        Class<?> c = tail.getClass();
+        if (c == Pattern.LastNode.class || c == Pattern.Node.class) {
+            if (c == Pattern.LastNode.class) {
+                // if (acceptMode == ENDANCHOR && i != to) return false
+                Label accept = new Label();
+                genMatcherField(mv, "acceptMode");
+                mv.visitLdcInsn(Matcher.ENDANCHOR);
+                mv.visitJumpInsn(IF_ICMPNE, accept);
+                mv.visitVarInsn(ILOAD, I);
+                genMatcherField(mv, "to");
+                mv.visitJumpInsn(IF_ICMPEQ, accept);
+                genReturnFalse(mv);
+                mv.visitLabel(accept);
+            }
+            mv.visitVarInsn(ALOAD, M);
+            mv.visitVarInsn(ILOAD, I);
+            mv.visitFieldInsn(PUTFIELD, MATCHER, "last", "I");
+            genGroupsElement(mv, 0);
+            genMatcherField(mv, "first");
+            mv.visitInsn(IASTORE);
+            genGroupsElement(mv, 1);
+            mv.visitVarInsn(ILOAD, I);
+            mv.visitInsn(IASTORE);
+            mv.visitInsn(ICONST_1);
+            mv.visitInsn(IRETURN);
+        } else {
+            mv.visitVarInsn(ALOAD, THIS);
+            mv.visitFieldInsn(GETFIELD, NODE, "next", "L" + NODE + ";");
+            mv.visitVarInsn(ALOAD, M);
+            mv.visitVarInsn(ILOAD, I);
+            mv.visitVarInsn(ALOAD, S);
+            mv.visitMethodInsn(INVOKEVIRTUAL, NODE, "match", MATCH_DESC, false);
+            mv.visitInsn(IRETURN);
+        }
+    }
+}
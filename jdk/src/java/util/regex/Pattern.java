@@ -35,6 +35,7 @@ import java.util.Arrays;
 import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
@@ -917,6 +918,37 @@ public final class Pattern
      */
     public static final int UNICODE_CHARACTER_CLASS = 0x100;
 
+    /**
+     * Enables linear-time matching.
+     *
+     * <p> When this flag is specified the pattern is matched by an
+     * automaton that follows every way the expression could match at
+     * once, rather than by trying them one at a time.  Matching then
+     * takes time proportional to the length of the input times the
+     * length of the expression, whatever the expression and the input;
+     * by default, an expression such as <tt>(a|aa)*b</tt> can take time
+     * exponential in the length of an input that it does not match.  The
+     * matches found, and the groups captured, are those found by default,
+     * but for a repetition of a group that can match the empty string,
+     * which is never repeated at the same position.
+     *
+     * <p> An expression compiled with this flag must not contain a back
+     * reference, a look-ahead or look-behind, a possessive quantifier, an
+     * independent group, or the linebreak matcher <tt>\R</tt>, for which
+     * a {@link PatternSyntaxException} is thrown.  Its character classes
+     * always match a supplementary character as a whole, never one of
+     * the surrogates that encode it, and a match never starts between
+     * them.
+     *
+     * <p> There is no embedded flag character for enabling linear-time
+     * matching.
+     *
+     * <p> Specifying this flag usually makes matching slower for inputs
+     * the default engine matches without much backtracking.  </p>
+     * @since 1.8
+     */
+    public static final int LINEAR = 0x200;
+
     /* Pattern has only two serialized components: The pattern string
      * and the flags, which are all that is needed to recompile the pattern
      * when it is deserialized.
@@ -1039,8 +1071,8 @@ public final class Pattern
      *         Match flags, a bit mask that may include
      *         {@link #CASE_INSENSITIVE}, {@link #MULTILINE}, {@link #DOTALL},
      *         {@link #UNICODE_CASE}, {@link #CANON_EQ}, {@link #UNIX_LINES},
-     *         {@link #LITERAL}, {@link #UNICODE_CHARACTER_CLASS}
-     *         and {@link #COMMENTS}
+     *         {@link #LITERAL}, {@link #UNICODE_CHARACTER_CLASS},
+     *         {@link #LINEAR} and {@link #COMMENTS}
      *
      * @return the given regular expression compiled into a pattern with the given flags
      * @throws  IllegalArgumentException
@@ -1048,12 +1080,96 @@ public final class Pattern
      *          match flags are set in <tt>flags</tt>
      *
      * @throws  PatternSyntaxException
-     *          If the expression's syntax is invalid
+     *          If the expression's syntax is invalid, or if <tt>flags</tt>
+     *          includes {@link #LINEAR} and the expression has a construct
+     *          that cannot be matched in linear time
      */
     public static Pattern compile(String regex, int flags) {
         return new Pattern(regex, flags);
     }
 
+    /**
+     * Compiles the given regular expression into a pattern whose matching
+     * code is generated as bytecode.
+     *
+     * <p> This method is equivalent to {@link #compileToBytecode(String,
+     * int) compileToBytecode(regex, 0)}.
+     *
+     * @param  regex
+     *         The expression to be compiled
+     * @return the given regular expression compiled into a pattern
+     * @throws  PatternSyntaxException
+     *          If the expression's syntax is invalid
+     * @since 1.8
+     */
+    public static Pattern compileToBytecode(String regex) {
+        return compileToBytecode(regex, 0);
+    }
+
+    /**
+     * Compiles the given regular expression into a pattern with the given
+     * flags, whose matching code is generated as bytecode.
+     *
+     * <p> The pattern returned matches exactly as one returned by {@link
+     * #compile(String, int) compile(regex, flags)}.  It differs only in
+     * how it matches: the leading part of the expression, as far as it is
+     * made of literal characters, character classes, repetitions of a
+     * single character or class, and capturing groups, is translated into
+     * a class of its own, which the virtual machine can then compile as a
+     * whole rather than as a chain of separate nodes.  The rest of the
+     * expression, if any, is matched as by a pattern returned by {@code
+     * compile}.  An expression of which no part can be translated is not
+     * translated at all.
+     *
+     * <p> Generating the class makes this method much slower than {@code
+     * compile}, and the class takes memory for as long as the pattern is
+     * reachable.  It is worth doing only for a pattern that is used to
+     * match a great deal of input.  The generated class is not part of
+     * the serialized form: a pattern that is deserialized matches as one
+     * returned by {@code compile}.
+     *
+     * @param  regex
+     *         The expression to be compiled
+     * @param  flags
+     *         Match flags, as for {@link #compile(String, int)}
+     * @return the given regular expression compiled into a pattern with the given flags
+     * @throws  IllegalArgumentException
+     *          If bit values other than those corresponding to the defined
+     *          match flags are set in <tt>flags</tt>
+     * @throws  PatternSyntaxException
+     *          If the expression's syntax is invalid
+     * @since 1.8
+     */
+    public static Pattern compileToBytecode(String regex, int flags) {
+        Pattern p = new Pattern(regex, flags);
+        p.generateMatcher();
+        return p;
+    }
+
+    /**
+     * Replaces as much of the object tree as possible by generated code,
+     * once it is compiled.  The node after a BnM, which is also the
+     * node after the Slice it was made from, or after the Start node that
+     * searches for matchRoot, is the head of the chain that is generated;
+     * a root that is matchRoot itself is replaced.
+     */
+    private void generateMatcher() {
+        if (root instanceof BnM) {
+            Node n = NodeCompiler.compile(root.next);
+            if (n != null)
+                root.next = matchRoot.next = n;
+            return;
+        }
+        Node n = NodeCompiler.compile(matchRoot);
+        if (n == null)
+            return;
+        if (root == matchRoot)
+            root = n;
+        else if (root instanceof Start)
+            root.next = n;
+        matchRoot = n;
+    }
+
     /**
      * Returns the regular expression from which this pattern was compiled.
      *
@@ -1094,6 +1210,114 @@ public final class Pattern
         return m;
     }
 
+    /**
+     * Returns this thread's matcher for this pattern, reset to match the
+     * given input.
+     *
+     * <p> Each thread keeps a small cache of matchers, keyed by their
+     * pattern.  If the cache holds a matcher for this pattern, it is
+     * reset with the given input, with {@linkplain
+     * Matcher#useAnchoringBounds anchoring} and {@linkplain
+     * Matcher#useTransparentBounds opaque} bounds, and returned; otherwise
+     * a new matcher is created and cached.  Scanning many inputs with one
+     * pattern then allocates no matchers.
+     *
+     * <p> The matcher returned is confined to the current thread: it
+     * must not be used by another thread, nor after this method is invoked
+     * again on this thread for this pattern, since that invocation may
+     * return the same matcher, reset.  Until then the cache holds a
+     * reference to the input.  A matcher that must outlive these limits
+     * should be created by {@link #matcher(CharSequence) matcher}.
+     *
+     * @param  input
+     *         The character sequence to be matched
+     *
+     * @return  A matcher for this pattern, confined to the current thread
+     * @since 1.8
+     */
+    public Matcher localMatcher(CharSequence input) {
+        LocalCache cache = localCache.get();
+        int i = System.identityHashCode(this) & (LocalCache.SIZE - 1);
+        Matcher m = cache.localMatchers[i];
+        if (m == null || m.parentPattern != this) {
+            m = matcher(input);
+            cache.localMatchers[i] = m;
+            return m;
+        }
+        return m.useAnchoringBounds(true).useTransparentBounds(false)
+                .reset(input);
+    }
+
+    /**
+     * Returns an idle matcher of this thread for this pattern, or a new
+     * one, reset to match the given input.  The matcher is owned by the
+     * caller until it passes it to releaseMatcher, so that no other
+     * caller on the thread can use it meanwhile.
+     */
+    Matcher takeMatcher(CharSequence input) {
+        LocalCache cache = localCache.get();
+        int i = System.identityHashCode(this) & (LocalCache.SIZE - 1);
+        Matcher m = cache.matchers[i];
+        if (m == null || m.parentPattern != this)
+            return matcher(input);
+        cache.matchers[i] = null;
+        return m.reset(input);
+    }
+
+    /**
+     * Makes a matcher returned by takeMatcher idle again, as the idle
+     * matcher of this thread for its pattern.  The matcher must not have
+     * been exposed to the caller of a public method.
+     */
+    static void releaseMatcher(Matcher m) {
+        m.text = "";        // keep no reference to the input
+        int i = System.identityHashCode(m.parentPattern) &
+            (LocalCache.SIZE - 1);
+        localCache.get().matchers[i] = m;
+    }
+
+    /**
+     * Returns the pattern compiled from the given expression without
+     * flags, from the cache of this thread if it holds one.  Every
+     * cached pattern was compiled with no flags; its {@code flags} may
+     * still be nonzero, from inline flags such as {@code (?i)}.
+     */
+    private static Pattern localPattern(String regex) {
+        LocalCache cache = localCache.get();
+        int i = regex.hashCode() & (LocalCache.SIZE - 1);
+        Pattern p = cache.patterns[i];
+        if (p == null || !regex.equals(p.pattern)) {
+            p = new Pattern(regex, 0);
+            cache.patterns[i] = p;
+        }
+        return p;
+    }
+
+    /**
+     * The patterns and matchers cached by a thread.  Each array is indexed
+     * by a hash of its key, the expression of a pattern or the pattern of
+     * a matcher, and holds one entry for each index.
+     */
+    private static final class LocalCache {
+        static final int SIZE = 16;             // a power of two
+
+        /** Compiled without flags, for the static methods */
+        final Pattern[] patterns = new Pattern[SIZE];
+
+        /** Idle, for takeMatcher */
+        final Matcher[] matchers = new Matcher[SIZE];
+
+        /** Returned by localMatcher */
+        final Matcher[] localMatchers = new Matcher[SIZE];
+    }
+
+    private static final ThreadLocal<LocalCache> localCache =
+        new ThreadLocal<LocalCache>() {
+            protected LocalCache initialValue() {
+                return new LocalCache();
+            }
+        };
+
     /**
      * Returns this pattern's match flags.
      *
@@ -1118,7 +1342,10 @@ public final class Pattern
      * Pattern.compile(regex).matcher(input).matches()</pre></blockquote>
      *
      * <p> If a pattern is to be used multiple times, compiling it once and reusing
-     * it will be more efficient than invoking this method each time.  </p>
+     * it will be more efficient than invoking this method each time.  This
+     * method keeps the patterns it compiles, and the matchers it creates,
+     * in a small cache of the current thread, so that invoking it again
+     * with the same expression compiles and allocates nothing.  </p>
      *
      * @param  regex
      *         The expression to be compiled
@@ -1130,9 +1357,124 @@ public final class Pattern
      *          If the expression's syntax is invalid
      */
     public static boolean matches(String regex, CharSequence input) {
-        Pattern p = Pattern.compile(regex);
-        Matcher m = p.matcher(input);
-        return m.matches();
+        Matcher m = localPattern(regex).takeMatcher(input);
+        try {
+            return m.matches();
+        } finally {
+            releaseMatcher(m);
+        }
+    }
+
+    /**
+     * Splits the given input sequence around matches of the given regular
+     * expression.
+     *
+     * <p> An invocation of this convenience method of the form
+     *
+     * <blockquote><pre>
+     * Pattern.split(regex, input, limit);</pre></blockquote>
+     *
+     * behaves in exactly the same way as the expression
+     *
+     * <blockquote><pre>
+     * Pattern.compile(regex).split(input, limit)</pre></blockquote>
+     *
+     * <p> As by {@link #matches(String,CharSequence) matches}, the pattern
+     * and the matcher are kept in a cache of the current thread.  </p>
+     *
+     * @param  regex
+     *         The expression to be compiled
+     * @param  input
+     *         The character sequence to be split
+     * @param  limit
+     *         The result threshold, as described for {@link
+     *         #split(CharSequence, int)}
+     * @return  The array of strings computed by splitting the input
+     *          around matches of the expression
+     * @throws  PatternSyntaxException
+     *          If the expression's syntax is invalid
+     * @since 1.8
+     */
+    public static String[] split(String regex, CharSequence input, int limit) {
+        return localPattern(regex).split(input, limit);
+    }
+
+    /**
+     * Replaces the first subsequence of the given input that matches the
+     * given regular expression with the given replacement string.
+     *
+     * <p> An invocation of this convenience method of the form
+     *
+     * <blockquote><pre>
+     * Pattern.replaceFirst(regex, input, replacement);</pre></blockquote>
+     *
+     * behaves in exactly the same way as the expression
+     *
+     * <blockquote><pre>
+     * Pattern.compile(regex).matcher(input).replaceFirst(replacement)</pre></blockquote>
+     *
+     * <p> As by {@link #matches(String,CharSequence) matches}, the pattern
+     * and the matcher are kept in a cache of the current thread.  </p>
+     *
+     * @param  regex
+     *         The expression to be compiled
+     * @param  input
+     *         The character sequence to be searched
+     * @param  replacement
+     *         The replacement string, as for {@link Matcher#replaceFirst}
+     * @return  The string constructed by replacing the first matching
+     *          subsequence by the replacement string
+     * @throws  PatternSyntaxException
+     *          If the expression's syntax is invalid
+     * @since 1.8
+     */
+    public static String replaceFirst(String regex, CharSequence input,
+                                      String replacement) {
+        Matcher m = localPattern(regex).takeMatcher(input);
+        try {
+            return m.replaceFirst(replacement);
+        } finally {
+            releaseMatcher(m);
+        }
+    }
+
+    /**
+     * Replaces every subsequence of the given input that matches the given
+     * regular expression with the given replacement string.
+     *
+     * <p> An invocation of this convenience method of the form
+     *
+     * <blockquote><pre>
+     * Pattern.replaceAll(regex, input, replacement);</pre></blockquote>
+     *
+     * behaves in exactly the same way as the expression
+     *
+     * <blockquote><pre>
+     * Pattern.compile(regex).matcher(input).replaceAll(replacement)</pre></blockquote>
+     *
+     * <p> As by {@link #matches(String,CharSequence) matches}, the pattern
+     * and the matcher are kept in a cache of the current thread.  </p>
+     *
+     * @param  regex
+     *         The expression to be compiled
+     * @param  input
+     *         The character sequence to be searched
+     * @param  replacement
+     *         The replacement string, as for {@link Matcher#replaceAll}
+     * @return  The string constructed by replacing each matching
+     *          subsequence by the replacement string
+     * @throws  PatternSyntaxException
+     *          If the expression's syntax is invalid
+     * @since 1.8
+     */
+    public static String replaceAll(String regex, CharSequence input,
+                                    String replacement) {
+        Matcher m = localPattern(regex).takeMatcher(input);
+        try {
+            return m.replaceAll(replacement);
+        } finally {
+            releaseMatcher(m);
+        }
     }
 
     /**
@@ -1203,7 +1545,7 @@ public final class Pattern
         int index = 0;
         boolean matchLimited = limit > 0;
         ArrayList<String> matchList = new ArrayList<>();
-        Matcher m = matcher(input);
+        Matcher m = takeMatcher(input);
 
         // Add segments before each match found
         while(m.find()) {
@@ -1223,6 +1565,7 @@ public final class Pattern
                 index = m.end();
             }
         }
+        releaseMatcher(m);
 
         // If no match was found, return this
         if (index == 0)
@@ -1707,7 +2050,12 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
         }
 
         // Peephole optimization
-        if (matchRoot instanceof Slice) {
+        if (has(LINEAR)) {
+            Node[] nodes = PikeVM.compile(matchRoot, localCount,
+                                          capturingGroupCount, pattern);
+            root = nodes[0];
+            matchRoot = nodes[1];
+        } else if (matchRoot instanceof Slice) {
             root = BnM.optimize(matchRoot);
             if (root == matchRoot) {
                 root = hasSupplementary ? new StartS(matchRoot) : new Start(matchRoot);
@@ -3765,7 +4113,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
      * Abstract node class to match one character satisfying some
      * boolean property.
      */
-    private static abstract class CharProperty extends Node {
+    static abstract class CharProperty extends Node {
         abstract boolean isSatisfiedBy(int ch);
         CharProperty complement() {
             return new CharProperty() {
@@ -3793,7 +4141,7 @@ loop:   for(int x=0, offset=0; x<nCodePoints; x++, offset+=len) {
      * Optimized version of CharProperty that works only for
      * properties never satisfied by Supplementary characters.
      */
-    private static abstract class BmpCharProperty extends CharProperty {
+    static abstract class BmpCharProperty extends CharProperty {
         boolean match(Matcher matcher, int i, CharSequence seq) {
             if (i < matcher.to) {
                 return isSatisfiedBy(seq.charAt(i))
@@ -5855,4 +6203,175 @@ NEXT:       while (i <= last) {
         return StreamSupport.stream(Spliterators.spliteratorUnknownSize(
                 new MatcherIterator(), Spliterator.ORDERED | Spliterator.NONNULL), false);
     }
+
+    /**
+     * Creates a stream of views of the given input sequence around matches
+     * of this pattern.
+     *
+     * <p> The stream holds the same substrings, in the same order, as the
+     * stream returned by {@link #splitAsStream splitAsStream}, but as views
+     * of the input rather than strings: no string is created for an
+     * element until its {@link CharSequence#toString toString} method is
+     * invoked.  Indeed the stream returns the same view as each of its
+     * elements, moved over the input as the stream advances, so an element
+     * is only valid until the stream advances to the next element; one
+     * that must be kept, for instance by a {@code collect} operation,
+     * should be mapped to a string first:
+     *
+     * <blockquote><pre>
+     * long n = p.splitViews(line).filter(s -&gt; s.length() &gt; 0).count();
+     * List&lt;String&gt; list = p.splitViews(line).map(CharSequence::toString)
+     *                           .collect(Collectors.toList());</pre></blockquote>
+     *
+     * <p> The matcher that finds the matches is taken from, and returned
+     * to, a cache of the current thread, as by {@link #localMatcher
+     * localMatcher}.  The stream is sequential, and is never split for
+     * parallel execution, since its elements cannot be processed out of
+     * order.
+     *
+     * <p> If the input sequence is mutable, it must remain constant during
+     * the execution of the terminal stream operation.  Otherwise, the
+     * result of the terminal stream operation is undefined.
+     *
+     * @param   input
+     *          The character sequence to be split
+     *
+     * @return  The stream of views computed by splitting the input
+     *          around matches of this pattern
+     * @see     #splitAsStream
+     * @since   1.8
+     */
+    public Stream<CharSequence> splitViews(final CharSequence input) {
+        class ViewSpliterator implements Spliterator<CharSequence> {
+            private final View view = new View(input);
+            // null until the first element is requested, and after the last
+            private Matcher matcher;
+            // The start position of the next sub-sequence of input
+            // when current == input.length there are no more elements
+            private int current;
+            // The bounds of the next element, if nextStart >= 0
+            private int nextStart = -1, nextEnd;
+            // > 0 if there are N next empty elements
+            private int emptyElementCount;
+
+            public boolean tryAdvance(Consumer<? super CharSequence> action) {
+                if (action == null)
+                    throw new NullPointerException();
+                if (!hasNext())
+                    return false;
+                if (emptyElementCount == 0) {
+                    view.set(nextStart, nextEnd);
+                    nextStart = -1;
+                } else {
+                    emptyElementCount--;
+                    view.set(0, 0);
+                }
+                action.accept(view);
+                return true;
+            }
+
+            private boolean hasNext() {
+                if (nextStart >= 0 || emptyElementCount > 0)
+                    return true;
+
+                if (current == input.length()) {
+                    finish();
+                    return false;
+                }
+                if (matcher == null)
+                    matcher = takeMatcher(input);
+
+                // Consume the next matching element
+                // Count sequence of matching empty elements
+                while (matcher.find()) {
+                    int start = current;
+                    current = matcher.end();
+                    if (start != matcher.start()) {
+                        nextStart = start;
+                        nextEnd = matcher.start();
+                        return true;
+                    } else if (current > 0) { // no empty leading substring for zero-width
+                                              // match at the beginning of the input
+                        emptyElementCount++;
+                    }
+                }
+
+                // Consume last matching element
+                int start = current;
+                current = input.length();
+                finish();
+                if (start != current) {
+                    nextStart = start;
+                    nextEnd = current;
+                    return true;
+                } else {
+                    // Ignore a terminal sequence of matching empty elements
+                    emptyElementCount = 0;
+                    return false;
+                }
+            }
+
+            private void finish() {
+                if (matcher != null) {
+                    releaseMatcher(matcher);
+                    matcher = null;
+                }
+            }
+
+            public Spliterator<CharSequence> trySplit() {
+                return null;
+            }
+
+            public long estimateSize() {
+                return Long.MAX_VALUE;
+            }
+
+            public int characteristics() {
+                return Spliterator.ORDERED | Spliterator.NONNULL;
+            }
+        }
+        return StreamSupport.stream(new ViewSpliterator(), false);
+    }
+
+    /**
+     * A view of a range of a character sequence, which may be moved over
+     * the sequence.
+     */
+    private static final class View implements CharSequence {
+        private final CharSequence seq;
+        private int start, end;
+
+        View(CharSequence seq) {
+            this.seq = seq;
+        }
+
+        void set(int start, int end) {
+            this.start = start;
+            this.end = end;
+        }
+
+        public int length() {
+            return end - start;
+        }
+
+        public char charAt(int index) {
+            if (index < 0 || index >= end - start)
+                throw new IndexOutOfBoundsException("index " + index +
+                                                    ", length " + (end - start));
+            return seq.charAt(start + index);
+        }
+
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || start > end || end > this.end - this.start)
+                throw new IndexOutOfBoundsException("start " + start +
+                                                    ", end " + end +
+                                                    ", length " +
+                                                    (this.end - this.start));
+            return seq.subSequence(this.start + start, this.start + end);
+        }
+
+        public String toString() {
+            return seq.subSequence(start, end).toString();
+        }
+    }
 }
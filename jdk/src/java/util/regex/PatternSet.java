@@ -0,0 +1,243 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+
+/**
+ * A compiled set of regular expressions, which finds which of them
+ * occur in an input in a single pass over it.
+ *
+ * <p> A pattern set is created by one of the {@link #compile(String...)
+ * compile} methods, which compile each expression into a {@link Pattern}
+ * and then combine the patterns into one automaton.  Its {@link
+ * #find(CharSequence) find} method returns the indexes of the patterns
+ * that occur in an input: pattern <i>i</i> occurs if, and only if,
+ *
+ * <blockquote><pre>
+ * set.pattern(i).matcher(input).find()</pre></blockquote>
+ *
+ * returns {@code true}.  No {@code Matcher} is created for the patterns
+ * the automaton recognizes, and the time the set takes is proportional
+ * to the length of the input rather than to the number of patterns.  A
+ * typical use is thus
+ *
+ * <blockquote><pre>
+ * PatternSet rules = PatternSet.compile("ERROR", "time(d|)out", "^GET /");
+ * for (String line : lines) {
+ *     BitSet hits = rules.find(line);
+ *     ...
+ * }</pre></blockquote>
+ *
+ * <p> The automaton recognizes patterns made of literal characters,
+ * character classes, groups, alternation, the greedy and reluctant
+ * quantifiers, and the boundary matchers <tt>^</tt>, <tt>$</tt>,
+ * <tt>\A</tt> and <tt>\z</tt> outside {@link Pattern#MULTILINE MULTILINE}
+ * mode, where <tt>$</tt> and <tt>\z</tt> must end the expression.  Each
+ * other pattern, such as one with a back reference, a look-around, a word
+ * boundary or a possessive quantifier, is matched on its own by a {@code
+ * Matcher}, as is every pattern if the input contains supplementary
+ * characters or unpaired surrogates.  The results are the same in every
+ * case; only the time taken differs.
+ *
+ * <p> Instances of this class are immutable and are safe for use by
+ * multiple concurrent threads.  The automaton is built lazily, as inputs
+ * need its states, and the memory it takes is bounded.
+ *
+ * @see Pattern
+ * @since 1.8
+ */
+public final class PatternSet {
+
+    private final Pattern[] patterns;
+
+    /** The patterns that the automaton does not recognize */
+    private final int[] others;
+
+    private final Automaton automaton;
+
+    private PatternSet(Pattern[] patterns) {
+        Automaton a = new Automaton();
+        int[] rest = new int[patterns.length];
+        int n = 0, added = 0;
+        for (int i = 0; i < patterns.length; i++) {
+            if (a.add(patterns[i], i))
+                added++;
+            else
+                rest[n++] = i;
+        }
+        this.patterns = patterns;
+        this.others = Arrays.copyOf(rest, n);
+        this.automaton = (added > 0) ? a : null;
+    }
+
+    /**
+     * Compiles the given regular expressions into a pattern set.
+     *
+     * @param  regexes
+     *         The expressions to be compiled
+     * @return the given regular expressions compiled into a pattern set
+     * @throws  PatternSyntaxException
+     *          If the syntax of any expression is invalid
+     */
+    public static PatternSet compile(String... regexes) {
+        return compile(Arrays.asList(regexes), 0);
+    }
+
+    /**
+     * Compiles the given regular expressions into a pattern set, each
+     * with the given flags.  The pattern at index <i>i</i> of the set is
+     * compiled from the <i>i</i>th expression in the iteration order of
+     * the collection.
+     *
+     * @param  regexes
+     *         The expressions to be compiled
+     * @param  flags
+     *         Match flags, as for {@link Pattern#compile(String, int)}
+     * @return the given regular expressions compiled into a pattern set
+     * @throws  IllegalArgumentException
+     *          If bit values other than those corresponding to the defined
+     *          match flags are set in <tt>flags</tt>
+     * @throws  PatternSyntaxException
+     *          If the syntax of any expression is invalid
+     */
+    public static PatternSet compile(Collection<String> regexes, int flags) {
+        Pattern[] ps = new Pattern[regexes.size()];
+        int i = 0;
+        for (String regex : regexes)
+            ps[i++] = Pattern.compile(regex, flags);
+        if (i != ps.length)
+            throw new ConcurrentModificationException();
+        return new PatternSet(ps);
+    }
+
+    /**
+     * Returns the number of patterns in this set.
+     *
+     * @return the number of patterns
+     */
+    public int size() {
+        return patterns.length;
+    }
+
+    /**
+     * Returns the pattern at the given index of this set.
+     *
+     * @param  index
+     *         The index of the pattern
+     * @return the pattern
+     * @throws  IndexOutOfBoundsException
+     *          If the index is negative or not less than {@link #size}
+     */
+    public Pattern pattern(int index) {
+        return patterns[index];
+    }
+
+    /**
+     * Returns the patterns of this set, in order.
+     *
+     * @return an unmodifiable list of the patterns
+     */
+    public List<Pattern> patterns() {
+        return Collections.unmodifiableList(Arrays.asList(patterns));
+    }
+
+    /**
+     * Returns the indexes of the patterns of this set that occur in the
+     * given input.
+     *
+     * @param  input
+     *         The character sequence to be searched
+     * @return a new bit set, in which the bit of each pattern that occurs
+     *         in the input is set
+     */
+    public BitSet find(CharSequence input) {
+        BitSet found = new BitSet(patterns.length);
+        if (automaton != null && !automaton.find(input, found, false)) {
+            for (int i = 0; i < patterns.length; i++) {
+                if (patterns[i].matcher(input).find())
+                    found.set(i);
+            }
+            return found;
+        }
+        for (int i : others) {
+            if (patterns[i].matcher(input).find())
+                found.set(i);
+        }
+        return found;
+    }
+
+    /**
+     * Tells whether any pattern of this set occurs in the given input.
+     * This method returns as soon as a pattern is found, and is thus
+     * usually faster than testing the result of {@link #find}.
+     *
+     * @param  input
+     *         The character sequence to be searched
+     * @return <tt>true</tt> if, and only if, some pattern occurs in the
+     *         input
+     */
+    public boolean findAny(CharSequence input) {
+        BitSet found = new BitSet();
+        if (automaton != null) {
+            if (automaton.find(input, found, true))
+                return !found.isEmpty() || findOthers(input);
+            for (Pattern p : patterns) {
+                if (p.matcher(input).find())
+                    return true;
+            }
+            return false;
+        }
+        return findOthers(input);
+    }
+
+    private boolean findOthers(CharSequence input) {
+        for (int i : others) {
+            if (patterns[i].matcher(input).find())
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the source expressions of this set, in the manner of
+     * {@link java.util.AbstractCollection#toString}.
+     *
+     * @return the string representation of this pattern set
+     */
+    public String toString() {
+        List<String> list = new ArrayList<>(patterns.length);
+        for (Pattern p : patterns)
+            list.add(p.pattern());
+        return list.toString();
+    }
+}
@@ -0,0 +1,517 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.regex;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The matching engine of a {@link Pattern#LINEAR LINEAR} pattern.  The
+ * object tree of the pattern is translated into a program for a Thompson
+ * automaton, which is run in the manner of Pike: all the threads, one per
+ * state of the automaton, advance a code point at a time in lockstep, so
+ * that the time taken is proportional to the length of the input times
+ * the size of the program, whatever the pattern.
+ *
+ * <p> The threads are kept in order of priority, which is the order in
+ * which the backtracking engine would try them, and each carries its own
+ * copy of the group state.  A thread that reaches a state already taken
+ * by a thread of higher priority at the same position is dropped.  Once a
+ * thread matches, those of lower priority are dropped too, and the match
+ * of the last thread to match is the leftmost one the backtracking engine
+ * would have found.
+ *
+ * <p> Two nodes are made for a program: one that searches for a match,
+ * replacing the Start node at the root of the pattern, and one that
+ * matches at the given index only, replacing matchRoot.  They set the
+ * state of the Matcher as the nodes they replace do.
+ */
+final class PikeVM extends Pattern.Node {
+
+    // Instructions
+    private static final int CHAR = 0;      // a code point satisfying prop
+    private static final int SPLIT = 1;     // to out1 then, if set, out2
+    private static final int HEAD = 2;      // locals[arg] = i
+    private static final int TAIL = 3;      // set group arg2 from local arg
+    private static final int BEGIN = 4;     // at the beginning
+    private static final int ASSERT = 5;    // if assertion.match
+    private static final int MATCH = 6;
+
+    /** The most instructions of a program */
+    private static final int MAX_PROGRAM = 1 << 16;
+
+    /** The node that ends an assertion, so that it tests its position only */
+    private static final Pattern.Node TRUE = new Pattern.Node() {
+            boolean match(Matcher matcher, int i, CharSequence seq) {
+                return true;
+            }
+        };
+
+    /**
+     * A program, shared by the two nodes made for a pattern.
+     */
+    private static final class Program {
+        int[] op = new int[64];
+        int[] out1 = new int[64];
+        int[] out2 = new int[64];
+        int[] arg = new int[64];
+        int[] arg2 = new int[64];
+        Pattern.CharProperty[] prop = new Pattern.CharProperty[64];
+        Pattern.Node[] assertion = new Pattern.Node[64];
+        int size;
+        int start;
+        int localCount;     // the offset of the groups in a thread's state
+        int slots;          // the length of a thread's state
+    }
+
+    private final Program prog;
+    private final boolean search;
+
+    private PikeVM(Program prog, boolean search) {
+        this.prog = prog;
+        this.search = search;
+    }
+
+    /**
+     * Translates the object tree of a pattern and returns its root and
+     * matchRoot nodes.
+     *
+     * @throws PatternSyntaxException if the pattern has a construct that
+     *         cannot be matched in linear time
+     */
+    static Pattern.Node[] compile(Pattern.Node matchRoot, int localCount,
+                                  int groupCount, String regex) {
+        Builder b = new Builder(regex);
+        Program prog = b.prog;
+        prog.localCount = localCount;
+        prog.slots = localCount + groupCount * 2;
+        int match = b.newInst(MATCH, -1, -1);
+        prog.start = b.build(matchRoot, Pattern.lastAccept, match,
+                             new IdentityHashMap<Pattern.Node,Integer>());
+        return new Pattern.Node[] { new PikeVM(prog, true),
+                                    new PikeVM(prog, false) };
+    }
+
+    /**
+     * Translates object trees into a program.  The nodes of the tree
+     * belong to the pattern being compiled, which matches only through
+     * the program, so that assertions can be ended by TRUE.
+     */
+    private static final class Builder {
+        final Program prog = new Program();
+        final String regex;
+
+        /** The original next nodes of the assertions ended by TRUE */
+        final Map<Pattern.Node,Pattern.Node> nexts = new IdentityHashMap<>();
+
+        Builder(String regex) {
+            this.regex = regex;
+        }
+
+        PatternSyntaxException error(String desc) {
+            return new PatternSyntaxException(desc, regex, -1);
+        }
+
+        PatternSyntaxException unsupported(String construct) {
+            return error(construct + " not supported in LINEAR mode");
+        }
+
+        int newInst(int op, int out1, int out2) {
+            Program p = prog;
+            int n = p.size;
+            if (n == p.op.length) {
+                if (n >= MAX_PROGRAM)
+                    throw error("Pattern too large for LINEAR mode");
+                int len = n << 1;
+                p.op = Arrays.copyOf(p.op, len);
+                p.out1 = Arrays.copyOf(p.out1, len);
+                p.out2 = Arrays.copyOf(p.out2, len);
+                p.arg = Arrays.copyOf(p.arg, len);
+                p.arg2 = Arrays.copyOf(p.arg2, len);
+                p.prop = Arrays.copyOf(p.prop, len);
+                p.assertion = Arrays.copyOf(p.assertion, len);
+            }
+            p.op[n] = op;
+            p.out1[n] = out1;
+            p.out2[n] = out2;
+            p.size = n + 1;
+            return n;
+        }
+
+        int newChar(Pattern.CharProperty cp, int next) {
+            int n = newInst(CHAR, next, -1);
+            prog.prop[n] = cp;
+            return n;
+        }
+
+        /**
+         * Translates the chain of nodes from node up to, but not
+         * including, stop, which continues to the instruction exit.  The
+         * memo maps the nodes already translated in this chain to their
+         * instructions.
+         */
+        int build(Pattern.Node node, Pattern.Node stop, int exit,
+                  Map<Pattern.Node,Integer> memo) {
+            if (node == stop)
+                return exit;
+            Integer done = memo.get(node);
+            if (done != null)
+                return done;
+            int s = build0(node, stop, exit, memo);
+            memo.put(node, s);
+            return s;
+        }
+
+        private int build0(Pattern.Node node, Pattern.Node stop, int exit,
+                           Map<Pattern.Node,Integer> memo) {
+            Class<?> c = node.getClass();
+            if (node instanceof Pattern.CharProperty)
+                return newChar((Pattern.CharProperty)node,
+                               build(node.next, stop, exit, memo));
+            if (node instanceof Pattern.SliceNode) {
+                int s = build(node.next, stop, exit, memo);
+                Pattern.SliceNode slice = (Pattern.SliceNode)node;
+                for (int j = slice.buffer.length - 1; j >= 0; j--)
+                    s = newChar(sliceChar(slice, slice.buffer[j]), s);
+                return s;
+            }
+            if (c == Pattern.GroupHead.class) {
+                int s = newInst(HEAD, build(node.next, stop, exit, memo), -1);
+                prog.arg[s] = ((Pattern.GroupHead)node).localIndex;
+                return s;
+            }
+            if (c == Pattern.GroupTail.class) {
+                Pattern.GroupTail gt = (Pattern.GroupTail)node;
+                int s = newInst(TAIL, build(node.next, stop, exit, memo), -1);
+                prog.arg[s] = gt.localIndex;
+                prog.arg2[s] = gt.groupIndex;
+                return s;
+            }
+            if (c == Pattern.BranchConn.class)
+                return build(node.next, stop, exit, memo);
+            if (c == Pattern.Branch.class) {
+                Pattern.Branch b = (Pattern.Branch)node;
+                int rest = build(b.conn.next, stop, exit, memo);
+                int s = -1;
+                for (int n = b.size - 1; n >= 0; n--) {
+                    int a = (b.atoms[n] == null) ? rest :
+                        build(b.atoms[n], stop, exit, memo);
+                    s = (s < 0) ? a : newInst(SPLIT, a, s);
+                }
+                return s;
+            }
+            if (c == Pattern.Ques.class) {
+                Pattern.Ques q = (Pattern.Ques)node;
+                checkType(q.type);
+                return repeat(q.atom, Pattern.accept, 0, 1, q.type == Pattern.LAZY,
+                              -1, build(node.next, stop, exit, memo));
+            }
+            if (c == Pattern.Curly.class) {
+                Pattern.Curly q = (Pattern.Curly)node;
+                checkType(q.type);
+                return repeat(q.atom, Pattern.accept, q.cmin, q.cmax,
+                              q.type == Pattern.LAZY, -1,
+                              build(node.next, stop, exit, memo));
+            }
+            if (c == Pattern.GroupCurly.class) {
+                // the atom starts after the group head
+                Pattern.GroupCurly q = (Pattern.GroupCurly)node;
+                checkType(q.type);
+                return repeat(q.atom, Pattern.accept, q.cmin, q.cmax,
+                              q.type == Pattern.LAZY, q.localIndex,
+                              build(node.next, stop, exit, memo));
+            }
+            if (c == Pattern.Prolog.class) {
+                Pattern.Loop loop = ((Pattern.Prolog)node).loop;
+                return repeat(loop.body, loop, loop.cmin, loop.cmax,
+                              loop instanceof Pattern.LazyLoop, -1,
+                              build(loop.next, stop, exit, memo));
+            }
+            if (c == Pattern.Begin.class)
+                return newInst(BEGIN, build(node.next, stop, exit, memo), -1);
+            if (c == Pattern.Caret.class || c == Pattern.UnixCaret.class ||
+                c == Pattern.Dollar.class || c == Pattern.UnixDollar.class ||
+                c == Pattern.End.class || c == Pattern.Bound.class ||
+                c == Pattern.LastMatch.class) {
+                Pattern.Node next = nexts.get(node);
+                if (next == null) {
+                    next = node.next;
+                    nexts.put(node, next);
+                    node.next = TRUE;
+                }
+                int s = newInst(ASSERT, build(next, stop, exit, memo), -1);
+                prog.assertion[s] = node;
+                return s;
+            }
+            if (c == Pattern.BackRef.class || c == Pattern.CIBackRef.class ||
+                c == Pattern.GroupRef.class)
+                throw unsupported("Back references");
+            if (c == Pattern.Pos.class || c == Pattern.Neg.class ||
+                node instanceof Pattern.Behind ||
+                node instanceof Pattern.NotBehind)
+                throw unsupported("Look-around");
+            if (c == Pattern.LineEnding.class)
+                throw unsupported("Linebreak matcher \\R");
+            throw unsupported("Construct");
+        }
+
+        private void checkType(int type) {
+            if (type != Pattern.GREEDY && type != Pattern.LAZY)
+                throw unsupported((type == Pattern.POSSESSIVE) ?
+                            "Possessive quantifiers" : "Independent groups");
+        }
+
+        /**
+         * Translates between cmin and cmax repetitions of the chain from
+         * body up to stop, continuing to next, preferring another
+         * repetition to next unless lazy.  If head is not negative, each
+         * repetition starts by setting that local, as the group head
+         * does for the atom of a GroupCurly.
+         */
+        private int repeat(Pattern.Node body, Pattern.Node stop, int cmin,
+                           int cmax, boolean lazy, int head, int next) {
+            boolean unbounded = (cmax == Pattern.MAX_REPS);
+            if (cmin > MAX_PROGRAM || (!unbounded && cmax > MAX_PROGRAM))
+                throw error("Repetition count too large for LINEAR mode");
+            int s = next;
+            if (unbounded) {
+                int split = newInst(SPLIT, -1, -1);
+                int b = body(body, stop, head, split);
+                prog.out1[split] = lazy ? next : b;
+                prog.out2[split] = lazy ? b : next;
+                s = split;
+            } else {
+                for (int n = cmax; n > cmin; n--) {
+                    int b = body(body, stop, head, s);
+                    s = lazy ? newInst(SPLIT, next, b) : newInst(SPLIT, b, next);
+                }
+            }
+            for (int n = 0; n < cmin; n++)
+                s = body(body, stop, head, s);
+            return s;
+        }
+
+        private int body(Pattern.Node body, Pattern.Node stop, int head,
+                         int exit) {
+            int s = build(body, stop, exit,
+                          new IdentityHashMap<Pattern.Node,Integer>());
+            if (head >= 0) {
+                s = newInst(HEAD, s, -1);
+                prog.arg[s] = head;
+            }
+            return s;
+        }
+
+        /**
+         * Returns a property matching a code point as the given code
+         * point of a slice matches a char or code point of the input.
+         */
+        private static Pattern.CharProperty sliceChar(
+                final Pattern.SliceNode slice, final int ch) {
+            Class<?> c = slice.getClass();
+            if (c == Pattern.Slice.class || c == Pattern.SliceS.class)
+                return new Pattern.Single(ch);
+            if (c == Pattern.SliceI.class)
+                return new Pattern.CharProperty() {
+                    boolean isSatisfiedBy(int x) {
+                        return ch == x || ch == ASCII.toLower(x);
+                    }};
+            if (c == Pattern.SliceU.class)
+                return new Pattern.CharProperty() {
+                    boolean isSatisfiedBy(int x) {
+                        return ch == x ||
+                            ch == Character.toLowerCase(Character.toUpperCase(x));
+                    }};
+            final Pattern.SliceIS is = (Pattern.SliceIS)slice;
+            return new Pattern.CharProperty() {
+                boolean isSatisfiedBy(int x) {
+                    return ch == x || ch == is.toLower(x);
+                }};
+        }
+    }
+
+    /**
+     * A list of threads, each an instruction and the state of its
+     * groups, in order of priority.  An instruction is in the list at
+     * most once: sparse and dense form the set of Briggs and Torczon.
+     */
+    private static final class Threads {
+        final int[] sparse;
+        final int[] dense;
+        final int[][] state;
+        int size;
+
+        Threads(int n) {
+            sparse = new int[n];
+            dense = new int[n];
+            state = new int[n][];
+        }
+
+        boolean contains(int pc) {
+            int k = sparse[pc];
+            return k < size && dense[k] == pc;
+        }
+
+        int add(int pc) {
+            sparse[pc] = size;
+            dense[size] = pc;
+            return size++;
+        }
+
+        void clear() {
+            size = 0;
+        }
+    }
+
+    /**
+     * Adds to the list the thread at pc with the given state, and those it
+     * leads to without reading a code point, in order of priority.
+     */
+    private void addThread(Threads list, int[] stack, int[][] states,
+                           int pc0, int[] st0,
+                           Matcher matcher, int i, CharSequence seq) {
+        Program p = prog;
+        int sp = 0;
+        stack[sp] = pc0;
+        states[sp++] = st0;
+        while (sp > 0) {
+            int pc = stack[--sp];
+            int[] st = states[sp];
+            states[sp] = null;
+            if (list.contains(pc))
+                continue;
+            int k = list.add(pc);
+            switch (p.op[pc]) {
+            case SPLIT:
+                if (p.out2[pc] >= 0) {
+                    stack[sp] = p.out2[pc];
+                    states[sp++] = st;
+                }
+                stack[sp] = p.out1[pc];
+                states[sp++] = st;
+                break;
+            case HEAD:
+                st = st.clone();
+                st[p.arg[pc]] = i;
+                stack[sp] = p.out1[pc];
+                states[sp++] = st;
+                break;
+            case TAIL:
+                int g = p.arg2[pc];
+                if (g > 0) {
+                    st = st.clone();
+                    st[p.localCount + g] = st[p.arg[pc]];
+                    st[p.localCount + g + 1] = i;
+                }
+                stack[sp] = p.out1[pc];
+                states[sp++] = st;
+                break;
+            case BEGIN:
+                int from = matcher.anchoringBounds ? matcher.from : 0;
+                if (i == from) {
+                    stack[sp] = p.out1[pc];
+                    states[sp++] = st;
+                }
+                break;
+            case ASSERT:
+                if (p.assertion[pc].match(matcher, i, seq)) {
+                    stack[sp] = p.out1[pc];
+                    states[sp++] = st;
+                }
+                break;
+            default:    // CHAR or MATCH
+                list.state[k] = st;
+            }
+        }
+    }
+
+    boolean match(Matcher matcher, int from, CharSequence seq) {
+        Program p = prog;
+        int n = p.size;
+        Threads clist = new Threads(n), nlist = new Threads(n);
+        // each instruction is pushed at most once per addThread, and
+        // each split pushes two
+        int[] stack = new int[2 * n + 1];
+        int[][] states = new int[2 * n + 1][];
+        int to = matcher.to;
+        int[] matched = null;
+        int end = -1;
+        for (int i = from; ; ) {
+            if (matched == null && (search || i == from)) {
+                int[] st = new int[p.slots];
+                Arrays.fill(st, -1);
+                st[p.localCount] = i;           // the start of group 0
+                addThread(clist, stack, states, p.start, st, matcher, i, seq);
+            }
+            if (clist.size == 0)
+                break;
+            int c = -1, w = 1;
+            if (i < to) {
+                c = Character.codePointAt(seq, i);
+                w = Character.charCount(c);
+            }
+            for (int k = 0; k < clist.size; k++) {
+                int pc = clist.dense[k];
+                int[] st = clist.state[k];
+                if (p.op[pc] == CHAR) {
+                    if (c < 0)
+                        matcher.hitEnd = true;
+                    else if (p.prop[pc].isSatisfiedBy(c))
+                        addThread(nlist, stack, states, p.out1[pc], st,
+                                  matcher, i + w, seq);
+                } else if (p.op[pc] == MATCH) {
+                    if (matcher.acceptMode == Matcher.ENDANCHOR && i != to)
+                        continue;
+                    // this thread takes priority over those after it
+                    matched = st;
+                    end = i;
+                    break;
+                }
+            }
+            Arrays.fill(clist.state, 0, clist.size, null);
+            Threads t = clist;
+            clist = nlist;
+            nlist = t;
+            nlist.clear();
+            if (i >= to)
+                break;
+            i += w;
+        }
+        if (matched == null) {
+            if (search)
+                matcher.hitEnd = true;
+            return false;
+        }
+        int[] groups = matcher.groups;
+        System.arraycopy(matched, p.localCount, groups, 0,
+                         p.slots - p.localCount);
+        matcher.first = groups[0];
+        matcher.last = end;
+        groups[1] = end;
+        return true;
+    }
+}
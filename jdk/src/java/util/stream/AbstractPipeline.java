@@ -26,6 +26,8 @@ package java.util.stream;
 
 import java.util.Objects;
 import java.util.Spliterator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
 
@@ -148,6 +150,31 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
      */
     private boolean parallel;
 
+    /**
+     * The pool in which a parallel pipeline is evaluated, or null for the
+     * common pool; only valid for the source stage.
+     */
+    private ForkJoinPool pool;
+
+    /**
+     * The target number of leaf tasks of a parallel pipeline evaluated in
+     * {@code pool}, or 0 for the default; only valid for the source stage.
+     */
+    private int leafTarget;
+
+    /**
+     * The kind of the operation represented by this pipeline object, if it
+     * is a stateless operation that {@link StreamFusion} can fuse, otherwise
+     * 0.
+     */
+    private int fusedOpKind;
+
+    /**
+     * The function of the fusible operation, or null if the operation
+     * applies none.
+     */
+    private Object fusedOpFunction;
+
     /**
      * Constructor for the head of a stream pipeline.
      *
@@ -230,10 +257,85 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         linkedOrConsumed = true;
 
         return isParallel()
-               ? terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags()))
+               ? evaluateInPool(() -> terminalOp.evaluateParallel(this, sourceSpliterator(terminalOp.getOpFlags())))
                : terminalOp.evaluateSequential(this, sourceSpliterator(terminalOp.getOpFlags()));
     }
 
+    /**
+     * Performs a parallel evaluation in the pool of this pipeline, so that
+     * the tasks that the evaluation forks run in that pool.  The
+     * evaluation is performed directly if the pipeline has no pool, or if
+     * the current thread is a worker of the pool.  An exception thrown by
+     * the evaluation is rethrown as is, as if performed directly.
+     *
+     * @param <R> the type of result
+     * @param evaluation the evaluation
+     * @return the result of the evaluation
+     */
+    private <R> R evaluateInPool(Supplier<R> evaluation) {
+        ForkJoinPool p = sourceStage.pool;
+        if (p == null || ForkJoinTask.getPool() == p)
+            return evaluation.get();
+        PoolEvaluation<R> task = new PoolEvaluation<>(evaluation);
+        p.invoke(task);
+        return task.result();
+    }
+
+    /**
+     * A task performing an evaluation in the pool of a pipeline.  The task
+     * always completes normally, holding either the result or the
+     * exception of the evaluation: a task completing exceptionally would,
+     * when joined from outside the pool, wrap the exception, itself
+     * already wrapped by the tasks of the evaluation, once more.
+     *
+     * @param <R> the type of result
+     */
+    @SuppressWarnings("serial")
+    private static final class PoolEvaluation<R> extends ForkJoinTask<Void> {
+        private final Supplier<R> evaluation;
+        private R result;
+        private Throwable exception;
+
+        PoolEvaluation(Supplier<R> evaluation) {
+            this.evaluation = evaluation;
+        }
+
+        @Override
+        public Void getRawResult() {
+            return null;
+        }
+
+        @Override
+        protected void setRawResult(Void v) { }
+
+        @Override
+        protected boolean exec() {
+            try {
+                result = evaluation.get();
+            }
+            catch (Throwable ex) {
+                exception = ex;
+            }
+            return true;
+        }
+
+        /**
+         * Returns the result of the evaluation, or throws its exception.
+         * Called once the task is done.
+         */
+        R result() {
+            Throwable ex = exception;
+            if (ex != null)
+                PoolEvaluation.<RuntimeException>uncheckedThrow(ex);
+            return result;
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T extends Throwable> void uncheckedThrow(Throwable t) throws T {
+            throw (T) t;
+        }
+    }
+
     /**
      * Collect the elements output from the pipeline stage.
      *
@@ -254,7 +356,10 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
             // upstream slice and upstream operations will not be included
             // in this slice
             depth = 0;
-            return opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator);
+            return evaluateInPool(() -> opEvaluateParallel(previousStage, previousStage.sourceSpliterator(0), generator));
+        }
+        else if (isParallel()) {
+            return evaluateInPool(() -> evaluate(sourceSpliterator(0), true, generator));
         }
         else {
             return evaluate(sourceSpliterator(0), true, generator);
@@ -302,6 +407,7 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     @SuppressWarnings("unchecked")
     public final S sequential() {
         sourceStage.parallel = false;
+        sourceStage.pool = null;
         return (S) this;
     }
 
@@ -309,6 +415,19 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
     @SuppressWarnings("unchecked")
     public final S parallel() {
         sourceStage.parallel = true;
+        sourceStage.pool = null;
+        return (S) this;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public final S parallel(ForkJoinPool pool, int leafTarget) {
+        Objects.requireNonNull(pool);
+        if (leafTarget < 0)
+            throw new IllegalArgumentException(Integer.toString(leafTarget));
+        sourceStage.parallel = true;
+        sourceStage.pool = pool;
+        sourceStage.leafTarget = leafTarget;
         return (S) this;
     }
 
@@ -468,10 +587,58 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
 
     @Override
     final <P_IN, S extends Sink<E_OUT>> S wrapAndCopyInto(S sink, Spliterator<P_IN> spliterator) {
-        copyInto(wrapSink(Objects.requireNonNull(sink)), spliterator);
+        Objects.requireNonNull(sink);
+        if (!StreamFusion.ENABLED || !fusedCopyInto(sink, spliterator))
+            copyInto(wrapSink(sink), spliterator);
         return sink;
     }
 
+    /**
+     * Pushes the elements of an array spliterator through the operations of
+     * this pipeline into a sink by a fused loop, if every operation can be
+     * fused.
+     *
+     * @param sink the terminal sink
+     * @param spliterator the source spliterator
+     * @return {@code true} if the elements were pushed, or {@code false} if
+     *         the pipeline cannot be fused and nothing was done
+     */
+    private boolean fusedCopyInto(Sink<E_OUT> sink, Spliterator<?> spliterator) {
+        if (depth == 0 || depth > StreamFusion.MAX_OPS
+            || StreamOpFlag.SHORT_CIRCUIT.isKnown(combinedFlags)
+            || !StreamFusion.isArraySpliterator(spliterator))
+            return false;
+
+        int[] kinds = new int[depth];
+        Object[] functions = new Object[depth];
+        @SuppressWarnings("rawtypes")
+        AbstractPipeline p = AbstractPipeline.this;
+        for (int k = depth - 1; k >= 0; k--, p = p.previousStage) {
+            if (p.fusedOpKind == 0)
+                return false;
+            kinds[k] = p.fusedOpKind;
+            functions[k] = p.fusedOpFunction;
+        }
+        return StreamFusion.copyInto(p.getOutputShape(), kinds, functions,
+                                     sink, spliterator);
+    }
+
+    /**
+     * Marks the operation represented by this pipeline object as one that
+     * {@link StreamFusion} can fuse.
+     *
+     * @param kind the kind of the operation, such as {@link StreamFusion#MAP}
+     * @param function the function of the operation, or null for a widening
+     *        conversion of a primitive
+     * @return this pipeline object
+     */
+    @SuppressWarnings("unchecked")
+    final S fusible(int kind, Object function) {
+        fusedOpKind = kind;
+        fusedOpFunction = function;
+        return (S) this;
+    }
+
     @Override
     final <P_IN> void copyInto(Sink<P_IN> wrappedSink, Spliterator<P_IN> spliterator) {
         Objects.requireNonNull(wrappedSink);
@@ -504,6 +671,15 @@ abstract class AbstractPipeline<E_IN, E_OUT, S extends BaseStream<E_OUT, S>>
         return combinedFlags;
     }
 
+    @Override
+    final int getLeafTarget() {
+        ForkJoinPool p = sourceStage.pool;
+        if (p == null)
+            return AbstractTask.LEAF_TARGET;
+        int t = sourceStage.leafTarget;
+        return (t > 0) ? t : p.getParallelism() << 2;
+    }
+
     final boolean isOrdered() {
         return StreamOpFlag.ORDERED.isKnown(combinedFlags);
     }
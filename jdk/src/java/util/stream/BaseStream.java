@@ -31,6 +31,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.Spliterator;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.IntConsumer;
 import java.util.function.Predicate;
 
@@ -116,6 +117,53 @@ public interface BaseStream<T, S extends BaseStream<T, S>>
      */
     S parallel();
 
+    /**
+     * Returns an equivalent stream that is parallel, and whose terminal
+     * operation runs in the given pool, splitting the work into about the
+     * given number of leaf tasks.  May return itself, either because the
+     * stream was already parallel, or because the underlying stream state
+     * was modified to be parallel.
+     *
+     * <p>A parallel stream normally runs in the {@link
+     * ForkJoinPool#commonPool() common pool}, and splits its work into
+     * about four leaf tasks for each thread of that pool.  This method lets
+     * bulk work be kept out of the common pool, and away from latency
+     * sensitive work running in it, by giving it a pool of its own:
+     * <pre>{@code
+     *     ForkJoinPool bulk = new ForkJoinPool(4);
+     *     long n = orders.stream()
+     *                    .parallel(bulk, 0)
+     *                    .filter(Order::isLate)
+     *                    .count();
+     * }</pre>
+     * The tasks of every operation of the pipeline, including those of
+     * stateful intermediate operations such as {@code sorted()} and {@code
+     * distinct()}, and those of collectors, are then run by threads of the
+     * given pool, and the thread invoking the terminal operation waits for
+     * them.  The traversal of an {@link #iterator() iterator} or {@link
+     * #spliterator() spliterator} of the stream is not a terminal operation
+     * in this sense, and runs in the thread traversing.  A later invocation
+     * of {@link #parallel()} or {@link #sequential()} on the stream undoes
+     * the effect of this method.
+     *
+     * <p>This is an <a href="package-summary.html#StreamOps">intermediate
+     * operation</a>.
+     *
+     * @implSpec
+     * The default implementation returns {@link #parallel()}, ignoring the
+     * pool and the leaf target.
+     *
+     * @param pool the pool in which to run the terminal operation
+     * @param leafTarget the number of leaf tasks to aim for when splitting
+     *        the work, or {@code 0} for four for each thread of the pool
+     * @return a parallel stream
+     * @throws IllegalArgumentException if {@code leafTarget} is negative
+     * @since 1.8
+     */
+    default S parallel(ForkJoinPool pool, int leafTarget) {
+        return parallel();
+    }
+
     /**
      * Returns an equivalent stream that is
      * <a href="package-summary.html#Ordering">unordered</a>.  May return
@@ -410,7 +410,7 @@ public final class Collectors {
      */
     public static <T> Collector<T, ?, Long>
     counting() {
-        return reducing(0L, e -> 1L, Long::sum);
+        return summingLong(e -> 1L);
     }
 
     /**
@@ -480,11 +480,24 @@ public final class Collectors {
      */
     public static <T> Collector<T, ?, Long>
     summingLong(ToLongFunction<? super T> mapper) {
-        return new CollectorImpl<>(
-                () -> new long[1],
-                (a, t) -> { a[0] += mapper.applyAsLong(t); },
-                (a, b) -> { a[0] += b[0]; return a; },
-                a -> a[0], CH_NOID);
+        return new LongSumCollector<>(mapper);
+    }
+
+    /**
+     * The collector of {@link #summingLong}, whose mapper is known to
+     * {@link #groupingByStriped(Function, Supplier, Collector)
+     * groupingByStriped}.
+     */
+    static final class LongSumCollector<T> extends CollectorImpl<T, long[], Long> {
+        final ToLongFunction<? super T> mapper;
+
+        LongSumCollector(ToLongFunction<? super T> mapper) {
+            super(() -> new long[1],
+                  (a, t) -> { a[0] += mapper.applyAsLong(t); },
+                  (a, b) -> { a[0] += b[0]; return a; },
+                  a -> a[0], CH_NOID);
+            this.mapper = mapper;
+        }
     }
 
     /**
@@ -625,12 +638,25 @@ public final class Collectors {
          * the low-order bits of the sum computed via compensated
          * summation, and index 2 holds the number of values seen.
          */
-        return new CollectorImpl<>(
-                () -> new double[4],
-                (a, t) -> { sumWithCompensation(a, mapper.applyAsDouble(t)); a[2]++; a[3]+= mapper.applyAsDouble(t);},
-                (a, b) -> { sumWithCompensation(a, b[0]); sumWithCompensation(a, b[1]); a[2] += b[2]; a[3] += b[3]; return a; },
-                a -> (a[2] == 0) ? 0.0d : (computeFinalSum(a) / a[2]),
-                CH_NOID);
+        return new DoubleAverageCollector<>(mapper);
+    }
+
+    /**
+     * The collector of {@link #averagingDouble}, whose mapper is known to
+     * {@link #groupingByStriped(Function, Supplier, Collector)
+     * groupingByStriped}.
+     */
+    static final class DoubleAverageCollector<T> extends CollectorImpl<T, double[], Double> {
+        final ToDoubleFunction<? super T> mapper;
+
+        DoubleAverageCollector(ToDoubleFunction<? super T> mapper) {
+            super(() -> new double[4],
+                  (a, t) -> { sumWithCompensation(a, mapper.applyAsDouble(t)); a[2]++; a[3]+= mapper.applyAsDouble(t);},
+                  (a, b) -> { sumWithCompensation(a, b[0]); sumWithCompensation(a, b[1]); a[2] += b[2]; a[3] += b[3]; return a; },
+                  a -> (a[2] == 0) ? 0.0d : (computeFinalSum(a) / a[2]),
+                  CH_NOID);
+            this.mapper = mapper;
+        }
     }
 
     /**
@@ -1091,6 +1117,246 @@ public final class Collectors {
         }
     }
 
+    /**
+     * Returns a concurrent {@code Collector} implementing a "group by"
+     * operation on input elements of type {@code T}, grouping elements
+     * according to a classification function, in which each thread groups
+     * the elements it accumulates on its own.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.
+     *
+     * <p>The classification function maps elements to some key type {@code K}.
+     * The collector produces a {@code Map<K, List<T>>} whose keys are the
+     * values resulting from applying the classification function to the input
+     * elements, and whose corresponding values are {@code List}s containing the
+     * input elements which map to the associated key under the classification
+     * function.
+     *
+     * <p>There are no guarantees on the type, mutability, serializability,
+     * or thread-safety of the {@code Map} or {@code List} objects returned.
+     * @implSpec
+     * This produces a result similar to:
+     * <pre>{@code
+     *     groupingByStriped(classifier, HashMap::new, toList());
+     * }</pre>
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param classifier a classifier function mapping input elements to keys
+     * @return a concurrent, unordered {@code Collector} implementing the group-by operation
+     *
+     * @see #groupingByStriped(Function, Collector)
+     * @see #groupingByStriped(Function, Supplier, Collector)
+     * @see #groupingByConcurrent(Function)
+     * @since 1.8
+     */
+    public static <T, K>
+    Collector<T, ?, Map<K, List<T>>>
+    groupingByStriped(Function<? super T, ? extends K> classifier) {
+        return groupingByStriped(classifier, HashMap::new, toList());
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} implementing a cascaded "group by"
+     * operation on input elements of type {@code T}, grouping elements
+     * according to a classification function, and then performing a reduction
+     * operation on the values associated with a given key using the specified
+     * downstream {@code Collector}, in which each thread groups and reduces
+     * the elements it accumulates on its own.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.
+     *
+     * <p>The classification function maps elements to some key type {@code K}.
+     * The downstream collector operates on elements of type {@code T} and
+     * produces a result of type {@code D}. The resulting collector produces a
+     * {@code Map<K, D>}.
+     *
+     * <p>For example, to count the orders of each customer with a parallel
+     * stream:
+     * <pre>{@code
+     *     Map<Customer, Long> ordersByCustomer
+     *         = orders.parallelStream().collect(groupingByStriped(Order::getCustomer,
+     *                                                             counting()));
+     * }</pre>
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param classifier a classifier function mapping input elements to keys
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a concurrent, unordered {@code Collector} implementing the cascaded group-by operation
+     *
+     * @see #groupingByStriped(Function)
+     * @see #groupingByStriped(Function, Supplier, Collector)
+     * @see #groupingByConcurrent(Function, Collector)
+     * @since 1.8
+     */
+    public static <T, K, A, D>
+    Collector<T, ?, Map<K, D>> groupingByStriped(Function<? super T, ? extends K> classifier,
+                                                 Collector<? super T, A, D> downstream) {
+        return groupingByStriped(classifier, HashMap::new, downstream);
+    }
+
+    /**
+     * Returns a concurrent {@code Collector} implementing a cascaded "group by"
+     * operation on input elements of type {@code T}, grouping elements
+     * according to a classification function, and then performing a reduction
+     * operation on the values associated with a given key using the specified
+     * downstream {@code Collector}, in which each thread groups and reduces
+     * the elements it accumulates on its own.  The {@code Map} produced by
+     * the Collector is created with the supplied factory function.
+     *
+     * <p>This is a {@link Collector.Characteristics#CONCURRENT concurrent} and
+     * {@link Collector.Characteristics#UNORDERED unordered} Collector.
+     *
+     * <p>The classification function maps elements to some key type {@code K}.
+     * The downstream collector operates on elements of type {@code T} and
+     * produces a result of type {@code D}. The resulting collector produces a
+     * {@code Map<K, D>}.
+     *
+     * <p>A parallel stream collects with a concurrent collector by
+     * accumulating all its elements, from several threads, into a single
+     * result container.  The result container of {@link
+     * #groupingByConcurrent(Function, Supplier, Collector)
+     * groupingByConcurrent} is the resulting {@code ConcurrentMap}, so the
+     * threads contend on its bins and on the downstream result container
+     * of each key, all the more so that the keys are few.  The result
+     * container of this collector instead holds a partial map for each
+     * thread that accumulates elements, which maps the keys of the elements
+     * accumulated by that thread to downstream result containers used by
+     * that thread only.  Accumulating an element thus needs neither a lock
+     * nor a concurrent update.  The partial maps are merged once, by the
+     * finisher, using the combiner of the downstream collector, and the
+     * resulting map is created then.
+     *
+     * @implNote
+     * A downstream collector returned by {@link #counting()}, {@link
+     * #summingLong(ToLongFunction)} or {@link
+     * #averagingDouble(ToDoubleFunction)} is accumulated directly into the
+     * primitive array holding its result, without a call of its
+     * accumulator.
+     *
+     * @param <T> the type of the input elements
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     * @param <D> the result type of the downstream reduction
+     * @param <M> the type of the resulting {@code Map}
+     * @param classifier a classifier function mapping input elements to keys
+     * @param mapFactory a function which, when called, produces a new empty
+     *                   {@code Map} of the desired type
+     * @param downstream a {@code Collector} implementing the downstream reduction
+     * @return a concurrent, unordered {@code Collector} implementing the cascaded group-by operation
+     *
+     * @see #groupingByStriped(Function)
+     * @see #groupingByStriped(Function, Collector)
+     * @see #groupingByConcurrent(Function, Supplier, Collector)
+     * @since 1.8
+     */
+    @SuppressWarnings("unchecked")
+    public static <T, K, A, D, M extends Map<K, D>>
+    Collector<T, ?, M> groupingByStriped(Function<? super T, ? extends K> classifier,
+                                         Supplier<M> mapFactory,
+                                         Collector<? super T, A, D> downstream) {
+        Objects.requireNonNull(classifier);
+        Objects.requireNonNull(mapFactory);
+        Supplier<A> downstreamSupplier = downstream.supplier();
+        BinaryOperator<A> downstreamCombiner = downstream.combiner();
+        Function<A, D> downstreamFinisher = downstream.finisher();
+        BiConsumer<StripedGroups<K, A>, T> accumulator;
+        if (downstream instanceof LongSumCollector) {
+            ToLongFunction<? super T> mapper = ((LongSumCollector<? super T>) downstream).mapper;
+            accumulator = (g, t) -> {
+                K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+                HashMap<K, A> m = g.partial();
+                long[] a = (long[]) m.get(key);
+                if (a == null)
+                    m.put(key, (A) (a = new long[1]));
+                a[0] += mapper.applyAsLong(t);
+            };
+        }
+        else if (downstream instanceof DoubleAverageCollector) {
+            ToDoubleFunction<? super T> mapper = ((DoubleAverageCollector<? super T>) downstream).mapper;
+            accumulator = (g, t) -> {
+                K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+                HashMap<K, A> m = g.partial();
+                double[] a = (double[]) m.get(key);
+                if (a == null)
+                    m.put(key, (A) (a = new double[4]));
+                double value = mapper.applyAsDouble(t);
+                sumWithCompensation(a, value);
+                a[2]++;
+                a[3] += value;
+            };
+        }
+        else {
+            BiConsumer<A, ? super T> downstreamAccumulator = downstream.accumulator();
+            accumulator = (g, t) -> {
+                K key = Objects.requireNonNull(classifier.apply(t), "element cannot be mapped to a null key");
+                HashMap<K, A> m = g.partial();
+                A container = m.get(key);
+                if (container == null)
+                    m.put(key, container = downstreamSupplier.get());
+                downstreamAccumulator.accept(container, t);
+            };
+        }
+        BinaryOperator<StripedGroups<K, A>> combiner = (g1, g2) -> {
+            g2.partials.forEach((thread, m) -> g1.partials.merge(thread, m, (m1, m2) -> {
+                m2.forEach((k, v) -> m1.merge(k, v, downstreamCombiner));
+                return m1;
+            }));
+            return g1;
+        };
+        Function<StripedGroups<K, A>, M> finisher = g -> {
+            // Merge into the largest partial map
+            HashMap<K, A> merged = null;
+            for (HashMap<K, A> m : g.partials.values()) {
+                if (merged == null || m.size() > merged.size())
+                    merged = m;
+            }
+            M result = mapFactory.get();
+            if (merged != null) {
+                for (HashMap<K, A> m : g.partials.values()) {
+                    if (m != merged) {
+                        for (Map.Entry<K, A> e : m.entrySet())
+                            merged.merge(e.getKey(), e.getValue(), downstreamCombiner);
+                    }
+                }
+                for (Map.Entry<K, A> e : merged.entrySet())
+                    result.put(e.getKey(), downstreamFinisher.apply(e.getValue()));
+            }
+            return result;
+        };
+        return new CollectorImpl<>(StripedGroups::new, accumulator, combiner, finisher,
+                                   CH_CONCURRENT_NOID);
+    }
+
+    /**
+     * The result container of {@link #groupingByStriped(Function, Supplier,
+     * Collector) groupingByStriped}: a partial map for each thread that
+     * accumulates elements, which only that thread reads or writes until
+     * the container is finished.
+     *
+     * @param <K> the type of the keys
+     * @param <A> the intermediate accumulation type of the downstream collector
+     */
+    static final class StripedGroups<K, A> {
+        final ConcurrentHashMap<Thread, HashMap<K, A>> partials = new ConcurrentHashMap<>();
+
+        /**
+         * Returns the partial map of the current thread.
+         */
+        HashMap<K, A> partial() {
+            Thread t = Thread.currentThread();
+            HashMap<K, A> m = partials.get(t);
+            if (m == null)
+                partials.put(t, m = new HashMap<>());
+            return m;
+        }
+    }
+
     /**
      * Returns a {@code Collector} which partitions the input elements according
      * to a {@code Predicate}, and organizes them into a
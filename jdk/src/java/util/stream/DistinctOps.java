@@ -24,13 +24,22 @@
  */
 package java.util.stream;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Objects;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.function.IntFunction;
 
 /**
@@ -122,62 +131,354 @@ final class DistinctOps {
                 if (StreamOpFlag.DISTINCT.isKnown(flags)) {
                     return sink;
                 } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new SortedDistinctSink<>(sink);
+                } else {
                     return new Sink.ChainedReference<T, T>(sink) {
-                        boolean seenNull;
-                        T lastSeen;
+                        Set<T> seen;
 
                         @Override
                         public void begin(long size) {
-                            seenNull = false;
-                            lastSeen = null;
+                            seen = new HashSet<>();
                             downstream.begin(-1);
                         }
 
                         @Override
                         public void end() {
-                            seenNull = false;
-                            lastSeen = null;
+                            seen = null;
                             downstream.end();
                         }
 
                         @Override
                         public void accept(T t) {
-                            if (t == null) {
-                                if (!seenNull) {
-                                    seenNull = true;
-                                    downstream.accept(lastSeen = null);
-                                }
-                            } else if (lastSeen == null || !t.equals(lastSeen)) {
-                                downstream.accept(lastSeen = t);
+                            if (!seen.contains(t)) {
+                                seen.add(t);
+                                downstream.accept(t);
                             }
                         }
                     };
+                }
+            }
+        };
+    }
+
+    /**
+     * Appends a "distinct" operation to the provided stream, which spills
+     * elements to temporary files once there are more distinct elements
+     * than it may hold in memory, and returns the new stream.
+     *
+     * @param <T> the type of both input and output elements
+     * @param upstream a reference stream with element type T
+     * @param codec the codec to write elements to files with
+     * @param maxInMemory the most elements to hold in memory
+     * @return the new stream
+     */
+    static <T> ReferencePipeline<T, T> makeRef(AbstractPipeline<?, T, ?> upstream,
+                                               StreamCodec<T> codec, int maxInMemory) {
+        Objects.requireNonNull(codec);
+        return new ReferencePipeline.StatefulOp<T, T>(upstream, StreamShape.REFERENCE,
+                                                      StreamOpFlag.IS_DISTINCT | StreamOpFlag.NOT_SIZED) {
+
+            @Override
+            <P_IN> Node<T> opEvaluateParallel(PipelineHelper<T> helper,
+                                              Spliterator<P_IN> spliterator,
+                                              IntFunction<T[]> generator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.evaluate(spliterator, false, generator);
+                }
+                Spliterator<T> distinct = opEvaluateParallelLazy(helper, spliterator);
+                Node.Builder<T> nb = Nodes.builder(distinct.getExactSizeIfKnown(), generator);
+                nb.begin(distinct.getExactSizeIfKnown());
+                distinct.forEachRemaining(nb);
+                nb.end();
+                return nb.build();
+            }
+
+            @Override
+            <P_IN> Spliterator<T> opEvaluateParallelLazy(PipelineHelper<T> helper, Spliterator<P_IN> spliterator) {
+                if (StreamOpFlag.DISTINCT.isKnown(helper.getStreamAndOpFlags())) {
+                    // No-op
+                    return helper.wrapSpliterator(spliterator);
+                }
+                // Not lazy, barrier required to preserve order; the
+                // upstream elements are copied in sequence so they are
+                // indexed in encounter order
+                SpillingDistinct<T> distinct = new SpillingDistinct<>(codec, maxInMemory);
+                List<T> first = new ArrayList<>();
+                try {
+                    helper.wrapAndCopyInto((Sink<T>) t -> {
+                        if (distinct.add(t))
+                            first.add(t);
+                    }, spliterator);
+                    return new Streams.ConcatSpliterator.OfRef<>(first.spliterator(),
+                                                                 distinct.spliterator());
+                } catch (Throwable t) {
+                    distinct.close();
+                    throw t;
+                }
+            }
+
+            @Override
+            Sink<T> opWrapSink(int flags, Sink<T> sink) {
+                Objects.requireNonNull(sink);
+
+                if (StreamOpFlag.DISTINCT.isKnown(flags)) {
+                    return sink;
+                } else if (StreamOpFlag.SORTED.isKnown(flags)) {
+                    return new SortedDistinctSink<>(sink);
                 } else {
                     return new Sink.ChainedReference<T, T>(sink) {
-                        Set<T> seen;
+                        SpillingDistinct<T> distinct;
 
                         @Override
                         public void begin(long size) {
-                            seen = new HashSet<>();
+                            distinct = new SpillingDistinct<>(codec, maxInMemory);
                             downstream.begin(-1);
                         }
 
                         @Override
                         public void end() {
-                            seen = null;
-                            downstream.end();
+                            try {
+                                Spliterator<T> rest = distinct.spliterator();
+                                do { } while (!downstream.cancellationRequested() &&
+                                              rest.tryAdvance(downstream::accept));
+                                downstream.end();
+                            } finally {
+                                distinct.close();
+                                distinct = null;
+                            }
                         }
 
                         @Override
                         public void accept(T t) {
-                            if (!seen.contains(t)) {
-                                seen.add(t);
+                            if (distinct.add(t))
                                 downstream.accept(t);
-                            }
                         }
                     };
                 }
             }
         };
     }
+
+    /**
+     * {@link Sink} for implementing distinct on SORTED streams, which only
+     * compares an element with the last distinct one.
+     */
+    private static final class SortedDistinctSink<T> extends Sink.ChainedReference<T, T> {
+        boolean seenNull;
+        T lastSeen;
+
+        SortedDistinctSink(Sink<? super T> downstream) {
+            super(downstream);
+        }
+
+        @Override
+        public void begin(long size) {
+            seenNull = false;
+            lastSeen = null;
+            downstream.begin(-1);
+        }
+
+        @Override
+        public void end() {
+            seenNull = false;
+            lastSeen = null;
+            downstream.end();
+        }
+
+        @Override
+        public void accept(T t) {
+            if (t == null) {
+                if (!seenNull) {
+                    seenNull = true;
+                    downstream.accept(lastSeen = null);
+                }
+            } else if (lastSeen == null || !t.equals(lastSeen)) {
+                downstream.accept(lastSeen = t);
+            }
+        }
+    }
+
+    /**
+     * The state of a distinct operation over more distinct elements than it
+     * may hold in memory.
+     *
+     * <p>Up to the given number of distinct elements are kept in a set, and
+     * each element not in the set is added to it, and known to be the first
+     * of its kind.  Once the set is full, its elements, and each element
+     * that follows with its index in encounter order, are added to an
+     * {@link ExternalSorter} that sorts them by hash code, then by index.
+     * The elements of equal hash code are then compared in memory, and the
+     * first of each kind that is not in the set is added to a second sorter,
+     * which sorts these by index back into encounter order.
+     */
+    private static final class SpillingDistinct<T> {
+        private static final Comparator<Indexed<?>> BY_HASH = (a, b) -> {
+            int c = Integer.compare(a.hash, b.hash);
+            return (c != 0) ? c : Long.compare(a.index, b.index);
+        };
+        private static final Comparator<Indexed<?>> BY_INDEX
+                = (a, b) -> Long.compare(a.index, b.index);
+
+        private final StreamCodec<Indexed<T>> codec;
+        private final int maxInMemory;
+
+        // The distinct elements seen, until there are too many
+        private Set<T> seen = new HashSet<>();
+
+        // The elements, indexed from 0, once there are too many
+        private ExternalSorter<Indexed<T>> byHash;
+        private long index;
+
+        // The first elements of their kind, once all are added
+        private ExternalSorter<Indexed<T>> byIndex;
+
+        SpillingDistinct(StreamCodec<T> codec, int maxInMemory) {
+            this.codec = Indexed.codec(ExternalSorter.nullable(codec));
+            this.maxInMemory = maxInMemory;
+        }
+
+        /**
+         * Adds the next element, and returns true if it is known to be the
+         * first of its kind.
+         */
+        boolean add(T t) {
+            if (byHash == null) {
+                if (seen.contains(t))
+                    return false;
+                if (seen.size() < maxInMemory) {
+                    seen.add(t);
+                    return true;
+                }
+                // The elements of the set come before every other element
+                byHash = new ExternalSorter<>(BY_HASH, codec, maxInMemory);
+                for (T s : seen)
+                    byHash.add(new Indexed<>(s, -1));
+                seen = null;
+            }
+            byHash.add(new Indexed<>(t, index++));
+            return false;
+        }
+
+        /**
+         * Returns a spliterator over the first elements of their kind that
+         * were not known to be when added, in encounter order.
+         */
+        Spliterator<T> spliterator() {
+            if (byHash == null)
+                return Spliterators.emptySpliterator();
+            byIndex = new ExternalSorter<>(BY_INDEX, codec, maxInMemory);
+            Iterator<Indexed<T>> it = Spliterators.iterator(byHash.spliterator());
+            List<T> kinds = new ArrayList<>();
+            int hash = 0;
+            while (it.hasNext()) {
+                Indexed<T> e = it.next();
+                if (kinds.isEmpty() || e.hash != hash) {
+                    kinds.clear();
+                    hash = e.hash;
+                } else if (contains(kinds, e.element)) {
+                    continue;
+                }
+                kinds.add(e.element);
+                if (e.index >= 0)
+                    byIndex.add(e);
+            }
+            byHash.close();
+            byHash = null;
+            return new Unindexed<>(byIndex.spliterator());
+        }
+
+        private static <T> boolean contains(List<T> kinds, T t) {
+            for (T k : kinds)
+                if (Objects.equals(k, t))
+                    return true;
+            return false;
+        }
+
+        /**
+         * Closes the sorters, deleting their files.
+         */
+        void close() {
+            if (byHash != null)
+                byHash.close();
+            if (byIndex != null)
+                byIndex.close();
+        }
+    }
+
+    /**
+     * An element with its hash code and index.
+     */
+    private static final class Indexed<T> {
+        final int hash;
+        final long index;
+        final T element;
+
+        Indexed(T element, long index) {
+            this(Objects.hashCode(element), index, element);
+        }
+
+        private Indexed(int hash, long index, T element) {
+            this.hash = hash;
+            this.index = index;
+            this.element = element;
+        }
+
+        static <T> StreamCodec<Indexed<T>> codec(StreamCodec<T> codec) {
+            return new StreamCodec<Indexed<T>>() {
+                @Override
+                public void write(DataOutput out, Indexed<T> e) throws IOException {
+                    out.writeInt(e.hash);
+                    out.writeLong(e.index);
+                    codec.write(out, e.element);
+                }
+
+                @Override
+                public Indexed<T> read(DataInput in) throws IOException {
+                    int hash = in.readInt();
+                    long index = in.readLong();
+                    return new Indexed<>(hash, index, codec.read(in));
+                }
+            };
+        }
+    }
+
+    /**
+     * A spliterator over the elements of a spliterator of indexed elements.
+     */
+    private static final class Unindexed<T> implements Spliterator<T> {
+        private final Spliterator<Indexed<T>> s;
+
+        Unindexed(Spliterator<Indexed<T>> s) {
+            this.s = s;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            return s.tryAdvance(e -> action.accept(e.element));
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super T> action) {
+            Objects.requireNonNull(action);
+            s.forEachRemaining(e -> action.accept(e.element));
+        }
+
+        @Override
+        public Spliterator<T> trySplit() {
+            Spliterator<Indexed<T>> prefix = s.trySplit();
+            return (prefix == null) ? null : new Unindexed<>(prefix);
+        }
+
+        @Override
+        public long estimateSize() {
+            return s.estimateSize();
+        }
+
+        @Override
+        public int characteristics() {
+            return s.characteristics() & ~Spliterator.SORTED;
+        }
+    }
 }
@@ -198,7 +198,7 @@ abstract class DoublePipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.MAP, mapper);
     }
 
     @Override
@@ -215,7 +215,7 @@ abstract class DoublePipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_REF, mapper);
     }
 
     @Override
@@ -232,7 +232,7 @@ abstract class DoublePipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_INT, mapper);
     }
 
     @Override
@@ -249,7 +249,7 @@ abstract class DoublePipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_LONG, mapper);
     }
 
     @Override
@@ -309,7 +309,7 @@ abstract class DoublePipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.FILTER, predicate);
     }
 
     @Override
@@ -356,6 +356,16 @@ abstract class DoublePipeline<E_IN>
         return SortedOps.makeDouble(this);
     }
 
+    @Override
+    public final DoubleStream prefix(DoubleBinaryOperator op) {
+        return PrefixOps.makeDouble(this, false, 0.0, op);
+    }
+
+    @Override
+    public final DoubleStream exclusivePrefix(double identity, DoubleBinaryOperator op) {
+        return PrefixOps.makeDouble(this, true, identity, op);
+    }
+
     @Override
     public final DoubleStream distinct() {
         // While functional and quick to implement, this approach is not very efficient.
@@ -0,0 +1,385 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import java.util.Spliterator;
+import java.util.Spliterators;
+
+/**
+ * A sorter of more elements than may be held in memory.  The elements are
+ * added in encounter order, and sorted in runs of at most a given number
+ * of elements; once there is more than one run, each run is spilled to a
+ * temporary file through a {@link FileChannel}, and the runs are merged
+ * lazily as the sorted elements are traversed.
+ *
+ * <p>The sort is stable: runs are sorted stably and, of equal elements in
+ * different runs, the merge takes that of the earlier run first.  The runs
+ * are appended to one file, and each is read through a buffer of its own,
+ * at its own position; at most {@link #MAX_FAN_IN} runs are merged at once,
+ * so more runs are first merged into fewer, longer runs, appended to the
+ * next file.
+ *
+ * <p>The temporary files are created in the default temporary-file
+ * directory, and deleted once the sorted elements have been traversed, or
+ * when the sorter is {@link #close() closed}.
+ *
+ * @param <T> the type of the elements
+ */
+final class ExternalSorter<T> {
+
+    /** The size of the buffers through which runs are written and read */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** The most runs that are merged at once */
+    static final int MAX_FAN_IN = 64;
+
+    private final Comparator<? super T> comparator;
+    private final StreamCodec<T> codec;
+    private final int maxInMemory;
+
+    // The run being added to, grown as needed up to maxInMemory elements
+    private Object[] buffer;
+    private int count;
+
+    // The runs spilled, in encounter order, and the file they are in
+    private List<Run> runs = new ArrayList<>();
+    private FileChannel file;
+
+    // The file that runs are being merged into, if any
+    private FileChannel next;
+
+    /**
+     * Creates a sorter.
+     *
+     * @param comparator the comparator to sort by
+     * @param codec the codec of the elements, which must accept the null
+     *        elements that are added, if any; see {@link #nullable}
+     * @param maxInMemory the most elements to hold in memory
+     */
+    ExternalSorter(Comparator<? super T> comparator, StreamCodec<T> codec,
+                   int maxInMemory) {
+        this.comparator = comparator;
+        this.codec = codec;
+        this.maxInMemory = maxInMemory;
+    }
+
+    /**
+     * Returns a codec that writes a marker before each element, so that it
+     * also writes and reads back null elements.
+     */
+    static <T> StreamCodec<T> nullable(StreamCodec<T> codec) {
+        return new StreamCodec<T>() {
+            @Override
+            public void write(DataOutput out, T t) throws IOException {
+                out.writeBoolean(t != null);
+                if (t != null)
+                    codec.write(out, t);
+            }
+
+            @Override
+            public T read(DataInput in) throws IOException {
+                return in.readBoolean() ? codec.read(in) : null;
+            }
+        };
+    }
+
+    /**
+     * Adds an element, spilling the run being added to if it is full.
+     */
+    void add(T t) {
+        if (count == maxInMemory)
+            spill();
+        if (buffer == null || count == buffer.length)
+            buffer = Arrays.copyOf(buffer == null ? new Object[0] : buffer,
+                                   (int) Math.min(maxInMemory, Math.max(16L, 2L * count)));
+        buffer[count++] = t;
+    }
+
+    /**
+     * Returns a spliterator over the elements added, in sorted order.  If
+     * no run was spilled, the elements are sorted in memory; otherwise the
+     * last run is spilled as well, and the runs are merged.  No element can
+     * be added afterwards.
+     */
+    Spliterator<T> spliterator() {
+        if (runs.isEmpty()) {
+            sortBuffer();
+            Object[] sorted = (buffer == null) ? new Object[0] : buffer;
+            int n = count;
+            buffer = null;
+            count = 0;
+            return Spliterators.spliterator(sorted, 0, n, Spliterator.ORDERED);
+        }
+        if (count > 0)
+            spill();
+        buffer = null;
+        try {
+            while (runs.size() > MAX_FAN_IN) {
+                next = newFile();
+                List<Run> merged = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += MAX_FAN_IN)
+                    merged.add(merge(runs.subList(i, Math.min(runs.size(), i + MAX_FAN_IN))));
+                file.close();
+                file = next;
+                next = null;
+                runs = merged;
+            }
+            Merger merger = new Merger(runs);
+            return Spliterators.spliterator(merger, merger.remaining, Spliterator.ORDERED);
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Closes the files of the runs spilled, deleting them.
+     */
+    void close() {
+        for (FileChannel fc : new FileChannel[] { file, next }) {
+            if (fc != null) {
+                try {
+                    fc.close();
+                } catch (IOException ignore) {
+                    // Nothing more can be done about the file
+                }
+            }
+        }
+        buffer = null;
+        count = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void sortBuffer() {
+        if (buffer != null)
+            Arrays.sort((T[]) buffer, 0, count, comparator);
+    }
+
+    /**
+     * Sorts the run being added to, and appends it to the file.
+     */
+    @SuppressWarnings("unchecked")
+    private void spill() {
+        sortBuffer();
+        try {
+            if (file == null)
+                file = newFile();
+            Run run = new Run(file.position());
+            DataOutputStream out = output(file);
+            for (int i = 0; i < count; i++)
+                codec.write(out, (T) buffer[i]);
+            out.flush();
+            run.end = file.position();
+            run.count = count;
+            runs.add(run);
+        } catch (IOException e) {
+            close();
+            throw new UncheckedIOException(e);
+        }
+        Arrays.fill(buffer, 0, count, null);
+        count = 0;
+    }
+
+    /**
+     * Merges runs of the file into a run appended to the next file.
+     */
+    private Run merge(List<Run> group) throws IOException {
+        Merger merger = new Merger(group);
+        Run run = new Run(next.position());
+        DataOutputStream out = output(next);
+        while (merger.hasNext())
+            codec.write(out, merger.next());
+        out.flush();
+        run.end = next.position();
+        run.count = merger.count;
+        return run;
+    }
+
+    private static FileChannel newFile() throws IOException {
+        Path path = Files.createTempFile("stream", ".run");
+        try {
+            return FileChannel.open(path, StandardOpenOption.READ,
+                                    StandardOpenOption.WRITE,
+                                    StandardOpenOption.DELETE_ON_CLOSE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    private static DataOutputStream output(FileChannel fc) {
+        // Not closed, which would close the channel
+        return new DataOutputStream(
+                new BufferedOutputStream(Channels.newOutputStream(fc), BUFFER_SIZE));
+    }
+
+    /**
+     * A run of sorted elements, from position to end in a file.
+     */
+    private static final class Run {
+        final long position;
+        long end;
+        long count;
+
+        Run(long position) {
+            this.position = position;
+        }
+    }
+
+    /**
+     * An input stream of the bytes of a run, read at its own position in
+     * the file, independently of the other runs.
+     */
+    private static final class RunInputStream extends InputStream {
+        private final FileChannel fc;
+        private long position;
+        private final long end;
+
+        RunInputStream(FileChannel fc, Run run) {
+            this.fc = fc;
+            this.position = run.position;
+            this.end = run.end;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] b = new byte[1];
+            return (read(b, 0, 1) < 0) ? -1 : (b[0] & 0xff);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (position >= end)
+                return -1;
+            ByteBuffer bb = ByteBuffer.wrap(b, off, (int) Math.min(len, end - position));
+            int n = fc.read(bb, position);
+            if (n > 0)
+                position += n;
+            return n;
+        }
+    }
+
+    /**
+     * The next element of a run being merged.
+     */
+    private final class Head {
+        final int order;
+        final DataInputStream in;
+        long remaining;
+        T element;
+
+        Head(Run run, int order) {
+            this.order = order;
+            this.in = new DataInputStream(
+                    new BufferedInputStream(new RunInputStream(file, run), BUFFER_SIZE));
+            this.remaining = run.count;
+        }
+
+        /**
+         * Reads the next element of the run, if any.
+         */
+        boolean advance() throws IOException {
+            if (remaining == 0)
+                return false;
+            element = codec.read(in);
+            remaining--;
+            return true;
+        }
+    }
+
+    /**
+     * An iterator over the elements of runs, merged in sorted order, which
+     * closes the files once it is exhausted.
+     */
+    private final class Merger implements Iterator<T> {
+        private final PriorityQueue<Head> heads;
+        final long count;
+        long remaining;
+
+        Merger(List<Run> group) throws IOException {
+            heads = new PriorityQueue<>(group.size(), (a, b) -> {
+                int c = comparator.compare(a.element, b.element);
+                return (c != 0) ? c : Integer.compare(a.order, b.order);
+            });
+            long n = 0;
+            for (int i = 0; i < group.size(); i++) {
+                Head head = new Head(group.get(i), i);
+                n += head.remaining;
+                if (head.advance())
+                    heads.add(head);
+            }
+            count = remaining = n;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (heads.isEmpty()) {
+                if (next == null)
+                    close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public T next() {
+            Head head = heads.poll();
+            if (head == null)
+                throw new NoSuchElementException();
+            T t = head.element;
+            remaining--;
+            try {
+                if (head.advance())
+                    heads.add(head);
+            } catch (IOException e) {
+                close();
+                throw new UncheckedIOException(e);
+            }
+            return t;
+        }
+    }
+}
@@ -196,7 +196,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_LONG, null);
     }
 
     @Override
@@ -212,7 +212,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_DOUBLE, null);
     }
 
     @Override
@@ -234,7 +234,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.MAP, mapper);
     }
 
     @Override
@@ -251,7 +251,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_REF, mapper);
     }
 
     @Override
@@ -268,7 +268,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_LONG, mapper);
     }
 
     @Override
@@ -285,7 +285,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_DOUBLE, mapper);
     }
 
     @Override
@@ -345,7 +345,7 @@ abstract class IntPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.FILTER, predicate);
     }
 
     @Override
@@ -390,6 +390,16 @@ abstract class IntPipeline<E_IN>
         return SortedOps.makeInt(this);
     }
 
+    @Override
+    public final IntStream prefix(IntBinaryOperator op) {
+        return PrefixOps.makeInt(this, false, 0, op);
+    }
+
+    @Override
+    public final IntStream exclusivePrefix(int identity, IntBinaryOperator op) {
+        return PrefixOps.makeInt(this, true, identity, op);
+    }
+
     @Override
     public final IntStream distinct() {
         // While functional and quick to implement, this approach is not very efficient.
@@ -193,7 +193,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_DOUBLE, null);
     }
 
     @Override
@@ -215,7 +215,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.MAP, mapper);
     }
 
     @Override
@@ -232,7 +232,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_REF, mapper);
     }
 
     @Override
@@ -249,7 +249,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_INT, mapper);
     }
 
     @Override
@@ -266,7 +266,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_DOUBLE, mapper);
     }
 
     @Override
@@ -326,7 +326,7 @@ abstract class LongPipeline<E_IN>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.FILTER, predicate);
     }
 
     @Override
@@ -371,6 +371,16 @@ abstract class LongPipeline<E_IN>
         return SortedOps.makeLong(this);
     }
 
+    @Override
+    public final LongStream prefix(LongBinaryOperator op) {
+        return PrefixOps.makeLong(this, false, 0L, op);
+    }
+
+    @Override
+    public final LongStream exclusivePrefix(long identity, LongBinaryOperator op) {
+        return PrefixOps.makeLong(this, true, identity, op);
+    }
+
     @Override
     public final LongStream distinct() {
         // While functional and quick to implement, this approach is not very efficient.
@@ -190,6 +190,82 @@ public interface LongStream extends BaseStream<Long, LongStream> {
      */
     LongStream sorted();
 
+    /**
+     * Returns a stream consisting of the cumulations of the elements of this
+     * stream, using the provided associative accumulation function: each
+     * element is replaced by the reduction of the elements up to and
+     * including it.  For example, the cumulations of {@code 2, 1, 0, 3} by
+     * addition are {@code 2, 3, 3, 6}.
+     *
+     * <p>For ordered streams, the elements are cumulated in encounter order.
+     * For unordered streams, no guarantees are made as to the order in which
+     * they are cumulated.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * In a sequential pipeline, the cumulations are produced as the elements
+     * are consumed, so this operation does not buffer elements.  In a
+     * parallel pipeline, the elements are buffered as the leaves of the
+     * computation produce them, and the buffers are cumulated in parallel,
+     * without first being copied into a single array.
+     *
+     * @implSpec
+     * The default implementation cumulates the elements of the {@link
+     * #spliterator() spliterator} of this stream, in sequence.
+     *
+     * @param op an <a href="package-summary.html#Associativity">associative</a>,
+     *           <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *           <a href="package-summary.html#Statelessness">stateless</a>
+     *           function for combining two values
+     * @return the new stream
+     * @see java.util.Arrays#parallelPrefix(long[], LongBinaryOperator)
+     * @since 1.8
+     */
+    default LongStream prefix(LongBinaryOperator op) {
+        return PrefixOps.cumulate(this, false, 0L, op);
+    }
+
+    /**
+     * Returns a stream consisting of the exclusive cumulations of the
+     * elements of this stream, using the provided identity value and
+     * associative accumulation function: the first element is replaced by
+     * the identity, and each other element by the reduction of the elements
+     * before it.  For example, the exclusive cumulations of {@code 2, 1, 0, 3} by
+     * addition, with an identity of {@code 0}, are {@code 0, 2, 3, 3}.  The
+     * identity is not passed to the function.
+     *
+     * <p>For ordered streams, the elements are cumulated in encounter order.
+     * For unordered streams, no guarantees are made as to the order in which
+     * they are cumulated.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * As for {@link #prefix(LongBinaryOperator)}, the cumulations are produced
+     * as the elements are consumed in a sequential pipeline, and the
+     * elements are cumulated in parallel, as they are buffered, in a
+     * parallel pipeline.
+     *
+     * @implSpec
+     * The default implementation cumulates the elements of the {@link
+     * #spliterator() spliterator} of this stream, in sequence.
+     *
+     * @param identity the value that replaces the first element
+     * @param op an <a href="package-summary.html#Associativity">associative</a>,
+     *           <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *           <a href="package-summary.html#Statelessness">stateless</a>
+     *           function for combining two values
+     * @return the new stream
+     * @see java.util.Arrays#parallelExclusivePrefix(long[], long, LongBinaryOperator)
+     * @since 1.8
+     */
+    default LongStream exclusivePrefix(long identity, LongBinaryOperator op) {
+        return PrefixOps.cumulate(this, true, identity, op);
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream, additionally
      * performing the provided action on each element as elements are consumed
@@ -71,6 +71,15 @@ abstract class PipelineHelper<P_OUT> {
      */
     abstract int getStreamAndOpFlags();
 
+    /**
+     * Gets the number of leaf tasks that a parallel evaluation of the
+     * described pipeline aims for when splitting its work.
+     *
+     * @return the target number of leaf tasks, at least 1
+     * @see AbstractTask#suggestTargetSize(long, int)
+     */
+    abstract int getLeafTarget();
+
     /**
      * Returns the exact output size of the portion of the output resulting from
      * applying the pipeline stages described by this {@code PipelineHelper} to
@@ -0,0 +1,511 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.CountedCompleter;
+import java.util.function.DoubleBinaryOperator;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntBinaryOperator;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.LongBinaryOperator;
+import java.util.function.LongConsumer;
+
+/**
+ * Factory methods for transforming primitive streams into streams of the
+ * cumulations, or prefix reductions, of their elements.
+ *
+ * <p>An inclusive cumulation replaces each element by the reduction of the
+ * elements up to and including it; an exclusive one replaces the first
+ * element by an identity, and each other element by the reduction of the
+ * elements before it.  The identity is never passed to the function.
+ *
+ * <p>In a sequential pipeline the cumulations are pushed downstream as the
+ * elements arrive.  In a parallel pipeline the elements are collected into
+ * a tree of leaf arrays, which is not flattened.  Each leaf is cumulated in
+ * place, by {@code Arrays.parallelPrefix}, and keeps the reduction of its
+ * elements; the value carried into each leaf is then found in sequence,
+ * and combined into the elements of the leaves, in parallel.
+ *
+ * @since 1.8
+ */
+final class PrefixOps {
+
+    private PrefixOps() { }
+
+    /** The flags of a prefix operation, which preserves size and order */
+    private static final int FLAGS = StreamOpFlag.NOT_SORTED | StreamOpFlag.NOT_DISTINCT;
+
+    /**
+     * Collects the arrays of the non-empty leaves of a tree of primitive
+     * nodes, in encounter order.
+     */
+    @SuppressWarnings("unchecked")
+    private static <T_ARR> void leaves(Node<?> node, List<T_ARR> leaves) {
+        if (node.getChildCount() == 0) {
+            if (node.count() > 0)
+                leaves.add(((Node.OfPrimitive<?, ?, T_ARR, ?, ?>) node).asPrimitiveArray());
+        }
+        else {
+            for (int i = 0; i < node.getChildCount(); i++)
+                leaves(node.getChild(i), leaves);
+        }
+    }
+
+    /**
+     * Returns a tree of the nodes of leaf arrays in [lo, hi), which is
+     * not empty.
+     */
+    private static <T> Node<T> tree(StreamShape shape, List<Node<T>> leaves,
+                                    int lo, int hi) {
+        if (hi - lo == 1)
+            return leaves.get(lo);
+        int mid = (lo + hi) >>> 1;
+        return Nodes.conc(shape, tree(shape, leaves, lo, mid),
+                          tree(shape, leaves, mid, hi));
+    }
+
+    /**
+     * Runs an action, in parallel, on each leaf index in [0, n).
+     */
+    private static void forEachLeaf(int n, IntConsumer action) {
+        if (n > 0)
+            new LeafTask(null, action, 0, n).invoke();
+    }
+
+    @SuppressWarnings("serial")
+    private static final class LeafTask extends CountedCompleter<Void> {
+        private final IntConsumer action;
+        private final int lo, hi;
+
+        LeafTask(LeafTask parent, IntConsumer action, int lo, int hi) {
+            super(parent);
+            this.action = action;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        public void compute() {
+            int l = lo, h = hi;
+            while (h - l > 1) {
+                int mid = (l + h) >>> 1;
+                addToPendingCount(1);
+                new LeafTask(this, action, mid, h).fork();
+                h = mid;
+            }
+            if (l < h)
+                action.accept(l);
+            propagateCompletion();
+        }
+    }
+
+    /**
+     * Appends a "prefix" operation to the provided stream.
+     *
+     * @param upstream an int stream
+     * @param exclusive whether each element is excluded from its cumulation
+     * @param identity the first element of an exclusive cumulation
+     * @param op the associative function to cumulate elements with
+     */
+    static IntStream makeInt(AbstractPipeline<?, Integer, ?> upstream,
+                             boolean exclusive, int identity,
+                             IntBinaryOperator op) {
+        Objects.requireNonNull(op);
+        return new IntPipeline.StatefulOp<Integer>(upstream, StreamShape.INT_VALUE, FLAGS) {
+            @Override
+            Sink<Integer> opWrapSink(int flags, Sink<Integer> sink) {
+                return new Sink.ChainedInt<Integer>(sink) {
+                    boolean started;
+                    int sum;
+
+                    @Override
+                    public void begin(long size) {
+                        started = false;
+                        downstream.begin(size);
+                    }
+
+                    @Override
+                    public void accept(int t) {
+                        if (!started) {
+                            started = true;
+                            sum = t;
+                            downstream.accept(exclusive ? identity : t);
+                        }
+                        else if (exclusive) {
+                            int s = sum;
+                            sum = op.applyAsInt(sum, t);
+                            downstream.accept(s);
+                        }
+                        else {
+                            downstream.accept(sum = op.applyAsInt(sum, t));
+                        }
+                    }
+                };
+            }
+
+            @Override
+            <P_IN> Node<Integer> opEvaluateParallel(PipelineHelper<Integer> helper,
+                                                    Spliterator<P_IN> spliterator,
+                                                    IntFunction<Integer[]> generator) {
+                Node<Integer> node = helper.evaluate(spliterator, false, generator);
+                List<int[]> leaves = new ArrayList<>();
+                leaves(node, leaves);
+                if (leaves.isEmpty())
+                    return node;
+                int[][] a = leaves.toArray(new int[0][]);
+                int n = a.length;
+
+                // Cumulate each leaf, keeping the reduction of its elements
+                int[] sums = new int[n];
+                forEachLeaf(n, i -> {
+                    int[] x = a[i];
+                    int last = x[x.length - 1];
+                    if (exclusive) {
+                        Arrays.parallelExclusivePrefix(x, identity, op);
+                        sums[i] = (x.length == 1) ? last : op.applyAsInt(x[x.length - 1], last);
+                    }
+                    else {
+                        Arrays.parallelPrefix(x, op);
+                        sums[i] = x[x.length - 1];
+                    }
+                });
+                // Now sums[i] becomes the value carried into leaf i + 1
+                for (int i = 1; i < n - 1; i++)
+                    sums[i] = op.applyAsInt(sums[i - 1], sums[i]);
+                forEachLeaf(n - 1, i -> {
+                    int[] x = a[i + 1];
+                    int s = sums[i];
+                    if (exclusive)
+                        x[0] = s;
+                    for (int j = exclusive ? 1 : 0; j < x.length; j++)
+                        x[j] = op.applyAsInt(s, x[j]);
+                });
+
+                List<Node<Integer>> nodes = new ArrayList<>(n);
+                for (int[] x : a)
+                    nodes.add(Nodes.node(x));
+                return tree(StreamShape.INT_VALUE, nodes, 0, n);
+            }
+        };
+    }
+
+    /**
+     * Returns a stream of the cumulations of the elements of an int stream
+     * that is not a pipeline, traversing its spliterator in sequence.
+     */
+    static IntStream cumulate(IntStream stream, boolean exclusive, int identity,
+                              IntBinaryOperator op) {
+        Objects.requireNonNull(op);
+        Spliterator.OfInt s = stream.spliterator();
+        Spliterator.OfInt cumulations = new Spliterators.AbstractIntSpliterator(
+                s.estimateSize(), s.characteristics() & (Spliterator.ORDERED | Spliterator.SIZED)) {
+            boolean started;
+            int sum;
+
+            @Override
+            public boolean tryAdvance(IntConsumer action) {
+                Objects.requireNonNull(action);
+                return s.tryAdvance((int t) -> {
+                    if (!started) {
+                        started = true;
+                        sum = t;
+                        action.accept(exclusive ? identity : t);
+                    }
+                    else if (exclusive) {
+                        int p = sum;
+                        sum = op.applyAsInt(sum, t);
+                        action.accept(p);
+                    }
+                    else {
+                        action.accept(sum = op.applyAsInt(sum, t));
+                    }
+                });
+            }
+        };
+        return StreamSupport.intStream(cumulations, stream.isParallel())
+                            .onClose(stream::close);
+    }
+
+    /**
+     * Appends a "prefix" operation to the provided stream.
+     *
+     * @param upstream a long stream
+     * @param exclusive whether each element is excluded from its cumulation
+     * @param identity the first element of an exclusive cumulation
+     * @param op the associative function to cumulate elements with
+     */
+    static LongStream makeLong(AbstractPipeline<?, Long, ?> upstream,
+                               boolean exclusive, long identity,
+                               LongBinaryOperator op) {
+        Objects.requireNonNull(op);
+        return new LongPipeline.StatefulOp<Long>(upstream, StreamShape.LONG_VALUE, FLAGS) {
+            @Override
+            Sink<Long> opWrapSink(int flags, Sink<Long> sink) {
+                return new Sink.ChainedLong<Long>(sink) {
+                    boolean started;
+                    long sum;
+
+                    @Override
+                    public void begin(long size) {
+                        started = false;
+                        downstream.begin(size);
+                    }
+
+                    @Override
+                    public void accept(long t) {
+                        if (!started) {
+                            started = true;
+                            sum = t;
+                            downstream.accept(exclusive ? identity : t);
+                        }
+                        else if (exclusive) {
+                            long s = sum;
+                            sum = op.applyAsLong(sum, t);
+                            downstream.accept(s);
+                        }
+                        else {
+                            downstream.accept(sum = op.applyAsLong(sum, t));
+                        }
+                    }
+                };
+            }
+
+            @Override
+            <P_IN> Node<Long> opEvaluateParallel(PipelineHelper<Long> helper,
+                                                 Spliterator<P_IN> spliterator,
+                                                 IntFunction<Long[]> generator) {
+                Node<Long> node = helper.evaluate(spliterator, false, generator);
+                List<long[]> leaves = new ArrayList<>();
+                leaves(node, leaves);
+                if (leaves.isEmpty())
+                    return node;
+                long[][] a = leaves.toArray(new long[0][]);
+                int n = a.length;
+
+                // Cumulate each leaf, keeping the reduction of its elements
+                long[] sums = new long[n];
+                forEachLeaf(n, i -> {
+                    long[] x = a[i];
+                    long last = x[x.length - 1];
+                    if (exclusive) {
+                        Arrays.parallelExclusivePrefix(x, identity, op);
+                        sums[i] = (x.length == 1) ? last : op.applyAsLong(x[x.length - 1], last);
+                    }
+                    else {
+                        Arrays.parallelPrefix(x, op);
+                        sums[i] = x[x.length - 1];
+                    }
+                });
+                // Now sums[i] becomes the value carried into leaf i + 1
+                for (int i = 1; i < n - 1; i++)
+                    sums[i] = op.applyAsLong(sums[i - 1], sums[i]);
+                forEachLeaf(n - 1, i -> {
+                    long[] x = a[i + 1];
+                    long s = sums[i];
+                    if (exclusive)
+                        x[0] = s;
+                    for (int j = exclusive ? 1 : 0; j < x.length; j++)
+                        x[j] = op.applyAsLong(s, x[j]);
+                });
+
+                List<Node<Long>> nodes = new ArrayList<>(n);
+                for (long[] x : a)
+                    nodes.add(Nodes.node(x));
+                return tree(StreamShape.LONG_VALUE, nodes, 0, n);
+            }
+        };
+    }
+
+    /**
+     * Returns a stream of the cumulations of the elements of a long stream
+     * that is not a pipeline, traversing its spliterator in sequence.
+     */
+    static LongStream cumulate(LongStream stream, boolean exclusive, long identity,
+                               LongBinaryOperator op) {
+        Objects.requireNonNull(op);
+        Spliterator.OfLong s = stream.spliterator();
+        Spliterator.OfLong cumulations = new Spliterators.AbstractLongSpliterator(
+                s.estimateSize(), s.characteristics() & (Spliterator.ORDERED | Spliterator.SIZED)) {
+            boolean started;
+            long sum;
+
+            @Override
+            public boolean tryAdvance(LongConsumer action) {
+                Objects.requireNonNull(action);
+                return s.tryAdvance((long t) -> {
+                    if (!started) {
+                        started = true;
+                        sum = t;
+                        action.accept(exclusive ? identity : t);
+                    }
+                    else if (exclusive) {
+                        long p = sum;
+                        sum = op.applyAsLong(sum, t);
+                        action.accept(p);
+                    }
+                    else {
+                        action.accept(sum = op.applyAsLong(sum, t));
+                    }
+                });
+            }
+        };
+        return StreamSupport.longStream(cumulations, stream.isParallel())
+                            .onClose(stream::close);
+    }
+
+    /**
+     * Appends a "prefix" operation to the provided stream.
+     *
+     * @param upstream a double stream
+     * @param exclusive whether each element is excluded from its cumulation
+     * @param identity the first element of an exclusive cumulation
+     * @param op the associative function to cumulate elements with
+     */
+    static DoubleStream makeDouble(AbstractPipeline<?, Double, ?> upstream,
+                                   boolean exclusive, double identity,
+                                   DoubleBinaryOperator op) {
+        Objects.requireNonNull(op);
+        return new DoublePipeline.StatefulOp<Double>(upstream, StreamShape.DOUBLE_VALUE, FLAGS) {
+            @Override
+            Sink<Double> opWrapSink(int flags, Sink<Double> sink) {
+                return new Sink.ChainedDouble<Double>(sink) {
+                    boolean started;
+                    double sum;
+
+                    @Override
+                    public void begin(long size) {
+                        started = false;
+                        downstream.begin(size);
+                    }
+
+                    @Override
+                    public void accept(double t) {
+                        if (!started) {
+                            started = true;
+                            sum = t;
+                            downstream.accept(exclusive ? identity : t);
+                        }
+                        else if (exclusive) {
+                            double s = sum;
+                            sum = op.applyAsDouble(sum, t);
+                            downstream.accept(s);
+                        }
+                        else {
+                            downstream.accept(sum = op.applyAsDouble(sum, t));
+                        }
+                    }
+                };
+            }
+
+            @Override
+            <P_IN> Node<Double> opEvaluateParallel(PipelineHelper<Double> helper,
+                                                   Spliterator<P_IN> spliterator,
+                                                   IntFunction<Double[]> generator) {
+                Node<Double> node = helper.evaluate(spliterator, false, generator);
+                List<double[]> leaves = new ArrayList<>();
+                leaves(node, leaves);
+                if (leaves.isEmpty())
+                    return node;
+                double[][] a = leaves.toArray(new double[0][]);
+                int n = a.length;
+
+                // Cumulate each leaf, keeping the reduction of its elements
+                double[] sums = new double[n];
+                forEachLeaf(n, i -> {
+                    double[] x = a[i];
+                    double last = x[x.length - 1];
+                    if (exclusive) {
+                        Arrays.parallelExclusivePrefix(x, identity, op);
+                        sums[i] = (x.length == 1) ? last : op.applyAsDouble(x[x.length - 1], last);
+                    }
+                    else {
+                        Arrays.parallelPrefix(x, op);
+                        sums[i] = x[x.length - 1];
+                    }
+                });
+                // Now sums[i] becomes the value carried into leaf i + 1
+                for (int i = 1; i < n - 1; i++)
+                    sums[i] = op.applyAsDouble(sums[i - 1], sums[i]);
+                forEachLeaf(n - 1, i -> {
+                    double[] x = a[i + 1];
+                    double s = sums[i];
+                    if (exclusive)
+                        x[0] = s;
+                    for (int j = exclusive ? 1 : 0; j < x.length; j++)
+                        x[j] = op.applyAsDouble(s, x[j]);
+                });
+
+                List<Node<Double>> nodes = new ArrayList<>(n);
+                for (double[] x : a)
+                    nodes.add(Nodes.node(x));
+                return tree(StreamShape.DOUBLE_VALUE, nodes, 0, n);
+            }
+        };
+    }
+
+    /**
+     * Returns a stream of the cumulations of the elements of a double stream
+     * that is not a pipeline, traversing its spliterator in sequence.
+     */
+    static DoubleStream cumulate(DoubleStream stream, boolean exclusive, double identity,
+                                 DoubleBinaryOperator op) {
+        Objects.requireNonNull(op);
+        Spliterator.OfDouble s = stream.spliterator();
+        Spliterator.OfDouble cumulations = new Spliterators.AbstractDoubleSpliterator(
+                s.estimateSize(), s.characteristics() & (Spliterator.ORDERED | Spliterator.SIZED)) {
+            boolean started;
+            double sum;
+
+            @Override
+            public boolean tryAdvance(DoubleConsumer action) {
+                Objects.requireNonNull(action);
+                return s.tryAdvance((double t) -> {
+                    if (!started) {
+                        started = true;
+                        sum = t;
+                        action.accept(exclusive ? identity : t);
+                    }
+                    else if (exclusive) {
+                        double p = sum;
+                        sum = op.applyAsDouble(sum, t);
+                        action.accept(p);
+                    }
+                    else {
+                        action.accept(sum = op.applyAsDouble(sum, t));
+                    }
+                });
+            }
+        };
+        return StreamSupport.doubleStream(cumulations, stream.isParallel())
+                            .onClose(stream::close);
+    }
+}
@@ -176,7 +176,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.FILTER, predicate);
     }
 
     @Override
@@ -194,7 +194,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.MAP, mapper);
     }
 
     @Override
@@ -211,7 +211,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_INT, mapper);
     }
 
     @Override
@@ -228,7 +228,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_LONG, mapper);
     }
 
     @Override
@@ -245,7 +245,7 @@ abstract class ReferencePipeline<P_IN, P_OUT>
                     }
                 };
             }
-        };
+        }.fusible(StreamFusion.TO_DOUBLE, mapper);
     }
 
     @Override
@@ -384,6 +384,13 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         return DistinctOps.makeRef(this);
     }
 
+    @Override
+    public final Stream<P_OUT> distinct(StreamCodec<P_OUT> codec, int maxInMemory) {
+        if (maxInMemory <= 0)
+            throw new IllegalArgumentException(Integer.toString(maxInMemory));
+        return DistinctOps.makeRef(this, codec, maxInMemory);
+    }
+
     @Override
     public final Stream<P_OUT> sorted() {
         return SortedOps.makeRef(this);
@@ -394,6 +401,14 @@ abstract class ReferencePipeline<P_IN, P_OUT>
         return SortedOps.makeRef(this, comparator);
     }
 
+    @Override
+    public final Stream<P_OUT> sorted(Comparator<? super P_OUT> comparator,
+                                      StreamCodec<P_OUT> codec, int maxInMemory) {
+        if (maxInMemory <= 0)
+            throw new IllegalArgumentException(Integer.toString(maxInMemory));
+        return SortedOps.makeRef(this, comparator, codec, maxInMemory);
+    }
+
     @Override
     public final Stream<P_OUT> limit(long maxSize) {
         if (maxSize < 0)
@@ -63,6 +63,23 @@ final class SortedOps {
         return new OfRef<>(upstream, comparator);
     }
 
+    /**
+     * Appends a "sorted" operation to the provided stream, which spills
+     * sorted runs of elements to temporary files once there are more
+     * elements than it may hold in memory.
+     *
+     * @param <T> the type of both input and output elements
+     * @param upstream a reference stream with element type T
+     * @param comparator the comparator to order elements by
+     * @param codec the codec to write elements to files with
+     * @param maxInMemory the most elements to hold in memory
+     */
+    static <T> Stream<T> makeRef(AbstractPipeline<?, T, ?> upstream,
+                                Comparator<? super T> comparator,
+                                StreamCodec<T> codec, int maxInMemory) {
+        return new OfRef<>(upstream, comparator, codec, maxInMemory);
+    }
+
     /**
      * Appends a "sorted" operation to the provided stream.
      *
@@ -103,6 +120,12 @@ final class SortedOps {
         private final boolean isNaturalSort;
         private final Comparator<? super T> comparator;
 
+        /**
+         * Codec used to spill sorted runs, or null to sort in memory
+         */
+        private final StreamCodec<T> codec;
+        private final int maxInMemory;
+
         /**
          * Sort using natural order of {@literal <T>} which must be
          * {@code Comparable}.
@@ -115,6 +138,8 @@ final class SortedOps {
             @SuppressWarnings("unchecked")
             Comparator<? super T> comp = (Comparator<? super T>) Comparator.naturalOrder();
             this.comparator = comp;
+            this.codec = null;
+            this.maxInMemory = 0;
         }
 
         /**
@@ -127,6 +152,26 @@ final class SortedOps {
                   StreamOpFlag.IS_ORDERED | StreamOpFlag.NOT_SORTED);
             this.isNaturalSort = false;
             this.comparator = Objects.requireNonNull(comparator);
+            this.codec = null;
+            this.maxInMemory = 0;
+        }
+
+        /**
+         * Sort using the provided comparator, spilling sorted runs of at
+         * most {@code maxInMemory} elements to temporary files.
+         *
+         * @param comparator The comparator to be used to evaluate ordering.
+         * @param codec The codec to be used to write elements to files.
+         * @param maxInMemory The most elements to hold in memory.
+         */
+        OfRef(AbstractPipeline<?, T, ?> upstream, Comparator<? super T> comparator,
+              StreamCodec<T> codec, int maxInMemory) {
+            super(upstream, StreamShape.REFERENCE,
+                  StreamOpFlag.IS_ORDERED | StreamOpFlag.NOT_SORTED);
+            this.isNaturalSort = false;
+            this.comparator = Objects.requireNonNull(comparator);
+            this.codec = ExternalSorter.nullable(Objects.requireNonNull(codec));
+            this.maxInMemory = maxInMemory;
         }
 
         @Override
@@ -137,6 +182,8 @@ final class SortedOps {
             // also naturally sorted then this is a no-op
             if (StreamOpFlag.SORTED.isKnown(flags) && isNaturalSort)
                 return sink;
+            else if (codec != null)
+                return new SpillingRefSortingSink<>(sink, comparator, codec, maxInMemory);
             else if (StreamOpFlag.SIZED.isKnown(flags))
                 return new SizedRefSortingSink<>(sink, comparator);
             else
@@ -152,6 +199,14 @@ final class SortedOps {
             if (StreamOpFlag.SORTED.isKnown(helper.getStreamAndOpFlags()) && isNaturalSort) {
                 return helper.evaluate(spliterator, false, generator);
             }
+            else if (codec != null) {
+                Spliterator<T> sorted = opEvaluateParallelLazy(helper, spliterator);
+                Node.Builder<T> nb = Nodes.builder(sorted.getExactSizeIfKnown(), generator);
+                nb.begin(sorted.getExactSizeIfKnown());
+                sorted.forEachRemaining(nb);
+                nb.end();
+                return nb.build();
+            }
             else {
                 // @@@ Weak two-pass parallel implementation; parallel collect, parallel sort
                 T[] flattenedData = helper.evaluate(spliterator, true, generator).asArray(generator);
@@ -159,6 +214,25 @@ final class SortedOps {
                 return Nodes.node(flattenedData);
             }
         }
+
+        @Override
+        public <P_IN> Spliterator<T> opEvaluateParallelLazy(PipelineHelper<T> helper,
+                                                           Spliterator<P_IN> spliterator) {
+            if (codec == null)
+                return super.opEvaluateParallelLazy(helper, spliterator);
+
+            // The runs are formed in encounter order, so the upstream
+            // elements are copied in sequence; the sorted elements are
+            // merged lazily, in batches when split
+            ExternalSorter<T> sorter = new ExternalSorter<>(comparator, codec, maxInMemory);
+            try {
+                helper.wrapAndCopyInto(sorter::add, spliterator);
+                return sorter.spliterator();
+            } catch (Throwable t) {
+                sorter.close();
+                throw t;
+            }
+        }
     }
 
     /**
@@ -405,6 +479,53 @@ final class SortedOps {
         }
     }
 
+    /**
+     * {@link Sink} for implementing sort on reference streams, which spills
+     * sorted runs to temporary files once there are more elements than it
+     * may hold in memory.
+     */
+    private static final class SpillingRefSortingSink<T> extends AbstractRefSortingSink<T> {
+        private final StreamCodec<T> codec;
+        private final int maxInMemory;
+        private ExternalSorter<T> sorter;
+
+        SpillingRefSortingSink(Sink<? super T> sink, Comparator<? super T> comparator,
+                               StreamCodec<T> codec, int maxInMemory) {
+            super(sink, comparator);
+            this.codec = codec;
+            this.maxInMemory = maxInMemory;
+        }
+
+        @Override
+        public void begin(long size) {
+            sorter = new ExternalSorter<>(comparator, codec, maxInMemory);
+        }
+
+        @Override
+        public void end() {
+            try {
+                Spliterator<T> sorted = sorter.spliterator();
+                downstream.begin(sorted.getExactSizeIfKnown());
+                if (!cancellationWasRequested) {
+                    sorted.forEachRemaining(downstream::accept);
+                }
+                else {
+                    do { } while (!downstream.cancellationRequested() &&
+                                  sorted.tryAdvance(downstream::accept));
+                }
+                downstream.end();
+            } finally {
+                sorter.close();
+                sorter = null;
+            }
+        }
+
+        @Override
+        public void accept(T t) {
+            sorter.add(t);
+        }
+    }
+
     /**
      * Abstract {@link Sink} for implementing sort on int streams.
      */
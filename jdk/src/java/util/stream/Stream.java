@@ -358,6 +358,47 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     Stream<T> distinct();
 
+    /**
+     * Returns a stream consisting of the distinct elements (according to
+     * {@link Object#equals(Object)}) of this stream, holding at most the
+     * given number of elements in memory at once.
+     *
+     * <p>Up to that number of distinct elements, this operation is like
+     * {@link #distinct()}.  Once there are more, the elements are written to
+     * temporary files with the given codec, and sorted there by hash code so
+     * that elements of equal hash code are compared in memory; the distinct
+     * elements that follow are then produced once all the elements of this
+     * stream have been consumed.  The temporary files are created in the
+     * default temporary-file directory, and deleted once the distinct
+     * elements have been consumed, or the terminal operation completes.  An
+     * {@code IOException} while writing or reading them is thrown as an
+     * {@link java.io.UncheckedIOException}.
+     *
+     * <p>The selection of distinct elements is stable (for duplicated
+     * elements, the element appearing first in the encounter order is
+     * preserved.)
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * In a parallel pipeline, the elements are collected in encounter order,
+     * in one thread.
+     *
+     * @implSpec
+     * The default implementation returns {@link #distinct()}, ignoring the
+     * codec and the number of elements.
+     *
+     * @param codec the codec to write elements to temporary files with
+     * @param maxInMemory the most elements to hold in memory at once
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code maxInMemory} is not positive
+     * @since 1.8
+     */
+    default Stream<T> distinct(StreamCodec<T> codec, int maxInMemory) {
+        return distinct();
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream, sorted
      * according to natural order.  If the elements of this stream are not
@@ -391,6 +432,56 @@ public interface Stream<T> extends BaseStream<T, Stream<T>> {
      */
     Stream<T> sorted(Comparator<? super T> comparator);
 
+    /**
+     * Returns a stream consisting of the elements of this stream, sorted
+     * according to the provided {@code Comparator}, holding at most the
+     * given number of elements in memory at once.
+     *
+     * <p>Once there are more elements than may be held in memory, sorted
+     * runs of elements are written to temporary files with the given codec,
+     * and the runs are merged lazily as the sorted elements are consumed.
+     * The temporary files are created in the default temporary-file
+     * directory, and deleted once the sorted elements have been consumed, or
+     * the terminal operation completes.  An {@code IOException} while writing
+     * or reading them is thrown as an {@link java.io.UncheckedIOException}.
+     *
+     * <p>For ordered streams, the sort is stable.  For unordered streams, no
+     * stability guarantees are made.
+     *
+     * <p>This is a <a href="package-summary.html#StreamOps">stateful
+     * intermediate operation</a>.
+     *
+     * @apiNote
+     * This operation lets a stream with more elements than fit in memory be
+     * sorted, at the cost of writing each element to disk and reading it
+     * back, more than once when there are very many runs:
+     * <pre>{@code
+     *     Stream<String> lines = Files.lines(log)
+     *                                 .sorted(Comparator.naturalOrder(),
+     *                                         StreamCodec.strings(),
+     *                                         10_000_000);
+     * }</pre>
+     * In a parallel pipeline, the elements to sort are collected in
+     * encounter order, in one thread.
+     *
+     * @implSpec
+     * The default implementation returns {@link #sorted(Comparator)},
+     * ignoring the codec and the number of elements.
+     *
+     * @param comparator a <a href="package-summary.html#NonInterference">non-interfering</a>,
+     *                   <a href="package-summary.html#Statelessness">stateless</a>
+     *                   {@code Comparator} to be used to compare stream elements
+     * @param codec the codec to write elements to temporary files with
+     * @param maxInMemory the most elements to hold in memory at once
+     * @return the new stream
+     * @throws IllegalArgumentException if {@code maxInMemory} is not positive
+     * @since 1.8
+     */
+    default Stream<T> sorted(Comparator<? super T> comparator,
+                             StreamCodec<T> codec, int maxInMemory) {
+        return sorted(comparator);
+    }
+
     /**
      * Returns a stream consisting of the elements of this stream, additionally
      * performing the provided action on each element as elements are consumed
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
+
+/**
+ * A codec that writes the elements of a stream to bytes, and reads them
+ * back, so that an operation that cannot hold all the elements of a stream
+ * in memory can hold some of them in temporary files instead; see {@link
+ * Stream#sorted(Comparator, StreamCodec, int)} and {@link
+ * Stream#distinct(StreamCodec, int)}.
+ *
+ * <p>An element read back by a codec must be equal to the element written,
+ * and be ordered as it is by the comparator of the operation.  A codec is
+ * never given a {@code null} element to write; null elements are written
+ * by the operation itself.  The bytes written for an element must be read
+ * back in full by {@link #read(DataInput)}.
+ *
+ * @param <T> the type of the elements
+ * @since 1.8
+ */
+public interface StreamCodec<T> {
+
+    /**
+     * Writes an element.
+     *
+     * @param out the output to write the element to
+     * @param t the element, not {@code null}
+     * @throws IOException if an I/O error occurs
+     */
+    void write(DataOutput out, T t) throws IOException;
+
+    /**
+     * Reads an element written by {@link #write(DataOutput, Object)}.
+     *
+     * @param in the input to read the element from
+     * @return the element
+     * @throws IOException if an I/O error occurs
+     */
+    T read(DataInput in) throws IOException;
+
+    /**
+     * Returns a codec for strings, which writes them in modified UTF-8.
+     *
+     * @return a codec for strings
+     */
+    static StreamCodec<String> strings() {
+        return new StreamCodec<String>() {
+            // The most chars that writeUTF can always write at once
+            private static final int CHUNK = 65535 / 3;
+
+            @Override
+            public void write(DataOutput out, String s) throws IOException {
+                int n = s.length();
+                out.writeInt(n);
+                for (int i = 0; i < n; i += CHUNK)
+                    out.writeUTF(s.substring(i, Math.min(n, i + CHUNK)));
+            }
+
+            @Override
+            public String read(DataInput in) throws IOException {
+                int n = in.readInt();
+                if (n <= CHUNK)
+                    return (n == 0) ? "" : in.readUTF();
+                StringBuilder sb = new StringBuilder(n);
+                while (sb.length() < n)
+                    sb.append(in.readUTF());
+                return sb.toString();
+            }
+        };
+    }
+
+    /**
+     * Returns a codec for {@code Integer} values.
+     *
+     * @return a codec for {@code Integer} values
+     */
+    static StreamCodec<Integer> integers() {
+        return new StreamCodec<Integer>() {
+            @Override
+            public void write(DataOutput out, Integer i) throws IOException {
+                out.writeInt(i);
+            }
+
+            @Override
+            public Integer read(DataInput in) throws IOException {
+                return in.readInt();
+            }
+        };
+    }
+
+    /**
+     * Returns a codec for {@code Long} values.
+     *
+     * @return a codec for {@code Long} values
+     */
+    static StreamCodec<Long> longs() {
+        return new StreamCodec<Long>() {
+            @Override
+            public void write(DataOutput out, Long l) throws IOException {
+                out.writeLong(l);
+            }
+
+            @Override
+            public Long read(DataInput in) throws IOException {
+                return in.readLong();
+            }
+        };
+    }
+
+    /**
+     * Returns a codec for {@code Double} values, which writes their raw
+     * bits so that every value, including each NaN, is read back as it was
+     * written.
+     *
+     * @return a codec for {@code Double} values
+     */
+    static StreamCodec<Double> doubles() {
+        return new StreamCodec<Double>() {
+            @Override
+            public void write(DataOutput out, Double d) throws IOException {
+                out.writeLong(Double.doubleToRawLongBits(d));
+            }
+
+            @Override
+            public Double read(DataInput in) throws IOException {
+                return Double.longBitsToDouble(in.readLong());
+            }
+        };
+    }
+}
@@ -0,0 +1,457 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+package java.util.stream;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.security.AccessController;
+import java.security.PrivilegedAction;
+import java.util.Spliterator;
+import java.util.concurrent.ConcurrentHashMap;
+import jdk.internal.org.objectweb.asm.ClassWriter;
+import jdk.internal.org.objectweb.asm.Label;
+import jdk.internal.org.objectweb.asm.MethodVisitor;
+import jdk.internal.org.objectweb.asm.Type;
+import sun.misc.Unsafe;
+
+import static jdk.internal.org.objectweb.asm.Opcodes.*;
+
+/**
+ * Fuses the stateless operations of a pipeline into a single loop over the
+ * array of an array-backed source.
+ *
+ * <p>A pipeline evaluated by {@link AbstractPipeline#wrapAndCopyInto}
+ * normally pushes each element through a chain of {@code Sink}s, one for
+ * each operation, whose {@code accept} calls are megamorphic as soon as a
+ * few pipelines run.  If every operation of the pipeline is a {@code map},
+ * {@code filter}, or conversion to another shape ({@code mapToObj},
+ * {@code asLongStream}, and so on), if the pipeline does not short-circuit,
+ * and if the source spliterator is one of those that {@link
+ * java.util.Spliterators} returns for arrays, the elements are instead
+ * read from the array by a loop that applies each function in turn and
+ * passes the result to the terminal sink.  The loop is generated, as
+ * bytecode, once for each <em>shape</em> of pipeline: the shape of its
+ * source and the kind of each operation.  Each shape thus has its own call
+ * sites, which see only the functions of pipelines of that shape, much as
+ * each {@code LambdaForm} shape has its own compiled form.
+ *
+ * <p>Fusion is enabled by setting the system property {@code
+ * java.util.stream.fusion} to {@code true}.  The elements, their order,
+ * the calls of the functions, and the calls of the terminal sink's
+ * {@code begin}, {@code accept} and {@code end} methods are the same as
+ * without fusion.
+ *
+ * @since 1.8
+ */
+final class StreamFusion {
+    private static final String FUSION_PROPERTY = "java.util.stream.fusion";
+
+    /** Is fusion enabled? */
+    static final boolean ENABLED = AccessController.doPrivileged(
+            (PrivilegedAction<Boolean>) () -> Boolean.getBoolean(FUSION_PROPERTY));
+
+    // The kinds of fusible operations
+    static final int MAP = 1;
+    static final int FILTER = 2;
+    static final int TO_INT = 3;       // with a null function, a widening cast
+    static final int TO_LONG = 4;
+    static final int TO_DOUBLE = 5;
+    static final int TO_REF = 6;
+
+    /** Pipelines with more operations are not fused */
+    static final int MAX_OPS = 8;
+
+    /** No more shapes are generated once this many are cached */
+    private static final int MAX_SHAPES = 256;
+
+    private static final Unsafe UNSAFE = Unsafe.getUnsafe();
+
+    // The classes and fields of the array spliterators, by StreamShape ordinal
+    private static final Class<?>[] SPLITERATORS = new Class<?>[4];
+    private static final long[] ARRAY = new long[4];
+    private static final long[] INDEX = new long[4];
+    private static final long[] FENCE = new long[4];
+
+    static {
+        String[] names = new String[4];
+        names[StreamShape.REFERENCE.ordinal()] = "ArraySpliterator";
+        names[StreamShape.INT_VALUE.ordinal()] = "IntArraySpliterator";
+        names[StreamShape.LONG_VALUE.ordinal()] = "LongArraySpliterator";
+        names[StreamShape.DOUBLE_VALUE.ordinal()] = "DoubleArraySpliterator";
+        try {
+            for (int i = 0; i < names.length; i++) {
+                Class<?> k = Class.forName("java.util.Spliterators$" + names[i]);
+                SPLITERATORS[i] = k;
+                ARRAY[i] = UNSAFE.objectFieldOffset(k.getDeclaredField("array"));
+                INDEX[i] = UNSAFE.objectFieldOffset(k.getDeclaredField("index"));
+                FENCE[i] = UNSAFE.objectFieldOffset(k.getDeclaredField("fence"));
+            }
+        } catch (Exception e) {
+            throw new Error(e);
+        }
+    }
+
+    /**
+     * A generated loop, which reads the elements from index {@code from} to
+     * {@code to} of an array, applies the functions to each, and passes the
+     * results to a sink.
+     */
+    abstract static class Loop {
+        abstract void run(Object array, int from, int to,
+                          Object[] functions, Sink<?> sink);
+    }
+
+    /** Cached for a shape that could not be generated */
+    private static final Loop FAILED = new Loop() {
+        void run(Object array, int from, int to, Object[] functions, Sink<?> sink) {
+            throw new InternalError();
+        }
+    };
+
+    /** The loops generated, by the key of their shape */
+    private static final ConcurrentHashMap<String, Loop> loops =
+        new ConcurrentHashMap<>();
+
+    private StreamFusion() { }
+
+    /**
+     * Returns true if the spliterator is one that a fused loop can read.
+     */
+    static boolean isArraySpliterator(Spliterator<?> spliterator) {
+        Class<?> c = spliterator.getClass();
+        for (Class<?> k : SPLITERATORS) {
+            if (c == k)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Pushes the elements of the given array spliterator through the given
+     * operations into the terminal sink, by the fused loop of their shape.
+     *
+     * @param sourceShape the shape of the elements of the spliterator
+     * @param kinds the kinds of the operations, in order
+     * @param functions the functions of the operations, in order
+     * @param sink the terminal sink
+     * @param spliterator an array spliterator, for which {@link
+     *        #isArraySpliterator} returns true
+     * @return true if the elements were pushed, or false if the loop
+     *         could not be generated and nothing was done
+     */
+    static boolean copyInto(StreamShape sourceShape, int[] kinds,
+                            Object[] functions, Sink<?> sink,
+                            Spliterator<?> spliterator) {
+        int s = sourceShape.ordinal();
+        if (spliterator.getClass() != SPLITERATORS[s])
+            return false;
+        String key = key(sourceShape, kinds, functions);
+        Loop loop = loops.get(key);
+        if (loop == null) {
+            if (loops.size() >= MAX_SHAPES)
+                return false;
+            loop = generate(sourceShape, kinds, functions);
+            Loop l = loops.putIfAbsent(key, loop);
+            if (l != null)
+                loop = l;
+        }
+        if (loop == FAILED)
+            return false;
+
+        // As the spliterator's forEachRemaining does
+        Object a = UNSAFE.getObject(spliterator, ARRAY[s]);
+        int i = UNSAFE.getInt(spliterator, INDEX[s]);
+        int hi = UNSAFE.getInt(spliterator, FENCE[s]);
+        boolean filtered = false;
+        for (int kind : kinds)
+            filtered |= (kind == FILTER);
+        sink.begin(filtered ? -1 : Math.max(hi - i, 0));
+        if (length(a) >= hi && i >= 0 && i < hi) {
+            UNSAFE.putInt(spliterator, INDEX[s], hi);
+            loop.run(a, i, hi, functions, sink);
+        }
+        sink.end();
+        return true;
+    }
+
+    private static int length(Object array) {
+        if (array instanceof int[])
+            return ((int[]) array).length;
+        else if (array instanceof long[])
+            return ((long[]) array).length;
+        else if (array instanceof double[])
+            return ((double[]) array).length;
+        else
+            return ((Object[]) array).length;
+    }
+
+    /**
+     * Returns the key of a shape: the shape of the source, then the kind
+     * of each operation, and whether it has a function.
+     */
+    private static String key(StreamShape sourceShape, int[] kinds,
+                              Object[] functions) {
+        char[] key = new char[1 + kinds.length];
+        key[0] = (char) ('0' + sourceShape.ordinal());
+        for (int k = 0; k < kinds.length; k++)
+            key[k + 1] = (char) ((functions[k] == null ? 'a' : 'A') + kinds[k]);
+        return new String(key);
+    }
+
+    /**
+     * Generates the loop of a shape, or returns {@link #FAILED}.
+     */
+    private static Loop generate(StreamShape sourceShape, int[] kinds,
+                                 Object[] functions) {
+        try {
+            byte[] bytes = new LoopGenerator(sourceShape, kinds, functions)
+                .generate();
+            Class<?> c = UNSAFE.defineAnonymousClass(StreamFusion.class,
+                                                     bytes, null);
+            UNSAFE.ensureClassInitialized(c);       // verify it now
+            return (Loop) MethodHandles.publicLookup()
+                .findConstructor(c, MethodType.methodType(void.class))
+                .invoke();
+        } catch (LinkageError e) {
+            return FAILED;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable t) {
+            return FAILED;
+        }
+    }
+
+    /**
+     * Generates the bytecode of the loop of a shape.  The element is kept
+     * in a local of its shape, and each operation calls its function, cast
+     * to the interface of its kind and input shape, on that local.
+     */
+    private static final class LoopGenerator {
+        private static final String LOOP = Type.getInternalName(Loop.class);
+        private static final String SINK = Type.getInternalName(Sink.class);
+        private static final String RUN_DESC =
+            "(Ljava/lang/Object;II[Ljava/lang/Object;L" + SINK + ";)V";
+
+        // The locals of run
+        private static final int ARRAY_ARG = 1, INDEX_ARG = 2, FENCE_ARG = 3,
+            FUNCTIONS_ARG = 4, SINK_ARG = 5, ARRAY_LOCAL = 6, FIRST_FUNCTION = 7;
+
+        private final StreamShape sourceShape;
+        private final int[] kinds;
+        private final Object[] functions;
+
+        // The locals of the element of each shape, by StreamShape ordinal
+        private final int[] valueLocals = new int[4];
+
+        LoopGenerator(StreamShape sourceShape, int[] kinds, Object[] functions) {
+            this.sourceShape = sourceShape;
+            this.kinds = kinds;
+            this.functions = functions;
+            int local = FIRST_FUNCTION + kinds.length;
+            valueLocals[StreamShape.REFERENCE.ordinal()] = local;
+            valueLocals[StreamShape.INT_VALUE.ordinal()] = local + 1;
+            valueLocals[StreamShape.LONG_VALUE.ordinal()] = local + 2;
+            valueLocals[StreamShape.DOUBLE_VALUE.ordinal()] = local + 4;
+        }
+
+        byte[] generate() {
+            String className = LOOP + "$$Fused";
+            ClassWriter cw = new ClassWriter(ClassWriter.COMPUTE_MAXS |
+                                             ClassWriter.COMPUTE_FRAMES);
+            cw.visit(V1_8, ACC_PUBLIC + ACC_SUPER + ACC_FINAL + ACC_SYNTHETIC,
+                     className, null, LOOP, null);
+
+            MethodVisitor mv = cw.visitMethod(ACC_PUBLIC, "<init>", "()V",
+                                              null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, 0);
+            mv.visitMethodInsn(INVOKESPECIAL, LOOP, "<init>", "()V", false);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+
+            mv = cw.visitMethod(0, "run", RUN_DESC, null, null);
+            mv.visitCode();
+            mv.visitVarInsn(ALOAD, ARRAY_ARG);
+            mv.visitTypeInsn(CHECKCAST, arrayType(sourceShape));
+            mv.visitVarInsn(ASTORE, ARRAY_LOCAL);
+
+            // Load each function into a local, cast to its interface
+            StreamShape shape = sourceShape;
+            for (int k = 0; k < kinds.length; k++) {
+                if (functions[k] != null) {
+                    mv.visitVarInsn(ALOAD, FUNCTIONS_ARG);
+                    mv.visitLdcInsn(k);
+                    mv.visitInsn(AALOAD);
+                    mv.visitTypeInsn(CHECKCAST, functionType(shape, kinds[k]));
+                    mv.visitVarInsn(ASTORE, FIRST_FUNCTION + k);
+                }
+                shape = outputShape(shape, kinds[k]);
+            }
+
+            Label loop = new Label(), next = new Label(), done = new Label();
+            mv.visitLabel(loop);
+            mv.visitVarInsn(ILOAD, INDEX_ARG);
+            mv.visitVarInsn(ILOAD, FENCE_ARG);
+            mv.visitJumpInsn(IF_ICMPGE, done);
+
+            mv.visitVarInsn(ALOAD, ARRAY_LOCAL);
+            mv.visitVarInsn(ILOAD, INDEX_ARG);
+            mv.visitInsn(opcode(sourceShape, IALOAD, LALOAD, DALOAD, AALOAD));
+            store(mv, sourceShape);
+
+            shape = sourceShape;
+            for (int k = 0; k < kinds.length; k++) {
+                StreamShape out = outputShape(shape, kinds[k]);
+                if (functions[k] == null) {
+                    // A widening conversion of a primitive
+                    load(mv, shape);
+                    mv.visitInsn(shape == StreamShape.INT_VALUE
+                                 ? (out == StreamShape.LONG_VALUE ? I2L : I2D)
+                                 : L2D);
+                    store(mv, out);
+                } else {
+                    mv.visitVarInsn(ALOAD, FIRST_FUNCTION + k);
+                    load(mv, shape);
+                    String desc = "(" + descriptor(shape) + ")" +
+                        (kinds[k] == FILTER ? "Z" : descriptor(out));
+                    mv.visitMethodInsn(INVOKEINTERFACE,
+                                       functionType(shape, kinds[k]),
+                                       methodName(shape, kinds[k]), desc, true);
+                    if (kinds[k] == FILTER)
+                        mv.visitJumpInsn(IFEQ, next);
+                    else
+                        store(mv, out);
+                }
+                shape = out;
+            }
+
+            mv.visitVarInsn(ALOAD, SINK_ARG);
+            load(mv, shape);
+            mv.visitMethodInsn(INVOKEINTERFACE, SINK, "accept",
+                               "(" + descriptor(shape) + ")V", true);
+
+            mv.visitLabel(next);
+            mv.visitIincInsn(INDEX_ARG, 1);
+            mv.visitJumpInsn(GOTO, loop);
+            mv.visitLabel(done);
+            mv.visitInsn(RETURN);
+            mv.visitMaxs(0, 0);
+            mv.visitEnd();
+
+            cw.visitEnd();
+            return cw.toByteArray();
+        }
+
+        private void load(MethodVisitor mv, StreamShape shape) {
+            mv.visitVarInsn(opcode(shape, ILOAD, LLOAD, DLOAD, ALOAD),
+                            valueLocals[shape.ordinal()]);
+        }
+
+        private void store(MethodVisitor mv, StreamShape shape) {
+            mv.visitVarInsn(opcode(shape, ISTORE, LSTORE, DSTORE, ASTORE),
+                            valueLocals[shape.ordinal()]);
+        }
+
+        private static int opcode(StreamShape shape,
+                                  int ofInt, int ofLong, int ofDouble, int ofRef) {
+            switch (shape) {
+                case INT_VALUE: return ofInt;
+                case LONG_VALUE: return ofLong;
+                case DOUBLE_VALUE: return ofDouble;
+                default: return ofRef;
+            }
+        }
+
+        private static String descriptor(StreamShape shape) {
+            switch (shape) {
+                case INT_VALUE: return "I";
+                case LONG_VALUE: return "J";
+                case DOUBLE_VALUE: return "D";
+                default: return "Ljava/lang/Object;";
+            }
+        }
+
+        private static String arrayType(StreamShape shape) {
+            return shape == StreamShape.REFERENCE
+                   ? "[Ljava/lang/Object;" : "[" + descriptor(shape);
+        }
+
+        private static StreamShape outputShape(StreamShape shape, int kind) {
+            switch (kind) {
+                case TO_INT: return StreamShape.INT_VALUE;
+                case TO_LONG: return StreamShape.LONG_VALUE;
+                case TO_DOUBLE: return StreamShape.DOUBLE_VALUE;
+                case TO_REF: return StreamShape.REFERENCE;
+                default: return shape;
+            }
+        }
+
+        /** Returns the prefix of the function interfaces of an input shape */
+        private static String prefix(StreamShape shape) {
+            switch (shape) {
+                case INT_VALUE: return "Int";
+                case LONG_VALUE: return "Long";
+                case DOUBLE_VALUE: return "Double";
+                default: return "";
+            }
+        }
+
+        /** Returns the name of the result type in function interface names */
+        private static String result(int kind) {
+            switch (kind) {
+                case TO_INT: return "Int";
+                case TO_LONG: return "Long";
+                default: return "Double";
+            }
+        }
+
+        private static String functionType(StreamShape shape, int kind) {
+            String name;
+            if (kind == MAP)
+                name = shape == StreamShape.REFERENCE
+                       ? "Function" : prefix(shape) + "UnaryOperator";
+            else if (kind == FILTER)
+                name = prefix(shape) + "Predicate";
+            else if (kind == TO_REF)
+                name = prefix(shape) + "Function";
+            else if (shape == StreamShape.REFERENCE)
+                name = "To" + result(kind) + "Function";
+            else
+                name = prefix(shape) + "To" + result(kind) + "Function";
+            return "java/util/function/" + name;
+        }
+
+        private static String methodName(StreamShape shape, int kind) {
+            switch (kind) {
+                case FILTER: return "test";
+                case TO_REF: return "apply";
+                case MAP: return shape == StreamShape.REFERENCE
+                                 ? "apply" : "applyAs" + prefix(shape);
+                default: return "applyAs" + result(kind);
+            }
+        }
+    }
+}
@@ -131,6 +131,59 @@ class CRC32 implements Checksum {
         return (long)crc & 0xffffffffL;
     }
 
+    /*
+     * Returns the CRC-32 of the concatenation of two sequences, given the
+     * CRC-32 of each and the length of the second, as zlib's
+     * crc32_combine() does: the first CRC is advanced over len2 zero bytes
+     * by repeated squaring of the GF(2) matrix for one zero bit.
+     */
+    static int combine(int crc1, int crc2, long len2) {
+        if (len2 <= 0)
+            return crc1;
+        int[] even = new int[32];      // even-power-of-two zeros operator
+        int[] odd = new int[32];       // odd-power-of-two zeros operator
+
+        // put operator for one zero bit in odd
+        odd[0] = 0xedb88320;           // CRC-32 polynomial
+        int row = 1;
+        for (int n = 1; n < 32; n++) {
+            odd[n] = row;
+            row <<= 1;
+        }
+        gf2MatrixSquare(even, odd);    // operator for two zero bits
+        gf2MatrixSquare(odd, even);    // operator for four zero bits
+
+        // apply len2 zeros to crc1 (first square will put the operator for
+        // one zero byte, eight zero bits, in even)
+        do {
+            gf2MatrixSquare(even, odd);
+            if ((len2 & 1) != 0)
+                crc1 = gf2MatrixTimes(even, crc1);
+            len2 >>>= 1;
+            if (len2 == 0)
+                break;
+            gf2MatrixSquare(odd, even);
+            if ((len2 & 1) != 0)
+                crc1 = gf2MatrixTimes(odd, crc1);
+            len2 >>>= 1;
+        } while (len2 != 0);
+        return crc1 ^ crc2;
+    }
+
+    private static int gf2MatrixTimes(int[] mat, int vec) {
+        int sum = 0;
+        for (int i = 0; vec != 0; i++, vec >>>= 1) {
+            if ((vec & 1) != 0)
+                sum ^= mat[i];
+        }
+        return sum;
+    }
+
+    private static void gf2MatrixSquare(int[] square, int[] mat) {
+        for (int n = 0; n < 32; n++)
+            square[n] = gf2MatrixTimes(mat, mat[n]);
+    }
+
     private native static int update(int crc, int b);
     private native static int updateBytes(int crc, byte[] b, int off, int len);
 
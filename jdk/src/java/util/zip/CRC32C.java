@@ -0,0 +1,272 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import sun.misc.Unsafe;
+import sun.nio.ch.DirectBuffer;
+
+/**
+ * A class that can be used to compute the CRC-32C of a data stream.
+ *
+ * <p> CRC-32C is defined in RFC 3720 and uses the Castagnoli polynomial
+ * {@code 0x1EDC6F41}, which detects more error patterns than the polynomial
+ * of {@link CRC32}.  The checksum is computed sixteen bytes at a time using
+ * the slicing-by-16 table method.  Byte buffers are read in place, whether
+ * direct, array-backed or read-only, without being copied.
+ *
+ * <p> Passing a {@code null} argument to a method in this class will cause
+ * a {@link NullPointerException} to be thrown.
+ *
+ * @see         Checksum
+ * @since       1.8
+ */
+public final class CRC32C implements Checksum {
+
+    /*
+     * The reflected Castagnoli polynomial.
+     */
+    private static final int POLY = 0x82F63B78;
+
+    /*
+     * Slicing tables, stored consecutively.  Table k maps a byte to the
+     * CRC of that byte followed by k zero bytes, so that sixteen table
+     * lookups, one for each byte of two little-endian words, advance the
+     * CRC by sixteen bytes; tables 0 to 7 alone advance it by eight.
+     * Table 0 is the usual byte-at-a-time table.  The 16 KB of tables
+     * still fit in a typical L1 data cache.
+     */
+    private static final int[] TABLE = new int[16 * 256];
+
+    static {
+        for (int i = 0; i < 256; i++) {
+            int r = i;
+            for (int k = 0; k < 8; k++)
+                r = (r & 1) != 0 ? (r >>> 1) ^ POLY : r >>> 1;
+            TABLE[i] = r;
+        }
+        for (int i = 0; i < 256; i++) {
+            int r = TABLE[i];
+            for (int k = 1; k < 16; k++) {
+                r = (r >>> 8) ^ TABLE[r & 0xFF];
+                TABLE[k * 256 + i] = r;
+            }
+        }
+    }
+
+    /*
+     * The CRC is kept inverted, as the algorithm requires; getValue()
+     * inverts it again.
+     */
+    private int crc = 0xFFFFFFFF;
+
+    /**
+     * Creates a new CRC32C object.
+     */
+    public CRC32C() {
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified byte (the low
+     * eight bits of the argument b).
+     *
+     * @param b the byte to update the checksum with
+     */
+    public void update(int b) {
+        crc = (crc >>> 8) ^ TABLE[(crc ^ b) & 0xFF];
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified array of bytes.
+     *
+     * @throws  ArrayIndexOutOfBoundsException
+     *          if {@code off} is negative, or {@code len} is negative,
+     *          or {@code off+len} is greater than the length of the
+     *          array {@code b}
+     */
+    public void update(byte[] b, int off, int len) {
+        if (b == null) {
+            throw new NullPointerException();
+        }
+        if (off < 0 || len < 0 || off > b.length - len) {
+            throw new ArrayIndexOutOfBoundsException();
+        }
+        crc = update(crc, b, BYTE_ARRAY_OFFSET + off, len);
+    }
+
+    /**
+     * Updates the CRC-32C checksum with the specified array of bytes.
+     *
+     * @param b the array of bytes to update the checksum with
+     */
+    public void update(byte[] b) {
+        crc = update(crc, b, BYTE_ARRAY_OFFSET, b.length);
+    }
+
+    /**
+     * Updates the checksum with the bytes from the specified buffer.
+     *
+     * The checksum is updated using
+     * buffer.{@link java.nio.Buffer#remaining() remaining()}
+     * bytes starting at
+     * buffer.{@link java.nio.Buffer#position() position()}
+     * Upon return, the buffer's position will
+     * be updated to its limit; its limit will not have been changed.
+     *
+     * @param buffer the ByteBuffer to update the checksum with
+     */
+    public void update(ByteBuffer buffer) {
+        int pos = buffer.position();
+        int limit = buffer.limit();
+        assert (pos <= limit);
+        int rem = limit - pos;
+        if (rem <= 0)
+            return;
+        if (buffer instanceof DirectBuffer) {
+            crc = update(crc, null, ((DirectBuffer)buffer).address() + pos, rem);
+        } else if (buffer.hasArray()) {
+            crc = update(crc, buffer.array(),
+                         BYTE_ARRAY_OFFSET + buffer.arrayOffset() + pos, rem);
+        } else {
+            crc = updateBuffer(crc, buffer, pos, limit);
+        }
+        buffer.position(limit);
+    }
+
+    /**
+     * Resets CRC-32C to initial value.
+     */
+    public void reset() {
+        crc = 0xFFFFFFFF;
+    }
+
+    /**
+     * Returns CRC-32C value.
+     */
+    public long getValue() {
+        return (~crc) & 0xFFFFFFFFL;
+    }
+
+    /*
+     * Updates crc with len bytes at the given offset from base, which is
+     * either a byte array or, for off-heap memory, null.
+     */
+    private static int update(int crc, Object base, long off, int len) {
+        long end = off + len;
+        if (len >= 16) {
+            // Align, so that words are read with aligned loads.
+            for (long a = (off + 7) & ~7L; off < a; off++)
+                crc = (crc >>> 8) ^ TABLE[(crc ^ U.getByte(base, off)) & 0xFF];
+            for (long a = end - 15; off < a; off += 16)
+                crc = update16(crc, U.getLong(base, off),
+                               U.getLong(base, off + 8), BIG_ENDIAN);
+            if (end - off >= 8) {
+                crc = update8(crc, U.getLong(base, off), BIG_ENDIAN);
+                off += 8;
+            }
+        }
+        for (; off < end; off++)
+            crc = (crc >>> 8) ^ TABLE[(crc ^ U.getByte(base, off)) & 0xFF];
+        return crc;
+    }
+
+    /*
+     * Updates crc with the bytes of a buffer that is neither direct nor
+     * backed by an accessible array, reading it with absolute gets.
+     */
+    private static int updateBuffer(int crc, ByteBuffer buffer, int pos,
+                                    int limit) {
+        boolean swap = buffer.order() == ByteOrder.BIG_ENDIAN;
+        for (int a = limit - 15; pos < a; pos += 16)
+            crc = update16(crc, buffer.getLong(pos), buffer.getLong(pos + 8),
+                           swap);
+        if (limit - pos >= 8) {
+            crc = update8(crc, buffer.getLong(pos), swap);
+            pos += 8;
+        }
+        for (; pos < limit; pos++)
+            crc = (crc >>> 8) ^ TABLE[(crc ^ buffer.get(pos)) & 0xFF];
+        return crc;
+    }
+
+    /*
+     * Advances crc by eight bytes, given as a word in little-endian order,
+     * or in big-endian order if swap is true.
+     */
+    private static int update8(int crc, long word, boolean swap) {
+        if (swap)
+            word = Long.reverseBytes(word);
+        int lo = crc ^ (int) word;
+        int hi = (int) (word >>> 32);
+        final int[] t = TABLE;
+        return t[7 * 256 + (lo & 0xFF)] ^
+               t[6 * 256 + ((lo >>> 8) & 0xFF)] ^
+               t[5 * 256 + ((lo >>> 16) & 0xFF)] ^
+               t[4 * 256 + (lo >>> 24)] ^
+               t[3 * 256 + (hi & 0xFF)] ^
+               t[2 * 256 + ((hi >>> 8) & 0xFF)] ^
+               t[1 * 256 + ((hi >>> 16) & 0xFF)] ^
+               t[hi >>> 24];
+    }
+
+    /*
+     * Advances crc by sixteen bytes, given as two words as for update8.
+     */
+    private static int update16(int crc, long w0, long w1, boolean swap) {
+        if (swap) {
+            w0 = Long.reverseBytes(w0);
+            w1 = Long.reverseBytes(w1);
+        }
+        int a = crc ^ (int) w0;
+        int b = (int) (w0 >>> 32);
+        int c = (int) w1;
+        int d = (int) (w1 >>> 32);
+        final int[] t = TABLE;
+        return t[15 * 256 + (a & 0xFF)] ^
+               t[14 * 256 + ((a >>> 8) & 0xFF)] ^
+               t[13 * 256 + ((a >>> 16) & 0xFF)] ^
+               t[12 * 256 + (a >>> 24)] ^
+               t[11 * 256 + (b & 0xFF)] ^
+               t[10 * 256 + ((b >>> 8) & 0xFF)] ^
+               t[9 * 256 + ((b >>> 16) & 0xFF)] ^
+               t[8 * 256 + (b >>> 24)] ^
+               t[7 * 256 + (c & 0xFF)] ^
+               t[6 * 256 + ((c >>> 8) & 0xFF)] ^
+               t[5 * 256 + ((c >>> 16) & 0xFF)] ^
+               t[4 * 256 + (c >>> 24)] ^
+               t[3 * 256 + (d & 0xFF)] ^
+               t[2 * 256 + ((d >>> 8) & 0xFF)] ^
+               t[1 * 256 + ((d >>> 16) & 0xFF)] ^
+               t[d >>> 24];
+    }
+
+    private static final Unsafe U = Unsafe.getUnsafe();
+    private static final long BYTE_ARRAY_OFFSET =
+        U.arrayBaseOffset(byte[].class);
+    private static final boolean BIG_ENDIAN =
+        ByteOrder.nativeOrder() == ByteOrder.BIG_ENDIAN;
+}
@@ -0,0 +1,527 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class implements a stream filter for reading compressed data in
+ * the GZIP file format, decompressing the members of a multi-member file
+ * on several threads.
+ *
+ * <p>A member can only be decompressed apart from the members before it
+ * if its end can be found without decompressing it.  Members whose extra
+ * field records the compressed size of the member, in the {@code BC}
+ * subfield used by the BGZF format, are read whole and decompressed
+ * concurrently by tasks in a {@link ForkJoinPool}, each verifying its own
+ * CRC-32 and size.  Other members are decompressed in turn by the reading
+ * thread, as by {@link GZIPInputStream}.  Either way the data is returned
+ * in order.
+ *
+ * <p>As with {@code GZIPInputStream}, anything after the last member that
+ * is not a valid member header is ignored.
+ *
+ * @see GZIPInputStream
+ * @see ParallelGZIPOutputStream
+ * @since 1.8
+ */
+public class ParallelGZIPInputStream extends InputStream {
+
+    /*
+     * GZIP header magic number.
+     */
+    private final static int GZIP_MAGIC = 0x8b1f;
+
+    /*
+     * File header flags.
+     */
+    private final static int FHCRC      = 2;    // Header CRC
+    private final static int FEXTRA     = 4;    // Extra field
+    private final static int FNAME      = 8;    // File name
+    private final static int FCOMMENT   = 16;   // File comment
+
+    /*
+     * Trailer size in bytes.
+     */
+    private final static int TRAILER_SIZE = 8;
+
+    private final InputStream in;
+    private final ForkJoinPool pool;
+    private final int maxPending;
+
+    /** Members being decompressed by tasks, in order. */
+    private final ArrayDeque<Member> pending = new ArrayDeque<>();
+
+    /** Idle decompressors, shared by the member tasks. */
+    private final ConcurrentLinkedQueue<Inflater> inflaters =
+        new ConcurrentLinkedQueue<>();
+
+    private final byte[] buf = new byte[64 * 1024];    // input buffer
+    private int pos;
+    private int lim;
+
+    private byte[] out;             // decompressed data of a member task
+    private int outPos;
+    private int outLim;
+
+    /*
+     * The decompressor of the member being read in turn, which has been
+     * given the input buffer from pos to lim.
+     */
+    private final Inflater inf = new Inflater(true);
+    private final CRC32 crc = new CRC32();
+    private boolean inflating;
+
+    private final CRC32 headerCrc = new CRC32();
+
+    private boolean first = true;   // no member header read yet
+    private boolean inputDone;      // no more members in the input
+    private boolean closed;
+
+    private byte[] singleByteBuf = new byte[1];
+
+    /**
+     * Creates a new input stream, decompressing in the
+     * {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @param in the input stream
+     *
+     * @exception ZipException if a GZIP format error has occurred or the
+     *                         compression method used is unsupported
+     * @exception IOException if an I/O error has occurred
+     */
+    public ParallelGZIPInputStream(InputStream in) throws IOException {
+        this(in, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new input stream, decompressing in the given pool.
+     *
+     * @param in the input stream
+     * @param pool the pool in which members are decompressed
+     *
+     * @exception ZipException if a GZIP format error has occurred or the
+     *                         compression method used is unsupported
+     * @exception IOException if an I/O error has occurred
+     */
+    public ParallelGZIPInputStream(InputStream in, ForkJoinPool pool)
+        throws IOException
+    {
+        if (in == null || pool == null) {
+            throw new NullPointerException();
+        }
+        this.in = in;
+        this.pool = pool;
+        this.maxPending = Math.max(2, pool.getParallelism() * 2);
+        try {
+            readAhead();
+        } catch (IOException | RuntimeException e) {
+            inf.end();
+            throw e;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Reads a byte of uncompressed data.  This method will block until
+     * enough input is available for decompression.
+     *
+     * @return the byte read, or -1 if end of compressed input is reached
+     * @exception IOException if an I/O error has occurred
+     */
+    public int read() throws IOException {
+        return read(singleByteBuf, 0, 1) == -1 ? -1 : singleByteBuf[0] & 0xff;
+    }
+
+    /**
+     * Reads uncompressed data into an array of bytes. If <code>len</code> is not
+     * zero, the method will block until some input can be decompressed; otherwise,
+     * no bytes are read and <code>0</code> is returned.
+     * @param b the buffer into which the data is read
+     * @param off the start offset in the destination array <code>b</code>
+     * @param len the maximum number of bytes read
+     * @return  the actual number of bytes read, or -1 if the end of the
+     *          compressed input stream is reached
+     *
+     * @exception  NullPointerException If <code>b</code> is <code>null</code>.
+     * @exception  IndexOutOfBoundsException If <code>off</code> is negative,
+     * <code>len</code> is negative, or <code>len</code> is greater than
+     * <code>b.length - off</code>
+     * @exception ZipException if the compressed input data is corrupt.
+     * @exception IOException if an I/O error has occurred.
+     */
+    public int read(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if (b == null) {
+            throw new NullPointerException();
+        } else if (off < 0 || len < 0 || len > b.length - off) {
+            throw new IndexOutOfBoundsException();
+        } else if (len == 0) {
+            return 0;
+        }
+        for (;;) {
+            if (outPos < outLim) {
+                int n = Math.min(len, outLim - outPos);
+                System.arraycopy(out, outPos, b, off, n);
+                outPos += n;
+                return n;
+            } else if (!pending.isEmpty()) {
+                readAhead();
+                Member m = pending.poll();
+                m.join();
+                if (m.error != null)
+                    throw m.error;
+                out = m.out;
+                outPos = 0;
+                outLim = m.count;
+            } else if (inflating) {
+                int n = inflate(b, off, len);
+                if (n > 0)
+                    return n;
+            } else {
+                readAhead();
+                if (pending.isEmpty() && !inflating)
+                    return -1;
+            }
+        }
+    }
+
+    /**
+     * Returns 0 after EOF has been reached, otherwise always return 1.
+     * <p>
+     * Programs should not count on this method to return the actual number
+     * of bytes that could be read without blocking.
+     *
+     * @return     1 before EOF and 0 after EOF.
+     * @exception  IOException  if an I/O error occurs.
+     */
+    public int available() throws IOException {
+        ensureOpen();
+        if (outPos < outLim)
+            return outLim - outPos;
+        return (pending.isEmpty() && !inflating && inputDone) ? 0 : 1;
+    }
+
+    /**
+     * Closes this input stream and releases any system resources associated
+     * with the stream.
+     * @exception IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            closed = true;
+            for (Member m; (m = pending.poll()) != null; )
+                m.quietlyJoin();
+            for (Inflater i; (i = inflaters.poll()) != null; )
+                i.end();
+            inf.end();
+            out = null;
+            in.close();
+        }
+    }
+
+    /*
+     * Reads member headers, submitting a task for each member that can be
+     * decompressed independently, until enough are pending or a member
+     * must be decompressed in turn.
+     */
+    private void readAhead() throws IOException {
+        while (!inflating && !inputDone && pending.size() < maxPending)
+            readMember();
+    }
+
+    /*
+     * Reads the next member header, and either reads the rest of the member
+     * and submits it, or starts decompressing it in turn.
+     */
+    private void readMember() throws IOException {
+        if (!first && pos == lim && !fill()) {
+            inputDone = true;
+            return;
+        }
+        long csize;
+        try {
+            csize = readHeader();
+        } catch (IOException e) {
+            if (first)
+                throw e;
+            inputDone = true;               // ignore any malformed, like
+            return;                         // GZIPInputStream does
+        } finally {
+            first = false;
+        }
+        if (csize < 0) {
+            inf.reset();
+            inf.setInput(buf, pos, lim - pos);
+            crc.reset();
+            inflating = true;
+        } else {
+            byte[] data = new byte[(int)csize];
+            int n = Math.min(lim - pos, data.length);
+            System.arraycopy(buf, pos, data, 0, n);
+            pos += n;
+            while (n < data.length) {
+                int r = in.read(data, n, data.length - n);
+                if (r == -1)
+                    throw new EOFException("Unexpected end of ZLIB input stream");
+                n += r;
+            }
+            Member m = new Member(data);
+            pending.add(m);
+            pool.execute(m);
+        }
+    }
+
+    /*
+     * Decompresses data of the member being read in turn, checking its
+     * trailer once it is complete.  Returns the number of bytes
+     * decompressed, which is 0 only if more input was read or the member
+     * has ended.
+     */
+    private int inflate(byte[] b, int off, int len) throws IOException {
+        int n;
+        try {
+            n = inf.inflate(b, off, len);
+        } catch (DataFormatException e) {
+            String s = e.getMessage();
+            throw new ZipException(s != null ? s : "Invalid ZLIB data format");
+        }
+        if (n > 0) {
+            crc.update(b, off, n);
+        } else if (inf.finished()) {
+            pos = lim - inf.getRemaining();
+            // rfc1952; ISIZE is the input size modulo 2^32
+            if (readUInt() != crc.getValue() ||
+                readUInt() != (inf.getBytesWritten() & 0xffffffffL))
+                throw new ZipException("Corrupt GZIP trailer");
+            inflating = false;
+        } else if (inf.needsDictionary()) {
+            throw new ZipException("Invalid ZLIB data format");
+        } else if (inf.needsInput()) {
+            if (!fill())
+                throw new EOFException("Unexpected end of ZLIB input stream");
+            inf.setInput(buf, pos, lim - pos);
+        }
+        return n;
+    }
+
+    /*
+     * Reads GZIP member header.  Returns the number of bytes in the rest
+     * of the member, including its trailer, if the header records it, or
+     * -1 if not.
+     */
+    private long readHeader() throws IOException {
+        headerCrc.reset();
+        // Check header magic
+        if (readUShort() != GZIP_MAGIC) {
+            throw new ZipException("Not in GZIP format");
+        }
+        // Check compression method
+        if (readUByte() != 8) {
+            throw new ZipException("Unsupported compression method");
+        }
+        // Read flags
+        int flg = readUByte();
+        // Skip MTIME, XFL, and OS fields
+        for (int i = 0; i < 6; i++)
+            readUByte();
+        int n = 2 + 2 + 6;
+        int bsize = -1;
+        // Read optional extra field, looking for a BC subfield
+        if ((flg & FEXTRA) == FEXTRA) {
+            int m = readUShort();
+            n += m + 2;
+            while (m >= 4) {
+                int si1 = readUByte();
+                int si2 = readUByte();
+                int slen = readUShort();
+                m -= 4;
+                if (slen > m)
+                    throw new ZipException("Corrupt GZIP header");
+                if (si1 == 'B' && si2 == 'C' && slen == 2) {
+                    bsize = readUShort();
+                } else {
+                    for (int i = 0; i < slen; i++)
+                        readUByte();
+                }
+                m -= slen;
+            }
+            while (m-- > 0)
+                readUByte();
+        }
+        // Skip optional file name
+        if ((flg & FNAME) == FNAME) {
+            do {
+                n++;
+            } while (readUByte() != 0);
+        }
+        // Skip optional file comment
+        if ((flg & FCOMMENT) == FCOMMENT) {
+            do {
+                n++;
+            } while (readUByte() != 0);
+        }
+        // Check optional header CRC
+        if ((flg & FHCRC) == FHCRC) {
+            int v = (int)headerCrc.getValue() & 0xffff;
+            if (readUShort() != v) {
+                throw new ZipException("Corrupt GZIP header");
+            }
+            n += 2;
+        }
+        if (bsize < 0)
+            return -1;
+        // BSIZE is the member size less one
+        long rest = bsize + 1L - n;
+        if (rest < TRAILER_SIZE)
+            throw new ZipException("Corrupt GZIP header");
+        return rest;
+    }
+
+    /*
+     * Reads unsigned integer in Intel byte order.
+     */
+    private long readUInt() throws IOException {
+        long s = readUShort();
+        return ((long)readUShort() << 16) | s;
+    }
+
+    /*
+     * Reads unsigned short in Intel byte order.
+     */
+    private int readUShort() throws IOException {
+        int b = readUByte();
+        return (readUByte() << 8) | b;
+    }
+
+    /*
+     * Reads unsigned byte from the input buffer, adding it to the CRC-32
+     * for the header check.
+     */
+    private int readUByte() throws IOException {
+        if (pos == lim && !fill())
+            throw new EOFException();
+        int b = buf[pos++] & 0xff;
+        headerCrc.update(b);
+        return b;
+    }
+
+    /*
+     * Refills the input buffer, once it has been consumed.  Returns false
+     * at the end of the input.
+     */
+    private boolean fill() throws IOException {
+        int n = in.read(buf, 0, buf.length);
+        if (n == -1)
+            return false;
+        pos = 0;
+        lim = n;
+        return true;
+    }
+
+    /*
+     * Decompresses one member read whole, from its compressed data to the
+     * end of its trailer, and checks its CRC-32 and size.
+     */
+    @SuppressWarnings("serial") // Not statically typed as Serializable
+    private final class Member extends RecursiveAction {
+        final byte[] data;
+        byte[] out;
+        int count;
+        IOException error;
+
+        Member(byte[] data) {
+            this.data = data;
+        }
+
+        protected void compute() {
+            int clen = data.length - TRAILER_SIZE;
+            long crc = readInt(data, clen) & 0xffffffffL;
+            long isize = readInt(data, clen + 4) & 0xffffffffL;
+
+            Inflater inf = inflaters.poll();
+            if (inf == null)
+                inf = new Inflater(true);
+            try {
+                inf.setInput(data, 0, clen);
+                out = new byte[(int)Math.min(isize, 1 << 20)];
+                while (!inf.finished()) {
+                    if (count == out.length) {
+                        if (out.length == Integer.MAX_VALUE - 8)
+                            throw new ZipException("Member too large");
+                        out = Arrays.copyOf(out, (int)Math.min(
+                            Math.max(out.length * 2L, 64), Integer.MAX_VALUE - 8));
+                    }
+                    int n = inf.inflate(out, count, out.length - count);
+                    count += n;
+                    if (n == 0 && !inf.finished()) {
+                        if (inf.needsInput() || inf.needsDictionary())
+                            throw new ZipException("Invalid ZLIB data format");
+                    }
+                }
+                CRC32 c = new CRC32();
+                c.update(out, 0, count);
+                if (inf.getRemaining() != 0 ||
+                    c.getValue() != crc ||
+                    (count & 0xffffffffL) != isize)
+                    throw new ZipException("Corrupt GZIP trailer");
+                inf.reset();
+                inflaters.add(inf);
+            } catch (DataFormatException e) {
+                inf.end();
+                String s = e.getMessage();
+                error = new ZipException(s != null ? s : "Invalid ZLIB data format");
+            } catch (IOException e) {
+                inf.end();
+                error = e;
+            } catch (RuntimeException | Error e) {
+                inf.end();
+                throw e;
+            }
+        }
+    }
+
+    /*
+     * Reads integer in Intel byte order from a byte array, starting at a
+     * given offset.
+     */
+    private static int readInt(byte[] b, int off) {
+        return (b[off] & 0xff) | (b[off + 1] & 0xff) << 8 |
+               (b[off + 2] & 0xff) << 16 | (b[off + 3] & 0xff) << 24;
+    }
+}
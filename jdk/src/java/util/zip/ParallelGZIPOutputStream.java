@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * This class implements a stream filter for writing compressed data in
+ * the GZIP file format, compressing on several threads.
+ *
+ * <p>The data written is divided into blocks of a fixed size, which are
+ * compressed concurrently by tasks in a {@link ForkJoinPool}.  Each block
+ * is compressed with the last 32K bytes of the preceding block as its
+ * preset dictionary, and all but the last end with a
+ * {@link Deflater#SYNC_FLUSH sync flush}, so that the compressed blocks
+ * concatenate into a single deflate stream.  The output is one standard
+ * GZIP member, readable by {@link GZIPInputStream}, and compresses only
+ * slightly less well than the output of {@link GZIPOutputStream}.  The
+ * CRC-32 of each block is computed by its task, and the CRC-32 of the
+ * member is combined from them.
+ *
+ * <p>A bounded number of blocks are compressed at once; when the limit is
+ * reached, writing waits for the oldest block to complete.  Compressed
+ * blocks are written to the underlying stream in order, by the thread
+ * writing to this stream.
+ *
+ * @see GZIPOutputStream
+ * @since 1.8
+ */
+public class ParallelGZIPOutputStream extends FilterOutputStream {
+
+    /*
+     * GZIP header magic number.
+     */
+    private final static int GZIP_MAGIC = 0x8b1f;
+
+    /*
+     * Trailer size in bytes.
+     */
+    private final static int TRAILER_SIZE = 8;
+
+    /*
+     * The size of the deflate window, and so of the useful dictionary.
+     */
+    private final static int DICT_SIZE = 32 * 1024;
+
+    private final static int DEFAULT_BLOCK_SIZE = 128 * 1024;
+
+    private final ForkJoinPool pool;
+    private final int level;
+    private final int blockSize;
+    private final int maxPending;
+
+    /** Blocks submitted, in order, whose output is not yet written. */
+    private final ArrayDeque<Block> pending = new ArrayDeque<>();
+
+    /** Idle compressors, shared by the block tasks. */
+    private final ConcurrentLinkedQueue<Deflater> deflaters =
+        new ConcurrentLinkedQueue<>();
+
+    private byte[] buf;             // the block being filled
+    private int count;
+    private byte[] prev;            // the preceding block, for its dictionary
+    private int prevCount;
+
+    private int crc;                // CRC-32 of the data written out so far
+    private long totalIn;
+
+    private boolean started;
+    private boolean finished;
+    private boolean closed;
+
+    /**
+     * Creates a new output stream with a default block size, compressing
+     * in the {@linkplain ForkJoinPool#commonPool() common pool}.
+     *
+     * @param out the output stream
+     * @exception IOException If an I/O error has occurred.
+     */
+    public ParallelGZIPOutputStream(OutputStream out) throws IOException {
+        this(out, DEFAULT_BLOCK_SIZE, Deflater.DEFAULT_COMPRESSION,
+             ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Creates a new output stream with the specified block size and
+     * compression level, compressing in the given pool.
+     *
+     * @param out the output stream
+     * @param blockSize the number of uncompressed bytes in each block
+     * @param level the compression level (0-9), or
+     *        {@link Deflater#DEFAULT_COMPRESSION}
+     * @param pool the pool in which blocks are compressed
+     * @exception IOException If an I/O error has occurred.
+     * @exception IllegalArgumentException if {@code blockSize} is less
+     *            than 32K, or the level is invalid
+     */
+    public ParallelGZIPOutputStream(OutputStream out, int blockSize,
+                                    int level, ForkJoinPool pool)
+        throws IOException
+    {
+        super(out);
+        if (out == null || pool == null) {
+            throw new NullPointerException();
+        } else if (blockSize < DICT_SIZE) {
+            throw new IllegalArgumentException("block size < 32K");
+        } else if ((level < 0 || level > 9) &&
+                   level != Deflater.DEFAULT_COMPRESSION) {
+            throw new IllegalArgumentException("invalid compression level");
+        }
+        this.pool = pool;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.maxPending = Math.max(2, pool.getParallelism() * 2);
+        this.buf = new byte[blockSize];
+    }
+
+    /**
+     * Writes a byte to the compressed output stream.
+     *
+     * @param b the byte to be written
+     * @exception IOException if an I/O error has occurred
+     */
+    public void write(int b) throws IOException {
+        byte[] buf = new byte[1];
+        buf[0] = (byte)(b & 0xff);
+        write(buf, 0, 1);
+    }
+
+    /**
+     * Writes an array of bytes to the compressed output stream.  This
+     * method will block until all the bytes are accepted, which may
+     * require waiting for earlier blocks to be compressed.
+     *
+     * @param b the data to be written
+     * @param off the start offset of the data
+     * @param len the length of the data
+     * @exception IOException If an I/O error has occurred.
+     */
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        if ((off | len | (off + len) | (b.length - (off + len))) < 0) {
+            throw new IndexOutOfBoundsException();
+        }
+        while (len > 0) {
+            int n = Math.min(len, blockSize - count);
+            System.arraycopy(b, off, buf, count, n);
+            count += n;
+            off += n;
+            len -= n;
+            if (count == blockSize)
+                submit(false);
+        }
+    }
+
+    /**
+     * Compresses the data written so far as a block, waits for all blocks
+     * to be written, and flushes the output stream.  The data written so
+     * far can then be decompressed in full.  Flushing often reduces both
+     * the compression and the parallelism.
+     *
+     * @exception IOException If an I/O error has occurred.
+     */
+    public void flush() throws IOException {
+        ensureOpen();
+        if (count > 0)
+            submit(false);
+        while (!pending.isEmpty())
+            writeBlock();
+        out.flush();
+    }
+
+    /**
+     * Finishes writing compressed data to the output stream without
+     * closing the underlying stream.  Use this method when applying
+     * multiple filters in succession to the same output stream.
+     *
+     * @exception IOException if an I/O error has occurred
+     */
+    public void finish() throws IOException {
+        ensureOpen();
+        if (finished)
+            return;
+        finished = true;
+        submit(true);
+        while (!pending.isEmpty())
+            writeBlock();
+        byte[] trailer = new byte[TRAILER_SIZE];
+        writeInt(crc, trailer, 0);                  // CRC-32 of uncompr. data
+        writeInt((int)totalIn, trailer, 4);         // Number of uncompr. bytes
+        out.write(trailer);
+    }
+
+    /**
+     * Writes remaining compressed data to the output stream and closes the
+     * underlying stream.
+     *
+     * @exception IOException if an I/O error has occurred
+     */
+    public void close() throws IOException {
+        if (!closed) {
+            try {
+                finish();
+            } finally {
+                closed = true;
+                // Let any failed or abandoned blocks complete before the
+                // compressors are released.
+                for (Block blk; (blk = pending.poll()) != null; )
+                    blk.quietlyJoin();
+                for (Deflater def; (def = deflaters.poll()) != null; )
+                    def.end();
+                out.close();
+            }
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (closed)
+            throw new IOException("Stream closed");
+    }
+
+    /*
+     * Submits the current buffer as a block, then writes completed blocks
+     * while too many are pending.
+     */
+    private void submit(boolean last) throws IOException {
+        if (!started) {
+            writeHeader();
+            started = true;
+        }
+        Block blk = new Block(buf, count, prev, prevCount, last);
+        pending.add(blk);
+        pool.execute(blk);
+        prev = buf;
+        prevCount = count;
+        buf = last ? null : new byte[blockSize];
+        count = 0;
+        while (pending.size() > maxPending)
+            writeBlock();
+    }
+
+    /*
+     * Waits for the oldest pending block and writes its output.
+     */
+    private void writeBlock() throws IOException {
+        Block blk = pending.peek();
+        blk.join();
+        pending.poll();
+        out.write(blk.out, 0, blk.outCount);
+        crc = CRC32.combine(crc, blk.crc, blk.count);
+        totalIn += blk.count;
+    }
+
+    /*
+     * Writes GZIP member header.
+     */
+    private void writeHeader() throws IOException {
+        out.write(new byte[] {
+                      (byte) GZIP_MAGIC,        // Magic number (short)
+                      (byte)(GZIP_MAGIC >> 8),  // Magic number (short)
+                      Deflater.DEFLATED,        // Compression method (CM)
+                      0,                        // Flags (FLG)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Modification time MTIME (int)
+                      0,                        // Extra flags (XFLG)
+                      0                         // Operating system (OS)
+                  });
+    }
+
+    /*
+     * Writes integer in Intel byte order to a byte array, starting at a
+     * given offset.
+     */
+    private static void writeInt(int i, byte[] buf, int offset) {
+        buf[offset] = (byte)i;
+        buf[offset + 1] = (byte)(i >> 8);
+        buf[offset + 2] = (byte)(i >> 16);
+        buf[offset + 3] = (byte)(i >> 24);
+    }
+
+    /*
+     * Compresses one block, and computes its CRC-32.
+     */
+    @SuppressWarnings("serial") // Not statically typed as Serializable
+    private final class Block extends RecursiveAction {
+        final byte[] in;
+        final int count;
+        final byte[] dict;          // preceding block, or null
+        final int dictCount;
+        final boolean last;
+        byte[] out;
+        int outCount;
+        int crc;
+
+        Block(byte[] in, int count, byte[] dict, int dictCount, boolean last) {
+            this.in = in;
+            this.count = count;
+            this.dict = dict;
+            this.dictCount = dictCount;
+            this.last = last;
+        }
+
+        protected void compute() {
+            CRC32 c = new CRC32();
+            c.update(in, 0, count);
+            crc = (int)c.getValue();
+
+            Deflater def = deflaters.poll();
+            if (def == null)
+                def = new Deflater(level, true);
+            try {
+                if (dict != null) {
+                    int n = Math.min(dictCount, DICT_SIZE);
+                    def.setDictionary(dict, dictCount - n, n);
+                }
+                def.setInput(in, 0, count);
+                // Stored blocks cost 5 bytes per 64K, plus the flush marker
+                // or final block.
+                out = new byte[count + (count >>> 12) + 64];
+                if (last) {
+                    def.finish();
+                    while (!def.finished())
+                        deflate(def, Deflater.NO_FLUSH);
+                } else {
+                    // Output is complete once space is left over.
+                    while (deflate(def, Deflater.SYNC_FLUSH))
+                        ;
+                }
+                def.reset();
+                deflaters.add(def);
+            } catch (RuntimeException | Error e) {
+                def.end();
+                throw e;
+            }
+        }
+
+        // Deflates into the output, growing it first if full.  Returns
+        // true if the output space was filled.
+        private boolean deflate(Deflater def, int flush) {
+            if (outCount == out.length)
+                out = Arrays.copyOf(out, out.length * 2);
+            int avail = out.length - outCount;
+            int n = def.deflate(out, outCount, avail, flush);
+            outCount += n;
+            return n == avail;
+        }
+    }
+}
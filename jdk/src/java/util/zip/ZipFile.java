@@ -30,6 +30,7 @@ import java.io.InputStream;
 import java.io.IOException;
 import java.io.EOFException;
 import java.io.File;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayDeque;
@@ -44,6 +45,7 @@ import java.util.Spliterators;
 import java.util.WeakHashMap;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import sun.misc.IOUtils;
 
 import static java.util.zip.ZipConstants64.*;
 
@@ -62,6 +64,8 @@ class ZipFile implements ZipConstants, Closeable {
     private final String name;     // zip file name
     private final int total;       // total number of entries
     private final boolean locsig;  // if zip file starts with LOCSIG (usually true)
+    private final ZipFileMap map;  // if opened with OPEN_MAPPED, else null
+    private File deleteOnClose;    // if mapped and OPEN_DELETE not yet done
     private volatile boolean closeRequested = false;
 
     private static final int STORED = ZipEntry.STORED;
@@ -81,6 +85,22 @@ class ZipFile implements ZipConstants, Closeable {
      */
     public static final int OPEN_DELETE = 0x4;
 
+    /**
+     * Mode flag to open a zip file with its contents memory-mapped.  The
+     * central directory is mapped and indexed when the file is opened, so
+     * that entries are looked up without locking the <tt>ZipFile</tt>.
+     * Input streams for entries that are stored without compression read
+     * directly from the mapped file, and {@link #getByteBuffer getByteBuffer}
+     * returns such entries without copying them.  Entries of 2GB or more
+     * of compressed data cannot be read in this mode.
+     *
+     * <p>As with any mapped file, the virtual machine may fail if the file
+     * is modified while it is open.
+     *
+     * @since 1.8
+     */
+    public static final int OPEN_MAPPED = 0x8;
+
     static {
         /* Zip library is loaded from System.initializeSystemClass */
         initIDs();
@@ -174,7 +194,8 @@ class ZipFile implements ZipConstants, Closeable {
     /**
      * Opens a new <code>ZipFile</code> to read from the specified
      * <code>File</code> object in the specified mode.  The mode argument
-     * must be either <tt>OPEN_READ</tt> or <tt>OPEN_READ | OPEN_DELETE</tt>.
+     * must be <tt>OPEN_READ</tt>, optionally combined with <tt>OPEN_DELETE</tt>
+     * and <tt>OPEN_MAPPED</tt>.
      *
      * <p>First, if there is a security manager, its <code>checkRead</code>
      * method is called with the <code>name</code> argument as its argument to
@@ -206,7 +227,7 @@ class ZipFile implements ZipConstants, Closeable {
     public ZipFile(File file, int mode, Charset charset) throws IOException
     {
         if (((mode & OPEN_READ) == 0) ||
-            ((mode & ~(OPEN_READ | OPEN_DELETE)) != 0)) {
+            ((mode & ~(OPEN_READ | OPEN_DELETE | OPEN_MAPPED)) != 0)) {
             throw new IllegalArgumentException("Illegal mode: 0x"+
                                                Integer.toHexString(mode));
         }
@@ -222,12 +243,25 @@ class ZipFile implements ZipConstants, Closeable {
             throw new NullPointerException("charset is null");
         this.zc = ZipCoder.get(charset);
         long t0 = System.nanoTime();
-        jzfile = open(name, mode, file.lastModified(), usemmap);
+        if ((mode & OPEN_MAPPED) != 0) {
+            map = new ZipFileMap(file, zc);
+            // The mapping keeps the contents, as an open descriptor does.
+            if ((mode & OPEN_DELETE) != 0 && !file.delete())
+                deleteOnClose = file;
+        } else {
+            map = null;
+            jzfile = open(name, mode, file.lastModified(), usemmap);
+        }
         sun.misc.PerfCounter.getZipFileOpenTime().addElapsedTimeFrom(t0);
         sun.misc.PerfCounter.getZipFileCount().increment();
         this.name = name;
-        this.total = getTotal(jzfile);
-        this.locsig = startsWithLOC(jzfile);
+        if (map != null) {
+            this.total = map.total();
+            this.locsig = map.startsWithLOC();
+        } else {
+            this.total = getTotal(jzfile);
+            this.locsig = startsWithLOC(jzfile);
+        }
     }
 
     /**
@@ -291,7 +325,8 @@ class ZipFile implements ZipConstants, Closeable {
     public String getComment() {
         synchronized (this) {
             ensureOpen();
-            byte[] bcomm = getCommentBytes(jzfile);
+            byte[] bcomm = map != null ? map.getComment()
+                                       : getCommentBytes(jzfile);
             if (bcomm == null)
                 return null;
             return zc.toString(bcomm, bcomm.length);
@@ -310,6 +345,14 @@ class ZipFile implements ZipConstants, Closeable {
         if (name == null) {
             throw new NullPointerException("name");
         }
+        if (map != null) {
+            // The index is immutable, so needs no lock.
+            ensureOpen();
+            int pos = map.getEntryPos(zc.getBytes(name), true);
+            if (pos == -1)
+                return null;
+            return map.getEntry(pos, ensuretrailingslash ? null : name);
+        }
         long jzentry = 0;
         synchronized (this) {
             ensureOpen();
@@ -360,6 +403,9 @@ class ZipFile implements ZipConstants, Closeable {
         if (entry == null) {
             throw new NullPointerException("entry");
         }
+        if (map != null) {
+            return getMappedInputStream(entry);
+        }
         long jzentry = 0;
         ZipFileInputStream in = null;
         synchronized (this) {
@@ -387,7 +433,8 @@ class ZipFile implements ZipConstants, Closeable {
                 if (size <= 0) size = 4096;
                 Inflater inf = getInflater();
                 InputStream is =
-                    new ZipFileInflaterInputStream(in, inf, (int)size);
+                    new ZipFileInflaterInputStream(in, in.size(), inf,
+                                                   (int)size);
                 synchronized (streams) {
                     streams.put(is, inf);
                 }
@@ -398,15 +445,110 @@ class ZipFile implements ZipConstants, Closeable {
         }
     }
 
+    /*
+     * Returns the position of an entry of a mapped zip file, or -1.
+     */
+    private int getMappedEntryPos(ZipEntry entry) {
+        if (!zc.isUTF8() && (entry.flag & EFS) != 0) {
+            return map.getEntryPos(zc.getBytesUTF8(entry.name), false);
+        } else {
+            return map.getEntryPos(zc.getBytes(entry.name), false);
+        }
+    }
+
+    /*
+     * Returns an input stream for an entry of a mapped zip file, or null
+     * if there is no such entry.
+     */
+    private InputStream getMappedInputStream(ZipEntry entry)
+        throws IOException
+    {
+        ensureOpen();
+        int pos = getMappedEntryPos(entry);
+        if (pos == -1) {
+            return null;
+        }
+        ZipFileBufferInputStream in =
+            new ZipFileBufferInputStream(map.getEntryData(pos));
+        switch (map.getMethod(pos)) {
+        case STORED:
+            synchronized (streams) {
+                streams.put(in, null);
+            }
+            return in;
+        case DEFLATED:
+            long entrySize = map.getSize(pos);
+            long size = entrySize + 2; // Inflater likes a bit of slack
+            if (size > 65536) size = 8192;
+            if (size <= 0) size = 4096;
+            Inflater inf = getInflater();
+            InputStream is =
+                new ZipFileInflaterInputStream(in, entrySize, inf, (int)size);
+            synchronized (streams) {
+                streams.put(is, inf);
+            }
+            return is;
+        default:
+            throw new ZipException("invalid compression method");
+        }
+    }
+
+    /**
+     * Returns the contents of the specified zip file entry as a read-only
+     * byte buffer, positioned at zero.
+     *
+     * <p> If this zip file was opened with {@link #OPEN_MAPPED} and the entry
+     * is stored without compression, the buffer is a view of the mapped
+     * file, and remains valid after this zip file is closed.  Otherwise the
+     * entry is read, and if need be decompressed, into a new buffer.
+     *
+     * @param entry the zip file entry
+     * @return the contents of the entry, or null if there is no such entry
+     * @throws ZipException if a ZIP format error has occurred
+     * @throws IOException if an I/O error has occurred
+     * @throws OutOfMemoryError if the entry is too large to be read into
+     *         a buffer
+     * @throws IllegalStateException if the zip file has been closed
+     * @since 1.8
+     */
+    public ByteBuffer getByteBuffer(ZipEntry entry) throws IOException {
+        if (entry == null) {
+            throw new NullPointerException("entry");
+        }
+        long size = entry.getSize();
+        if (map != null) {
+            ensureOpen();
+            int pos = getMappedEntryPos(entry);
+            if (pos == -1) {
+                return null;
+            }
+            size = map.getSize(pos);
+            if (map.getMethod(pos) == STORED) {
+                if (size != map.getCSize(pos))
+                    throw new ZipException("invalid STORED entry size");
+                return map.getEntryData(pos);
+            }
+        }
+        try (InputStream in = getInputStream(entry)) {
+            if (in == null) {
+                return null;
+            }
+            if (size > Integer.MAX_VALUE)
+                throw new OutOfMemoryError("Required array size too large");
+            byte[] b = IOUtils.readFully(in, (int)size, true);
+            return ByteBuffer.wrap(b).asReadOnlyBuffer();
+        }
+    }
+
     private class ZipFileInflaterInputStream extends InflaterInputStream {
         private volatile boolean closeRequested = false;
         private boolean eof = false;
-        private final ZipFileInputStream zfin;
+        private final long size;
 
-        ZipFileInflaterInputStream(ZipFileInputStream zfin, Inflater inf,
-                int size) {
-            super(zfin, inf, size);
-            this.zfin = zfin;
+        ZipFileInflaterInputStream(InputStream in, long size, Inflater inf,
+                int bufSize) {
+            super(in, inf, bufSize);
+            this.size = size;
         }
 
         public void close() throws IOException {
@@ -443,7 +585,7 @@ class ZipFile implements ZipConstants, Closeable {
         public int available() throws IOException {
             if (closeRequested)
                 return 0;
-            long avail = zfin.size() - inf.getBytesWritten();
+            long avail = size - inf.getBytesWritten();
             return (avail > (long) Integer.MAX_VALUE ?
                     Integer.MAX_VALUE : (int) avail);
         }
@@ -520,6 +662,9 @@ class ZipFile implements ZipConstants, Closeable {
                 if (i >= total) {
                     throw new NoSuchElementException();
                 }
+                if (map != null) {
+                    return map.getEntry(map.getEntryPosAt(i++), null);
+                }
                 long jzentry = getNextEntry(jzfile, i++);
                 if (jzentry == 0) {
                     String message;
@@ -658,6 +803,13 @@ class ZipFile implements ZipConstants, Closeable {
 
                 close(zf);
             }
+            if (map != null) {
+                map.close();
+                if (deleteOnClose != null) {
+                    deleteOnClose.delete();
+                    deleteOnClose = null;
+                }
+            }
         }
     }
 
@@ -686,7 +838,7 @@ class ZipFile implements ZipConstants, Closeable {
             throw new IllegalStateException("zip file closed");
         }
 
-        if (jzfile == 0) {
+        if (jzfile == 0 && map == null) {
             throw new IllegalStateException("The object is not initialized.");
         }
     }
@@ -794,6 +946,78 @@ class ZipFile implements ZipConstants, Closeable {
         }
     }
 
+    /*
+     * Inner class implementing the input stream used to read the
+     * (possibly compressed) data of an entry of a mapped zip file.
+     */
+    private class ZipFileBufferInputStream extends InputStream {
+        private volatile boolean zfisCloseRequested = false;
+        private final ByteBuffer bb;    // the remaining entry data
+
+        ZipFileBufferInputStream(ByteBuffer bb) {
+            this.bb = bb;
+        }
+
+        public int read(byte b[], int off, int len) throws IOException {
+            ensureOpenOrZipException();
+            int rem = bb.remaining();
+            if (rem == 0) {
+                return -1;
+            }
+            if (len <= 0) {
+                return 0;
+            }
+            if (len > rem) {
+                len = rem;
+            }
+            bb.get(b, off, len);
+            if (len == rem) {
+                close();
+            }
+            return len;
+        }
+
+        public int read() throws IOException {
+            ensureOpenOrZipException();
+            if (!bb.hasRemaining()) {
+                return -1;
+            }
+            int b = bb.get() & 0xff;
+            if (!bb.hasRemaining()) {
+                close();
+            }
+            return b;
+        }
+
+        public long skip(long n) {
+            int rem = bb.remaining();
+            if (n > rem)
+                n = rem;
+            if (n <= 0)
+                return 0;
+            bb.position(bb.position() + (int)n);
+            if (n == rem) {
+                close();
+            }
+            return n;
+        }
+
+        public int available() {
+            return zfisCloseRequested ? 0 : bb.remaining();
+        }
+
+        public void close() {
+            if (zfisCloseRequested)
+                return;
+            zfisCloseRequested = true;
+
+            bb.position(bb.limit());
+            synchronized (streams) {
+                streams.remove(this);
+            }
+        }
+    }
+
     static {
         sun.misc.SharedSecrets.setJavaUtilZipFileAccess(
             new sun.misc.JavaUtilZipFileAccess() {
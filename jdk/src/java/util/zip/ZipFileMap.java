@@ -0,0 +1,469 @@
+/*
+ * Copyright (c) 2026, Oracle and/or its affiliates. All rights reserved.
+ * ORACLE PROPRIETARY/CONFIDENTIAL. Use is subject to license terms.
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ *
+ */
+
+package java.util.zip;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static java.util.zip.ZipConstants64.*;
+
+/**
+ * The memory-mapped form of an open zip file, used by {@link ZipFile} for
+ * files opened with {@link ZipFile#OPEN_MAPPED OPEN_MAPPED}.
+ *
+ * <p>The file is mapped read-only, whole if it is smaller than 2GB, and
+ * otherwise one region at a time.  The central directory is read in place
+ * from the mapping, and indexed when the file is opened by a hash table
+ * of the entry names, so that entries are looked up and their contents
+ * read without locking and without native code.  Entries are identified
+ * by the offset of their header in the central directory.
+ *
+ * <p>The mappings are released when they are garbage collected, not when
+ * the file is closed, so buffers returned by {@link #getEntryData} remain
+ * valid after {@link #close}.
+ */
+final class ZipFileMap implements ZipConstants {
+
+    private static final int MAX_MAP = Integer.MAX_VALUE;
+
+    private final FileChannel ch;
+    private final long length;      // the length of the file
+    private final ByteBuffer file;  // the whole file, or null if too large
+    private final ByteBuffer cen;   // the central directory
+    private final long locpos;      // the position of the first LOC header
+    private final byte[] comment;
+    private final boolean locsig;
+    private final ZipCoder zc;
+
+    /*
+     * The hash index of the entries.  For each entry, in central directory
+     * order, entries holds its name hash, the index of the next entry in
+     * its chain, or -1, and the offset of its header in the central
+     * directory.  Each element of table is the index of the first entry in
+     * a chain, or -1.
+     */
+    private final int total;
+    private final int[] entries;
+    private final int[] table;
+
+    /**
+     * Opens and maps the given file, and indexes its central directory.
+     *
+     * @throws ZipException if a ZIP format error has occurred
+     * @throws IOException if an I/O error has occurred
+     */
+    ZipFileMap(File f, ZipCoder zc) throws IOException {
+        this.zc = zc;
+        this.ch = FileChannel.open(f.toPath(), StandardOpenOption.READ);
+        try {
+            length = ch.size();
+            file = length <= MAX_MAP
+                ? ch.map(FileChannel.MapMode.READ_ONLY, 0, length)
+                : null;
+
+            // Find the END header, then any ZIP64 END header before it.
+            long endpos = findEND();
+            ByteBuffer end = region(endpos, ENDHDR);
+            long cenlen = end.getInt(ENDSIZ) & 0xffffffffL;
+            long cenoff = end.getInt(ENDOFF) & 0xffffffffL;
+            int comlen = end.getShort(ENDCOM) & 0xffff;
+            // The central directory ends where the ZIP64 END header, if
+            // any, starts; the comment still follows the END header
+            long cenend = endpos;
+            long end64pos = findEND64(endpos);
+            if (end64pos != -1) {
+                ByteBuffer end64 = region(end64pos, ZIP64_ENDHDR);
+                cenlen = end64.getLong(ZIP64_ENDSIZ);
+                cenoff = end64.getLong(ZIP64_ENDOFF);
+                cenend = end64pos;
+            }
+            long cenpos = cenend - cenlen;
+            locpos = cenpos - cenoff;
+            if (cenpos < 0 || cenlen < 0)
+                throw new ZipException("invalid END header (bad central directory size)");
+            if (locpos < 0)
+                throw new ZipException("invalid END header (bad central directory offset)");
+            if (cenlen > MAX_MAP)
+                throw new ZipException("central directory too large");
+            cen = region(cenpos, (int)cenlen);
+
+            if (comlen > 0) {
+                comment = new byte[comlen];
+                ByteBuffer b = region(endpos + ENDHDR, comlen);
+                b.get(comment);
+            } else {
+                comment = null;
+            }
+            locsig = length >= 4 &&
+                     (region(0, 4).getInt(0) & 0xffffffffL) == LOCSIG;
+
+            // Index the central directory
+            int[] entries = new int[3 * 64];
+            int n = 0;
+            for (int pos = 0; pos < cenlen; n++) {
+                if (pos + CENHDR > cenlen)
+                    throw new ZipException("invalid CEN header (bad header size)");
+                if ((cen.getInt(pos) & 0xffffffffL) != CENSIG)
+                    throw new ZipException("invalid CEN header (bad signature)");
+                int method = cen.getShort(pos + CENHOW) & 0xffff;
+                if (method != ZipEntry.STORED && method != ZipEntry.DEFLATED)
+                    throw new ZipException("invalid CEN header (bad compression method)");
+                if ((cen.getShort(pos + CENFLG) & 1) != 0)
+                    throw new ZipException("invalid CEN header (encrypted entry)");
+                int next = pos + CENHDR + nameLength(pos) +
+                           (cen.getShort(pos + CENEXT) & 0xffff) +
+                           (cen.getShort(pos + CENCOM) & 0xffff);
+                if (next > cenlen)
+                    throw new ZipException("invalid CEN header (bad header size)");
+                if (3 * n == entries.length)
+                    entries = Arrays.copyOf(entries, entries.length * 2);
+                entries[3 * n] = hash(pos);
+                entries[3 * n + 2] = pos;
+                pos = next;
+            }
+            this.total = n;
+            this.entries = entries;
+            int[] table = new int[tableSizeFor(n)];
+            Arrays.fill(table, -1);
+            int mask = table.length - 1;
+            for (int i = n - 1; i >= 0; i--) {
+                int b = entries[3 * i] & mask;
+                entries[3 * i + 1] = table[b];
+                table[b] = i;
+            }
+            this.table = table;
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    private static ByteBuffer order(ByteBuffer b) {
+        return b.order(ByteOrder.LITTLE_ENDIAN);
+    }
+
+    private static int tableSizeFor(int n) {
+        int size = 1;
+        while (size < n && size < (1 << 30))
+            size <<= 1;
+        return size;
+    }
+
+    /*
+     * Returns a little-endian buffer of the given region of the file.
+     */
+    private ByteBuffer region(long pos, int len) throws IOException {
+        return order(map(pos, len));
+    }
+
+    /*
+     * Returns a buffer of the given region of the file, in the default
+     * byte order.
+     */
+    private ByteBuffer map(long pos, int len) throws IOException {
+        if (pos < 0 || len < 0 || pos > length - len)
+            throw new ZipException("invalid zip file (region out of bounds)");
+        if (file != null) {
+            ByteBuffer b = file.duplicate();
+            b.position((int)pos).limit((int)pos + len);
+            return b.slice();
+        }
+        return ch.map(FileChannel.MapMode.READ_ONLY, pos, len);
+    }
+
+    /*
+     * Searches the end of the file for the END header.  A signature is
+     * accepted if the comment length recorded after it ends the file, or
+     * failing that, if a CEN header is where it points.
+     */
+    private long findEND() throws IOException {
+        if (length < ENDHDR)
+            throw new ZipException("zip file is empty");
+        int len = (int)Math.min(length, ENDHDR + 0xFFFF);
+        long base = length - len;
+        ByteBuffer tail = region(base, len);
+        for (int i = len - ENDHDR; i >= 0; i--) {
+            if ((tail.getInt(i) & 0xffffffffL) != ENDSIG)
+                continue;
+            int comlen = tail.getShort(i + ENDCOM) & 0xffff;
+            if (i + ENDHDR + comlen == len)
+                return base + i;
+            long cenpos = base + i - (tail.getInt(i + ENDSIZ) & 0xffffffffL);
+            long off = tail.getInt(i + ENDOFF) & 0xffffffffL;
+            if (cenpos >= 0 && cenpos - off >= 0 && cenpos <= length - 4 &&
+                (region(cenpos, 4).getInt(0) & 0xffffffffL) == CENSIG)
+                return base + i;
+        }
+        throw new ZipException("zip END header not found");
+    }
+
+    /*
+     * Returns the position of the ZIP64 END header, or -1 if there is none.
+     * The locator records its offset from the start of the zip data, which
+     * is not its position if the file has a prefix, so the position just
+     * before the locator is tried too.  If neither holds a ZIP64 END header
+     * the END header is used, as zip_util does.
+     */
+    private long findEND64(long endpos) throws IOException {
+        if (endpos < ZIP64_LOCHDR + ZIP64_ENDHDR)
+            return -1;
+        ByteBuffer loc = region(endpos - ZIP64_LOCHDR, ZIP64_LOCHDR);
+        if ((loc.getInt(0) & 0xffffffffL) != ZIP64_LOCSIG)
+            return -1;
+        long max = endpos - ZIP64_LOCHDR - ZIP64_ENDHDR;
+        long end64pos = loc.getLong(ZIP64_LOCOFF);
+        if (end64pos < 0 || end64pos > max ||
+            (region(end64pos, 4).getInt(0) & 0xffffffffL) != ZIP64_ENDSIG) {
+            end64pos = max;
+            if ((region(end64pos, 4).getInt(0) & 0xffffffffL) != ZIP64_ENDSIG)
+                return -1;
+        }
+        return end64pos;
+    }
+
+    /*
+     * Returns the hash of the entry name at the given CEN offset, ignoring
+     * any trailing slash so that names are found with or without one.
+     */
+    private int hash(int pos) {
+        int n = nameLength(pos);
+        int off = pos + CENHDR;
+        if (n > 0 && cen.get(off + n - 1) == '/')
+            n--;
+        int h = 0;
+        for (int i = 0; i < n; i++)
+            h = 31 * h + cen.get(off + i);
+        return h ^ (h >>> 16);
+    }
+
+    private static int hash(byte[] name, int n) {
+        int h = 0;
+        for (int i = 0; i < n; i++)
+            h = 31 * h + name[i];
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Returns the number of entries.
+     */
+    int total() {
+        return total;
+    }
+
+    /**
+     * Returns the zip file comment bytes, or null if none.
+     */
+    byte[] getComment() {
+        return comment == null ? null : comment.clone();
+    }
+
+    /**
+     * Returns true if the file starts with a LOC header.
+     */
+    boolean startsWithLOC() {
+        return locsig;
+    }
+
+    /**
+     * Returns the CEN offset of the i'th entry, in central directory order.
+     */
+    int getEntryPosAt(int i) {
+        return entries[3 * i + 2];
+    }
+
+    /**
+     * Returns the CEN offset of the entry with the given encoded name, or
+     * -1 if none.  If addSlash is true and there is no such entry, the
+     * name with a slash appended is also tried.
+     */
+    int getEntryPos(byte[] name, boolean addSlash) {
+        int n = name.length;
+        int hn = (n > 0 && name[n - 1] == '/') ? n - 1 : n;
+        int h = hash(name, hn);
+        int slashed = -1;
+        for (int i = table[h & (table.length - 1)]; i != -1;
+             i = entries[3 * i + 1]) {
+            if (entries[3 * i] != h)
+                continue;
+            int pos = entries[3 * i + 2];
+            int nlen = nameLength(pos);
+            if (nlen == n && nameEquals(pos, name, n)) {
+                return pos;
+            } else if (addSlash && slashed == -1 && nlen == n + 1 &&
+                       cen.get(pos + CENHDR + n) == '/' &&
+                       nameEquals(pos, name, n)) {
+                slashed = pos;
+            }
+        }
+        return slashed;
+    }
+
+    private boolean nameEquals(int pos, byte[] name, int n) {
+        int off = pos + CENHDR;
+        for (int i = 0; i < n; i++) {
+            if (cen.get(off + i) != name[i])
+                return false;
+        }
+        return true;
+    }
+
+    private int nameLength(int pos) {
+        return cen.getShort(pos + CENNAM) & 0xffff;
+    }
+
+    int getMethod(int pos) {
+        return cen.getShort(pos + CENHOW) & 0xffff;
+    }
+
+    /**
+     * Returns the uncompressed size of the entry.
+     */
+    long getSize(int pos) {
+        long size = cen.getInt(pos + CENLEN) & 0xffffffffL;
+        return size == ZIP64_MAGICVAL ? zip64Field(pos, 0) : size;
+    }
+
+    /**
+     * Returns the compressed size of the entry.
+     */
+    long getCSize(int pos) {
+        long csize = cen.getInt(pos + CENSIZ) & 0xffffffffL;
+        return csize == ZIP64_MAGICVAL ? zip64Field(pos, 1) : csize;
+    }
+
+    private long getLocOffset(int pos) {
+        long off = cen.getInt(pos + CENOFF) & 0xffffffffL;
+        return off == ZIP64_MAGICVAL ? zip64Field(pos, 2) : off;
+    }
+
+    private static final int[] ZIP64_FIELDS = { CENLEN, CENSIZ, CENOFF };
+
+    /*
+     * Returns a field of the ZIP64 extra field of the entry: 0 for the
+     * size, 1 for the compressed size, 2 for the LOC offset.  Only the
+     * fields whose CEN values are the magic value are present, in that
+     * order.  Returns the magic value if the field is missing.
+     */
+    private long zip64Field(int pos, int field) {
+        int off = pos + CENHDR + nameLength(pos);
+        int end = off + (cen.getShort(pos + CENEXT) & 0xffff);
+        while (off + 4 <= end) {
+            int tag = cen.getShort(off) & 0xffff;
+            int sz = cen.getShort(off + 2) & 0xffff;
+            off += 4;
+            if (off + sz > end)
+                break;
+            if (tag == EXTID_ZIP64) {
+                for (int i = 0; i <= field; i++) {
+                    if ((cen.getInt(pos + ZIP64_FIELDS[i]) & 0xffffffffL)
+                        != ZIP64_MAGICVAL)
+                        continue;
+                    if (sz < 8)
+                        return ZIP64_MAGICVAL;
+                    if (i == field)
+                        return cen.getLong(off);
+                    off += 8;
+                    sz -= 8;
+                }
+                return ZIP64_MAGICVAL;
+            }
+            off += sz;
+        }
+        return ZIP64_MAGICVAL;
+    }
+
+    /**
+     * Returns a new entry for the header at the given CEN offset, with the
+     * given name, or if null, the name in the header.
+     */
+    ZipEntry getEntry(int pos, String name) {
+        ZipEntry e = new ZipEntry();
+        e.flag = cen.getShort(pos + CENFLG) & 0xffff;
+        boolean utf8 = !zc.isUTF8() && (e.flag & EFS) != 0;
+        int nlen = nameLength(pos);
+        int elen = cen.getShort(pos + CENEXT) & 0xffff;
+        int clen = cen.getShort(pos + CENCOM) & 0xffff;
+        if (name != null) {
+            e.name = name;
+        } else {
+            byte[] bname = bytes(pos + CENHDR, nlen);
+            e.name = utf8 ? zc.toStringUTF8(bname, nlen)
+                          : zc.toString(bname, nlen);
+        }
+        e.xdostime = cen.getInt(pos + CENTIM) & 0xffffffffL;
+        e.crc = cen.getInt(pos + CENCRC) & 0xffffffffL;
+        e.size = getSize(pos);
+        e.csize = getCSize(pos);
+        e.method = getMethod(pos);
+        if (elen > 0)
+            e.setExtra0(bytes(pos + CENHDR + nlen, elen), false);
+        if (clen > 0) {
+            byte[] bcomm = bytes(pos + CENHDR + nlen + elen, clen);
+            e.comment = utf8 ? zc.toStringUTF8(bcomm, clen)
+                             : zc.toString(bcomm, clen);
+        }
+        return e;
+    }
+
+    private byte[] bytes(int off, int len) {
+        byte[] b = new byte[len];
+        for (int i = 0; i < len; i++)
+            b[i] = cen.get(off + i);
+        return b;
+    }
+
+    /**
+     * Returns a read-only buffer of the compressed data of the entry,
+     * positioned at zero.
+     *
+     * @throws ZipException if the LOC header is invalid, or the data is
+     *         2GB or larger
+     */
+    ByteBuffer getEntryData(int pos) throws IOException {
+        long csize = getCSize(pos);
+        if (csize < 0 || csize > MAX_MAP)
+            throw new ZipException("entry too large to map");
+        long loc = locpos + getLocOffset(pos);
+        ByteBuffer lb = region(loc, LOCHDR);
+        if ((lb.getInt(0) & 0xffffffffL) != LOCSIG)
+            throw new ZipException("invalid LOC header (bad signature)");
+        long data = loc + LOCHDR + (lb.getShort(LOCNAM) & 0xffff) +
+                    (lb.getShort(LOCEXT) & 0xffff);
+        return map(data, (int)csize).asReadOnlyBuffer();
+    }
+
+    /**
+     * Closes the file channel.  The mappings remain valid.
+     */
+    void close() throws IOException {
+        ch.close();
+    }
+}